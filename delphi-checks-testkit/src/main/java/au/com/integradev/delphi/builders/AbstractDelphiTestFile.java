@@ -29,6 +29,7 @@ import au.com.integradev.delphi.file.DelphiFile.DelphiInputFile;
 import au.com.integradev.delphi.file.DelphiFileConfig;
 import au.com.integradev.delphi.preprocessor.DelphiPreprocessorFactory;
 import au.com.integradev.delphi.preprocessor.search.SearchPath;
+import au.com.integradev.delphi.telemetry.AnalysisTelemetry;
 import au.com.integradev.delphi.type.factory.TypeFactoryImpl;
 import java.io.File;
 import java.io.FileWriter;
@@ -85,6 +86,7 @@ abstract class AbstractDelphiTestFile<T extends AbstractDelphiTestFile<T>>
     DelphiFileConfig mock = mock(DelphiFileConfig.class);
     when(mock.getEncoding()).thenReturn(UTF_8.name());
     when(mock.getTypeFactory()).thenReturn(typeFactory);
+    when(mock.getTelemetry()).thenReturn(AnalysisTelemetry.disabled());
     when(mock.getSearchPath()).thenReturn(SearchPath.create(Collections.emptyList()));
     when(mock.getDefinitions()).thenReturn(Collections.emptySet());
     when(mock.getPreprocessorFactory()).thenReturn(new DelphiPreprocessorFactory(Platform.WINDOWS));
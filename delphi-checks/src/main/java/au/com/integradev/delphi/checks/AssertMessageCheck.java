@@ -18,28 +18,35 @@
  */
 package au.com.integradev.delphi.checks;
 
+import java.util.Set;
 import javax.annotation.Nullable;
 import org.sonar.check.Rule;
 import org.sonar.plugins.communitydelphi.api.ast.ArgumentListNode;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.ast.NameReferenceNode;
 import org.sonar.plugins.communitydelphi.api.ast.Node;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.NameDeclaration;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.RoutineNameDeclaration;
 import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 @DeprecatedRuleKey(ruleKey = "AssertMessageRule", repositoryKey = "delph")
 @Rule(key = "AssertMessage")
-public class AssertMessageCheck extends DelphiCheck {
+public class AssertMessageCheck extends DelphiSubscriptionCheck {
   private static final String MESSAGE = "Add a message to this assertion.";
 
   @Override
-  public DelphiCheckContext visit(NameReferenceNode nameNode, DelphiCheckContext context) {
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(NameReferenceNode.class);
+  }
+
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext context) {
+    NameReferenceNode nameNode = (NameReferenceNode) node;
     if (isAssert(nameNode) && isMissingErrorMessage(nameNode)) {
       reportIssue(context, nameNode, MESSAGE);
     }
-    return super.visit(nameNode, context);
   }
 
   private static boolean isAssert(NameReferenceNode nameNode) {
@@ -22,6 +22,7 @@
  */
 package au.com.integradev.delphi.checks;
 
+import java.util.Set;
 import javax.annotation.Nullable;
 import org.sonar.check.Rule;
 import org.sonar.plugins.communitydelphi.api.ast.ArgumentListNode;
@@ -35,23 +36,28 @@ import org.sonar.plugins.communitydelphi.api.ast.Node;
 import org.sonar.plugins.communitydelphi.api.ast.PrimaryExpressionNode;
 import org.sonar.plugins.communitydelphi.api.ast.StatementNode;
 import org.sonar.plugins.communitydelphi.api.ast.utils.ExpressionNodeUtils;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonar.plugins.communitydelphi.api.operator.BinaryOperator;
 import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 @DeprecatedRuleKey(ruleKey = "AssignedAndFreeRule", repositoryKey = "delph")
 @Rule(key = "AssignedAndFree")
-public class AssignedAndFreeCheck extends DelphiCheck {
+public class AssignedAndFreeCheck extends DelphiSubscriptionCheck {
   private static final String MESSAGE = "Remove this unnecessary assignment check.";
 
   @Override
-  public DelphiCheckContext visit(IfStatementNode statement, DelphiCheckContext context) {
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(IfStatementNode.class);
+  }
+
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext context) {
+    IfStatementNode statement = (IfStatementNode) node;
     DelphiNode violation = findViolation(statement);
     if (violation != null) {
       reportIssue(context, violation, MESSAGE);
     }
-    return super.visit(statement, context);
   }
 
   private static DelphiNode findViolation(IfStatementNode ifStatement) {
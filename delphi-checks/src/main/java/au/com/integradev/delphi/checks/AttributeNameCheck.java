@@ -19,25 +19,31 @@
 package au.com.integradev.delphi.checks;
 
 import au.com.integradev.delphi.utils.NameConventionUtils;
+import java.util.Set;
 import org.sonar.check.Rule;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.ast.TypeDeclarationNode;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonar.plugins.communitydelphi.api.type.Type;
 import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 @DeprecatedRuleKey(ruleKey = "AttributeNameRule", repositoryKey = "delph")
 @Rule(key = "AttributeName")
-public class AttributeNameCheck extends DelphiCheck {
+public class AttributeNameCheck extends DelphiSubscriptionCheck {
   private static final String MESSAGE = "Rename this type to match the expected naming convention.";
 
   @Override
-  public DelphiCheckContext visit(TypeDeclarationNode type, DelphiCheckContext context) {
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(TypeDeclarationNode.class);
+  }
+
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext context) {
+    TypeDeclarationNode type = (TypeDeclarationNode) node;
     if (isViolation(type)) {
       reportIssue(context, type.getTypeNameNode(), MESSAGE);
     }
-
-    return super.visit(type, context);
   }
 
   private static boolean isAttributeClass(Type type) {
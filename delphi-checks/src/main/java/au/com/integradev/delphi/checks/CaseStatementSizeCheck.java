@@ -18,23 +18,29 @@
  */
 package au.com.integradev.delphi.checks;
 
+import java.util.Set;
 import org.sonar.check.Rule;
 import org.sonar.plugins.communitydelphi.api.ast.CaseStatementNode;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 @DeprecatedRuleKey(ruleKey = "CaseStatementSizeRule", repositoryKey = "delph")
 @Rule(key = "CaseStatementSize")
-public class CaseStatementSizeCheck extends DelphiCheck {
+public class CaseStatementSizeCheck extends DelphiSubscriptionCheck {
   private static final String MESSAGE = "Replace this 'case' statement with an 'if' statement.";
 
   @Override
-  public DelphiCheckContext visit(CaseStatementNode caseStatement, DelphiCheckContext context) {
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(CaseStatementNode.class);
+  }
+
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext context) {
+    CaseStatementNode caseStatement = (CaseStatementNode) node;
     if (caseStatement.getCaseItems().size() < 2) {
       reportIssue(context, caseStatement.getChild(0), MESSAGE);
     }
-
-    return super.visit(caseStatement, context);
   }
 }
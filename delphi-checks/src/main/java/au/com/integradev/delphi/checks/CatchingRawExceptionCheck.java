@@ -18,22 +18,29 @@
  */
 package au.com.integradev.delphi.checks;
 
+import java.util.Set;
 import org.sonar.check.Rule;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.ast.ExceptItemNode;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 @DeprecatedRuleKey(ruleKey = "CatchingGeneralExceptionRule", repositoryKey = "delph")
 @Rule(key = "CatchingRawException")
-public class CatchingRawExceptionCheck extends DelphiCheck {
+public class CatchingRawExceptionCheck extends DelphiSubscriptionCheck {
   private static final String MESSAGE = "Catch a more specific exception type.";
 
   @Override
-  public DelphiCheckContext visit(ExceptItemNode exceptItem, DelphiCheckContext context) {
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(ExceptItemNode.class);
+  }
+
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext context) {
+    ExceptItemNode exceptItem = (ExceptItemNode) node;
     if (exceptItem.getExceptionType().getImage().equalsIgnoreCase("Exception")) {
       reportIssue(context, exceptItem, MESSAGE);
     }
-    return super.visit(exceptItem, context);
   }
 }
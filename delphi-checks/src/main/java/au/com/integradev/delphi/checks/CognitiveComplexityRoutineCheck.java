@@ -20,18 +20,20 @@ package au.com.integradev.delphi.checks;
 
 import au.com.integradev.delphi.antlr.ast.visitors.CognitiveComplexityVisitor;
 import au.com.integradev.delphi.antlr.ast.visitors.CognitiveComplexityVisitor.Data;
+import java.util.Set;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.ast.RoutineBodyNode;
 import org.sonar.plugins.communitydelphi.api.ast.RoutineImplementationNode;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 @DeprecatedRuleKey(ruleKey = "MethodCognitiveComplexityRule", repositoryKey = "delph")
 @DeprecatedRuleKey(ruleKey = "CognitiveComplexityMethod", repositoryKey = "community-delphi")
 @Rule(key = "CognitiveComplexityRoutine")
-public class CognitiveComplexityRoutineCheck extends DelphiCheck {
+public class CognitiveComplexityRoutineCheck extends DelphiSubscriptionCheck {
   private static final int DEFAULT_MAX = 15;
 
   private static final CognitiveComplexityVisitor COGNITIVE_VISITOR =
@@ -50,7 +52,13 @@ public class CognitiveComplexityRoutineCheck extends DelphiCheck {
   public int threshold = DEFAULT_MAX;
 
   @Override
-  public DelphiCheckContext visit(RoutineImplementationNode routine, DelphiCheckContext context) {
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(RoutineImplementationNode.class);
+  }
+
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext context) {
+    RoutineImplementationNode routine = (RoutineImplementationNode) node;
     int complexity = COGNITIVE_VISITOR.visit(routine, new Data()).getComplexity();
 
     if (complexity > threshold) {
@@ -62,7 +70,5 @@ public class CognitiveComplexityRoutineCheck extends DelphiCheck {
                   + " authorized.",
               routine.simpleName(), complexity, threshold));
     }
-
-    return super.visit(routine, context);
   }
 }
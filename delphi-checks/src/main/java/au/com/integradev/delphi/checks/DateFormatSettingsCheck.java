@@ -21,9 +21,10 @@ package au.com.integradev.delphi.checks;
 import com.google.common.collect.Iterables;
 import java.util.Set;
 import org.sonar.check.Rule;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.ast.NameReferenceNode;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.NameDeclaration;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.RoutineNameDeclaration;
 import org.sonar.plugins.communitydelphi.api.type.Parameter;
@@ -31,7 +32,7 @@ import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 @DeprecatedRuleKey(ruleKey = "DateFormatSettingsRule", repositoryKey = "delph")
 @Rule(key = "DateFormatSettings")
-public class DateFormatSettingsCheck extends DelphiCheck {
+public class DateFormatSettingsCheck extends DelphiSubscriptionCheck {
   private static final String MESSAGE = "Pass a 'TFormatSettings' argument into this routine.";
 
   private static final String TFORMATSETTINGS = "System.SysUtils.TFormatSettings";
@@ -47,7 +48,13 @@ public class DateFormatSettingsCheck extends DelphiCheck {
           "System.SysUtils.TryStrToDateTime");
 
   @Override
-  public DelphiCheckContext visit(NameReferenceNode reference, DelphiCheckContext context) {
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(NameReferenceNode.class);
+  }
+
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext context) {
+    NameReferenceNode reference = (NameReferenceNode) node;
     NameDeclaration declaration = reference.getNameDeclaration();
     if (declaration instanceof RoutineNameDeclaration) {
       RoutineNameDeclaration routine = (RoutineNameDeclaration) declaration;
@@ -58,6 +65,5 @@ public class DateFormatSettingsCheck extends DelphiCheck {
         }
       }
     }
-    return super.visit(reference, context);
   }
 }
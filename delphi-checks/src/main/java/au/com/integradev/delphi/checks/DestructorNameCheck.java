@@ -18,23 +18,30 @@
  */
 package au.com.integradev.delphi.checks;
 
+import java.util.Set;
 import org.sonar.check.Rule;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.ast.RoutineDeclarationNode;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 @DeprecatedRuleKey(ruleKey = "DestructorDestroyRule", repositoryKey = "delph")
 @Rule(key = "DestructorName")
-public class DestructorNameCheck extends DelphiCheck {
+public class DestructorNameCheck extends DelphiSubscriptionCheck {
   private static final String MESSAGE = "Change this destructor to override 'TObject.Destroy'";
 
   @Override
-  public DelphiCheckContext visit(RoutineDeclarationNode routine, DelphiCheckContext context) {
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(RoutineDeclarationNode.class);
+  }
+
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext context) {
+    RoutineDeclarationNode routine = (RoutineDeclarationNode) node;
     if (isViolation(routine)) {
       reportIssue(context, routine.getRoutineNameNode(), MESSAGE);
     }
-    return super.visit(routine, context);
   }
 
   private static boolean isViolation(RoutineDeclarationNode routine) {
@@ -18,6 +18,7 @@
  */
 package au.com.integradev.delphi.checks;
 
+import java.util.Set;
 import org.sonar.check.Rule;
 import org.sonar.plugins.communitydelphi.api.ast.CaseItemStatementNode;
 import org.sonar.plugins.communitydelphi.api.ast.CaseStatementNode;
@@ -28,22 +29,26 @@ import org.sonar.plugins.communitydelphi.api.ast.ExceptBlockNode;
 import org.sonar.plugins.communitydelphi.api.ast.ExceptItemNode;
 import org.sonar.plugins.communitydelphi.api.ast.RoutineBodyNode;
 import org.sonar.plugins.communitydelphi.api.ast.StatementListNode;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 @DeprecatedRuleKey(ruleKey = "EmptyBeginStatementRule", repositoryKey = "delph")
 @Rule(key = "EmptyBlock")
-public class EmptyBlockCheck extends DelphiCheck {
+public class EmptyBlockCheck extends DelphiSubscriptionCheck {
   private static final String MESSAGE = "Either remove or fill this block of code.";
 
   @Override
-  public DelphiCheckContext visit(CompoundStatementNode block, DelphiCheckContext context) {
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(CompoundStatementNode.class);
+  }
+
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext context) {
+    CompoundStatementNode block = (CompoundStatementNode) node;
     if (block.isEmpty() && shouldAddViolation(block)) {
       reportIssue(context, block, MESSAGE);
     }
-
-    return super.visit(block, context);
   }
 
   private static boolean shouldAddViolation(CompoundStatementNode block) {
@@ -18,22 +18,30 @@
  */
 package au.com.integradev.delphi.checks;
 
+import java.util.Set;
 import org.sonar.check.Rule;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.ast.TypeDeclarationNode;
 import org.sonar.plugins.communitydelphi.api.ast.TypeNode;
 import org.sonar.plugins.communitydelphi.api.ast.VisibilitySectionNode;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.TypeNameDeclaration;
 import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 @DeprecatedRuleKey(ruleKey = "EmptyInterfaceRule", repositoryKey = "delph")
 @Rule(key = "EmptyInterface")
-public class EmptyInterfaceCheck extends DelphiCheck {
+public class EmptyInterfaceCheck extends DelphiSubscriptionCheck {
   private static final String MESSAGE = "Remove this empty interface.";
 
   @Override
-  public DelphiCheckContext visit(TypeDeclarationNode typeDeclaration, DelphiCheckContext context) {
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(TypeDeclarationNode.class);
+  }
+
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext context) {
+    TypeDeclarationNode typeDeclaration = (TypeDeclarationNode) node;
     if (typeDeclaration.isInterface()) {
       TypeNode typeNode = typeDeclaration.getTypeNode();
       boolean isEmpty = typeNode.getFirstChildOfType(VisibilitySectionNode.class) == null;
@@ -43,7 +51,5 @@ public class EmptyInterfaceCheck extends DelphiCheck {
         reportIssue(context, typeDeclaration.getTypeNameNode(), MESSAGE);
       }
     }
-
-    return super.visit(typeDeclaration, context);
   }
 }
@@ -19,11 +19,12 @@
 package au.com.integradev.delphi.checks;
 
 import au.com.integradev.delphi.utils.InterfaceUtils;
+import java.util.Set;
 import org.sonar.check.Rule;
 import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.ast.RoutineImplementationNode;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.RoutineDirective;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.RoutineNameDeclaration;
 import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
@@ -31,15 +32,20 @@ import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 @DeprecatedRuleKey(ruleKey = "EmptyMethodRule", repositoryKey = "delph")
 @DeprecatedRuleKey(ruleKey = "EmptyMethod", repositoryKey = "community-delphi")
 @Rule(key = "EmptyRoutine")
-public class EmptyRoutineCheck extends DelphiCheck {
+public class EmptyRoutineCheck extends DelphiSubscriptionCheck {
   private static final String MESSAGE = "Remove this empty routine.";
 
   @Override
-  public DelphiCheckContext visit(RoutineImplementationNode routine, DelphiCheckContext context) {
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(RoutineImplementationNode.class);
+  }
+
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext context) {
+    RoutineImplementationNode routine = (RoutineImplementationNode) node;
     if (routine.isEmpty() && shouldAddViolation(routine)) {
       reportIssue(context, routine.getRoutineNameNode(), MESSAGE);
     }
-    return super.visit(routine, context);
   }
 
   private static boolean shouldAddViolation(RoutineImplementationNode routine) {
@@ -18,25 +18,32 @@
  */
 package au.com.integradev.delphi.checks;
 
+import java.util.Set;
 import org.sonar.check.Rule;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.ast.NameReferenceNode;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.NameDeclaration;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.PropertyNameDeclaration;
 import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 @DeprecatedRuleKey(ruleKey = "ExplicitDefaultPropertyReferenceRule", repositoryKey = "delph")
 @Rule(key = "ExplicitDefaultPropertyReference")
-public class ExplicitDefaultPropertyReferenceCheck extends DelphiCheck {
+public class ExplicitDefaultPropertyReferenceCheck extends DelphiSubscriptionCheck {
   private static final String MESSAGE = "Replace this explicit property reference with '[]'";
 
   @Override
-  public DelphiCheckContext visit(NameReferenceNode nameReference, DelphiCheckContext context) {
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(NameReferenceNode.class);
+  }
+
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext context) {
+    NameReferenceNode nameReference = (NameReferenceNode) node;
     if (isExplicitDefaultArrayPropertyReference(nameReference)) {
       reportIssue(context, nameReference, MESSAGE);
     }
-    return super.visit(nameReference, context);
   }
 
   private static boolean isExplicitDefaultArrayPropertyReference(NameReferenceNode nameReference) {
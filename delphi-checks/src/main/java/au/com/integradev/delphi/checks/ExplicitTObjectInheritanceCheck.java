@@ -18,24 +18,31 @@
  */
 package au.com.integradev.delphi.checks;
 
+import java.util.Set;
 import org.sonar.check.Rule;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.ast.TypeDeclarationNode;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 @DeprecatedRuleKey(ruleKey = "ExplicitTObjectRule", repositoryKey = "delph")
 @Rule(key = "ExplicitTObjectInheritance")
-public class ExplicitTObjectInheritanceCheck extends DelphiCheck {
+public class ExplicitTObjectInheritanceCheck extends DelphiSubscriptionCheck {
   private static final String MESSAGE = "Explicitly specify TObject inheritance here.";
 
   @Override
-  public DelphiCheckContext visit(TypeDeclarationNode type, DelphiCheckContext context) {
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(TypeDeclarationNode.class);
+  }
+
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext context) {
+    TypeDeclarationNode type = (TypeDeclarationNode) node;
     if (type.isClass()
         && type.getTypeNode().getParentTypeNodes().isEmpty()
         && !type.isForwardDeclaration()) {
       reportIssue(context, type.getTypeNameNode(), MESSAGE);
     }
-    return super.visit(type, context);
   }
 }
@@ -23,9 +23,10 @@ import com.google.common.collect.ImmutableSortedSet;
 import java.util.Set;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.ast.NameReferenceNode;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonar.plugins.communitydelphi.api.check.RuleTemplate;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.NameDeclaration;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.VariableNameDeclaration;
@@ -36,7 +37,7 @@ import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 @RuleTemplate
 @DeprecatedRuleKey(ruleKey = "ForbiddenConstantRule", repositoryKey = "delph")
 @Rule(key = "ForbiddenConstant")
-public class ForbiddenConstantCheck extends DelphiCheck {
+public class ForbiddenConstantCheck extends DelphiSubscriptionCheck {
   private static final String DEFAULT_MESSAGE = "Remove usage of this forbidden constant.";
 
   @RuleProperty(key = "unitName", description = "Name of the unit whose constants are forbidden")
@@ -58,7 +59,13 @@ public class ForbiddenConstantCheck extends DelphiCheck {
   }
 
   @Override
-  public DelphiCheckContext visit(NameReferenceNode reference, DelphiCheckContext context) {
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(NameReferenceNode.class);
+  }
+
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext context) {
+    NameReferenceNode reference = (NameReferenceNode) node;
     NameDeclaration declaration = reference.getNameDeclaration();
     if (declaration instanceof VariableNameDeclaration) {
       DelphiScope scope = declaration.getScope();
@@ -70,6 +77,5 @@ public class ForbiddenConstantCheck extends DelphiCheck {
         }
       }
     }
-    return super.visit(reference, context);
   }
 }
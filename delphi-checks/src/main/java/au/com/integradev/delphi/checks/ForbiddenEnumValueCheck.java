@@ -23,9 +23,10 @@ import com.google.common.collect.ImmutableSortedSet;
 import java.util.Set;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.ast.NameReferenceNode;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonar.plugins.communitydelphi.api.check.RuleTemplate;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.EnumElementNameDeclaration;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.NameDeclaration;
@@ -34,7 +35,7 @@ import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 @RuleTemplate
 @DeprecatedRuleKey(ruleKey = "ForbiddenEnumValueRule", repositoryKey = "delph")
 @Rule(key = "ForbiddenEnumValue")
-public class ForbiddenEnumValueCheck extends DelphiCheck {
+public class ForbiddenEnumValueCheck extends DelphiSubscriptionCheck {
   private static final String DEFAULT_MESSAGE = "Remove usage of this forbidden enum value.";
 
   @RuleProperty(
@@ -58,7 +59,13 @@ public class ForbiddenEnumValueCheck extends DelphiCheck {
   }
 
   @Override
-  public DelphiCheckContext visit(NameReferenceNode reference, DelphiCheckContext context) {
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(NameReferenceNode.class);
+  }
+
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext context) {
+    NameReferenceNode reference = (NameReferenceNode) node;
     NameDeclaration declaration = reference.getNameDeclaration();
     if (declaration instanceof EnumElementNameDeclaration) {
       var element = (EnumElementNameDeclaration) declaration;
@@ -66,6 +73,5 @@ public class ForbiddenEnumValueCheck extends DelphiCheck {
         reportIssue(context, reference, message);
       }
     }
-    return super.visit(reference, context);
   }
 }
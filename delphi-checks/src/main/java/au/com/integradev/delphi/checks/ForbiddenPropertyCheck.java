@@ -23,9 +23,10 @@ import com.google.common.collect.ImmutableSortedSet;
 import java.util.Set;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.ast.NameReferenceNode;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonar.plugins.communitydelphi.api.check.RuleTemplate;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.NameDeclaration;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.PropertyNameDeclaration;
@@ -34,7 +35,7 @@ import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 @RuleTemplate
 @DeprecatedRuleKey(ruleKey = "ForbiddenPropertyRule", repositoryKey = "delph")
 @Rule(key = "ForbiddenProperty")
-public class ForbiddenPropertyCheck extends DelphiCheck {
+public class ForbiddenPropertyCheck extends DelphiSubscriptionCheck {
   private static final String DEFAULT_MESSAGE = "Remove usage of this forbidden property.";
 
   @RuleProperty(
@@ -56,12 +57,17 @@ public class ForbiddenPropertyCheck extends DelphiCheck {
   }
 
   @Override
-  public DelphiCheckContext visit(NameReferenceNode reference, DelphiCheckContext context) {
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(NameReferenceNode.class);
+  }
+
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext context) {
+    NameReferenceNode reference = (NameReferenceNode) node;
     NameDeclaration declaration = reference.getNameDeclaration();
     if (declaration instanceof PropertyNameDeclaration
         && propertiesSet.contains(((PropertyNameDeclaration) declaration).fullyQualifiedName())) {
       reportIssue(context, reference.getIdentifier(), message);
     }
-    return super.visit(reference, context);
   }
 }
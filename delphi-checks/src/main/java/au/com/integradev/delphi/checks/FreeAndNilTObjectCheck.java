@@ -18,22 +18,30 @@
  */
 package au.com.integradev.delphi.checks;
 
+import java.util.Set;
 import org.sonar.check.Rule;
 import org.sonar.plugins.communitydelphi.api.ast.ArgumentListNode;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.ast.ExpressionNode;
 import org.sonar.plugins.communitydelphi.api.ast.NameReferenceNode;
 import org.sonar.plugins.communitydelphi.api.ast.PrimaryExpressionNode;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.NameDeclaration;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.RoutineNameDeclaration;
 import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 @DeprecatedRuleKey(ruleKey = "FreeAndNilTObjectRule", repositoryKey = "delph")
 @Rule(key = "FreeAndNilTObject")
-public class FreeAndNilTObjectCheck extends DelphiCheck {
+public class FreeAndNilTObjectCheck extends DelphiSubscriptionCheck {
   @Override
-  public DelphiCheckContext visit(PrimaryExpressionNode expression, DelphiCheckContext context) {
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(PrimaryExpressionNode.class);
+  }
+
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext context) {
+    PrimaryExpressionNode expression = (PrimaryExpressionNode) node;
     if (isViolation(expression)) {
       reportIssue(
           context,
@@ -42,7 +50,6 @@ public class FreeAndNilTObjectCheck extends DelphiCheck {
               "Do not pass this expression of type '%s' to FreeAndNil",
               expression.getType().getImage()));
     }
-    return super.visit(expression, context);
   }
 
   private static boolean isViolation(PrimaryExpressionNode expression) {
@@ -18,20 +18,27 @@
  */
 package au.com.integradev.delphi.checks;
 
+import java.util.Set;
 import org.sonar.check.Rule;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.ast.GotoStatementNode;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 @DeprecatedRuleKey(ruleKey = "GotoStatementRule", repositoryKey = "delph")
 @Rule(key = "GotoStatement")
-public class GotoStatementCheck extends DelphiCheck {
+public class GotoStatementCheck extends DelphiSubscriptionCheck {
   private static final String MESSAGE = "Remove this usage of 'goto'.";
 
   @Override
-  public DelphiCheckContext visit(GotoStatementNode gotoStatement, DelphiCheckContext context) {
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(GotoStatementNode.class);
+  }
+
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext context) {
+    GotoStatementNode gotoStatement = (GotoStatementNode) node;
     reportIssue(context, gotoStatement, MESSAGE);
-    return super.visit(gotoStatement, context);
   }
 }
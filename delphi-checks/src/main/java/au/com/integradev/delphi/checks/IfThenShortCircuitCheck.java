@@ -32,8 +32,8 @@ import org.sonar.plugins.communitydelphi.api.ast.NameReferenceNode;
 import org.sonar.plugins.communitydelphi.api.ast.Node;
 import org.sonar.plugins.communitydelphi.api.ast.PrimaryExpressionNode;
 import org.sonar.plugins.communitydelphi.api.ast.utils.ExpressionNodeUtils;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonar.plugins.communitydelphi.api.operator.BinaryOperator;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.NameDeclaration;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.RoutineNameDeclaration;
@@ -41,11 +41,17 @@ import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 @DeprecatedRuleKey(ruleKey = "IfThenShortCircuitRule", repositoryKey = "delph")
 @Rule(key = "IfThenShortCircuit")
-public class IfThenShortCircuitCheck extends DelphiCheck {
+public class IfThenShortCircuitCheck extends DelphiSubscriptionCheck {
   private static final String MESSAGE = "Change this unsafe IfThen call to an 'if' statement.";
 
   @Override
-  public DelphiCheckContext visit(NameReferenceNode nameReference, DelphiCheckContext context) {
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(NameReferenceNode.class);
+  }
+
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext context) {
+    NameReferenceNode nameReference = (NameReferenceNode) node;
     DelphiNode parent = nameReference.getParent();
     if (parent instanceof PrimaryExpressionNode
         && nameReference.getLastName().getIdentifier().getImage().equalsIgnoreCase("IfThen")) {
@@ -57,7 +63,6 @@ public class IfThenShortCircuitCheck extends DelphiCheck {
         }
       }
     }
-    return super.visit(nameReference, context);
   }
 
   private static boolean isViolation(List<ExpressionNode> arguments) {
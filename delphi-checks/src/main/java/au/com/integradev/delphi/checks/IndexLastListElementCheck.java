@@ -20,6 +20,7 @@ package au.com.integradev.delphi.checks;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import org.sonar.check.Rule;
 import org.sonar.plugins.communitydelphi.api.ast.ArrayAccessorNode;
 import org.sonar.plugins.communitydelphi.api.ast.BinaryExpressionNode;
@@ -29,20 +30,24 @@ import org.sonar.plugins.communitydelphi.api.ast.ExpressionNode;
 import org.sonar.plugins.communitydelphi.api.ast.IdentifierNode;
 import org.sonar.plugins.communitydelphi.api.ast.NameReferenceNode;
 import org.sonar.plugins.communitydelphi.api.ast.utils.ExpressionNodeUtils;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonar.plugins.communitydelphi.api.operator.BinaryOperator;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.PropertyNameDeclaration;
 import org.sonar.plugins.communitydelphi.api.token.DelphiTokenType;
 
 @Rule(key = "IndexLastListElement")
-public class IndexLastListElementCheck extends DelphiCheck {
+public class IndexLastListElementCheck extends DelphiSubscriptionCheck {
 
   @Override
-  public DelphiCheckContext visit(ArrayAccessorNode arrayTypeNode, DelphiCheckContext context) {
-    doVisit(arrayTypeNode, context);
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(ArrayAccessorNode.class);
+  }
 
-    return super.visit(arrayTypeNode, context);
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext context) {
+    ArrayAccessorNode arrayTypeNode = (ArrayAccessorNode) node;
+    doVisit(arrayTypeNode, context);
   }
 
   private void doVisit(ArrayAccessorNode arrayTypeNode, DelphiCheckContext context) {
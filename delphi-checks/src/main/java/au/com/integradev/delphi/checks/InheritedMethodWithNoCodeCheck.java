@@ -39,8 +39,8 @@ import org.sonar.plugins.communitydelphi.api.ast.RoutineImplementationNode;
 import org.sonar.plugins.communitydelphi.api.ast.RoutineNode;
 import org.sonar.plugins.communitydelphi.api.ast.StatementNode;
 import org.sonar.plugins.communitydelphi.api.ast.utils.ExpressionNodeUtils;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.RoutineDirective;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.RoutineNameDeclaration;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.TypeNameDeclaration;
@@ -50,17 +50,21 @@ import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 @DeprecatedRuleKey(ruleKey = "InheritedMethodWithNoCodeRule", repositoryKey = "delph")
 @Rule(key = "InheritedMethodWithNoCode")
-public class InheritedMethodWithNoCodeCheck extends DelphiCheck {
+public class InheritedMethodWithNoCodeCheck extends DelphiSubscriptionCheck {
   private static final String MESSAGE = "Remove this useless method override.";
 
   @Override
-  public DelphiCheckContext visit(RoutineImplementationNode routine, DelphiCheckContext context) {
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(RoutineImplementationNode.class);
+  }
+
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext context) {
+    RoutineImplementationNode routine = (RoutineImplementationNode) node;
     DelphiNode violationNode = findViolation(routine);
     if (violationNode != null) {
       reportIssue(context, violationNode, MESSAGE);
     }
-
-    return super.visit(routine, context);
   }
 
   private static DelphiNode findViolation(RoutineImplementationNode routine) {
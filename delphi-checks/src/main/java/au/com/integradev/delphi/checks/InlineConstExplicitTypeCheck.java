@@ -18,22 +18,29 @@
  */
 package au.com.integradev.delphi.checks;
 
+import java.util.Set;
 import org.sonar.check.Rule;
 import org.sonar.plugins.communitydelphi.api.ast.ConstStatementNode;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 @DeprecatedRuleKey(ruleKey = "InlineConstExplicitTypeRule", repositoryKey = "delph")
 @Rule(key = "InlineConstExplicitType")
-public class InlineConstExplicitTypeCheck extends DelphiCheck {
+public class InlineConstExplicitTypeCheck extends DelphiSubscriptionCheck {
   private static final String MESSAGE = "Add an explicit type to this inline const declaration.";
 
   @Override
-  public DelphiCheckContext visit(ConstStatementNode node, DelphiCheckContext context) {
-    if (node.getTypeNode() == null) {
-      reportIssue(context, node, MESSAGE);
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(ConstStatementNode.class);
+  }
+
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext context) {
+    ConstStatementNode constStatement = (ConstStatementNode) node;
+    if (constStatement.getTypeNode() == null) {
+      reportIssue(context, constStatement, MESSAGE);
     }
-    return super.visit(node, context);
   }
 }
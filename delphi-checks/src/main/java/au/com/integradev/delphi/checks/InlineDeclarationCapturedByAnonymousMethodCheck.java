@@ -18,11 +18,13 @@
  */
 package au.com.integradev.delphi.checks;
 
+import java.util.Set;
 import org.sonar.check.Rule;
 import org.sonar.plugins.communitydelphi.api.ast.AnonymousMethodNode;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.ast.NameReferenceNode;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.NameDeclaration;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.VariableNameDeclaration;
 import org.sonar.plugins.communitydelphi.api.symbol.scope.DelphiScope;
@@ -32,16 +34,21 @@ import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
     ruleKey = "InlineDeclarationCapturedByAnonymousMethodRule",
     repositoryKey = "delph")
 @Rule(key = "InlineDeclarationCapturedByAnonymousMethod")
-public class InlineDeclarationCapturedByAnonymousMethodCheck extends DelphiCheck {
+public class InlineDeclarationCapturedByAnonymousMethodCheck extends DelphiSubscriptionCheck {
   private static final String MESSAGE =
       "Do not capture this inline variable in an anonymous method.";
 
   @Override
-  public DelphiCheckContext visit(NameReferenceNode node, DelphiCheckContext context) {
-    if (isViolation(node)) {
-      reportIssue(context, node, MESSAGE);
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(NameReferenceNode.class);
+  }
+
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext context) {
+    NameReferenceNode nameReference = (NameReferenceNode) node;
+    if (isViolation(nameReference)) {
+      reportIssue(context, nameReference, MESSAGE);
     }
-    return super.visit(node, context);
   }
 
   private static boolean isViolation(NameReferenceNode node) {
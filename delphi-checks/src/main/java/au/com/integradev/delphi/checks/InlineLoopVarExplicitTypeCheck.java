@@ -18,22 +18,29 @@
  */
 package au.com.integradev.delphi.checks;
 
+import java.util.Set;
 import org.sonar.check.Rule;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.ast.ForLoopVarDeclarationNode;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 @DeprecatedRuleKey(ruleKey = "InlineLoopVarExplicitTypeRule", repositoryKey = "delph")
 @Rule(key = "InlineLoopVarExplicitType")
-public class InlineLoopVarExplicitTypeCheck extends DelphiCheck {
+public class InlineLoopVarExplicitTypeCheck extends DelphiSubscriptionCheck {
   private static final String MESSAGE = "Add an explicit type to this inline loop var declaration.";
 
   @Override
-  public DelphiCheckContext visit(ForLoopVarDeclarationNode node, DelphiCheckContext context) {
-    if (node.getTypeNode() == null) {
-      reportIssue(context, node, MESSAGE);
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(ForLoopVarDeclarationNode.class);
+  }
+
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext context) {
+    ForLoopVarDeclarationNode forLoopVarDeclaration = (ForLoopVarDeclarationNode) node;
+    if (forLoopVarDeclaration.getTypeNode() == null) {
+      reportIssue(context, forLoopVarDeclaration, MESSAGE);
     }
-    return super.visit(node, context);
   }
 }
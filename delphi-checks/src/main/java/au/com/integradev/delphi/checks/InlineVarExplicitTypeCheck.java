@@ -18,22 +18,29 @@
  */
 package au.com.integradev.delphi.checks;
 
+import java.util.Set;
 import org.sonar.check.Rule;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.ast.VarStatementNode;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 @DeprecatedRuleKey(ruleKey = "InlineVarExplicitTypeRule", repositoryKey = "delph")
 @Rule(key = "InlineVarExplicitType")
-public class InlineVarExplicitTypeCheck extends DelphiCheck {
+public class InlineVarExplicitTypeCheck extends DelphiSubscriptionCheck {
   private static final String MESSAGE = "Add an explicit type to this inline var declaration.";
 
   @Override
-  public DelphiCheckContext visit(VarStatementNode node, DelphiCheckContext context) {
-    if (node.getTypeNode() == null) {
-      reportIssue(context, node, MESSAGE);
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(VarStatementNode.class);
+  }
+
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext context) {
+    VarStatementNode varStatement = (VarStatementNode) node;
+    if (varStatement.getTypeNode() == null) {
+      reportIssue(context, varStatement, MESSAGE);
     }
-    return super.visit(node, context);
   }
 }
@@ -18,11 +18,13 @@
  */
 package au.com.integradev.delphi.checks;
 
+import java.util.Set;
 import org.sonar.check.Rule;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.ast.NameReferenceNode;
 import org.sonar.plugins.communitydelphi.api.ast.PrimaryExpressionNode;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.NameDeclaration;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.RoutineKind;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.RoutineNameDeclaration;
@@ -32,16 +34,21 @@ import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 @DeprecatedRuleKey(ruleKey = "ObjectInvokedConstructorRule", repositoryKey = "delph")
 @Rule(key = "InstanceInvokedConstructor")
-public class InstanceInvokedConstructorCheck extends DelphiCheck {
+public class InstanceInvokedConstructorCheck extends DelphiSubscriptionCheck {
   private static final String MESSAGE =
       "Invoke this constructor on the type name instead of an instance.";
 
   @Override
-  public DelphiCheckContext visit(NameReferenceNode reference, DelphiCheckContext context) {
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(NameReferenceNode.class);
+  }
+
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext context) {
+    NameReferenceNode reference = (NameReferenceNode) node;
     if (isConstructor(reference) && isInvokedOnObject(reference)) {
       reportIssue(context, reference.getIdentifier(), MESSAGE);
     }
-    return super.visit(reference, context);
   }
 
   private static boolean isConstructor(NameReferenceNode reference) {
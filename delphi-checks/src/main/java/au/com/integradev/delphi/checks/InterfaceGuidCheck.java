@@ -18,26 +18,33 @@
  */
 package au.com.integradev.delphi.checks;
 
+import java.util.Set;
 import org.sonar.check.Rule;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.ast.InterfaceTypeNode;
 import org.sonar.plugins.communitydelphi.api.ast.TypeDeclarationNode;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 @DeprecatedRuleKey(ruleKey = "NoGuidRule", repositoryKey = "delph")
 @Rule(key = "InterfaceGuid")
-public class InterfaceGuidCheck extends DelphiCheck {
+public class InterfaceGuidCheck extends DelphiSubscriptionCheck {
   private static final String MESSAGE = "Add a GUID to this interface.";
 
   @Override
-  public DelphiCheckContext visit(TypeDeclarationNode typeDeclaration, DelphiCheckContext context) {
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(TypeDeclarationNode.class);
+  }
+
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext context) {
+    TypeDeclarationNode typeDeclaration = (TypeDeclarationNode) node;
     if (typeDeclaration.isInterface()) {
       InterfaceTypeNode interfaceType = (InterfaceTypeNode) typeDeclaration.getTypeNode();
       if (!interfaceType.isForwardDeclaration() && interfaceType.getGuid() == null) {
         reportIssue(context, typeDeclaration.getTypeNameNode(), MESSAGE);
       }
     }
-    return super.visit(typeDeclaration, context);
   }
 }
@@ -18,28 +18,35 @@
  */
 package au.com.integradev.delphi.checks;
 
+import java.util.Set;
 import org.sonar.check.Rule;
 import org.sonar.plugins.communitydelphi.api.ast.BinaryExpressionNode;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.ast.ExpressionNode;
 import org.sonar.plugins.communitydelphi.api.ast.NameReferenceNode;
 import org.sonar.plugins.communitydelphi.api.ast.utils.ExpressionNodeUtils;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonar.plugins.communitydelphi.api.operator.BinaryOperator;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.VariableNameDeclaration;
 import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 @DeprecatedRuleKey(ruleKey = "AssignedNilCheckRule", repositoryKey = "delph")
 @Rule(key = "NilComparison")
-public class NilComparisonCheck extends DelphiCheck {
+public class NilComparisonCheck extends DelphiSubscriptionCheck {
   private static final String MESSAGE = "Replace this nil-comparison with System.Assigned";
 
   @Override
-  public DelphiCheckContext visit(BinaryExpressionNode expression, DelphiCheckContext context) {
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(BinaryExpressionNode.class);
+  }
+
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext context) {
+    BinaryExpressionNode expression = (BinaryExpressionNode) node;
     if (isViolation(expression)) {
       reportIssue(context, expression, MESSAGE);
     }
-    return super.visit(expression, context);
   }
 
   private static boolean isVariableComparedToNil(ExpressionNode a, ExpressionNode b) {
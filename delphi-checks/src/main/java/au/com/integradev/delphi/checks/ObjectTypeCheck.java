@@ -18,22 +18,29 @@
  */
 package au.com.integradev.delphi.checks;
 
+import java.util.Set;
 import org.sonar.check.Rule;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.ast.TypeDeclarationNode;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 @DeprecatedRuleKey(ruleKey = "ObjectTypeRule", repositoryKey = "delph")
 @Rule(key = "ObjectType")
-public class ObjectTypeCheck extends DelphiCheck {
+public class ObjectTypeCheck extends DelphiSubscriptionCheck {
   private static final String MESSAGE = "Change this 'object' type into a class.";
 
   @Override
-  public DelphiCheckContext visit(TypeDeclarationNode typeDeclaration, DelphiCheckContext context) {
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(TypeDeclarationNode.class);
+  }
+
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext context) {
+    TypeDeclarationNode typeDeclaration = (TypeDeclarationNode) node;
     if (typeDeclaration.isObject()) {
       reportIssue(context, typeDeclaration.getTypeNameNode(), MESSAGE);
     }
-    return super.visit(typeDeclaration, context);
   }
 }
@@ -19,6 +19,7 @@
 package au.com.integradev.delphi.checks;
 
 import java.util.Objects;
+import java.util.Set;
 import org.sonar.check.Rule;
 import org.sonar.plugins.communitydelphi.api.ast.AssignmentStatementNode;
 import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
@@ -27,18 +28,24 @@ import org.sonar.plugins.communitydelphi.api.ast.NameReferenceNode;
 import org.sonar.plugins.communitydelphi.api.ast.PrimaryExpressionNode;
 import org.sonar.plugins.communitydelphi.api.ast.RoutineImplementationNode;
 import org.sonar.plugins.communitydelphi.api.ast.StatementNode;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.RoutineNameDeclaration;
 import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 @DeprecatedRuleKey(ruleKey = "PascalStyleResultRule", repositoryKey = "delph")
 @Rule(key = "PascalStyleResult")
-public class PascalStyleResultCheck extends DelphiCheck {
+public class PascalStyleResultCheck extends DelphiSubscriptionCheck {
   private static final String MESSAGE = "Assign to the Result variable instead.";
 
   @Override
-  public DelphiCheckContext visit(RoutineImplementationNode routine, DelphiCheckContext context) {
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(RoutineImplementationNode.class);
+  }
+
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext context) {
+    RoutineImplementationNode routine = (RoutineImplementationNode) node;
     RoutineNameDeclaration routineNameDeclaration = routine.getRoutineNameDeclaration();
     if (routineNameDeclaration != null) {
       routine.findDescendantsOfType(StatementNode.class).stream()
@@ -54,7 +61,6 @@ public class PascalStyleResultCheck extends DelphiCheck {
                 }
               });
     }
-    return super.visit(routine, context);
   }
 
   private static NameReferenceNode extractSimpleNameReference(ExpressionNode node) {
@@ -19,14 +19,16 @@
 package au.com.integradev.delphi.checks;
 
 import java.util.List;
+import java.util.Set;
 import org.sonar.check.Rule;
 import org.sonar.plugins.communitydelphi.api.ast.ArgumentListNode;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.ast.ExpressionNode;
 import org.sonar.plugins.communitydelphi.api.ast.NameReferenceNode;
 import org.sonar.plugins.communitydelphi.api.ast.Node;
 import org.sonar.plugins.communitydelphi.api.ast.utils.ExpressionNodeUtils;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.NameDeclaration;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.TypeNameDeclaration;
 import org.sonar.plugins.communitydelphi.api.token.DelphiTokenType;
@@ -39,12 +41,18 @@ import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 @DeprecatedRuleKey(ruleKey = "PlatformDependentCastRule", repositoryKey = "delph")
 @Rule(key = "PlatformDependentCast")
-public class PlatformDependentCastCheck extends DelphiCheck {
+public class PlatformDependentCastCheck extends DelphiSubscriptionCheck {
   private static final String MESSAGE =
       "Replace this problematic cast, which will behave differently on different target platforms.";
 
   @Override
-  public DelphiCheckContext visit(ArgumentListNode argumentList, DelphiCheckContext context) {
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(ArgumentListNode.class);
+  }
+
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext context) {
+    ArgumentListNode argumentList = (ArgumentListNode) node;
     List<ExpressionNode> arguments = argumentList.getArguments();
     if (arguments.size() == 1) {
       ExpressionNode expression = arguments.get(0);
@@ -58,7 +66,6 @@ public class PlatformDependentCastCheck extends DelphiCheck {
         }
       }
     }
-    return super.visit(argumentList, context);
   }
 
   private static Type getOriginalType(ExpressionNode expression) {
@@ -22,24 +22,31 @@
  */
 package au.com.integradev.delphi.checks;
 
+import java.util.Set;
 import org.sonar.check.Rule;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.ast.FieldDeclarationNode;
 import org.sonar.plugins.communitydelphi.api.ast.TypeDeclarationNode;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 @DeprecatedRuleKey(ruleKey = "PublicFieldsRule", repositoryKey = "delph")
 @Rule(key = "PublicField")
-public class PublicFieldCheck extends DelphiCheck {
+public class PublicFieldCheck extends DelphiSubscriptionCheck {
   private static final String MESSAGE = "Make this field private.";
 
   @Override
-  public DelphiCheckContext visit(FieldDeclarationNode field, DelphiCheckContext context) {
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(FieldDeclarationNode.class);
+  }
+
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext context) {
+    FieldDeclarationNode field = (FieldDeclarationNode) node;
     if (field.isPublic() && !isRecordField(field)) {
       reportIssue(context, field, MESSAGE);
     }
-    return super.visit(field, context);
   }
 
   private static boolean isRecordField(FieldDeclarationNode field) {
@@ -21,16 +21,18 @@ package au.com.integradev.delphi.checks;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 import org.sonar.check.Rule;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.ast.ExceptItemNode;
 import org.sonar.plugins.communitydelphi.api.ast.ExpressionNode;
 import org.sonar.plugins.communitydelphi.api.ast.NameDeclarationNode;
 import org.sonar.plugins.communitydelphi.api.ast.NameReferenceNode;
 import org.sonar.plugins.communitydelphi.api.ast.PrimaryExpressionNode;
 import org.sonar.plugins.communitydelphi.api.ast.RaiseStatementNode;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 /**
@@ -45,16 +47,21 @@ import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
  */
 @DeprecatedRuleKey(ruleKey = "ReRaiseExceptionRule", repositoryKey = "delph")
 @Rule(key = "ReRaiseException")
-public class ReRaiseExceptionCheck extends DelphiCheck {
+public class ReRaiseExceptionCheck extends DelphiSubscriptionCheck {
   private static final String MESSAGE =
       "Use a bare 'raise' instead of explicitly re-raising this caught exception.";
 
   @Override
-  public DelphiCheckContext visit(ExceptItemNode handler, DelphiCheckContext data) {
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(ExceptItemNode.class);
+  }
+
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext data) {
+    ExceptItemNode handler = (ExceptItemNode) node;
     for (NameReferenceNode raise : findIssueNodes(handler)) {
       reportIssue(data, raise, MESSAGE);
     }
-    return super.visit(handler, data);
   }
 
   private static List<NameReferenceNode> findIssueNodes(ExceptItemNode handler) {
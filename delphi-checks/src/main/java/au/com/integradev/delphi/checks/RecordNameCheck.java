@@ -21,16 +21,18 @@ package au.com.integradev.delphi.checks;
 import au.com.integradev.delphi.utils.NameConventionUtils;
 import com.google.common.base.Splitter;
 import java.util.List;
+import java.util.Set;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.ast.TypeDeclarationNode;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 @DeprecatedRuleKey(ruleKey = "RecordNameRule", repositoryKey = "delph")
 @Rule(key = "RecordName")
-public class RecordNameCheck extends DelphiCheck {
+public class RecordNameCheck extends DelphiSubscriptionCheck {
   private static final String MESSAGE = "Rename this type to match the expected naming convention.";
   private static final String DEFAULT_PREFIXES = "T";
 
@@ -48,11 +50,16 @@ public class RecordNameCheck extends DelphiCheck {
   }
 
   @Override
-  public DelphiCheckContext visit(TypeDeclarationNode type, DelphiCheckContext context) {
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(TypeDeclarationNode.class);
+  }
+
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext context) {
+    TypeDeclarationNode type = (TypeDeclarationNode) node;
     if (type.isRecord()
         && !NameConventionUtils.compliesWithPrefix(type.simpleName(), prefixesList)) {
       reportIssue(context, type.getTypeNameNode(), MESSAGE);
     }
-    return super.visit(type, context);
   }
 }
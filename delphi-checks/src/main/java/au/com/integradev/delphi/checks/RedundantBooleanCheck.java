@@ -18,14 +18,16 @@
  */
 package au.com.integradev.delphi.checks;
 
+import java.util.Set;
 import org.sonar.check.Rule;
 import org.sonar.plugins.communitydelphi.api.ast.BinaryExpressionNode;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.ast.Node;
 import org.sonar.plugins.communitydelphi.api.ast.PrimaryExpressionNode;
 import org.sonar.plugins.communitydelphi.api.ast.UnaryExpressionNode;
 import org.sonar.plugins.communitydelphi.api.ast.utils.ExpressionNodeUtils;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonar.plugins.communitydelphi.api.operator.BinaryOperator;
 import org.sonar.plugins.communitydelphi.api.operator.UnaryOperator;
 import org.sonar.plugins.communitydelphi.api.type.Type;
@@ -33,17 +35,21 @@ import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 @DeprecatedRuleKey(ruleKey = "RedundantBooleanRule", repositoryKey = "delph")
 @Rule(key = "RedundantBoolean")
-public class RedundantBooleanCheck extends DelphiCheck {
+public class RedundantBooleanCheck extends DelphiSubscriptionCheck {
   private static final String MESSAGE = "Remove this redundant boolean literal.";
 
   @Override
-  public DelphiCheckContext visit(PrimaryExpressionNode bool, DelphiCheckContext data) {
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(PrimaryExpressionNode.class);
+  }
+
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext data) {
+    PrimaryExpressionNode bool = (PrimaryExpressionNode) node;
     if (ExpressionNodeUtils.isBooleanLiteral(bool)
         && (isRedundantComparison(bool) || isNeedlesslyInverted(bool))) {
       reportIssue(data, bool, MESSAGE);
     }
-
-    return super.visit(bool, data);
   }
 
   private static boolean isRedundantComparison(PrimaryExpressionNode bool) {
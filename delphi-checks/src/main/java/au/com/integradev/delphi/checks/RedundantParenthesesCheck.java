@@ -18,22 +18,29 @@
  */
 package au.com.integradev.delphi.checks;
 
+import java.util.Set;
 import org.sonar.check.Rule;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.ast.ParenthesizedExpressionNode;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 @DeprecatedRuleKey(ruleKey = "RedundantParenthesesRule", repositoryKey = "delph")
 @Rule(key = "RedundantParentheses")
-public class RedundantParenthesesCheck extends DelphiCheck {
+public class RedundantParenthesesCheck extends DelphiSubscriptionCheck {
   private static final String MESSAGE = "Remove these redundant parentheses.";
 
   @Override
-  public DelphiCheckContext visit(ParenthesizedExpressionNode expression, DelphiCheckContext data) {
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(ParenthesizedExpressionNode.class);
+  }
+
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext data) {
+    ParenthesizedExpressionNode expression = (ParenthesizedExpressionNode) node;
     if (expression.getParent() instanceof ParenthesizedExpressionNode) {
       reportIssue(data, expression.getChild(0), MESSAGE);
     }
-    return super.visit(expression, data);
   }
 }
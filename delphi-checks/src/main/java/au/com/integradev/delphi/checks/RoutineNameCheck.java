@@ -18,10 +18,12 @@
  */
 package au.com.integradev.delphi.checks;
 
+import java.util.Set;
 import org.sonar.check.Rule;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.ast.RoutineDeclarationNode;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.RoutineNameDeclaration;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.TypeNameDeclaration;
 import org.sonar.plugins.communitydelphi.api.type.Type;
@@ -31,16 +33,21 @@ import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 @DeprecatedRuleKey(ruleKey = "MethodNameRule", repositoryKey = "delph")
 @DeprecatedRuleKey(ruleKey = "MethodName", repositoryKey = "community-delphi")
 @Rule(key = "RoutineName")
-public class RoutineNameCheck extends DelphiCheck {
+public class RoutineNameCheck extends DelphiSubscriptionCheck {
   private static final String MESSAGE =
       "Rename this routine to match the expected naming convention";
 
   @Override
-  public DelphiCheckContext visit(RoutineDeclarationNode routine, DelphiCheckContext context) {
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(RoutineDeclarationNode.class);
+  }
+
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext context) {
+    RoutineDeclarationNode routine = (RoutineDeclarationNode) node;
     if (isViolation(routine) && !isExcluded(routine)) {
       reportIssue(context, routine, MESSAGE);
     }
-    return super.visit(routine, context);
   }
 
   private static boolean isViolation(RoutineDeclarationNode routine) {
@@ -18,17 +18,19 @@
  */
 package au.com.integradev.delphi.checks;
 
+import java.util.Set;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.ast.RoutineImplementationNode;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 @DeprecatedRuleKey(ruleKey = "MethodNestingDepthRule", repositoryKey = "delph")
 @DeprecatedRuleKey(ruleKey = "MethodNestingDepth", repositoryKey = "community-delphi")
 @Rule(key = "RoutineNestingDepth")
-public class RoutineNestingDepthCheck extends DelphiCheck {
+public class RoutineNestingDepthCheck extends DelphiSubscriptionCheck {
   private static final int DEFAULT_DEPTH = 1;
 
   @RuleProperty(
@@ -38,7 +40,13 @@ public class RoutineNestingDepthCheck extends DelphiCheck {
   public int depth = DEFAULT_DEPTH;
 
   @Override
-  public DelphiCheckContext visit(RoutineImplementationNode routine, DelphiCheckContext context) {
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(RoutineImplementationNode.class);
+  }
+
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext context) {
+    RoutineImplementationNode routine = (RoutineImplementationNode) node;
     int actualDepth = routine.getParentsOfType(RoutineImplementationNode.class).size();
 
     if (actualDepth > depth) {
@@ -49,7 +57,5 @@ public class RoutineNestingDepthCheck extends DelphiCheck {
               "Extract this deeply nested routine. Nesting level is %d. (Limit is %d)",
               actualDepth, depth));
     }
-
-    return super.visit(routine, context);
   }
 }
@@ -18,12 +18,14 @@
  */
 package au.com.integradev.delphi.checks;
 
+import java.util.Set;
 import java.util.regex.Pattern;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.ast.TextLiteralNode;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonar.plugins.communitydelphi.api.check.IllegalRuleParameterError;
 import org.sonar.plugins.communitydelphi.api.check.RuleTemplate;
 import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
@@ -31,7 +33,7 @@ import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 @RuleTemplate
 @DeprecatedRuleKey(ruleKey = "StringLiteralRegexRule", repositoryKey = "delph")
 @Rule(key = "StringLiteralRegularExpression")
-public class StringLiteralRegularExpressionCheck extends DelphiCheck {
+public class StringLiteralRegularExpressionCheck extends DelphiSubscriptionCheck {
   private static final String DEFAULT_REGULAR_EXPRESSION = "(?!)";
   private static final String DEFAULT_MESSAGE = "The regular expression matches this string.";
 
@@ -58,10 +60,15 @@ public class StringLiteralRegularExpressionCheck extends DelphiCheck {
   }
 
   @Override
-  public DelphiCheckContext visit(TextLiteralNode string, DelphiCheckContext context) {
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(TextLiteralNode.class);
+  }
+
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext context) {
+    TextLiteralNode string = (TextLiteralNode) node;
     if (pattern != null && pattern.matcher(string.getImageWithoutQuotes()).matches()) {
       reportIssue(context, string, message);
     }
-    return super.visit(string, context);
   }
 }
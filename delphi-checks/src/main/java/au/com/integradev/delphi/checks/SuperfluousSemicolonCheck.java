@@ -18,22 +18,29 @@
  */
 package au.com.integradev.delphi.checks;
 
+import java.util.Set;
 import org.sonar.check.Rule;
 import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.ast.StatementListNode;
 import org.sonar.plugins.communitydelphi.api.ast.StatementNode;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonar.plugins.communitydelphi.api.token.DelphiTokenType;
 import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 @DeprecatedRuleKey(ruleKey = "SuperfluousSemicolonsRule", repositoryKey = "delph")
 @Rule(key = "SuperfluousSemicolon")
-public class SuperfluousSemicolonCheck extends DelphiCheck {
+public class SuperfluousSemicolonCheck extends DelphiSubscriptionCheck {
   private static final String MESSAGE = "Remove this superfluous semicolon.";
 
   @Override
-  public DelphiCheckContext visit(StatementListNode statementList, DelphiCheckContext context) {
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(StatementListNode.class);
+  }
+
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext context) {
+    StatementListNode statementList = (StatementListNode) node;
     DelphiNode previous = null;
     for (DelphiNode current : statementList.getChildren()) {
       if (current.getTokenType() == DelphiTokenType.SEMICOLON
@@ -42,6 +49,5 @@ public class SuperfluousSemicolonCheck extends DelphiCheck {
       }
       previous = current;
     }
-    return super.visit(statementList, context);
   }
 }
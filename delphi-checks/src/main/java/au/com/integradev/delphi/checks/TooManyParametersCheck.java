@@ -18,16 +18,18 @@
  */
 package au.com.integradev.delphi.checks;
 
+import java.util.Set;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.ast.RoutineImplementationNode;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 @DeprecatedRuleKey(ruleKey = "TooManyArgumentsRule", repositoryKey = "delph")
 @Rule(key = "TooManyParameters")
-public class TooManyParametersCheck extends DelphiCheck {
+public class TooManyParametersCheck extends DelphiSubscriptionCheck {
   private static final int DEFAULT_MAXIMUM = 7;
 
   @RuleProperty(
@@ -43,7 +45,13 @@ public class TooManyParametersCheck extends DelphiCheck {
   public int constructorMax = DEFAULT_MAXIMUM;
 
   @Override
-  public DelphiCheckContext visit(RoutineImplementationNode routine, DelphiCheckContext context) {
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(RoutineImplementationNode.class);
+  }
+
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext context) {
+    RoutineImplementationNode routine = (RoutineImplementationNode) node;
     int count = routine.getParameters().size();
     int limit = routine.isConstructor() ? constructorMax : max;
     if (count > limit) {
@@ -54,6 +62,5 @@ public class TooManyParametersCheck extends DelphiCheck {
               "%s has %d parameters, which is greater than %d authorized.",
               routine.isConstructor() ? "Constructor" : "Routine", count, limit));
     }
-    return super.visit(routine, context);
   }
 }
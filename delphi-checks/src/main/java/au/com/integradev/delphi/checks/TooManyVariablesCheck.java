@@ -19,19 +19,21 @@
 package au.com.integradev.delphi.checks;
 
 import java.util.List;
+import java.util.Set;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.ast.LocalDeclarationSectionNode;
 import org.sonar.plugins.communitydelphi.api.ast.RoutineImplementationNode;
 import org.sonar.plugins.communitydelphi.api.ast.VarDeclarationNode;
 import org.sonar.plugins.communitydelphi.api.ast.VarSectionNode;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 @DeprecatedRuleKey(ruleKey = "TooManyVariablesRule", repositoryKey = "delph")
 @Rule(key = "TooManyVariables")
-public class TooManyVariablesCheck extends DelphiCheck {
+public class TooManyVariablesCheck extends DelphiSubscriptionCheck {
   private static final int DEFAULT_MAXIMUM = 10;
 
   @RuleProperty(
@@ -41,7 +43,13 @@ public class TooManyVariablesCheck extends DelphiCheck {
   public int max = DEFAULT_MAXIMUM;
 
   @Override
-  public DelphiCheckContext visit(RoutineImplementationNode routine, DelphiCheckContext context) {
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(RoutineImplementationNode.class);
+  }
+
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext context) {
+    RoutineImplementationNode routine = (RoutineImplementationNode) node;
     int count = countVariableDeclarations(routine);
     if (count > max) {
       reportIssue(
@@ -50,7 +58,6 @@ public class TooManyVariablesCheck extends DelphiCheck {
           String.format(
               "Routine has %d variables, which is greater than %d authorized.", count, max));
     }
-    return super.visit(routine, context);
   }
 
   private static int countVariableDeclarations(RoutineImplementationNode routine) {
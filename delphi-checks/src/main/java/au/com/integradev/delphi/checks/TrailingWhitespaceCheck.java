@@ -18,11 +18,6 @@
  */
 package au.com.integradev.delphi.checks;
 
-import static java.util.regex.Pattern.compile;
-
-import com.google.common.base.Splitter;
-import java.util.regex.Pattern;
-import org.apache.commons.lang3.StringUtils;
 import org.sonar.check.Rule;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
@@ -35,33 +30,59 @@ import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 public class TrailingWhitespaceCheck extends DelphiCheck {
   private static final String MESSAGE = "Remove this trailing whitespace.";
 
-  private static final Pattern NEW_LINE_DELIMITER = compile("\r\n?|\n");
-
   @Override
   public void visitToken(DelphiToken token, DelphiCheckContext context) {
     if (!token.isWhitespace()) {
       return;
     }
 
-    if (!NEW_LINE_DELIMITER.matcher(token.getImage()).find()) {
-      return;
-    }
-
+    String image = token.getImage();
+    int end = stripEnd(image);
     int line = token.getBeginLine();
     int column = token.getBeginColumn();
+    int segmentStart = 0;
+    boolean containsNewLine = false;
 
-    String image = StringUtils.stripEnd(token.getImage(), " \t\f");
-    var parts = Splitter.on(NEW_LINE_DELIMITER).split(image);
-    for (String whitespace : parts) {
-      if (!whitespace.isEmpty()) {
-        context
-            .newIssue()
-            .onFilePosition(FilePosition.from(line, column, line, column + whitespace.length()))
-            .withMessage(MESSAGE)
-            .report();
+    // Each line break ends a segment of whitespace, which is trailing if it isn't empty.
+    for (int i = 0; i < image.length(); ++i) {
+      char c = image.charAt(i);
+      if (c != '\r' && c != '\n') {
+        continue;
+      }
+      containsNewLine = true;
+      reportSegment(context, line, column, i - segmentStart);
+      if (c == '\r' && i + 1 < image.length() && image.charAt(i + 1) == '\n') {
+        ++i;
       }
+      segmentStart = i + 1;
       ++line;
       column = 0;
     }
+
+    if (containsNewLine && segmentStart < end) {
+      reportSegment(context, line, column, end - segmentStart);
+    }
+  }
+
+  private static void reportSegment(DelphiCheckContext context, int line, int column, int length) {
+    if (length > 0) {
+      context
+          .newIssue()
+          .onFilePosition(FilePosition.from(line, column, line, column + length))
+          .withMessage(MESSAGE)
+          .report();
+    }
+  }
+
+  private static int stripEnd(String image) {
+    int end = image.length();
+    while (end > 0 && isStrippable(image.charAt(end - 1))) {
+      --end;
+    }
+    return end;
+  }
+
+  private static boolean isStrippable(char c) {
+    return c == ' ' || c == '\t' || c == '\f';
   }
 }
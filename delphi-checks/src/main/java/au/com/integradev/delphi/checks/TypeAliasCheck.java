@@ -18,22 +18,29 @@
  */
 package au.com.integradev.delphi.checks;
 
+import java.util.Set;
 import org.sonar.check.Rule;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.ast.TypeDeclarationNode;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 @DeprecatedRuleKey(ruleKey = "TypeAliasRule", repositoryKey = "delph")
 @Rule(key = "TypeAlias")
-public class TypeAliasCheck extends DelphiCheck {
+public class TypeAliasCheck extends DelphiSubscriptionCheck {
   private static final String MESSAGE = "Review this type alias declaration.";
 
   @Override
-  public DelphiCheckContext visit(TypeDeclarationNode typeDeclaration, DelphiCheckContext data) {
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(TypeDeclarationNode.class);
+  }
+
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext data) {
+    TypeDeclarationNode typeDeclaration = (TypeDeclarationNode) node;
     if (typeDeclaration.isWeakAlias() || typeDeclaration.isStrongAlias()) {
       reportIssue(data, typeDeclaration, MESSAGE);
     }
-    return super.visit(typeDeclaration, data);
   }
 }
@@ -18,22 +18,29 @@
  */
 package au.com.integradev.delphi.checks;
 
+import java.util.Set;
 import org.sonar.check.Rule;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.ast.RoutineImplementationNode;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 @DeprecatedRuleKey(ruleKey = "NoFunctionReturnTypeRule", repositoryKey = "delph")
 @Rule(key = "UnspecifiedReturnType")
-public class UnspecifiedReturnTypeCheck extends DelphiCheck {
+public class UnspecifiedReturnTypeCheck extends DelphiSubscriptionCheck {
   private static final String MESSAGE = "Specify a return type on this routine.";
 
   @Override
-  public DelphiCheckContext visit(RoutineImplementationNode routine, DelphiCheckContext context) {
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(RoutineImplementationNode.class);
+  }
+
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext context) {
+    RoutineImplementationNode routine = (RoutineImplementationNode) node;
     if (routine.isFunction() && routine.getRoutineHeading().getRoutineReturnType() == null) {
       reportIssue(context, routine.getRoutineNameNode(), MESSAGE);
     }
-    return super.visit(routine, context);
   }
 }
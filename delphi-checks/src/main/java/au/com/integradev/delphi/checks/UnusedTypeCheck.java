@@ -18,11 +18,13 @@
  */
 package au.com.integradev.delphi.checks;
 
+import java.util.Set;
 import org.sonar.check.Rule;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.ast.NameDeclarationNode;
 import org.sonar.plugins.communitydelphi.api.ast.TypeDeclarationNode;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonar.plugins.communitydelphi.api.check.SonarLintUnsupported;
 import org.sonar.plugins.communitydelphi.api.symbol.NameOccurrence;
 import org.sonar.plugins.communitydelphi.api.symbol.scope.DelphiScope;
@@ -36,18 +38,23 @@ import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 @SonarLintUnsupported
 @DeprecatedRuleKey(ruleKey = "UnusedTypesRule", repositoryKey = "delph")
 @Rule(key = "UnusedType")
-public class UnusedTypeCheck extends DelphiCheck {
+public class UnusedTypeCheck extends DelphiSubscriptionCheck {
   private static final String MESSAGE = "Remove this unused type.";
 
   @Override
-  public DelphiCheckContext visit(TypeDeclarationNode type, DelphiCheckContext context) {
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(TypeDeclarationNode.class);
+  }
+
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext context) {
+    TypeDeclarationNode type = (TypeDeclarationNode) node;
     NameDeclarationNode name = type.getTypeNameNode();
     if (canBeUnused(type.getType())
         && name.getUsages().stream()
             .allMatch(occurrence -> isWithinType(occurrence, type.getType()))) {
       reportIssue(context, name, MESSAGE);
     }
-    return super.visit(type, context);
   }
 
   private static boolean canBeUnused(Type type) {
@@ -19,16 +19,17 @@
 package au.com.integradev.delphi.checks;
 
 import au.com.integradev.delphi.utils.IndentationUtils;
+import java.util.Set;
 import org.sonar.check.Rule;
 import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.ast.VisibilityNode;
-import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
 
 @DeprecatedRuleKey(ruleKey = "VisibilityKeywordIndentationRule", repositoryKey = "delph")
 @Rule(key = "VisibilityKeywordIndentation")
-public class VisibilityKeywordIndentationCheck extends DelphiCheck {
+public class VisibilityKeywordIndentationCheck extends DelphiSubscriptionCheck {
   private static final String MESSAGE =
       "Indent this visibility specifier to the indentation level of the containing type.";
 
@@ -40,11 +41,16 @@ public class VisibilityKeywordIndentationCheck extends DelphiCheck {
   }
 
   @Override
-  public DelphiCheckContext visit(VisibilityNode visibilityNode, DelphiCheckContext context) {
+  public Set<Class<? extends DelphiNode>> nodesToVisit() {
+    return Set.of(VisibilityNode.class);
+  }
+
+  @Override
+  public void visitNode(DelphiNode node, DelphiCheckContext context) {
+    VisibilityNode visibilityNode = (VisibilityNode) node;
     if (!IndentationUtils.getLineIndentation(visibilityNode)
         .equals(getExpectedIndentation(visibilityNode))) {
       reportIssue(context, visibilityNode, MESSAGE);
     }
-    return super.visit(visibilityNode, context);
   }
 }
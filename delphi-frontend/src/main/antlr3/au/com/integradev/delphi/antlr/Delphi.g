@@ -31,6 +31,7 @@ options {
 package au.com.integradev.delphi.antlr;
 
 import au.com.integradev.delphi.antlr.ast.node.*;
+import au.com.integradev.delphi.telemetry.ParserProfiler;
 }
 
 @lexer::header
@@ -69,6 +70,14 @@ package au.com.integradev.delphi.antlr;
     this.shouldSkipImplementation = shouldSkipImplementation;
   }
 
+  public boolean isAsmMode() {
+    return asmMode;
+  }
+
+  public void setAsmMode(boolean asmMode) {
+    this.asmMode = asmMode;
+  }
+
   @Override
   public void reportError(RecognitionException e) {
     String hdr = this.getErrorHeader(e);
@@ -83,6 +92,71 @@ package au.com.integradev.delphi.antlr;
 }
 
 @parser::members {
+  // Memoized rule results are only looked up while backtracking, starting from the position where
+  // the outermost syntactic predicate was entered. Once the parser has consumed a token without
+  // backtracking, results for rules that started before it can never be used again, so they're
+  // periodically dropped to keep the memo tables from growing with the size of the file.
+  private static final int MEMO_PRUNE_INTERVAL = 512;
+  private boolean pruneRuleMemo = true;
+  private int memoPrunedIndex;
+  private int peakMemoSize;
+  private ParserProfiler profiler;
+
+  public void setProfiler(ParserProfiler profiler) {
+    this.profiler = profiler;
+  }
+
+  @Override
+  public boolean alreadyParsedRule(IntStream input, int ruleIndex) {
+    boolean parsed = super.alreadyParsedRule(input, ruleIndex);
+    if (profiler != null) {
+      profiler.memoLookup(ruleIndex, parsed);
+    }
+    return parsed;
+  }
+
+  @Override
+  public Object match(IntStream input, int ttype, BitSet follow) throws RecognitionException {
+    Object matched = super.match(input, ttype, follow);
+    if (pruneRuleMemo
+        && state.backtracking == 0
+        && input.index() - memoPrunedIndex >= MEMO_PRUNE_INTERVAL) {
+      pruneRuleMemo(input.index());
+    }
+    return matched;
+  }
+
+  private void pruneRuleMemo(int index) {
+    peakMemoSize = Math.max(peakMemoSize, getRuleMemoizationCacheSize());
+    for (Map<Integer, Integer> memo : state.ruleMemo) {
+      if (memo != null) {
+        memo.keySet().removeIf(ruleStartIndex -> ruleStartIndex < index);
+      }
+    }
+    memoPrunedIndex = index;
+  }
+
+  /**
+   * Sets whether memoized rule results that can no longer be used are dropped during the parse
+   *
+   * <p>Pruning is enabled by default. It doesn't change the parse results, only the memory that the
+   * parser holds on to.
+   *
+   * @param pruneRuleMemo whether to prune the memo tables
+   */
+  public void setPruneRuleMemo(boolean pruneRuleMemo) {
+    this.pruneRuleMemo = pruneRuleMemo;
+  }
+
+  /**
+   * Returns the largest number of memoized rule results that the parser held at once
+   *
+   * @return the peak size of the memo tables
+   */
+  public int getPeakMemoSize() {
+    return Math.max(peakMemoSize, getRuleMemoizationCacheSize());
+  }
+
   private Token changeTokenType(int type) {
     CommonToken t = new CommonToken(input.LT(-1));
     t.setType(type);
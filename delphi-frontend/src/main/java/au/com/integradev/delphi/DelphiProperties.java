@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.apache.commons.lang3.StringUtils;
+import org.sonar.api.PropertyType;
 import org.sonar.api.config.PropertyDefinition;
 import org.sonar.api.resources.Qualifiers;
 
@@ -42,12 +43,21 @@ public final class DelphiProperties {
   public static final String TEST_ATTRIBUTE_KEY = "sonar.delphi.testAttribute";
   public static final String NUNIT_REPORT_PATHS_PROPERTY = "sonar.delphi.nunit.reportPaths";
   public static final String COVERAGE_REPORT_KEY = "sonar.delphi.coverage.reportPaths";
+  public static final String ANALYSIS_THREADS_KEY = "sonar.delphi.analysis.threads";
+  public static final String REUSE_PARSED_FILES_KEY = "sonar.delphi.analysis.reuseParsedFiles";
+  public static final String CACHE_DIRECTORY_KEY = "sonar.delphi.analysis.cacheDirectory";
+  public static final String INCREMENTAL_ANALYSIS_KEY = "sonar.delphi.analysis.incremental";
+  public static final String TELEMETRY_REPORT_KEY = "sonar.delphi.analysis.telemetryReport";
+  public static final String FILE_TIME_BUDGET_KEY = "sonar.delphi.analysis.fileTimeBudget";
+  public static final String PARSER_PROFILE_REPORT_KEY =
+      "sonar.delphi.analysis.parserProfileReport";
 
   private static final String DELPHI_CATEGORY = "Delphi";
   private static final String GENERAL_SUBCATEGORY = "General";
   private static final String TOOLCHAIN_SUBCATEGORY = "Toolchain";
   private static final String PROJECT_OPTIONS_SUBCATEGORY = "Project Options";
   private static final String TEST_SUBCATEGORY = "Test and Coverage";
+  private static final String PERFORMANCE_SUBCATEGORY = "Performance";
 
   public static final String EXCLUSIONS_DEFAULT_VALUE = "**/__history/**,**/__recovery/**";
   private static final String INSTALLATION_PATH_DEFAULT =
@@ -57,6 +67,10 @@ public final class DelphiProperties {
       CompilerVersion.fromVersionSymbol("VER350");
   private static final String TEST_TYPE_DEFAULT = "TestFramework.TTestCase";
   private static final String TEST_ATTRIBUTE_DEFAULT = "DUnitX.Attributes.TestFixtureAttribute";
+  public static final int ANALYSIS_THREADS_DEFAULT = 1;
+  public static final boolean REUSE_PARSED_FILES_DEFAULT = false;
+  public static final boolean INCREMENTAL_ANALYSIS_DEFAULT = false;
+  public static final int FILE_TIME_BUDGET_DEFAULT = 0;
 
   private DelphiProperties() {
     // hide public constructor
@@ -202,6 +216,90 @@ public final class DelphiProperties {
                     + " Each path may be absolute or relative to the project base directory")
             .multiValues(true)
             .onQualifiers(Qualifiers.PROJECT)
+            .build(),
+        PropertyDefinition.builder(DelphiProperties.ANALYSIS_THREADS_KEY)
+            .category(DELPHI_CATEGORY)
+            .subCategory(PERFORMANCE_SUBCATEGORY)
+            .defaultValue(String.valueOf(ANALYSIS_THREADS_DEFAULT))
+            .name("Analysis threads")
+            .description(
+                "The number of threads used to build the symbol table and analyze source files."
+                    + " Use `0` to use one thread per available processor.")
+            .type(PropertyType.INTEGER)
+            .onQualifiers(Qualifiers.PROJECT)
+            .build(),
+        PropertyDefinition.builder(DelphiProperties.REUSE_PARSED_FILES_KEY)
+            .category(DELPHI_CATEGORY)
+            .subCategory(PERFORMANCE_SUBCATEGORY)
+            .defaultValue(String.valueOf(REUSE_PARSED_FILES_DEFAULT))
+            .name("Reuse parsed files")
+            .description(
+                "Whether source files parsed during symbol table construction should be reused"
+                    + " for analysis, so that each source file is only parsed once. This is"
+                    + " faster, but the parsed files are kept in memory until they are analyzed.")
+            .type(PropertyType.BOOLEAN)
+            .onQualifiers(Qualifiers.PROJECT)
+            .build(),
+        PropertyDefinition.builder(DelphiProperties.CACHE_DIRECTORY_KEY)
+            .category(DELPHI_CATEGORY)
+            .subCategory(PERFORMANCE_SUBCATEGORY)
+            .name("Cache directory")
+            .description(
+                "Directory where analysis data is cached between scans, such as the file indexes of"
+                    + " the Delphi standard library and the search path directories, the parsed"
+                    + " standard library units, and the state of incremental analysis. The path may"
+                    + " be absolute or relative to the project base directory. Defaults to a"
+                    + " `delphi` directory within the scanner's working directory.")
+            .onQualifiers(Qualifiers.PROJECT)
+            .build(),
+        PropertyDefinition.builder(DelphiProperties.INCREMENTAL_ANALYSIS_KEY)
+            .category(DELPHI_CATEGORY)
+            .subCategory(PERFORMANCE_SUBCATEGORY)
+            .defaultValue(String.valueOf(INCREMENTAL_ANALYSIS_DEFAULT))
+            .name("Incremental analysis")
+            .description(
+                "Whether the results of source files should be restored from the previous scan"
+                    + " instead of analyzing them again, if neither the files nor the interfaces of"
+                    + " the units that they import have changed. The state of each scan is kept in"
+                    + " the cache directory.")
+            .type(PropertyType.BOOLEAN)
+            .onQualifiers(Qualifiers.PROJECT)
+            .build(),
+        PropertyDefinition.builder(DelphiProperties.TELEMETRY_REPORT_KEY)
+            .category(DELPHI_CATEGORY)
+            .subCategory(PERFORMANCE_SUBCATEGORY)
+            .name("Telemetry report")
+            .description(
+                "Path to a JSON report of the time and memory spent in each analysis phase,"
+                    + " executor, rule and file. The path may be absolute or relative to the"
+                    + " project base directory. Telemetry is only collected if a path is provided.")
+            .onQualifiers(Qualifiers.PROJECT)
+            .build(),
+        PropertyDefinition.builder(DelphiProperties.PARSER_PROFILE_REPORT_KEY)
+            .category(DELPHI_CATEGORY)
+            .subCategory(PERFORMANCE_SUBCATEGORY)
+            .name("Parser profile report")
+            .description(
+                "Path to a JSON report of the backtracking done by the parser in each grammar rule"
+                    + " and decision. The path may be absolute or relative to the project base"
+                    + " directory. The parser is only profiled if a path is provided, which slows"
+                    + " down parsing considerably.")
+            .onQualifiers(Qualifiers.PROJECT)
+            .build(),
+        PropertyDefinition.builder(DelphiProperties.FILE_TIME_BUDGET_KEY)
+            .category(DELPHI_CATEGORY)
+            .subCategory(PERFORMANCE_SUBCATEGORY)
+            .defaultValue(String.valueOf(FILE_TIME_BUDGET_DEFAULT))
+            .name("File time budget")
+            .description(
+                "The number of seconds that the analysis of a single source file may take. If a"
+                    + " file runs over its budget, the rest of its parsing, symbol resolution and"
+                    + " rules are skipped, but its duplication tokens and highlighting are still"
+                    + " saved. If a file runs over its budget while its interface is resolved for"
+                    + " the symbol table, its declarations are unavailable to other files. Use `0`"
+                    + " for no limit.")
+            .type(PropertyType.INTEGER)
+            .onQualifiers(Qualifiers.PROJECT)
             .build());
   }
 }
@@ -18,50 +18,57 @@
  */
 package au.com.integradev.delphi.antlr;
 
-import java.io.File;
-import java.io.FileInputStream;
+import au.com.integradev.delphi.file.SourceBuffer;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.nio.charset.Charset;
 import org.antlr.runtime.ANTLRStringStream;
-import org.apache.commons.io.ByteOrderMark;
-import org.apache.commons.io.input.BOMInputStream;
+import org.antlr.runtime.CharStream;
 
+/**
+ * A case-insensitive stream over the characters of a source file.
+ *
+ * <p>Lookahead returns lower-cased characters, which are folded once when the stream is created.
+ * The original characters are kept for token text.
+ */
 public class DelphiFileStream extends ANTLRStringStream {
   private final String fileName;
+  private final char[] lowerCaseData;
 
   public DelphiFileStream(String fileName, String encoding) throws IOException {
-    this.fileName = fileName;
-    this.load(fileName, encoding);
+    this(SourceBuffer.read(fileName, encoding));
   }
 
-  private void load(String fileName, String encoding) throws IOException {
-    if (fileName != null) {
-      File f = new File(fileName);
-      int size = (int) f.length();
-      try (BOMInputStream input =
-          new BOMInputStream(
-              new FileInputStream(fileName),
-              false,
-              ByteOrderMark.UTF_8,
-              ByteOrderMark.UTF_16LE,
-              ByteOrderMark.UTF_16BE,
-              ByteOrderMark.UTF_32LE,
-              ByteOrderMark.UTF_32BE)) {
-        if (encoding == null) {
-          encoding = input.getBOMCharsetName();
-        }
+  public DelphiFileStream(SourceBuffer source) {
+    this(source.getFileName(), source.getData(), toLowerCase(source.getData(), source.length()));
+  }
 
-        if (encoding == null) {
-          encoding = Charset.defaultCharset().name();
-        }
+  private DelphiFileStream(String fileName, char[] data, char[] lowerCaseData) {
+    super(data, lowerCaseData.length);
+    this.fileName = fileName;
+    this.lowerCaseData = lowerCaseData;
+  }
 
-        try (InputStreamReader reader = new InputStreamReader(input, encoding)) {
-          this.data = new char[size];
-          super.n = reader.read(this.data);
-        }
-      }
+  private static char[] toLowerCase(char[] data, int length) {
+    char[] result = new char[length];
+    for (int i = 0; i < length; ++i) {
+      result[i] = Character.toLowerCase(data[i]);
     }
+    return result;
+  }
+
+  /**
+   * Creates another stream over the same characters, which starts at a position in this stream
+   *
+   * @param index the character index to start at
+   * @param line the line of the character to start at
+   * @param charPositionInLine the position of the character to start at within its line
+   * @return a new stream that starts at the given position
+   */
+  public DelphiFileStream fork(int index, int line, int charPositionInLine) {
+    DelphiFileStream result = new DelphiFileStream(fileName, data, lowerCaseData);
+    result.p = index;
+    result.line = line;
+    result.charPositionInLine = charPositionInLine;
+    return result;
   }
 
   @Override
@@ -71,8 +78,20 @@ public class DelphiFileStream extends ANTLRStringStream {
 
   @Override
   public int LA(int i) {
-    int la = super.LA(i);
-
-    return Character.toLowerCase(la);
+    if (i == 0) {
+      // undefined
+      return 0;
+    }
+    if (i < 0) {
+      // LA(-1) is the previous character
+      ++i;
+      if (p + i - 1 < 0) {
+        return CharStream.EOF;
+      }
+    }
+    if (p + i - 1 >= n) {
+      return CharStream.EOF;
+    }
+    return lowerCaseData[p + i - 1];
   }
 }
@@ -18,12 +18,16 @@
  */
 package au.com.integradev.delphi.antlr;
 
+import au.com.integradev.delphi.budget.TimeBudget;
+import au.com.integradev.delphi.telemetry.ParserProfiler;
 import java.util.List;
 import org.antlr.runtime.Token;
 import org.antlr.runtime.TokenRewriteStream;
 import org.antlr.runtime.TokenSource;
 
 public class DelphiTokenStream extends TokenRewriteStream {
+  private ParserProfiler profiler;
+
   public DelphiTokenStream(TokenSource tokenSource) {
     super(tokenSource);
   }
@@ -43,6 +47,36 @@ public class DelphiTokenStream extends TokenRewriteStream {
     return tokens;
   }
 
+  @Override
+  public void consume() {
+    TimeBudget.checkpoint();
+    super.consume();
+    if (profiler != null) {
+      profiler.consumed();
+    }
+  }
+
+  @Override
+  public int mark() {
+    int marker = super.mark();
+    if (profiler != null) {
+      profiler.marked(marker);
+    }
+    return marker;
+  }
+
+  @Override
+  public void rewind(int marker) {
+    super.rewind(marker);
+    if (profiler != null) {
+      profiler.rewound(marker);
+    }
+  }
+
+  public void setProfiler(ParserProfiler profiler) {
+    this.profiler = profiler;
+  }
+
   public void setTokens(List<Token> tokens) {
     this.tokens = tokens;
   }
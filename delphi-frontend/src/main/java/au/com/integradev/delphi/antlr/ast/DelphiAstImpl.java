@@ -24,10 +24,11 @@ package au.com.integradev.delphi.antlr.ast;
 
 import au.com.integradev.delphi.antlr.DelphiLexer;
 import au.com.integradev.delphi.antlr.ast.node.DelphiNodeImpl;
+import au.com.integradev.delphi.antlr.ast.node.NodeTypeIndex;
 import au.com.integradev.delphi.antlr.ast.visitors.DelphiParserVisitor;
 import au.com.integradev.delphi.file.DelphiFile;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 import org.sonar.plugins.communitydelphi.api.ast.DelphiAst;
 import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.ast.FileHeaderNode;
@@ -40,6 +41,7 @@ import org.sonar.plugins.communitydelphi.api.token.DelphiToken;
 /** DelphiLanguage AST tree. */
 public class DelphiAstImpl extends DelphiNodeImpl implements DelphiAst {
   private final DelphiFile delphiFile;
+  private volatile NodeTypeIndex nodeTypeIndex;
 
   /**
    * Constructor.
@@ -54,6 +56,7 @@ public class DelphiAstImpl extends DelphiNodeImpl implements DelphiAst {
     if (root != null) {
       root.getChildren().forEach(this::addChild);
     }
+    finishTree(this);
   }
 
   @Override
@@ -86,6 +89,16 @@ public class DelphiAstImpl extends DelphiNodeImpl implements DelphiAst {
     return delphiFile.getComments();
   }
 
+  @Override
+  public List<DelphiToken> getLeadingComments() {
+    return Collections.emptyList();
+  }
+
+  @Override
+  public List<DelphiToken> getTrailingComments() {
+    return Collections.emptyList();
+  }
+
   @Override
   public DelphiFile getDelphiFile() {
     return delphiFile;
@@ -111,17 +124,44 @@ public class DelphiAstImpl extends DelphiNodeImpl implements DelphiAst {
     return !getChildren().isEmpty() && getFileHeader() instanceof PackageDeclarationNode;
   }
 
+  /**
+   * Returns the index of the nodes in this AST by type, which is built on first use
+   *
+   * @return the node type index of this AST
+   */
+  public NodeTypeIndex getNodeTypeIndex() {
+    NodeTypeIndex result = nodeTypeIndex;
+    if (result == null) {
+      synchronized (this) {
+        result = nodeTypeIndex;
+        if (result == null) {
+          result = NodeTypeIndex.build(this);
+          nodeTypeIndex = result;
+        }
+      }
+    }
+    return result;
+  }
+
   public List<DelphiToken> getCommentsInsideNode(DelphiNode node) {
-    return getCommentsBetweenTokens(node.getFirstToken(), node.getLastToken());
+    return delphiFile
+        .getTokenTable()
+        .getCommentsBetween(node.getFirstToken().getIndex(), node.getLastToken().getIndex());
   }
 
-  private List<DelphiToken> getCommentsBetweenTokens(DelphiToken first, DelphiToken last) {
-    return getComments().stream()
-        .filter(
-            token -> {
-              int index = token.getIndex();
-              return index > first.getIndex() && index < last.getIndex();
-            })
-        .collect(Collectors.toList());
+  public List<DelphiToken> getLeadingComments(DelphiNode node) {
+    DelphiToken first = node.getFirstToken();
+    if (first.isImaginary()) {
+      return Collections.emptyList();
+    }
+    return delphiFile.getTokenTable().getLeadingComments(first.getIndex());
+  }
+
+  public List<DelphiToken> getTrailingComments(DelphiNode node) {
+    DelphiToken last = node.getLastToken();
+    if (last.isImaginary()) {
+      return Collections.emptyList();
+    }
+    return delphiFile.getTokenTable().getTrailingComments(last.getIndex());
   }
 }
@@ -29,7 +29,11 @@ import au.com.integradev.delphi.antlr.ast.node.MutableDelphiNode;
 import au.com.integradev.delphi.antlr.ast.token.DelphiTokenImpl;
 import au.com.integradev.delphi.antlr.ast.token.DelphiTokenTypeFactory;
 import com.google.common.base.Preconditions;
-import java.lang.reflect.Constructor;
+import com.google.common.base.Throwables;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
 import org.antlr.runtime.CommonToken;
 import org.antlr.runtime.RecognitionException;
 import org.antlr.runtime.Token;
@@ -39,6 +43,24 @@ import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.token.DelphiToken;
 
 public class DelphiTreeAdaptor extends BaseTreeAdaptor {
+  private static final ClassValue<MethodHandle> TOKEN_CONSTRUCTORS =
+      new ClassValue<>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+          try {
+            return MethodHandles.publicLookup()
+                .findConstructor(type, MethodType.methodType(void.class, Token.class));
+          } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalArgumentException(e);
+          }
+        }
+      };
+
+  /**
+   * The token wrapper of each parser token that's referenced by a node, indexed by token index.
+   * Node boundaries share these instead of wrapping the same token again.
+   */
+  private DelphiToken[] tokensByIndex = new DelphiToken[0];
 
   @Override
   public Object create(Token token) {
@@ -66,9 +88,45 @@ public class DelphiTreeAdaptor extends BaseTreeAdaptor {
   @Override
   public void setTokenBoundaries(Object node, Token startToken, Token stopToken) {
     if (node != null) {
-      ((MutableDelphiNode) node).setFirstToken(new DelphiTokenImpl(startToken));
-      ((MutableDelphiNode) node).setLastToken(new DelphiTokenImpl(stopToken));
+      MutableDelphiNode delphiNode = (MutableDelphiNode) node;
+      register(delphiNode);
+      delphiNode.setFirstToken(wrapToken(startToken));
+      delphiNode.setLastToken(wrapToken(stopToken));
+    }
+  }
+
+  private void register(DelphiNode node) {
+    DelphiToken token = node.getToken();
+    int index = token.getIndex();
+    if (index >= 0 && getCachedToken(index) == null) {
+      cacheToken(index, token);
+    }
+  }
+
+  private DelphiToken wrapToken(Token token) {
+    // Boundary tokens are usually the token of a node in the subtree, which is already wrapped.
+    int index = token == null ? -1 : token.getTokenIndex();
+    if (index < 0) {
+      return new DelphiTokenImpl(token);
+    }
+
+    DelphiToken result = getCachedToken(index);
+    if (result == null || ((DelphiTokenImpl) result).getAntlrToken() != token) {
+      result = new DelphiTokenImpl(token);
+      cacheToken(index, result);
+    }
+    return result;
+  }
+
+  private DelphiToken getCachedToken(int index) {
+    return index < tokensByIndex.length ? tokensByIndex[index] : null;
+  }
+
+  private void cacheToken(int index, DelphiToken token) {
+    if (index >= tokensByIndex.length) {
+      tokensByIndex = Arrays.copyOf(tokensByIndex, Math.max(index + 1, tokensByIndex.length * 2));
     }
+    tokensByIndex[index] = token;
   }
 
   @Override
@@ -109,23 +167,45 @@ public class DelphiTreeAdaptor extends BaseTreeAdaptor {
 
   @Override
   public Object dupNode(Object node) {
+    MutableDelphiNode dupNode = createNode(node.getClass(), getToken(node));
+    dupNode.setFirstToken(getFirstToken(node));
+    dupNode.setLastToken(getLastToken(node));
+    return dupNode;
+  }
+
+  /**
+   * Creates a node of a specific class, like the parser does for a token
+   *
+   * @param nodeClass the class of the node, which must have a public constructor(Token)
+   * @param token the token of the node
+   * @return a new node without any children or token boundaries
+   */
+  public static MutableDelphiNode createNode(Class<?> nodeClass, Token token) {
+    MethodHandle constructor;
     try {
-      Constructor<?> constructor = node.getClass().getConstructor(Token.class);
-      MutableDelphiNode dupNode = (MutableDelphiNode) constructor.newInstance(getToken(node));
-      dupNode.setFirstToken(getFirstToken(node));
-      dupNode.setLastToken(getLastToken(node));
-      return dupNode;
-    } catch (Exception e) {
+      constructor = TOKEN_CONSTRUCTORS.get(nodeClass);
+    } catch (IllegalArgumentException e) {
       throw new AssertionError(
-          String.format(
-              "%s must have an accessible constructor(Token)", node.getClass().getSimpleName()),
-          e);
+          String.format("%s must have an accessible constructor(Token)", nodeClass.getSimpleName()),
+          e.getCause());
+    }
+    return construct(constructor, token);
+  }
+
+  private static MutableDelphiNode construct(MethodHandle constructor, Token token) {
+    try {
+      return (MutableDelphiNode) constructor.invoke(token);
+    } catch (Throwable e) {
+      // Node constructors don't throw checked exceptions, so errors are rethrown as they are.
+      Throwables.throwIfUnchecked(e);
+      throw new IllegalStateException(e);
     }
   }
 
   @Override
   public void addChild(Object node, Object child) {
     if (node != null && child != null) {
+      register((DelphiNode) child);
       ((MutableDelphiNode) node).addChild((DelphiNode) child);
     }
   }
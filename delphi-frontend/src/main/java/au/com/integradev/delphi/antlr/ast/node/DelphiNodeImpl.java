@@ -25,10 +25,14 @@ import au.com.integradev.delphi.antlr.ast.DelphiAstImpl;
 import au.com.integradev.delphi.antlr.ast.DelphiTreeAdaptor;
 import au.com.integradev.delphi.antlr.ast.token.DelphiTokenImpl;
 import au.com.integradev.delphi.antlr.ast.visitors.DelphiParserVisitor;
+import au.com.integradev.delphi.budget.TimeBudget;
 import com.google.common.base.Preconditions;
+import java.util.AbstractList;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
 import javax.annotation.Nonnull;
 import org.antlr.runtime.CommonToken;
 import org.antlr.runtime.Token;
@@ -40,13 +44,26 @@ import org.sonar.plugins.communitydelphi.api.token.DelphiTokenType;
 import org.sonar.plugins.communitydelphi.api.type.TypeFactory;
 
 public abstract class DelphiNodeImpl implements MutableDelphiNode {
+  /**
+   * Subtrees smaller than this are walked directly, since that's cheaper than finding the index of
+   * the AST.
+   */
+  private static final int MIN_INDEXED_SUBTREE_SIZE = 64;
+
   private final DelphiToken token;
   protected DelphiNode parent;
-  private List<DelphiNode> children;
+  private ChildList children = ChildList.EMPTY;
   private int childIndex;
   private DelphiToken firstToken;
   private DelphiToken lastToken;
   private DelphiScope scope;
+  // Links that are cached on every node once the tree is finished, so that they aren't looked up
+  // through the parents of the node on every call
+  private DelphiAst ast;
+  private DelphiScope linkedScope;
+  // Numbered by NodeTypeIndex
+  int preOrder = -1;
+  int lastDescendant = -1;
 
   /**
    * All nodes must implement this constructor. Used to create a node with a concrete token. Also
@@ -100,11 +117,18 @@ public abstract class DelphiNodeImpl implements MutableDelphiNode {
   @Override
   public void setScope(DelphiScope scope) {
     this.scope = scope;
+    if (linkedScope != null) {
+      unlinkScopes();
+    }
   }
 
   @Override
   @Nonnull
   public DelphiScope getScope() {
+    DelphiScope result = linkedScope;
+    if (result != null) {
+      return result;
+    }
     if (scope == null) {
       if (parent != null) {
         return parent.getScope();
@@ -116,27 +140,85 @@ public abstract class DelphiNodeImpl implements MutableDelphiNode {
 
   @Override
   public void addChild(@Nonnull DelphiNode node) {
-    if (this.children == null) {
-      this.children = new ArrayList<>();
+    if (this.children.isEmpty()) {
+      // The empty child list is shared, so the node gets its own list once it has children.
+      this.children = new ChildList();
     }
 
     DelphiNodeImpl child = (DelphiNodeImpl) node;
     if (child.getToken().isNil()) {
-      boolean sameChildren = this.children.equals(child.children);
-      Preconditions.checkArgument(!sameChildren, "Cannot add child list to itself!");
-      for (DelphiNode grandchild : child.getChildren()) {
-        ((DelphiNodeImpl) grandchild).setParent(this);
-        ((DelphiNodeImpl) grandchild).setChildIndex(this.children.size());
-        this.children.add(grandchild);
+      Preconditions.checkArgument(child != this, "Cannot add child list to itself!");
+      ChildList grandchildren = child.children;
+      for (int i = 0; i < grandchildren.size; ++i) {
+        DelphiNodeImpl grandchild = (DelphiNodeImpl) grandchildren.nodes[i];
+        grandchild.setParent(this);
+        grandchild.setChildIndex(this.children.size);
+        this.children.append(grandchild);
       }
     } else {
-      child.setChildIndex(this.children.size());
-      this.children.add(child);
+      child.setChildIndex(this.children.size);
+      this.children.append(child);
     }
 
     ((DelphiNodeImpl) node).setParent(this);
   }
 
+  /**
+   * Trims the child arrays of this node and its descendants to their exact size
+   *
+   * <p>Children are only added while the tree is being built, so this is done once the parse is
+   * finished.
+   */
+  public void trimChildren() {
+    ChildList childList = this.children;
+    childList.trim();
+    for (int i = 0; i < childList.size; ++i) {
+      ((DelphiNodeImpl) childList.nodes[i]).trimChildren();
+    }
+  }
+
+  /**
+   * Finishes the tree under this node, trimming the child arrays and linking every node to the AST
+   *
+   * @param ast the AST that this node belongs to
+   */
+  protected void finishTree(DelphiAst ast) {
+    this.ast = ast;
+    ChildList childList = this.children;
+    childList.trim();
+    for (int i = 0; i < childList.size; ++i) {
+      ((DelphiNodeImpl) childList.nodes[i]).finishTree(ast);
+    }
+  }
+
+  /**
+   * Links this node and its descendants to the scopes that they're in
+   *
+   * <p>This is done once the scopes of the tree are attached, so that {@link #getScope()} doesn't
+   * have to look through the parents of a node. If a scope is set later on, the links under that
+   * node are dropped again.
+   */
+  public void linkScopes() {
+    linkScopes(parent == null ? unknownScope() : parent.getScope());
+  }
+
+  private void linkScopes(DelphiScope enclosingScope) {
+    DelphiScope result = scope == null ? enclosingScope : scope;
+    this.linkedScope = result;
+    ChildList childList = this.children;
+    for (int i = 0; i < childList.size; ++i) {
+      ((DelphiNodeImpl) childList.nodes[i]).linkScopes(result);
+    }
+  }
+
+  private void unlinkScopes() {
+    this.linkedScope = null;
+    ChildList childList = this.children;
+    for (int i = 0; i < childList.size; ++i) {
+      ((DelphiNodeImpl) childList.nodes[i]).unlinkScopes();
+    }
+  }
+
   @Override
   public int getTokenIndex() {
     return getFirstToken().getIndex();
@@ -167,8 +249,8 @@ public abstract class DelphiNodeImpl implements MutableDelphiNode {
     DelphiToken result = this.token;
     int index = result.getIndex();
 
-    for (int i = 0; i < getChildren().size(); ++i) {
-      DelphiToken childToken = getChild(i).getFirstToken();
+    for (int i = 0; i < children.size; ++i) {
+      DelphiToken childToken = children.nodes[i].getFirstToken();
       if (!childToken.isImaginary() && childToken.getIndex() < index) {
         result = childToken;
       }
@@ -181,8 +263,8 @@ public abstract class DelphiNodeImpl implements MutableDelphiNode {
     DelphiToken result = this.getFirstToken();
     int index = result.getIndex();
 
-    for (DelphiNode child : getChildren()) {
-      DelphiToken childToken = child.getLastToken();
+    for (int i = 0; i < children.size; ++i) {
+      DelphiToken childToken = children.nodes[i].getLastToken();
       if (!childToken.isImaginary() && childToken.getIndex() > index) {
         result = childToken;
       }
@@ -192,7 +274,8 @@ public abstract class DelphiNodeImpl implements MutableDelphiNode {
 
   @Override
   public DelphiNode getFirstChildWithTokenType(DelphiTokenType tokenType) {
-    for (DelphiNode child : getChildren()) {
+    for (int i = 0; i < children.size; ++i) {
+      DelphiNode child = children.nodes[i];
       if (child.getToken().getType() == tokenType) {
         return child;
       }
@@ -207,6 +290,10 @@ public abstract class DelphiNodeImpl implements MutableDelphiNode {
 
   @Override
   public final DelphiAst getAst() {
+    DelphiAst result = ast;
+    if (result != null) {
+      return result;
+    }
     if (this instanceof DelphiAst) {
       return (DelphiAst) this;
     }
@@ -218,10 +305,21 @@ public abstract class DelphiNodeImpl implements MutableDelphiNode {
     return ((DelphiAstImpl) getAst()).getCommentsInsideNode(this);
   }
 
+  @Override
+  public List<DelphiToken> getLeadingComments() {
+    return ((DelphiAstImpl) getAst()).getLeadingComments(this);
+  }
+
+  @Override
+  public List<DelphiToken> getTrailingComments() {
+    return ((DelphiAstImpl) getAst()).getTrailingComments(this);
+  }
+
   @Override
   public <T> T childrenAccept(DelphiParserVisitor<T> visitor, T data) {
-    for (DelphiNode child : getChildren()) {
-      child.accept(visitor, data);
+    TimeBudget.checkpoint();
+    for (int i = 0; i < children.size; ++i) {
+      children.nodes[i].accept(visitor, data);
     }
     return data;
   }
@@ -229,6 +327,8 @@ public abstract class DelphiNodeImpl implements MutableDelphiNode {
   @Override
   public void setParent(DelphiNode parent) {
     this.parent = parent;
+    this.ast = null;
+    this.linkedScope = null;
   }
 
   @Override
@@ -248,13 +348,13 @@ public abstract class DelphiNodeImpl implements MutableDelphiNode {
 
   @Override
   public List<DelphiNode> getChildren() {
-    return children == null ? Collections.emptyList() : Collections.unmodifiableList(children);
+    return children;
   }
 
   @Override
   public DelphiNode getChild(int index) {
-    if (index >= 0 && index < getChildren().size()) {
-      return this.children.get(index);
+    if (index >= 0 && index < children.size) {
+      return children.nodes[index];
     }
     return null;
   }
@@ -306,6 +406,11 @@ public abstract class DelphiNodeImpl implements MutableDelphiNode {
 
   @Override
   public <T> List<T> findDescendantsOfType(Class<T> targetType) {
+    NodeTypeIndex index = getNodeTypeIndex();
+    if (index != null) {
+      return index.findDescendantsOfType(this, targetType);
+    }
+
     List<T> list = new ArrayList<>();
     findDescendantsOfType(this, targetType, list);
     return list;
@@ -313,7 +418,9 @@ public abstract class DelphiNodeImpl implements MutableDelphiNode {
 
   private static <T> void findDescendantsOfType(
       DelphiNode node, Class<T> targetType, List<T> results) {
-    for (DelphiNode child : node.getChildren()) {
+    List<DelphiNode> nodeChildren = node.getChildren();
+    for (int i = 0; i < nodeChildren.size(); ++i) {
+      DelphiNode child = nodeChildren.get(i);
       if (targetType.isAssignableFrom(child.getClass())) {
         results.add(targetType.cast(child));
       }
@@ -326,7 +433,8 @@ public abstract class DelphiNodeImpl implements MutableDelphiNode {
   public <T> List<T> findChildrenOfType(Class<T> targetType) {
     List<T> list = new ArrayList<>();
 
-    for (DelphiNode child : getChildren()) {
+    for (int i = 0; i < children.size; ++i) {
+      DelphiNode child = children.nodes[i];
       if (targetType.isInstance(child)) {
         list.add(targetType.cast(child));
       }
@@ -337,12 +445,31 @@ public abstract class DelphiNodeImpl implements MutableDelphiNode {
 
   @Override
   public <T> T getFirstDescendantOfType(Class<T> descendantType) {
+    NodeTypeIndex index = getNodeTypeIndex();
+    if (index != null) {
+      return index.getFirstDescendantOfType(this, descendantType);
+    }
     return getFirstDescendantOfType(descendantType, this);
   }
 
+  private NodeTypeIndex getNodeTypeIndex() {
+    if (this instanceof DelphiAstImpl) {
+      return ((DelphiAstImpl) this).getNodeTypeIndex();
+    }
+
+    // Nodes are only numbered once their AST has been indexed
+    if (lastDescendant - preOrder < MIN_INDEXED_SUBTREE_SIZE) {
+      return null;
+    }
+
+    DelphiAst ast = getAst();
+    return ast == null ? null : ((DelphiAstImpl) ast).getNodeTypeIndex();
+  }
+
   @Override
   public <T> T getFirstChildOfType(Class<T> childType) {
-    for (DelphiNode child : getChildren()) {
+    for (int i = 0; i < children.size; ++i) {
+      DelphiNode child = children.nodes[i];
       if (childType.isInstance(child)) {
         return childType.cast(child);
       }
@@ -352,7 +479,9 @@ public abstract class DelphiNodeImpl implements MutableDelphiNode {
   }
 
   private static <T> T getFirstDescendantOfType(Class<T> descendantType, DelphiNode node) {
-    for (DelphiNode child : node.getChildren()) {
+    List<DelphiNode> nodeChildren = node.getChildren();
+    for (int i = 0; i < nodeChildren.size(); ++i) {
+      DelphiNode child = nodeChildren.get(i);
       if (descendantType.isAssignableFrom(child.getClass())) {
         return descendantType.cast(child);
       }
@@ -384,4 +513,41 @@ public abstract class DelphiNodeImpl implements MutableDelphiNode {
   public final TypeFactory getTypeFactory() {
     return getAst().getDelphiFile().getTypeFactory();
   }
+
+  /**
+   * The children of a node, stored in an array that's grown while the tree is built and trimmed
+   * once it's finished.
+   *
+   * <p>The list is its own unmodifiable view, so handing it out doesn't allocate anything.
+   */
+  private static final class ChildList extends AbstractList<DelphiNode> implements RandomAccess {
+    private static final DelphiNode[] NO_NODES = new DelphiNode[0];
+    private static final ChildList EMPTY = new ChildList();
+
+    private DelphiNode[] nodes = NO_NODES;
+    private int size;
+
+    private void append(DelphiNode node) {
+      if (size == nodes.length) {
+        nodes = Arrays.copyOf(nodes, Math.max(2, size * 2));
+      }
+      nodes[size++] = node;
+    }
+
+    private void trim() {
+      if (size < nodes.length) {
+        nodes = Arrays.copyOf(nodes, size);
+      }
+    }
+
+    @Override
+    public DelphiNode get(int index) {
+      return nodes[Objects.checkIndex(index, size)];
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+  }
 }
@@ -0,0 +1,163 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.antlr.ast.node;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
+
+/**
+ * An index of the nodes in an AST by type.
+ *
+ * <p>Building the index numbers every node in pre-order, and records the number of the last node in
+ * its subtree. The descendants of a node are then the nodes numbered after it, up to and including
+ * its last descendant. The nodes of each type are kept in pre-order, so the descendants of a given
+ * type within a subtree are found with a binary search.
+ *
+ * <p>The AST must not be modified once it has been indexed.
+ */
+public final class NodeTypeIndex {
+  private static final DelphiNodeImpl[] NO_NODES = new DelphiNodeImpl[0];
+  private static final Comparator<DelphiNodeImpl> PRE_ORDER =
+      Comparator.comparingInt(node -> node.preOrder);
+
+  private final Map<Class<?>, DelphiNodeImpl[]> nodesByClass;
+  private final Map<Class<?>, DelphiNodeImpl[]> nodesByType = new ConcurrentHashMap<>();
+
+  private NodeTypeIndex(Map<Class<?>, DelphiNodeImpl[]> nodesByClass) {
+    this.nodesByClass = nodesByClass;
+  }
+
+  /**
+   * Numbers the nodes of an AST and indexes them by type
+   *
+   * @param root the root of the AST
+   * @return an index of the AST
+   */
+  public static NodeTypeIndex build(DelphiNodeImpl root) {
+    Map<Class<?>, List<DelphiNodeImpl>> nodes = new HashMap<>();
+    number(root, 0, nodes);
+
+    Map<Class<?>, DelphiNodeImpl[]> nodesByClass = new HashMap<>();
+    nodes.forEach((type, list) -> nodesByClass.put(type, list.toArray(NO_NODES)));
+    return new NodeTypeIndex(nodesByClass);
+  }
+
+  private static int number(
+      DelphiNodeImpl node, int number, Map<Class<?>, List<DelphiNodeImpl>> nodes) {
+    node.preOrder = number++;
+    nodes.computeIfAbsent(node.getClass(), key -> new ArrayList<>()).add(node);
+
+    List<DelphiNode> children = node.getChildren();
+    for (int i = 0; i < children.size(); ++i) {
+      number = number((DelphiNodeImpl) children.get(i), number, nodes);
+    }
+
+    node.lastDescendant = number - 1;
+    return number;
+  }
+
+  /**
+   * Returns the descendants of a node that are instances of a type, in pre-order
+   *
+   * @param node an indexed node
+   * @param type the type of descendants to find
+   * @param <T> the type of descendants to find
+   * @return the matching descendants of the node
+   */
+  public <T> List<T> findDescendantsOfType(DelphiNodeImpl node, Class<T> type) {
+    DelphiNodeImpl[] nodes = getNodesOfType(type);
+    List<T> result = new ArrayList<>();
+    for (int i = firstDescendant(nodes, node); i < nodes.length; ++i) {
+      if (nodes[i].preOrder > node.lastDescendant) {
+        break;
+      }
+      result.add(type.cast(nodes[i]));
+    }
+    return result;
+  }
+
+  /**
+   * Returns the first descendant of a node in pre-order that's an instance of a type
+   *
+   * @param node an indexed node
+   * @param type the type of descendant to find
+   * @param <T> the type of descendant to find
+   * @return the first matching descendant of the node, or null if there isn't one
+   */
+  public <T> T getFirstDescendantOfType(DelphiNodeImpl node, Class<T> type) {
+    DelphiNodeImpl[] nodes = getNodesOfType(type);
+    int i = firstDescendant(nodes, node);
+    if (i < nodes.length && nodes[i].preOrder <= node.lastDescendant) {
+      return type.cast(nodes[i]);
+    }
+    return null;
+  }
+
+  private static int firstDescendant(DelphiNodeImpl[] nodes, DelphiNodeImpl node) {
+    // The first node numbered after the given node
+    int low = 0;
+    int high = nodes.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (nodes[mid].preOrder <= node.preOrder) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  private DelphiNodeImpl[] getNodesOfType(Class<?> type) {
+    return nodesByType.computeIfAbsent(type, this::collectNodesOfType);
+  }
+
+  private DelphiNodeImpl[] collectNodesOfType(Class<?> type) {
+    List<DelphiNodeImpl[]> matches = new ArrayList<>();
+    int count = 0;
+    for (Map.Entry<Class<?>, DelphiNodeImpl[]> entry : nodesByClass.entrySet()) {
+      if (type.isAssignableFrom(entry.getKey())) {
+        matches.add(entry.getValue());
+        count += entry.getValue().length;
+      }
+    }
+
+    if (matches.isEmpty()) {
+      return NO_NODES;
+    }
+    if (matches.size() == 1) {
+      return matches.get(0);
+    }
+
+    DelphiNodeImpl[] result = new DelphiNodeImpl[count];
+    int offset = 0;
+    for (DelphiNodeImpl[] nodes : matches) {
+      System.arraycopy(nodes, 0, result, offset, nodes.length);
+      offset += nodes.length;
+    }
+    Arrays.sort(result, PRE_ORDER);
+    return result;
+  }
+}
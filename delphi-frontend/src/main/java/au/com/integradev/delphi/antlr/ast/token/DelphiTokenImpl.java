@@ -29,10 +29,11 @@ public class DelphiTokenImpl implements DelphiToken {
   private final Token token;
   private final DelphiTokenType tokenType;
   private String image;
-  private Integer beginLine;
-  private Integer beginColumn;
-  private Integer endLine;
-  private Integer endColumn;
+  private boolean positionCalculated;
+  private int beginLine;
+  private int beginColumn;
+  private int endLine;
+  private int endColumn;
 
   public DelphiTokenImpl(Token token) {
     this.token = token;
@@ -52,7 +53,7 @@ public class DelphiTokenImpl implements DelphiToken {
 
   @Override
   public int getBeginLine() {
-    if (beginLine == null) {
+    if (!positionCalculated) {
       calculatePosition();
     }
     return beginLine;
@@ -60,7 +61,7 @@ public class DelphiTokenImpl implements DelphiToken {
 
   @Override
   public int getBeginColumn() {
-    if (beginColumn == null) {
+    if (!positionCalculated) {
       calculatePosition();
     }
     return beginColumn;
@@ -68,7 +69,7 @@ public class DelphiTokenImpl implements DelphiToken {
 
   @Override
   public int getEndLine() {
-    if (endLine == null) {
+    if (!positionCalculated) {
       calculatePosition();
     }
     return endLine;
@@ -76,7 +77,7 @@ public class DelphiTokenImpl implements DelphiToken {
 
   @Override
   public int getEndColumn() {
-    if (endColumn == null) {
+    if (!positionCalculated) {
       calculatePosition();
     }
     return endColumn;
@@ -102,6 +103,7 @@ public class DelphiTokenImpl implements DelphiToken {
       endLine = beginLine;
       endColumn = beginColumn + getImage().length();
     }
+    positionCalculated = true;
   }
 
   @Override
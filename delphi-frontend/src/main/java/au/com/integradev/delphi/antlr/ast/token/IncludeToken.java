@@ -27,8 +27,12 @@ public class IncludeToken extends CommonToken {
   private final FilePosition insertionPosition;
 
   public IncludeToken(Token token, DelphiToken insertionToken) {
+    this(token, FilePosition.from(insertionToken));
+  }
+
+  public IncludeToken(Token token, FilePosition insertionPosition) {
     super(token);
-    this.insertionPosition = FilePosition.from(insertionToken);
+    this.insertionPosition = insertionPosition;
   }
 
   public FilePosition getInsertionPosition() {
@@ -0,0 +1,546 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.antlr.ast.token;
+
+import au.com.integradev.delphi.core.DelphiKeywords;
+import com.google.common.base.Preconditions;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import javax.annotation.Nullable;
+import org.antlr.runtime.CommonToken;
+import org.antlr.runtime.Token;
+import org.sonar.plugins.communitydelphi.api.check.FilePosition;
+import org.sonar.plugins.communitydelphi.api.token.DelphiToken;
+import org.sonar.plugins.communitydelphi.api.token.DelphiTokenType;
+
+/**
+ * A compact table of the tokens in a file.
+ *
+ * <p>The attributes of each token are stored in parallel arrays, which are indexed by the position
+ * of the token within the table. Token images aren't stored at all, and are sliced from the source
+ * characters when they're requested.
+ *
+ * <p>The {@link DelphiToken} objects handed out by the table are lightweight views over a table
+ * index. Consumers that want to avoid even those can walk the table by index, or reuse a single
+ * {@link Cursor}.
+ */
+public final class TokenTable {
+  private static final DelphiTokenType[] TOKEN_TYPES = DelphiTokenType.values();
+  private static final int COMMENT = DelphiTokenType.COMMENT.ordinal();
+  private static final int WHITESPACE = DelphiTokenType.WHITESPACE.ordinal();
+
+  private final char[] data;
+  private final int size;
+  private final int[] types;
+  private final int[] indices;
+  private final int[] starts;
+  private final int[] stops;
+  private final int[] beginLines;
+  private final int[] beginColumns;
+  private final int[] endLines;
+  private final int[] endColumns;
+  private final int[] comments;
+
+  private TokenTable(char[] data, List<Token> tokens) {
+    this.data = data;
+    this.types = new int[tokens.size()];
+    this.indices = new int[tokens.size()];
+    this.starts = new int[tokens.size()];
+    this.stops = new int[tokens.size()];
+    this.beginLines = new int[tokens.size()];
+    this.beginColumns = new int[tokens.size()];
+    this.endLines = new int[tokens.size()];
+    this.endColumns = new int[tokens.size()];
+
+    int count = 0;
+    int commentCount = 0;
+    for (Token token : tokens) {
+      if (token.getType() == Token.EOF) {
+        continue;
+      }
+      Preconditions.checkArgument(
+          !(token instanceof IncludeToken), "Included tokens can't be stored in a token table");
+      DelphiTokenType type = DelphiTokenTypeFactory.createTokenType(token.getType());
+      types[count] = type.ordinal();
+      indices[count] = token.getTokenIndex();
+      starts[count] = ((CommonToken) token).getStartIndex();
+      stops[count] = ((CommonToken) token).getStopIndex();
+      beginLines[count] = token.getLine();
+      beginColumns[count] = token.getCharPositionInLine();
+      calculateEndPosition(count, type);
+      if (type == DelphiTokenType.COMMENT) {
+        ++commentCount;
+      }
+      ++count;
+    }
+    this.size = count;
+
+    this.comments = new int[commentCount];
+    for (int i = 0, j = 0; i < size; ++i) {
+      if (types[i] == COMMENT) {
+        comments[j++] = i;
+      }
+    }
+  }
+
+  /**
+   * Creates a token table
+   *
+   * @param data the source characters that the tokens were lexed from
+   * @param tokens the tokens, in order. An EOF token is left out of the table.
+   * @return a token table
+   */
+  public static TokenTable create(char[] data, List<Token> tokens) {
+    return new TokenTable(data, tokens);
+  }
+
+  private void calculateEndPosition(int i, DelphiTokenType type) {
+    int length = stops[i] - starts[i] + 1;
+    endLines[i] = beginLines[i];
+    endColumns[i] = beginColumns[i] + length;
+
+    if (type != DelphiTokenType.COMMENT && type != DelphiTokenType.COMPILER_DIRECTIVE) {
+      return;
+    }
+
+    // Multi-line comments and directives end on a later line, in the column after the last
+    // character. Line terminators are the same as in TokenLocation: \r\n, \n or \r.
+    int lineStart = starts[i];
+    for (int c = starts[i]; c <= stops[i]; ++c) {
+      char character = data[c];
+      if (character == '\r' || character == '\n') {
+        if (character == '\r' && c < stops[i] && data[c + 1] == '\n') {
+          ++c;
+        }
+        ++endLines[i];
+        lineStart = c + 1;
+      }
+    }
+
+    if (endLines[i] != beginLines[i]) {
+      endColumns[i] = stops[i] + 1 - lineStart;
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public DelphiTokenType getType(int i) {
+    return TOKEN_TYPES[types[checkIndex(i)]];
+  }
+
+  /**
+   * Returns the image of a token, which is sliced from the source characters on every call
+   *
+   * @param i the position of the token in the table
+   * @return the image of the token
+   */
+  public String getImage(int i) {
+    checkIndex(i);
+    return new String(data, starts[i], stops[i] - starts[i] + 1);
+  }
+
+  public int getImageLength(int i) {
+    checkIndex(i);
+    return stops[i] - starts[i] + 1;
+  }
+
+  /**
+   * Returns a character from the image of a token, without slicing the image
+   *
+   * @param i the position of the token in the table
+   * @param offset the offset of the character within the image
+   * @return the character at the offset within the image of the token
+   */
+  public char getImageChar(int i, int offset) {
+    Objects.checkIndex(offset, getImageLength(i));
+    return data[starts[i] + offset];
+  }
+
+  public int getBeginLine(int i) {
+    return beginLines[checkIndex(i)];
+  }
+
+  public int getBeginColumn(int i) {
+    return beginColumns[checkIndex(i)];
+  }
+
+  public int getEndLine(int i) {
+    return endLines[checkIndex(i)];
+  }
+
+  public int getEndColumn(int i) {
+    return endColumns[checkIndex(i)];
+  }
+
+  /**
+   * Returns the index of a token in the token stream of its file
+   *
+   * @param i the position of the token in the table
+   * @return the index of the token in the token stream
+   */
+  public int getIndex(int i) {
+    return indices[checkIndex(i)];
+  }
+
+  public boolean isImaginary(int i) {
+    return beginLines[checkIndex(i)] == FilePosition.UNDEFINED_LINE;
+  }
+
+  public boolean isWhitespace(int i) {
+    return getType(i) == DelphiTokenType.WHITESPACE;
+  }
+
+  public boolean isComment(int i) {
+    return getType(i) == DelphiTokenType.COMMENT;
+  }
+
+  public boolean isCompilerDirective(int i) {
+    return getType(i) == DelphiTokenType.COMPILER_DIRECTIVE;
+  }
+
+  public boolean isKeyword(int i) {
+    return DelphiKeywords.KEYWORDS.contains(getType(i));
+  }
+
+  /**
+   * Returns a view of a token
+   *
+   * @param i the position of the token in the table
+   * @return a token that reads its attributes from the table
+   */
+  public DelphiToken get(int i) {
+    return new TableToken(this, checkIndex(i));
+  }
+
+  /**
+   * Returns a cursor over the table, which is positioned before the first token
+   *
+   * @return a cursor over the table
+   */
+  public Cursor cursor() {
+    return new Cursor(this);
+  }
+
+  /**
+   * Returns every token in the table
+   *
+   * @return an unmodifiable list view of the tokens in the table
+   */
+  public List<DelphiToken> asList() {
+    return new TokenList(this, null, 0, size);
+  }
+
+  /**
+   * Returns the comment tokens in the table
+   *
+   * @return an unmodifiable list view of the comments in the table
+   */
+  public List<DelphiToken> getComments() {
+    return new TokenList(this, comments, 0, comments.length);
+  }
+
+  /**
+   * Returns the comments between two tokens, which are found with a binary search
+   *
+   * @param fromIndex the token stream index of the token before the comments
+   * @param toIndex the token stream index of the token after the comments
+   * @return an unmodifiable list view of the comments with token stream indices strictly between
+   *     {@code fromIndex} and {@code toIndex}
+   */
+  public List<DelphiToken> getCommentsBetween(int fromIndex, int toIndex) {
+    int from = firstCommentAfter(fromIndex);
+    int to = Math.max(from, firstCommentAfter(toIndex - 1));
+    return new TokenList(this, comments, from, to);
+  }
+
+  /**
+   * Returns the comments that lead a token
+   *
+   * <p>Leading comments are the comments between the token and the previous token that isn't
+   * whitespace or a comment. Comments that begin on the line where that previous token ends are
+   * trailing comments of the previous token instead.
+   *
+   * @param index the token stream index of the token
+   * @return an unmodifiable list view of the leading comments of the token
+   */
+  public List<DelphiToken> getLeadingComments(int index) {
+    int position = positionOf(index);
+    if (position == -1) {
+      return List.of();
+    }
+
+    int previous = position - 1;
+    while (previous >= 0 && isHidden(previous)) {
+      --previous;
+    }
+
+    int from = firstCommentAfter(previous == -1 ? Integer.MIN_VALUE : indices[previous]);
+    int to = firstCommentAfter(index - 1);
+    if (previous != -1) {
+      while (from < to && beginLines[comments[from]] == endLines[previous]) {
+        ++from;
+      }
+    }
+    return new TokenList(this, comments, from, to);
+  }
+
+  /**
+   * Returns the comments that trail a token
+   *
+   * <p>Trailing comments are the comments after the token that begin on the line where the token
+   * ends, up to the next token that isn't whitespace or a comment.
+   *
+   * @param index the token stream index of the token
+   * @return an unmodifiable list view of the trailing comments of the token
+   */
+  public List<DelphiToken> getTrailingComments(int index) {
+    int position = positionOf(index);
+    if (position == -1) {
+      return List.of();
+    }
+
+    int from = firstCommentAfter(index);
+    int to = from;
+    for (int i = position + 1; i < size && isHidden(i); ++i) {
+      if (types[i] == COMMENT) {
+        if (beginLines[i] != endLines[position]) {
+          break;
+        }
+        ++to;
+      }
+    }
+    return new TokenList(this, comments, from, to);
+  }
+
+  private boolean isHidden(int i) {
+    return types[i] == COMMENT || types[i] == WHITESPACE;
+  }
+
+  private int positionOf(int index) {
+    int position = Arrays.binarySearch(indices, 0, size, index);
+    return position < 0 ? -1 : position;
+  }
+
+  private int firstCommentAfter(int index) {
+    int low = 0;
+    int high = comments.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (indices[comments[mid]] <= index) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  private int checkIndex(int i) {
+    return Objects.checkIndex(i, size);
+  }
+
+  /** The base of tokens that read their attributes from a table. */
+  private abstract static class TableTokenView implements DelphiToken {
+    protected final TokenTable table;
+
+    private TableTokenView(TokenTable table) {
+      this.table = table;
+    }
+
+    protected abstract int position();
+
+    @Override
+    public String getImage() {
+      return table.getImage(position());
+    }
+
+    @Override
+    public int getBeginLine() {
+      return table.getBeginLine(position());
+    }
+
+    @Override
+    public int getBeginColumn() {
+      return table.getBeginColumn(position());
+    }
+
+    @Override
+    public int getEndLine() {
+      return table.getEndLine(position());
+    }
+
+    @Override
+    public int getEndColumn() {
+      return table.getEndColumn(position());
+    }
+
+    @Override
+    public boolean isEof() {
+      return false;
+    }
+
+    @Override
+    public boolean isImaginary() {
+      return table.isImaginary(position());
+    }
+
+    @Override
+    public boolean isWhitespace() {
+      return table.isWhitespace(position());
+    }
+
+    @Override
+    public boolean isComment() {
+      return table.isComment(position());
+    }
+
+    @Override
+    public boolean isCompilerDirective() {
+      return table.isCompilerDirective(position());
+    }
+
+    @Override
+    public boolean isKeyword() {
+      return table.isKeyword(position());
+    }
+
+    @Override
+    public boolean isNil() {
+      return false;
+    }
+
+    @Override
+    public int getIndex() {
+      return table.getIndex(position());
+    }
+
+    @Override
+    public DelphiTokenType getType() {
+      return table.getType(position());
+    }
+  }
+
+  private static final class TableToken extends TableTokenView {
+    private final int position;
+
+    private TableToken(TokenTable table, int position) {
+      super(table);
+      this.position = position;
+    }
+
+    @Override
+    protected int position() {
+      return position;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      TableToken other = (TableToken) o;
+      return table == other.table && position == other.position;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * System.identityHashCode(table) + position;
+    }
+  }
+
+  /**
+   * A single token view that's moved along the table.
+   *
+   * <p>The cursor is only valid at its current position, so it shouldn't be retained by anything
+   * that it's handed to. Use {@link #freeze()} to get a token that stays at the current position.
+   */
+  public static final class Cursor extends TableTokenView {
+    private int position = -1;
+
+    private Cursor(TokenTable table) {
+      super(table);
+    }
+
+    /**
+     * Moves the cursor to the next token in the table
+     *
+     * @return true if the cursor is positioned on a token, false if it moved past the last token
+     */
+    public boolean next() {
+      if (position < table.size) {
+        ++position;
+      }
+      return position < table.size;
+    }
+
+    @Override
+    protected int position() {
+      Preconditions.checkState(position >= 0 && position < table.size, "Cursor is not on a token");
+      return position;
+    }
+
+    /**
+     * Returns a token that stays at the current position of the cursor
+     *
+     * @return a token view at the current position
+     */
+    public DelphiToken freeze() {
+      return table.get(position());
+    }
+  }
+
+  private static final class TokenList extends AbstractList<DelphiToken> implements RandomAccess {
+    private final TokenTable table;
+    @Nullable private final int[] positions;
+    private final int from;
+    private final int to;
+
+    private TokenList(TokenTable table, @Nullable int[] positions, int from, int to) {
+      this.table = table;
+      this.positions = positions;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    public DelphiToken get(int index) {
+      int offset = from + Objects.checkIndex(index, size());
+      return table.get(positions == null ? offset : positions[offset]);
+    }
+
+    @Override
+    public int size() {
+      return to - from;
+    }
+
+    @Override
+    public List<DelphiToken> subList(int fromIndex, int toIndex) {
+      Objects.checkFromToIndex(fromIndex, toIndex, size());
+      return new TokenList(table, positions, from + fromIndex, from + toIndex);
+    }
+  }
+}
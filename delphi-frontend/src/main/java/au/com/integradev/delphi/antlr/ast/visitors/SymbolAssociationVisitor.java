@@ -67,7 +67,9 @@ public class SymbolAssociationVisitor implements DelphiParserVisitor<Data> {
     data.fileScope = (FileScopeImpl) declaration.getFileScope();
     ((DelphiAstImpl) node).setScope(data.fileScope);
 
-    return node.childrenAccept(this, data);
+    node.childrenAccept(this, data);
+    ((DelphiAstImpl) node).linkScopes();
+    return data;
   }
 
   @Override
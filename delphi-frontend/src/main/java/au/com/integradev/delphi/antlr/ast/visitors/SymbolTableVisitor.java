@@ -39,6 +39,7 @@ import au.com.integradev.delphi.symbol.declaration.UnitNameDeclarationImpl;
 import au.com.integradev.delphi.symbol.declaration.VariableNameDeclarationImpl;
 import au.com.integradev.delphi.symbol.occurrence.NameOccurrenceImpl;
 import au.com.integradev.delphi.symbol.resolve.NameResolutionHelper;
+import au.com.integradev.delphi.symbol.scope.ConcurrentResolution;
 import au.com.integradev.delphi.symbol.scope.DeclarationScopeImpl;
 import au.com.integradev.delphi.symbol.scope.DelphiScopeImpl;
 import au.com.integradev.delphi.symbol.scope.FileScopeImpl;
@@ -157,6 +158,7 @@ public abstract class SymbolTableVisitor implements DelphiParserVisitor<Data> {
     protected final SystemScope systemScope;
     protected final SysInitScope sysInitScope;
     protected final Deque<DelphiScope> scopes;
+    protected final ConcurrentResolution concurrentResolution;
     protected UnitNameDeclaration unitDeclaration;
 
     public Data(
@@ -165,7 +167,8 @@ public abstract class SymbolTableVisitor implements DelphiParserVisitor<Data> {
         ImportResolutionHandler importHandler,
         @Nullable SystemScope systemScope,
         @Nullable SysInitScope sysInitScope,
-        @Nullable UnitNameDeclaration unitDeclaration) {
+        @Nullable UnitNameDeclaration unitDeclaration,
+        @Nullable ConcurrentResolution concurrentResolution) {
       this.typeFactory = typeFactory;
       this.nameResolutionHelper = new NameResolutionHelper(typeFactory);
       this.switchRegistry = switchRegistry;
@@ -174,6 +177,7 @@ public abstract class SymbolTableVisitor implements DelphiParserVisitor<Data> {
       this.sysInitScope = sysInitScope;
       this.scopes = new ArrayDeque<>();
       this.unitDeclaration = unitDeclaration;
+      this.concurrentResolution = concurrentResolution;
       if (unitDeclaration != null) {
         scopes.add(unitDeclaration.getFileScope());
       }
@@ -742,7 +746,7 @@ public abstract class SymbolTableVisitor implements DelphiParserVisitor<Data> {
   }
 
   private Data createTypeScope(TypeDeclarationNode node, Data data) {
-    TypeScopeImpl typeScope = new TypeScopeImpl();
+    TypeScopeImpl typeScope = new TypeScopeImpl(data.concurrentResolution);
     data.addScope(typeScope, node.getTypeNode());
 
     NameDeclarationNode typeNameNode = node.getTypeNameNode();
@@ -772,7 +776,7 @@ public abstract class SymbolTableVisitor implements DelphiParserVisitor<Data> {
   }
 
   private void createAnonymousTypeScope(TypeNode node, Data data) {
-    data.addScope(new TypeScopeImpl(), node);
+    data.addScope(new TypeScopeImpl(data.concurrentResolution), node);
     visitScope(node, data);
   }
 
@@ -782,11 +786,12 @@ public abstract class SymbolTableVisitor implements DelphiParserVisitor<Data> {
     FileScope fileScope;
 
     if (name.equals("System")) {
-      fileScope = new SystemScopeImpl(data.typeFactory);
+      fileScope = new SystemScopeImpl(data.typeFactory, data.concurrentResolution);
     } else if (name.equals("SysInit")) {
-      fileScope = new SysInitScopeImpl(name, data.systemScope);
+      fileScope = new SysInitScopeImpl(name, data.systemScope, data.concurrentResolution);
     } else {
-      fileScope = new UnitScopeImpl(name, data.systemScope, data.sysInitScope);
+      fileScope =
+          new UnitScopeImpl(name, data.systemScope, data.sysInitScope, data.concurrentResolution);
     }
 
     data.scopes.add(fileScope);
@@ -0,0 +1,211 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.budget;
+
+import com.google.common.base.Ticker;
+import java.time.Duration;
+import javax.annotation.Nullable;
+
+/**
+ * A limit on the time that the analysis of a single file may take.
+ *
+ * <p>A budget is started on the thread that analyzes the file, and is checked cooperatively by
+ * calling {@link #checkpoint()} from the hot loops of the parser, the AST visitors and the
+ * invocation resolver. Once the budget is exceeded, every checkpoint throws a {@link
+ * TimeBudgetExceededException}, so that the remaining expensive phases of the file are abandoned.
+ *
+ * <p>Checkpoints do nothing on threads without a budget. During symbol table construction, each
+ * source file is given a budget for its parse and its symbol table passes, and the budget of a unit
+ * is paused while the units that it imports are processed.
+ */
+public final class TimeBudget implements AutoCloseable {
+  private static final ThreadLocal<TimeBudget> CURRENT = new ThreadLocal<>();
+  private static final TimeBudget UNLIMITED =
+      new TimeBudget(Duration.ZERO, Ticker.systemTicker(), null);
+  private static final int CHECKPOINT_INTERVAL = 1024;
+
+  private final Duration limit;
+  private final Ticker ticker;
+  private long deadline;
+  private final TimeBudget previous;
+  private int countdown = CHECKPOINT_INTERVAL;
+  private String phase = "Analysis";
+  private String exceededPhase;
+
+  private TimeBudget(Duration limit, Ticker ticker, @Nullable TimeBudget previous) {
+    this.limit = limit;
+    this.ticker = ticker;
+    this.deadline = ticker.read() + limit.toNanos();
+    this.previous = previous;
+  }
+
+  /**
+   * Starts a time budget on the current thread
+   *
+   * @param limit the time that the analysis may take, or {@link Duration#ZERO} for no limit
+   * @return the budget, which must be closed when the analysis of the file is finished
+   */
+  public static TimeBudget start(Duration limit) {
+    return start(limit, Ticker.systemTicker());
+  }
+
+  /**
+   * Starts a time budget on the current thread, measured by the given ticker
+   *
+   * @param limit the time that the analysis may take, or {@link Duration#ZERO} for no limit
+   * @param ticker the source of time for the budget
+   * @return the budget, which must be closed when the analysis of the file is finished
+   */
+  public static TimeBudget start(Duration limit, Ticker ticker) {
+    if (limit.isZero() || limit.isNegative()) {
+      return UNLIMITED;
+    }
+    TimeBudget budget = new TimeBudget(limit, ticker, CURRENT.get());
+    CURRENT.set(budget);
+    return budget;
+  }
+
+  /**
+   * Returns the time budget of the current thread
+   *
+   * @return the current budget, or null if there is no budget on this thread
+   */
+  @Nullable
+  public static TimeBudget current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Pauses the time budget of the current thread, so that work on behalf of something other than
+   * the budgeted file isn't charged to it
+   *
+   * @return the pause, which must be closed to resume the budget
+   */
+  public static Pause pause() {
+    TimeBudget budget = CURRENT.get();
+    if (budget == null) {
+      return Pause.NONE;
+    }
+    CURRENT.remove();
+    return new Pause(budget, budget.ticker.read());
+  }
+
+  /**
+   * Names the phase of the analysis that is about to run on the current thread, so that an overrun
+   * can be attributed to it
+   *
+   * @param phase the name of the phase
+   */
+  public static void enterPhase(String phase) {
+    TimeBudget budget = CURRENT.get();
+    if (budget != null) {
+      budget.phase = phase;
+    }
+  }
+
+  /**
+   * Checks the time budget of the current thread
+   *
+   * <p>The clock is only read every so often, so this is cheap enough to call from hot loops.
+   *
+   * @throws TimeBudgetExceededException if the budget has been exceeded
+   */
+  public static void checkpoint() {
+    TimeBudget budget = CURRENT.get();
+    if (budget != null && (budget.exceededPhase != null || --budget.countdown <= 0)) {
+      budget.check();
+    }
+  }
+
+  /**
+   * Checks the time budget of the current thread, reading the clock immediately
+   *
+   * @throws TimeBudgetExceededException if the budget has been exceeded
+   */
+  public static void ensureWithinBudget() {
+    TimeBudget budget = CURRENT.get();
+    if (budget != null) {
+      budget.check();
+    }
+  }
+
+  private void check() {
+    countdown = CHECKPOINT_INTERVAL;
+    if (exceededPhase == null && ticker.read() - deadline > 0) {
+      exceededPhase = phase;
+    }
+    if (exceededPhase != null) {
+      throw new TimeBudgetExceededException(exceededPhase, limit);
+    }
+  }
+
+  public Duration getLimit() {
+    return limit;
+  }
+
+  public boolean isExceeded() {
+    return exceededPhase != null;
+  }
+
+  /**
+   * Returns the phase that was running when the budget was exceeded
+   *
+   * @return the phase that overran the budget, or null if the budget hasn't been exceeded
+   */
+  @Nullable
+  public String getExceededPhase() {
+    return exceededPhase;
+  }
+
+  /**
+   * A paused time budget, which is resumed with its deadline extended by the length of the pause.
+   */
+  public static final class Pause implements AutoCloseable {
+    private static final Pause NONE = new Pause(null, 0);
+
+    private final TimeBudget budget;
+    private final long pausedAt;
+
+    private Pause(@Nullable TimeBudget budget, long pausedAt) {
+      this.budget = budget;
+      this.pausedAt = pausedAt;
+    }
+
+    @Override
+    public void close() {
+      if (budget == null) {
+        return;
+      }
+      budget.deadline += budget.ticker.read() - pausedAt;
+      CURRENT.set(budget);
+    }
+  }
+
+  @Override
+  public void close() {
+    if (this == UNLIMITED) {
+      return;
+    }
+    if (previous == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(previous);
+    }
+  }
+}
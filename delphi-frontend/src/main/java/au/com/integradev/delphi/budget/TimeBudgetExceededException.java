@@ -0,0 +1,35 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.budget;
+
+import java.time.Duration;
+
+/** Thrown from a checkpoint once the time budget of the current file has been exceeded. */
+public class TimeBudgetExceededException extends RuntimeException {
+  private final String phase;
+
+  TimeBudgetExceededException(String phase, Duration limit) {
+    super("Time budget of " + limit.toSeconds() + "s exceeded during " + phase);
+    this.phase = phase;
+  }
+
+  public String getPhase() {
+    return phase;
+  }
+}
@@ -21,9 +21,14 @@ package au.com.integradev.delphi.check;
 import au.com.integradev.delphi.file.DelphiFile.DelphiInputFile;
 import au.com.integradev.delphi.preprocessor.CompilerSwitchRegistry;
 import au.com.integradev.delphi.reporting.DelphiIssueBuilder;
+import au.com.integradev.delphi.reporting.TestCodeDetector;
+import au.com.integradev.delphi.reporting.TestCodeRegions;
+import com.google.common.base.Suppliers;
 import java.util.List;
+import java.util.function.Supplier;
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.plugins.communitydelphi.api.ast.DelphiAst;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
 import org.sonar.plugins.communitydelphi.api.directive.CompilerDirectiveParser;
@@ -36,6 +41,7 @@ public class DelphiCheckContextImpl implements DelphiCheckContext {
   private final DelphiInputFile delphiFile;
   private final CompilerDirectiveParser compilerDirectiveParser;
   private final MasterCheckRegistrar checkRegistrar;
+  private final Supplier<TestCodeRegions> testCodeRegions;
 
   public DelphiCheckContextImpl(
       DelphiCheck check,
@@ -43,11 +49,53 @@ public class DelphiCheckContextImpl implements DelphiCheckContext {
       DelphiInputFile delphiFile,
       CompilerDirectiveParser compilerDirectiveParser,
       MasterCheckRegistrar checkRegistrar) {
+    this(
+        check,
+        sensorContext,
+        delphiFile,
+        compilerDirectiveParser,
+        checkRegistrar,
+        testCodeRegions(sensorContext, delphiFile));
+  }
+
+  /**
+   * Creates a check context
+   *
+   * @param check the check that the context is for
+   * @param sensorContext the sensor context
+   * @param delphiFile the file being analyzed
+   * @param compilerDirectiveParser the compiler directive parser
+   * @param checkRegistrar the check registrar
+   * @param testCodeRegions the test code regions of the file, which can be shared by the contexts
+   *     of every check on the file
+   */
+  public DelphiCheckContextImpl(
+      DelphiCheck check,
+      SensorContext sensorContext,
+      DelphiInputFile delphiFile,
+      CompilerDirectiveParser compilerDirectiveParser,
+      MasterCheckRegistrar checkRegistrar,
+      Supplier<TestCodeRegions> testCodeRegions) {
     this.check = check;
     this.sensorContext = sensorContext;
     this.delphiFile = delphiFile;
     this.compilerDirectiveParser = compilerDirectiveParser;
     this.checkRegistrar = checkRegistrar;
+    this.testCodeRegions = testCodeRegions;
+  }
+
+  /**
+   * Returns a supplier that finds the test code regions of a file the first time it's called
+   *
+   * @param sensorContext the sensor context
+   * @param delphiFile the file being analyzed
+   * @return a memoizing supplier of the test code regions of the file
+   */
+  public static Supplier<TestCodeRegions> testCodeRegions(
+      SensorContext sensorContext, DelphiInputFile delphiFile) {
+    return Suppliers.memoize(
+        () ->
+            new TestCodeDetector(sensorContext.config()).findTestCodeRegions(delphiFile.getAst()));
   }
 
   @Override
@@ -82,6 +130,12 @@ public class DelphiCheckContextImpl implements DelphiCheckContext {
 
   @Override
   public DelphiIssueBuilder newIssue() {
-    return new DelphiIssueBuilder(check, sensorContext, delphiFile, checkRegistrar);
+    return new DelphiIssueBuilder(
+        check, sensorContext, delphiFile, checkRegistrar, testCodeRegions);
+  }
+
+  @Override
+  public boolean isInTestCode(DelphiNode node) {
+    return testCodeRegions.get().isInTestCode(node);
   }
 }
@@ -41,11 +41,15 @@ import org.sonarsource.api.sonarlint.SonarLintSide;
 @ScannerSide
 @SonarLintSide
 public class MasterCheckRegistrar {
+  private final CheckFactory checkFactory;
+  private final CheckRegistrar[] checkRegistrars;
   private final Map<String, Checks<DelphiCheck>> allChecks;
   private final SetMultimap<RuleScope, DelphiCheck> checksByScope;
   private final IdentityHashMap<DelphiCheck, RuleScope> scopesByCheck;
 
   public MasterCheckRegistrar(CheckFactory checkFactory, CheckRegistrar[] checkRegistrars) {
+    this.checkFactory = checkFactory;
+    this.checkRegistrars = checkRegistrars;
     allChecks = new HashMap<>();
     checksByScope = MultimapBuilder.enumKeys(RuleScope.class).hashSetValues().build();
     scopesByCheck = new IdentityHashMap<>();
@@ -75,6 +79,18 @@ public class MasterCheckRegistrar {
     }
   }
 
+  /**
+   * Creates a registrar with its own instances of every check.
+   *
+   * <p>Checks keep per-file state in their fields, so each analysis worker needs its own set of
+   * check instances.
+   *
+   * @return a registrar with fresh check instances
+   */
+  public MasterCheckRegistrar fork() {
+    return new MasterCheckRegistrar(checkFactory, checkRegistrars);
+  }
+
   public Set<DelphiCheck> getChecks(RuleScope scope) {
     return checksByScope.get(scope);
   }
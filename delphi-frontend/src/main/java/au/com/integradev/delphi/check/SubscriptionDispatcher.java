@@ -0,0 +1,167 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.check;
+
+import au.com.integradev.delphi.budget.TimeBudget;
+import au.com.integradev.delphi.telemetry.AnalysisTelemetry;
+import au.com.integradev.delphi.telemetry.AnalysisTelemetry.Category;
+import au.com.integradev.delphi.telemetry.AnalysisTelemetry.Stopwatch;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
+import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
+
+/**
+ * Executes {@link DelphiSubscriptionCheck}s in a single walk over an AST.
+ *
+ * <p>Each node is handed only to the checks that subscribed to its type. The subscribers for each
+ * node class are resolved once and then looked up on every subsequent node of that class.
+ *
+ * <p>If telemetry is enabled, the wall time spent in each callback is added up for the check that
+ * handled it, and recorded against its rule once the walk has ended. The CPU time and allocated
+ * bytes of the walk are shared out between the rules in proportion to their wall time.
+ */
+public class SubscriptionDispatcher {
+  private static final Subscriber[] NO_SUBSCRIBERS = new Subscriber[0];
+
+  private final AnalysisTelemetry telemetry;
+  private final boolean measured;
+  private final List<Subscriber> subscribers = new ArrayList<>();
+  private final Map<Class<?>, Subscriber[]> subscribersByNodeClass = new HashMap<>();
+  private Stopwatch stopwatch;
+
+  public SubscriptionDispatcher() {
+    this(AnalysisTelemetry.disabled());
+  }
+
+  public SubscriptionDispatcher(AnalysisTelemetry telemetry) {
+    this.telemetry = telemetry;
+    this.measured = telemetry.isEnabled();
+  }
+
+  public void subscribe(DelphiSubscriptionCheck check, DelphiCheckContext context) {
+    subscribe(check, context, check.getClass().getSimpleName());
+  }
+
+  public void subscribe(
+      DelphiSubscriptionCheck check, DelphiCheckContext context, String ruleName) {
+    subscribers.add(new Subscriber(check, context, ruleName));
+    subscribersByNodeClass.clear();
+  }
+
+  public boolean isEmpty() {
+    return subscribers.isEmpty();
+  }
+
+  public void start() {
+    stopwatch = telemetry.start();
+    for (Subscriber subscriber : subscribers) {
+      subscriber.wallTime = 0;
+      if (measured) {
+        long begin = telemetry.wallTime();
+        subscriber.check.start(subscriber.context);
+        subscriber.wallTime += telemetry.wallTime() - begin;
+      } else {
+        subscriber.check.start(subscriber.context);
+      }
+    }
+  }
+
+  public void walk(DelphiNode node) {
+    TimeBudget.checkpoint();
+    Subscriber[] nodeSubscribers = getSubscribers(node.getClass());
+
+    for (Subscriber subscriber : nodeSubscribers) {
+      if (measured) {
+        long begin = telemetry.wallTime();
+        subscriber.check.visitNode(node, subscriber.context);
+        subscriber.wallTime += telemetry.wallTime() - begin;
+      } else {
+        subscriber.check.visitNode(node, subscriber.context);
+      }
+    }
+
+    for (DelphiNode child : node.getChildren()) {
+      walk(child);
+    }
+
+    for (Subscriber subscriber : nodeSubscribers) {
+      if (measured) {
+        long begin = telemetry.wallTime();
+        subscriber.check.leaveNode(node, subscriber.context);
+        subscriber.wallTime += telemetry.wallTime() - begin;
+      } else {
+        subscriber.check.leaveNode(node, subscriber.context);
+      }
+    }
+  }
+
+  public void end() {
+    for (Subscriber subscriber : subscribers) {
+      if (measured) {
+        long begin = telemetry.wallTime();
+        subscriber.check.end(subscriber.context);
+        subscriber.wallTime += telemetry.wallTime() - begin;
+      } else {
+        subscriber.check.end(subscriber.context);
+      }
+    }
+
+    if (measured) {
+      Map<String, Long> wallTimes = new LinkedHashMap<>();
+      for (Subscriber subscriber : subscribers) {
+        wallTimes.merge(subscriber.ruleName, subscriber.wallTime, Long::sum);
+      }
+      telemetry.recordShares(Category.RULE, wallTimes, stopwatch);
+    }
+  }
+
+  private Subscriber[] getSubscribers(Class<?> nodeClass) {
+    return subscribersByNodeClass.computeIfAbsent(nodeClass, this::resolveSubscribers);
+  }
+
+  private Subscriber[] resolveSubscribers(Class<?> nodeClass) {
+    List<Subscriber> result = new ArrayList<>();
+    for (Subscriber subscriber : subscribers) {
+      if (subscriber.nodeTypes.stream().anyMatch(type -> type.isAssignableFrom(nodeClass))) {
+        result.add(subscriber);
+      }
+    }
+    return result.isEmpty() ? NO_SUBSCRIBERS : result.toArray(NO_SUBSCRIBERS);
+  }
+
+  private static final class Subscriber {
+    private final DelphiSubscriptionCheck check;
+    private final DelphiCheckContext context;
+    private final String ruleName;
+    private final List<Class<? extends DelphiNode>> nodeTypes;
+    private long wallTime;
+
+    private Subscriber(DelphiSubscriptionCheck check, DelphiCheckContext context, String ruleName) {
+      this.check = check;
+      this.context = context;
+      this.ruleName = ruleName;
+      this.nodeTypes = List.copyOf(check.nodesToVisit());
+    }
+  }
+}
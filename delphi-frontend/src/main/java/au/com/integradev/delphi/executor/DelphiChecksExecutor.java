@@ -20,19 +20,30 @@ package au.com.integradev.delphi.executor;
 
 import au.com.integradev.delphi.check.DelphiCheckContextImpl;
 import au.com.integradev.delphi.check.MasterCheckRegistrar;
+import au.com.integradev.delphi.check.SubscriptionDispatcher;
 import au.com.integradev.delphi.compiler.Platform;
 import au.com.integradev.delphi.file.DelphiFile.DelphiInputFile;
 import au.com.integradev.delphi.msbuild.DelphiProjectHelper;
 import au.com.integradev.delphi.preprocessor.directive.CompilerDirectiveParserImpl;
+import au.com.integradev.delphi.reporting.TestCodeRegions;
+import au.com.integradev.delphi.telemetry.AnalysisTelemetry;
+import au.com.integradev.delphi.telemetry.AnalysisTelemetry.Category;
+import au.com.integradev.delphi.telemetry.AnalysisTelemetry.Stopwatch;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import org.sonar.api.SonarProduct;
 import org.sonar.api.SonarRuntime;
 import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.rule.RuleKey;
 import org.sonar.api.rule.RuleScope;
 import org.sonar.api.utils.AnnotationUtils;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiAst;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheckContext;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 import org.sonar.plugins.communitydelphi.api.check.SonarLintUnsupported;
 import org.sonar.plugins.communitydelphi.api.directive.CompilerDirectiveParser;
 
@@ -54,6 +65,9 @@ public class DelphiChecksExecutor implements Executor {
   public void execute(Context context, DelphiInputFile delphiFile) {
     Platform platform = delphiProjectHelper.getToolchain().platform;
     CompilerDirectiveParser compilerDirectiveParser = new CompilerDirectiveParserImpl(platform);
+    // The test code regions of the file are found once, and shared by every check.
+    Supplier<TestCodeRegions> testCodeRegions =
+        DelphiCheckContextImpl.testCodeRegions(context.sensorContext(), delphiFile);
     Function<DelphiCheck, DelphiCheckContext> createCheckContext =
         check ->
             new DelphiCheckContextImpl(
@@ -61,28 +75,58 @@ public class DelphiChecksExecutor implements Executor {
                 context.sensorContext(),
                 delphiFile,
                 compilerDirectiveParser,
-                checkRegistrar);
+                checkRegistrar,
+                testCodeRegions);
 
-    runChecks(RuleScope.ALL, createCheckContext);
+    List<DelphiCheck> checks = new ArrayList<>(checkRegistrar.getChecks(RuleScope.ALL));
     // Main files may contain test code.
-    runChecks(RuleScope.TEST, createCheckContext);
+    checks.addAll(checkRegistrar.getChecks(RuleScope.TEST));
     // Test files do not contain main code.
     if (delphiFile.getInputFile().type() != InputFile.Type.TEST) {
-      runChecks(RuleScope.MAIN, createCheckContext);
+      checks.addAll(checkRegistrar.getChecks(RuleScope.MAIN));
     }
+
+    runChecks(checks, delphiFile.getAst(), createCheckContext, context.telemetry());
   }
 
   private void runChecks(
-      RuleScope scope, Function<DelphiCheck, DelphiCheckContext> createCheckContext) {
-    checkRegistrar.getChecks(scope).stream()
-        .filter(this::isCheckSupportedOnPlatform)
-        .forEach(
-            check -> {
-              DelphiCheckContext context = createCheckContext.apply(check);
-              check.start(context);
-              check.visit(context.getAst(), context);
-              check.end(context);
-            });
+      List<DelphiCheck> checks,
+      DelphiAst ast,
+      Function<DelphiCheck, DelphiCheckContext> createCheckContext,
+      AnalysisTelemetry telemetry) {
+    SubscriptionDispatcher dispatcher = new SubscriptionDispatcher(telemetry);
+
+    for (DelphiCheck check : checks) {
+      if (!isCheckSupportedOnPlatform(check)) {
+        continue;
+      }
+
+      DelphiCheckContext context = createCheckContext.apply(check);
+      String ruleName = telemetry.isEnabled() ? getRuleName(check) : null;
+      if (check instanceof DelphiSubscriptionCheck) {
+        dispatcher.subscribe((DelphiSubscriptionCheck) check, context, ruleName);
+      } else {
+        Stopwatch stopwatch = telemetry.start();
+        check.start(context);
+        check.visit(context.getAst(), context);
+        check.end(context);
+        telemetry.record(Category.RULE, ruleName, stopwatch);
+      }
+    }
+
+    if (!dispatcher.isEmpty()) {
+      // Every subscription check is executed in the same walk over the AST.
+      dispatcher.start();
+      dispatcher.walk(ast);
+      dispatcher.end();
+    }
+  }
+
+  private String getRuleName(DelphiCheck check) {
+    return checkRegistrar
+        .getRuleKey(check)
+        .map(RuleKey::toString)
+        .orElseGet(() -> check.getClass().getSimpleName());
   }
 
   private boolean isCheckSupportedOnPlatform(DelphiCheck check) {
@@ -90,6 +134,11 @@ public class DelphiChecksExecutor implements Executor {
         || AnnotationUtils.getAnnotation(check, SonarLintUnsupported.class) == null;
   }
 
+  @Override
+  public DelphiChecksExecutor fork() {
+    return new DelphiChecksExecutor(delphiProjectHelper, checkRegistrar.fork(), sonarRuntime);
+  }
+
   @Override
   public Set<Class<? extends Executor>> dependencies() {
     return Set.of(DelphiSymbolTableExecutor.class, DelphiNoSonarExecutor.class);
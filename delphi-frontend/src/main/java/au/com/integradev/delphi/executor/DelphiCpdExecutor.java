@@ -19,7 +19,6 @@
 package au.com.integradev.delphi.executor;
 
 import au.com.integradev.delphi.file.DelphiFile.DelphiInputFile;
-import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.batch.sensor.cpd.NewCpdTokens;
 import org.sonar.plugins.communitydelphi.api.token.DelphiToken;
 import org.sonar.plugins.communitydelphi.api.token.DelphiTokenType;
@@ -31,8 +30,13 @@ public class DelphiCpdExecutor extends DelphiTokenExecutor {
   private NewCpdTokens cpdTokens;
 
   @Override
-  public void onFile(SensorContext context, DelphiInputFile delphiFile) {
-    cpdTokens = context.newCpdTokens().onFile(delphiFile.getInputFile());
+  public DelphiCpdExecutor fork() {
+    return new DelphiCpdExecutor();
+  }
+
+  @Override
+  public void onFile(Context context, DelphiInputFile delphiFile) {
+    cpdTokens = context.sensorContext().newCpdTokens().onFile(delphiFile.getInputFile());
   }
 
   @Override
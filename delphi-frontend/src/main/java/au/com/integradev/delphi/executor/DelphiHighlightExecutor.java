@@ -19,7 +19,6 @@
 package au.com.integradev.delphi.executor;
 
 import au.com.integradev.delphi.file.DelphiFile.DelphiInputFile;
-import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.batch.sensor.highlighting.NewHighlighting;
 import org.sonar.api.batch.sensor.highlighting.TypeOfText;
 import org.sonar.plugins.communitydelphi.api.token.DelphiToken;
@@ -30,8 +29,13 @@ public class DelphiHighlightExecutor extends DelphiTokenExecutor {
   private boolean insideAsmBlock;
 
   @Override
-  public void onFile(SensorContext context, DelphiInputFile delphiFile) {
-    highlighter = context.newHighlighting().onFile(delphiFile.getInputFile());
+  public DelphiHighlightExecutor fork() {
+    return new DelphiHighlightExecutor();
+  }
+
+  @Override
+  public void onFile(Context context, DelphiInputFile delphiFile) {
+    highlighter = context.sensorContext().newHighlighting().onFile(delphiFile.getInputFile());
     insideAsmBlock = false;
   }
 
@@ -18,23 +18,31 @@
  */
 package au.com.integradev.delphi.executor;
 
+import au.com.integradev.delphi.budget.TimeBudget;
+import au.com.integradev.delphi.budget.TimeBudgetExceededException;
 import au.com.integradev.delphi.file.DelphiFile.DelphiInputFile;
+import au.com.integradev.delphi.incremental.AnalysisRecording;
+import au.com.integradev.delphi.telemetry.AnalysisTelemetry;
+import au.com.integradev.delphi.telemetry.AnalysisTelemetry.Category;
+import au.com.integradev.delphi.telemetry.AnalysisTelemetry.Stopwatch;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.sonar.api.batch.fs.InputFile;
 import org.sonar.plugins.communitydelphi.api.FatalAnalysisError;
 
 public class DelphiMasterExecutor implements Executor {
   private static final Logger LOG = LoggerFactory.getLogger(DelphiMasterExecutor.class);
   private final List<Executor> executors;
-  private final Set<Class<? extends Executor>> executed;
 
   public DelphiMasterExecutor(Executor... allExecutors) {
     executors = Arrays.asList(allExecutors);
-    executed = new HashSet<>();
   }
 
   @Override
@@ -46,12 +54,16 @@ public class DelphiMasterExecutor implements Executor {
 
   @Override
   public void execute(Context context, DelphiInputFile file) {
-    executed.clear();
+    AnalysisTelemetry telemetry = context.telemetry();
+    Stopwatch stopwatch = telemetry.start();
+    Set<Class<? extends Executor>> executed = new HashSet<>();
     for (Executor executor : executors) {
       try {
-        executeExecutor(executor, context, file);
+        executeExecutor(executor, context, file, executed);
       } catch (FatalAnalysisError e) {
         throw e;
+      } catch (TimeBudgetExceededException e) {
+        // Reported once the file is finished
       } catch (Exception e) {
         String executorName = executor.getClass().getSimpleName();
         String fileName = file.getSourceCodeFile().getName();
@@ -59,6 +71,20 @@ public class DelphiMasterExecutor implements Executor {
         LOG.info("Continuing with next executor.");
       }
     }
+    telemetry.record(Category.FILE, file.getInputFile().toString(), stopwatch);
+    reportExceededTimeBudget(file);
+  }
+
+  private static void reportExceededTimeBudget(DelphiInputFile file) {
+    TimeBudget budget = TimeBudget.current();
+    if (budget != null && budget.isExceeded()) {
+      LOG.warn(
+          "Analysis of {} exceeded its time budget of {}s during {}, so the rest of its"
+              + " analysis was skipped.",
+          file.getSourceCodeFile().getName(),
+          budget.getLimit().toSeconds(),
+          budget.getExceededPhase());
+    }
   }
 
   @Override
@@ -68,15 +94,103 @@ public class DelphiMasterExecutor implements Executor {
     }
   }
 
-  private void executeExecutor(Executor executor, Context context, DelphiInputFile file) {
-    if (!executed.contains(executor.getClass())) {
-      executeDependencies(executor, context, file);
-      executor.execute(context, file);
+  @Override
+  public void restore(Context context, InputFile inputFile, AnalysisRecording recording) {
+    for (Executor executor : executors) {
+      executor.restore(context, inputFile, recording);
+    }
+  }
+
+  @Override
+  public DelphiMasterExecutor fork() {
+    return new DelphiMasterExecutor(
+        executors.stream().map(Executor::fork).toArray(Executor[]::new));
+  }
+
+  private void executeExecutor(
+      Executor executor,
+      Context context,
+      DelphiInputFile file,
+      Set<Class<? extends Executor>> executed) {
+    if (executor instanceof DelphiTokenExecutor) {
+      executeTokenPass((DelphiTokenExecutor) executor, context, file, executed);
+    } else if (!executed.contains(executor.getClass())) {
+      // Token executors are cheap, so they're the only ones that still run once a file is over its
+      // time budget.
+      TimeBudget.ensureWithinBudget();
+      executeDependencies(executor, context, file, executed);
+      TimeBudget.enterPhase(executor.getClass().getSimpleName());
+      AnalysisTelemetry telemetry = context.telemetry();
+      Stopwatch stopwatch = telemetry.start();
+      try {
+        executor.execute(context, file);
+      } finally {
+        telemetry.record(Category.EXECUTOR, executor.getClass().getSimpleName(), stopwatch);
+      }
       executed.add(executor.getClass());
     }
   }
 
-  private void executeDependencies(Executor executor, Context context, DelphiInputFile file) {
+  /**
+   * Executes a token executor together with every other token executor that is ready to execute, so
+   * that they share a single pass over the tokens of the file.
+   */
+  private void executeTokenPass(
+      DelphiTokenExecutor executor,
+      Context context,
+      DelphiInputFile file,
+      Set<Class<? extends Executor>> executed) {
+    if (executed.contains(executor.getClass())) {
+      return;
+    }
+
+    executeDependencies(executor, context, file, executed);
+
+    List<DelphiTokenExecutor> tokenExecutors = new ArrayList<>();
+    for (Executor other : executors) {
+      if (other instanceof DelphiTokenExecutor
+          && !executed.contains(other.getClass())
+          && executed.containsAll(other.dependencies())) {
+        tokenExecutors.add((DelphiTokenExecutor) other);
+      }
+    }
+
+    AnalysisTelemetry telemetry = context.telemetry();
+    Stopwatch stopwatch = telemetry.start();
+    Map<DelphiTokenExecutor, RuntimeException> failures;
+    try {
+      failures = TokenPass.execute(tokenExecutors, context, file);
+    } finally {
+      if (telemetry.isEnabled()) {
+        telemetry.record(Category.EXECUTOR, getTokenPassName(tokenExecutors), stopwatch);
+      }
+    }
+
+    // Token executors that failed are left unexecuted, so that they fail again with the usual error
+    // handling if they are executed on their own later.
+    for (DelphiTokenExecutor tokenExecutor : tokenExecutors) {
+      if (!failures.containsKey(tokenExecutor)) {
+        executed.add(tokenExecutor.getClass());
+      }
+    }
+
+    RuntimeException failure = failures.get(executor);
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  private static String getTokenPassName(List<DelphiTokenExecutor> tokenExecutors) {
+    return tokenExecutors.stream()
+        .map(tokenExecutor -> tokenExecutor.getClass().getSimpleName())
+        .collect(Collectors.joining("+"));
+  }
+
+  private void executeDependencies(
+      Executor executor,
+      Context context,
+      DelphiInputFile file,
+      Set<Class<? extends Executor>> executed) {
     for (Class<? extends Executor> dependency : executor.dependencies()) {
       if (executed.contains(dependency)) {
         continue;
@@ -89,8 +203,8 @@ public class DelphiMasterExecutor implements Executor {
               .orElseThrow(() -> new UnsatisfiedExecutorDependencyException(executor, dependency));
 
       try {
-        executeExecutor(dependencyExecutor, context, file);
-      } catch (FatalAnalysisError e) {
+        executeExecutor(dependencyExecutor, context, file, executed);
+      } catch (FatalAnalysisError | TimeBudgetExceededException e) {
         throw e;
       } catch (Exception e) {
         throw new UnsatisfiedExecutorDependencyException(executor, dependency, e);
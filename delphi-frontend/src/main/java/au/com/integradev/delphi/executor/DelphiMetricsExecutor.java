@@ -21,8 +21,10 @@ package au.com.integradev.delphi.executor;
 import au.com.integradev.delphi.antlr.ast.visitors.MetricsVisitor;
 import au.com.integradev.delphi.antlr.ast.visitors.MetricsVisitor.Data;
 import au.com.integradev.delphi.file.DelphiFile.DelphiInputFile;
+import au.com.integradev.delphi.incremental.AnalysisRecording;
 import java.io.Serializable;
 import java.util.Set;
+import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.measures.CoreMetrics;
 import org.sonar.api.measures.FileLinesContext;
@@ -31,9 +33,7 @@ import org.sonar.api.measures.Metric;
 
 public class DelphiMetricsExecutor implements Executor {
   private static final MetricsVisitor VISITOR = new MetricsVisitor();
-  private SensorContext context;
   private final FileLinesContextFactory fileLinesContextFactory;
-  private DelphiInputFile file;
 
   public DelphiMetricsExecutor(FileLinesContextFactory fileLinesContextFactory) {
     this.fileLinesContextFactory = fileLinesContextFactory;
@@ -41,33 +41,50 @@ public class DelphiMetricsExecutor implements Executor {
 
   @Override
   public void execute(Context context, DelphiInputFile file) {
-    this.context = context.sensorContext();
-    this.file = file;
-
+    SensorContext sensorContext = context.sensorContext();
     Data metrics = VISITOR.visit(file.getAst(), new Data());
 
-    saveMetricOnFile(CoreMetrics.CLASSES, metrics.getClasses());
-    saveMetricOnFile(CoreMetrics.FUNCTIONS, metrics.getRoutines());
-    saveMetricOnFile(CoreMetrics.COMPLEXITY, metrics.getComplexity());
-    saveMetricOnFile(CoreMetrics.COMMENT_LINES, metrics.getCommentLines());
-    saveMetricOnFile(CoreMetrics.STATEMENTS, metrics.getStatements());
-    saveMetricOnFile(CoreMetrics.COGNITIVE_COMPLEXITY, metrics.getCognitiveComplexity());
+    saveMetricOnFile(sensorContext, file, CoreMetrics.CLASSES, metrics.getClasses());
+    saveMetricOnFile(sensorContext, file, CoreMetrics.FUNCTIONS, metrics.getRoutines());
+    saveMetricOnFile(sensorContext, file, CoreMetrics.COMPLEXITY, metrics.getComplexity());
+    saveMetricOnFile(sensorContext, file, CoreMetrics.COMMENT_LINES, metrics.getCommentLines());
+    saveMetricOnFile(sensorContext, file, CoreMetrics.STATEMENTS, metrics.getStatements());
+    saveMetricOnFile(
+        sensorContext, file, CoreMetrics.COGNITIVE_COMPLEXITY, metrics.getCognitiveComplexity());
 
     Set<Integer> codeLines = metrics.getCodeLines();
-    saveMetricOnFile(CoreMetrics.NCLOC, codeLines.size());
-    saveCodeLinesOnFile(codeLines);
+    saveMetricOnFile(sensorContext, file, CoreMetrics.NCLOC, codeLines.size());
+    saveCodeLinesOnFile(sensorContext, file.getInputFile(), codeLines);
+
+    AnalysisRecording recording = context.recording();
+    if (recording != null) {
+      recording.putLines(CoreMetrics.NCLOC_DATA_KEY, codeLines);
+    }
+  }
+
+  @Override
+  public void restore(Context context, InputFile inputFile, AnalysisRecording recording) {
+    Set<Integer> codeLines = recording.getLines(CoreMetrics.NCLOC_DATA_KEY);
+    saveCodeLinesOnFile(context.sensorContext(), inputFile, codeLines);
   }
 
-  private <T extends Serializable> void saveMetricOnFile(Metric<T> metric, T value) {
+  private static <T extends Serializable> void saveMetricOnFile(
+      SensorContext context, DelphiInputFile file, Metric<T> metric, T value) {
     context.<T>newMeasure().forMetric(metric).on(file.getInputFile()).withValue(value).save();
   }
 
-  private void saveCodeLinesOnFile(Set<Integer> codeLines) {
-    FileLinesContext fileLinesContext = fileLinesContextFactory.createFor(file.getInputFile());
-    for (int line = 1; line <= file.getInputFile().lines(); line++) {
+  private void saveCodeLinesOnFile(
+      SensorContext context, InputFile inputFile, Set<Integer> codeLines) {
+    FileLinesContext fileLinesContext = fileLinesContextFactory.createFor(inputFile);
+    for (int line = 1; line <= inputFile.lines(); line++) {
       fileLinesContext.setIntValue(
           CoreMetrics.NCLOC_DATA_KEY, line, codeLines.contains(line) ? 1 : 0);
     }
-    fileLinesContext.save();
+
+    // FileLinesContext doesn't save through the SensorContext, so it needs to take the same lock
+    // that a SynchronizedSensorContext takes for everything else.
+    synchronized (context) {
+      fileLinesContext.save();
+    }
   }
 }
@@ -19,31 +19,105 @@
 package au.com.integradev.delphi.executor;
 
 import au.com.integradev.delphi.file.DelphiFile.DelphiInputFile;
+import au.com.integradev.delphi.incremental.AnalysisRecording;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.regex.Pattern;
+import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.issue.NoSonarFilter;
 import org.sonar.plugins.communitydelphi.api.token.DelphiToken;
 
-public class DelphiNoSonarExecutor implements Executor {
-  private static final Pattern PATTERN = Pattern.compile(".*\\bNOSONAR\\b.*");
+public class DelphiNoSonarExecutor extends DelphiTokenExecutor {
+  private static final String NOSONAR = "NOSONAR";
+  private static final String NOSONAR_LINES_KEY = "nosonar";
 
   private final NoSonarFilter noSonarFilter;
+  private InputFile inputFile;
+  private AnalysisRecording recording;
+  private Set<Integer> noSonarLines;
 
   public DelphiNoSonarExecutor(NoSonarFilter noSonarFilter) {
     this.noSonarFilter = noSonarFilter;
   }
 
   @Override
-  public void execute(Context context, DelphiInputFile delphiFile) {
-    Set<Integer> noSonarLines = new HashSet<>();
-    for (DelphiToken token : delphiFile.getComments()) {
-      if (PATTERN.matcher(token.getImage()).matches()) {
-        noSonarLines.add(token.getBeginLine());
-      }
+  public DelphiNoSonarExecutor fork() {
+    return new DelphiNoSonarExecutor(noSonarFilter);
+  }
+
+  @Override
+  public void onFile(Context context, DelphiInputFile delphiFile) {
+    inputFile = delphiFile.getInputFile();
+    recording = context.recording();
+    noSonarLines = new HashSet<>();
+  }
+
+  @Override
+  public void handleToken(DelphiToken token) {
+    if (token.isComment() && isNoSonarComment(token.getImage())) {
+      noSonarLines.add(token.getBeginLine());
+    }
+  }
+
+  @Override
+  public void save() {
+    if (!noSonarLines.isEmpty()) {
+      noSonarFilter.noSonarInFile(inputFile, noSonarLines);
+    }
+
+    if (recording != null) {
+      recording.putLines(NOSONAR_LINES_KEY, noSonarLines);
     }
+  }
+
+  @Override
+  public void restore(Context context, InputFile inputFile, AnalysisRecording recording) {
+    Set<Integer> noSonarLines = recording.getLines(NOSONAR_LINES_KEY);
     if (!noSonarLines.isEmpty()) {
-      noSonarFilter.noSonarInFile(delphiFile.getInputFile(), noSonarLines);
+      noSonarFilter.noSonarInFile(inputFile, new HashSet<>(noSonarLines));
+    }
+  }
+
+  /**
+   * Equivalent to matching the comment against {@code .*\bNOSONAR\b.*}, without a regex.
+   *
+   * <p>Like the regex, only comments on a single line are matched.
+   *
+   * @param comment the comment image
+   * @return true if the comment contains the NOSONAR marker as a whole word
+   */
+  static boolean isNoSonarComment(String comment) {
+    int index = comment.indexOf(NOSONAR);
+    while (index != -1) {
+      int end = index + NOSONAR.length();
+      if (!isWordCharacter(comment, index - 1) && !isWordCharacter(comment, end)) {
+        return !containsLineTerminator(comment);
+      }
+      index = comment.indexOf(NOSONAR, end);
+    }
+    return false;
+  }
+
+  private static boolean isWordCharacter(String text, int index) {
+    if (index < 0 || index >= text.length()) {
+      return false;
+    }
+    char c = text.charAt(index);
+    return c == '_' || Character.isLetterOrDigit(c);
+  }
+
+  private static boolean containsLineTerminator(String text) {
+    for (int i = 0; i < text.length(); ++i) {
+      switch (text.charAt(i)) {
+        case '\n':
+        case '\r':
+        case '\u0085':
+        case '\u2028':
+        case '\u2029':
+          return true;
+        default:
+          // continue
+      }
     }
+    return false;
   }
 }
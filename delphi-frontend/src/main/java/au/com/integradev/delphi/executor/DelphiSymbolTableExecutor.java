@@ -18,11 +18,13 @@
  */
 package au.com.integradev.delphi.executor;
 
+import au.com.integradev.delphi.antlr.ast.DelphiAstImpl;
 import au.com.integradev.delphi.antlr.ast.visitors.SonarSymbolTableVisitor;
 import au.com.integradev.delphi.antlr.ast.visitors.SymbolAssociationVisitor;
 import au.com.integradev.delphi.antlr.ast.visitors.SymbolAssociationVisitor.Data;
 import au.com.integradev.delphi.file.DelphiFile.DelphiInputFile;
 import org.sonar.api.batch.sensor.symbol.NewSymbolTable;
+import org.sonar.plugins.communitydelphi.api.symbol.scope.FileScope;
 
 public class DelphiSymbolTableExecutor implements Executor {
   private static final SymbolAssociationVisitor ASSOCIATE_VISITOR = new SymbolAssociationVisitor();
@@ -30,8 +32,13 @@ public class DelphiSymbolTableExecutor implements Executor {
 
   @Override
   public void execute(Context context, DelphiInputFile file) {
-    // Attach AST nodes to scopes, declarations, and occurrences from the symbol table.
-    ASSOCIATE_VISITOR.visit(file.getAst(), new Data(context.symbolTable()));
+    if (!(file.getAst().getScope() instanceof FileScope)) {
+      // Attach AST nodes to scopes, declarations, and occurrences from the symbol table.
+      // Files retained from symbol table construction already have this information.
+      ASSOCIATE_VISITOR.visit(file.getAst(), new Data(context.symbolTable()));
+    } else {
+      ((DelphiAstImpl) file.getAst()).linkScopes();
+    }
 
     // Provide symbol information to the Sonar API, which can be viewed in the web interface.
     NewSymbolTable sonarSymbolTable =
@@ -18,22 +18,32 @@
  */
 package au.com.integradev.delphi.executor;
 
+import au.com.integradev.delphi.antlr.ast.token.TokenTable;
 import au.com.integradev.delphi.file.DelphiFile.DelphiInputFile;
-import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.plugins.communitydelphi.api.token.DelphiToken;
 
+/**
+ * An executor that handles the tokens of a file one at a time.
+ *
+ * <p>When run by a {@link DelphiMasterExecutor}, every token executor is executed together in a
+ * single pass over the tokens of the file. See {@link TokenPass}.
+ *
+ * <p>The tokens are handed over through a {@link TokenTable.Cursor} that's moved along the token
+ * table of the file, so a token is only valid during the call to {@link #handleToken}.
+ */
 public abstract class DelphiTokenExecutor implements Executor {
 
   @Override
   public void execute(Context context, DelphiInputFile delphiFile) {
-    onFile(context.sensorContext(), delphiFile);
-    for (DelphiToken token : delphiFile.getTokens()) {
+    onFile(context, delphiFile);
+    TokenTable.Cursor token = delphiFile.getTokenTable().cursor();
+    while (token.next()) {
       handleToken(token);
     }
     save();
   }
 
-  protected abstract void onFile(SensorContext context, DelphiInputFile file);
+  protected abstract void onFile(Context context, DelphiInputFile file);
 
   protected abstract void handleToken(DelphiToken token);
 
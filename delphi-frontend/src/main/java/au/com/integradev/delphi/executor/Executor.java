@@ -19,9 +19,13 @@
 package au.com.integradev.delphi.executor;
 
 import au.com.integradev.delphi.file.DelphiFile.DelphiInputFile;
+import au.com.integradev.delphi.incremental.AnalysisRecording;
 import au.com.integradev.delphi.symbol.SymbolTable;
+import au.com.integradev.delphi.telemetry.AnalysisTelemetry;
 import java.util.Collections;
 import java.util.Set;
+import javax.annotation.Nullable;
+import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.scanner.ScannerSide;
 import org.sonarsource.api.sonarlint.SonarLintSide;
@@ -35,10 +39,35 @@ public interface Executor {
 
   default void complete() {}
 
+  /**
+   * Restores the results of a previous analysis of a file that hasn't changed since.
+   *
+   * <p>Results that were saved through the sensor context are restored separately. Executors that
+   * save results elsewhere must record them in {@link Context#recording()} during {@link #execute},
+   * and restore them here.
+   *
+   * @param context The executor context
+   * @param inputFile The unchanged file
+   * @param recording The recorded results of the previous analysis
+   */
+  default void restore(Context context, InputFile inputFile, AnalysisRecording recording) {}
+
   default Set<Class<? extends Executor>> dependencies() {
     return Collections.emptySet();
   }
 
+  /**
+   * Returns an executor that can run on another analysis worker, concurrently with this one.
+   *
+   * <p>Executors that keep per-file state must return a new instance. Stateless executors can
+   * return themselves.
+   *
+   * @return Executor for use by a single analysis worker
+   */
+  default Executor fork() {
+    return this;
+  }
+
   interface Context {
     /**
      * Returns the sensor context
@@ -53,5 +82,25 @@ public interface Executor {
      * @return The global scope of the symbol table
      */
     SymbolTable symbolTable();
+
+    /**
+     * Returns the recording that the results of the current file are added to, if the file is being
+     * analyzed incrementally
+     *
+     * @return Recording of the results of the current file, or null if results aren't recorded
+     */
+    @Nullable
+    default AnalysisRecording recording() {
+      return null;
+    }
+
+    /**
+     * Returns the telemetry that the time spent analyzing each file is recorded in
+     *
+     * @return Analysis telemetry, which does nothing if telemetry is disabled
+     */
+    default AnalysisTelemetry telemetry() {
+      return AnalysisTelemetry.disabled();
+    }
   }
 }
@@ -18,17 +18,32 @@
  */
 package au.com.integradev.delphi.executor;
 
+import au.com.integradev.delphi.incremental.AnalysisRecording;
 import au.com.integradev.delphi.symbol.SymbolTable;
+import au.com.integradev.delphi.telemetry.AnalysisTelemetry;
+import javax.annotation.Nullable;
 import org.sonar.api.batch.sensor.SensorContext;
 
 public class ExecutorContext implements Executor.Context {
 
   private final SensorContext sensorContext;
   private final SymbolTable symbolTable;
+  private final AnalysisRecording recording;
+  private final AnalysisTelemetry telemetry;
 
   public ExecutorContext(SensorContext sensorContext, SymbolTable symbolTable) {
+    this(sensorContext, symbolTable, null, AnalysisTelemetry.disabled());
+  }
+
+  public ExecutorContext(
+      SensorContext sensorContext,
+      SymbolTable symbolTable,
+      @Nullable AnalysisRecording recording,
+      AnalysisTelemetry telemetry) {
     this.sensorContext = sensorContext;
     this.symbolTable = symbolTable;
+    this.recording = recording;
+    this.telemetry = telemetry;
   }
 
   @Override
@@ -40,4 +55,15 @@ public class ExecutorContext implements Executor.Context {
   public SymbolTable symbolTable() {
     return symbolTable;
   }
+
+  @Override
+  @Nullable
+  public AnalysisRecording recording() {
+    return recording;
+  }
+
+  @Override
+  public AnalysisTelemetry telemetry() {
+    return telemetry;
+  }
 }
@@ -0,0 +1,131 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.executor;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import org.sonar.api.batch.sensor.SensorContext;
+
+/**
+ * Wraps a {@link SensorContext} so that it can be shared by concurrent analysis workers.
+ *
+ * <p>The storage behind a sensor context is not thread-safe. Calls on the sensor context itself,
+ * and {@code save()} calls on the builders that it hands out (issues, measures, highlighting, CPD
+ * tokens, symbol tables...) are synchronized on the wrapper. Everything else on those builders
+ * happens on the worker thread without any locking.
+ */
+public final class SynchronizedSensorContext {
+  private static final ClassValue<Boolean> HAS_SAVE_METHOD =
+      new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+          return type.isInterface()
+              && Arrays.stream(type.getMethods()).anyMatch(SynchronizedSensorContext::isSaveMethod);
+        }
+      };
+
+  private SynchronizedSensorContext() {
+    // Utility class
+  }
+
+  /**
+   * Wraps a sensor context so that it can be shared between threads
+   *
+   * @param context The sensor context to wrap
+   * @return A sensor context that synchronizes storage operations on itself
+   */
+  public static SensorContext wrap(SensorContext context) {
+    return (SensorContext) createProxy(SensorContext.class, context, null);
+  }
+
+  private static Object createProxy(Class<?> type, Object delegate, Object lock) {
+    return Proxy.newProxyInstance(
+        SynchronizedSensorContext.class.getClassLoader(),
+        new Class<?>[] {type},
+        new Handler(delegate, lock));
+  }
+
+  private static boolean isSaveMethod(Method method) {
+    return method.getName().equals("save") && method.getParameterCount() == 0;
+  }
+
+  private static final class Handler implements InvocationHandler {
+    private final Object delegate;
+    private final Object lock;
+
+    // A null lock means that this handler is for the sensor context itself, in which case every
+    // call is synchronized on the proxy.
+    private Handler(Object delegate, Object lock) {
+      this.delegate = delegate;
+      this.lock = lock;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      if (method.getDeclaringClass() == Object.class) {
+        return invokeObjectMethod(proxy, method, args);
+      }
+
+      Object monitor = lock == null ? proxy : lock;
+      Object result;
+
+      if (lock == null || isSaveMethod(method)) {
+        synchronized (monitor) {
+          result = invokeDelegate(method, args);
+        }
+      } else {
+        result = invokeDelegate(method, args);
+      }
+
+      if (result == delegate) {
+        // Fluent builder methods return the builder itself
+        return proxy;
+      }
+
+      Class<?> returnType = method.getReturnType();
+      if (result != null && HAS_SAVE_METHOD.get(returnType)) {
+        return createProxy(returnType, result, monitor);
+      }
+
+      return result;
+    }
+
+    private Object invokeObjectMethod(Object proxy, Method method, Object[] args) throws Throwable {
+      switch (method.getName()) {
+        case "equals":
+          return proxy == args[0];
+        case "hashCode":
+          return System.identityHashCode(proxy);
+        default:
+          return invokeDelegate(method, args);
+      }
+    }
+
+    private Object invokeDelegate(Method method, Object[] args) throws Throwable {
+      try {
+        return method.invoke(delegate, args);
+      } catch (InvocationTargetException e) {
+        throw e.getCause();
+      }
+    }
+  }
+}
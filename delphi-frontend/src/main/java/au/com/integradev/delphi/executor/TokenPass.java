@@ -0,0 +1,99 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.executor;
+
+import au.com.integradev.delphi.antlr.ast.token.TokenTable;
+import au.com.integradev.delphi.executor.Executor.Context;
+import au.com.integradev.delphi.file.DelphiFile.DelphiInputFile;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.sonar.plugins.communitydelphi.api.FatalAnalysisError;
+
+/**
+ * Executes a group of {@link DelphiTokenExecutor}s together in a single pass over the tokens of a
+ * file.
+ *
+ * <p>A token executor that fails is dropped from the rest of the pass without saving its results,
+ * while the other token executors carry on.
+ */
+final class TokenPass {
+  private TokenPass() {
+    // Utility class
+  }
+
+  /**
+   * Executes a group of token executors on a file
+   *
+   * @param tokenExecutors the token executors to execute
+   * @param context the executor context
+   * @param delphiFile the file to execute on
+   * @return the exception that each failed token executor threw
+   */
+  static Map<DelphiTokenExecutor, RuntimeException> execute(
+      List<DelphiTokenExecutor> tokenExecutors, Context context, DelphiInputFile delphiFile) {
+    Map<DelphiTokenExecutor, RuntimeException> failures = new HashMap<>();
+    DelphiTokenExecutor[] active = tokenExecutors.toArray(new DelphiTokenExecutor[0]);
+
+    for (int i = 0; i < active.length; ++i) {
+      try {
+        active[i].onFile(context, delphiFile);
+      } catch (FatalAnalysisError e) {
+        throw e;
+      } catch (RuntimeException e) {
+        failures.put(active[i], e);
+        active[i] = null;
+      }
+    }
+
+    // A single cursor is moved along the token table, so no objects are allocated per token.
+    TokenTable.Cursor token = delphiFile.getTokenTable().cursor();
+    while (token.next()) {
+      for (int i = 0; i < active.length; ++i) {
+        DelphiTokenExecutor tokenExecutor = active[i];
+        if (tokenExecutor == null) {
+          continue;
+        }
+        try {
+          tokenExecutor.handleToken(token);
+        } catch (FatalAnalysisError e) {
+          throw e;
+        } catch (RuntimeException e) {
+          failures.put(tokenExecutor, e);
+          active[i] = null;
+        }
+      }
+    }
+
+    for (DelphiTokenExecutor tokenExecutor : active) {
+      if (tokenExecutor == null) {
+        continue;
+      }
+      try {
+        tokenExecutor.save();
+      } catch (FatalAnalysisError e) {
+        throw e;
+      } catch (RuntimeException e) {
+        failures.put(tokenExecutor, e);
+      }
+    }
+
+    return failures;
+  }
+}
@@ -18,9 +18,13 @@
  */
 package au.com.integradev.delphi.file;
 
+import au.com.integradev.delphi.antlr.ast.token.TokenTable;
 import au.com.integradev.delphi.preprocessor.CompilerSwitchRegistry;
+import com.google.common.hash.HashCode;
 import java.io.File;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import org.sonar.plugins.communitydelphi.api.ast.DelphiAst;
 import org.sonar.plugins.communitydelphi.api.token.DelphiToken;
 import org.sonar.plugins.communitydelphi.api.type.TypeFactory;
@@ -29,10 +33,10 @@ class DefaultDelphiFile implements DelphiFile {
   private File sourceCodeFile;
   private List<String> sourceCodeLines;
   private DelphiAst ast;
-  private List<DelphiToken> tokens;
-  private List<DelphiToken> comments;
+  private TokenTable tokenTable;
   private CompilerSwitchRegistry switchRegistry;
   private TypeFactory typeFactory;
+  private Map<String, HashCode> includedFiles = Collections.emptyMap();
 
   DefaultDelphiFile() {
     // package-private constructor
@@ -55,12 +59,17 @@ class DefaultDelphiFile implements DelphiFile {
 
   @Override
   public List<DelphiToken> getTokens() {
-    return tokens;
+    return tokenTable.asList();
   }
 
   @Override
   public List<DelphiToken> getComments() {
-    return comments;
+    return tokenTable.getComments();
+  }
+
+  @Override
+  public TokenTable getTokenTable() {
+    return tokenTable;
   }
 
   @Override
@@ -78,19 +87,16 @@ class DefaultDelphiFile implements DelphiFile {
   }
 
   void setSourceCodeLines(List<String> sourceCodeLines) {
-    this.sourceCodeLines = List.copyOf(sourceCodeLines);
+    // The lines are an unmodifiable view over the source buffer, so they're not copied.
+    this.sourceCodeLines = sourceCodeLines;
   }
 
   void setAst(DelphiAst ast) {
     this.ast = ast;
   }
 
-  void setTokens(List<DelphiToken> tokens) {
-    this.tokens = List.copyOf(tokens);
-  }
-
-  void setComments(List<DelphiToken> comments) {
-    this.comments = List.copyOf(comments);
+  void setTokenTable(TokenTable tokenTable) {
+    this.tokenTable = tokenTable;
   }
 
   void setCompilerSwitchRegistry(CompilerSwitchRegistry switchRegistry) {
@@ -100,4 +106,12 @@ class DefaultDelphiFile implements DelphiFile {
   void setTypeFactory(TypeFactory typeFactory) {
     this.typeFactory = typeFactory;
   }
+
+  Map<String, HashCode> getIncludedFiles() {
+    return includedFiles;
+  }
+
+  void setIncludedFiles(Map<String, HashCode> includedFiles) {
+    this.includedFiles = includedFiles;
+  }
 }
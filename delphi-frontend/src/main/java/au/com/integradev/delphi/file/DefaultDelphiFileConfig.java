@@ -20,6 +20,8 @@ package au.com.integradev.delphi.file;
 
 import au.com.integradev.delphi.preprocessor.DelphiPreprocessorFactory;
 import au.com.integradev.delphi.preprocessor.search.SearchPath;
+import au.com.integradev.delphi.telemetry.AnalysisTelemetry;
+import au.com.integradev.delphi.telemetry.ParserProfile;
 import java.util.Set;
 import javax.annotation.Nullable;
 import org.sonar.plugins.communitydelphi.api.type.TypeFactory;
@@ -31,6 +33,8 @@ public class DefaultDelphiFileConfig implements DelphiFileConfig {
   private final SearchPath searchPath;
   private final Set<String> definitions;
   private final boolean skipImplementation;
+  private final AnalysisTelemetry telemetry;
+  private final ParserProfile parserProfile;
 
   DefaultDelphiFileConfig(
       String encoding,
@@ -38,13 +42,17 @@ public class DefaultDelphiFileConfig implements DelphiFileConfig {
       TypeFactory typeFactory,
       SearchPath searchPath,
       Set<String> definitions,
-      boolean skipImplementation) {
+      boolean skipImplementation,
+      AnalysisTelemetry telemetry,
+      @Nullable ParserProfile parserProfile) {
     this.encoding = encoding;
     this.preprocessorFactory = preprocessorFactory;
     this.typeFactory = typeFactory;
     this.searchPath = searchPath;
     this.definitions = definitions;
     this.skipImplementation = skipImplementation;
+    this.telemetry = telemetry;
+    this.parserProfile = parserProfile;
   }
 
   @Nullable
@@ -77,4 +85,15 @@ public class DefaultDelphiFileConfig implements DelphiFileConfig {
   public boolean shouldSkipImplementation() {
     return skipImplementation;
   }
+
+  @Override
+  public AnalysisTelemetry getTelemetry() {
+    return telemetry;
+  }
+
+  @Nullable
+  @Override
+  public ParserProfile getParserProfile() {
+    return parserProfile;
+  }
 }
@@ -18,30 +18,29 @@
  */
 package au.com.integradev.delphi.file;
 
-import static java.nio.charset.StandardCharsets.UTF_8;
-import static java.util.function.Predicate.not;
-import static org.apache.commons.io.FileUtils.readLines;
-
 import au.com.integradev.delphi.antlr.DelphiFileStream;
 import au.com.integradev.delphi.antlr.DelphiLexer;
 import au.com.integradev.delphi.antlr.DelphiParser;
 import au.com.integradev.delphi.antlr.DelphiTokenStream;
 import au.com.integradev.delphi.antlr.ast.DelphiAstImpl;
 import au.com.integradev.delphi.antlr.ast.DelphiTreeAdaptor;
-import au.com.integradev.delphi.antlr.ast.token.DelphiTokenImpl;
-import au.com.integradev.delphi.antlr.ast.token.IncludeToken;
+import au.com.integradev.delphi.antlr.ast.token.TokenTable;
+import au.com.integradev.delphi.budget.TimeBudget;
+import au.com.integradev.delphi.budget.TimeBudgetExceededException;
 import au.com.integradev.delphi.preprocessor.CompilerSwitchRegistry;
 import au.com.integradev.delphi.preprocessor.DelphiPreprocessor;
 import au.com.integradev.delphi.preprocessor.DelphiPreprocessorFactory;
 import au.com.integradev.delphi.preprocessor.search.SearchPath;
+import au.com.integradev.delphi.telemetry.AnalysisTelemetry;
+import au.com.integradev.delphi.telemetry.AnalysisTelemetry.Category;
+import au.com.integradev.delphi.telemetry.AnalysisTelemetry.Stopwatch;
+import au.com.integradev.delphi.telemetry.ParserProfile;
 import au.com.integradev.delphi.utils.DelphiUtils;
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 import javax.annotation.Nullable;
-import org.antlr.runtime.BufferedTokenStream;
 import org.antlr.runtime.CommonToken;
 import org.antlr.runtime.RecognitionException;
 import org.antlr.runtime.Token;
@@ -62,6 +61,13 @@ public interface DelphiFile {
 
   List<DelphiToken> getComments();
 
+  /**
+   * Returns the compact table that backs {@link #getTokens()} and {@link #getComments()}
+   *
+   * @return the token table of the file
+   */
+  TokenTable getTokenTable();
+
   CompilerSwitchRegistry getCompilerSwitchRegistry();
 
   TypeFactory getTypeFactory();
@@ -76,6 +82,18 @@ public interface DelphiFile {
       delphiFile.setInputFile(inputFile);
       return delphiFile;
     }
+
+    static DelphiInputFile from(InputFile inputFile, DelphiFile parsedFile) {
+      DefaultDelphiInputFile delphiFile = new DefaultDelphiInputFile();
+      delphiFile.setSourceCodeFile(parsedFile.getSourceCodeFile());
+      delphiFile.setTypeFactory(parsedFile.getTypeFactory());
+      delphiFile.setAst(parsedFile.getAst());
+      delphiFile.setCompilerSwitchRegistry(parsedFile.getCompilerSwitchRegistry());
+      delphiFile.setSourceCodeLines(parsedFile.getSourceCodeFilesLines());
+      delphiFile.setTokenTable(parsedFile.getTokenTable());
+      delphiFile.setInputFile(inputFile);
+      return delphiFile;
+    }
   }
 
   class DelphiFileConstructionException extends RuntimeException {
@@ -106,13 +124,53 @@ public interface DelphiFile {
       SearchPath searchPath,
       Set<String> definitions,
       boolean shouldSkipImplementation) {
+    return createConfig(
+        encoding,
+        preprocessorFactory,
+        typeFactory,
+        searchPath,
+        definitions,
+        shouldSkipImplementation,
+        AnalysisTelemetry.disabled());
+  }
+
+  static DelphiFileConfig createConfig(
+      @Nullable String encoding,
+      DelphiPreprocessorFactory preprocessorFactory,
+      TypeFactory typeFactory,
+      SearchPath searchPath,
+      Set<String> definitions,
+      boolean shouldSkipImplementation,
+      AnalysisTelemetry telemetry) {
+    return createConfig(
+        encoding,
+        preprocessorFactory,
+        typeFactory,
+        searchPath,
+        definitions,
+        shouldSkipImplementation,
+        telemetry,
+        null);
+  }
+
+  static DelphiFileConfig createConfig(
+      @Nullable String encoding,
+      DelphiPreprocessorFactory preprocessorFactory,
+      TypeFactory typeFactory,
+      SearchPath searchPath,
+      Set<String> definitions,
+      boolean shouldSkipImplementation,
+      AnalysisTelemetry telemetry,
+      @Nullable ParserProfile parserProfile) {
     return new DefaultDelphiFileConfig(
         encoding,
         preprocessorFactory,
         typeFactory,
         searchPath,
         definitions,
-        shouldSkipImplementation);
+        shouldSkipImplementation,
+        telemetry,
+        parserProfile);
   }
 
   static DelphiFile from(File sourceFile, DelphiFileConfig config) {
@@ -124,22 +182,47 @@ public interface DelphiFile {
   static void setupFile(DefaultDelphiFile delphiFile, File sourceFile, DelphiFileConfig config) {
     try {
       delphiFile.setSourceCodeFile(sourceFile);
+      SourceBuffer source = SourceBuffer.read(sourceFile.getAbsolutePath(), config.getEncoding());
       delphiFile.setTypeFactory(config.getTypeFactory());
-      DelphiPreprocessor preprocessor = preprocess(delphiFile, config);
-      delphiFile.setAst(createAST(delphiFile, preprocessor.getTokenStream(), config));
-      delphiFile.setCompilerSwitchRegistry(preprocessor.getCompilerSwitchRegistry());
-      delphiFile.setSourceCodeLines(readLines(sourceFile, config.getEncoding()));
-      delphiFile.setTokens(createTokenList(delphiFile, preprocessor.getTokenStream()));
-      delphiFile.setComments(extractComments(delphiFile.getTokens()));
+      AnalysisTelemetry telemetry = config.getTelemetry();
+
+      // If the file runs over its time budget, it's still set up without an AST so that the cheap
+      // results that only need its tokens can be saved.
+      DelphiPreprocessor preprocessor = null;
+      Stopwatch preprocessing = telemetry.startPhase();
+      try {
+        TimeBudget.enterPhase("Preprocessing");
+        preprocessor = preprocess(source, config);
+      } catch (TimeBudgetExceededException e) {
+        // The file has no AST
+      } finally {
+        telemetry.record(Category.PHASE, "Preprocessing", preprocessing);
+      }
+
+      Stopwatch parsing = telemetry.startPhase();
+      try {
+        if (preprocessor != null) {
+          try {
+            TimeBudget.enterPhase("Parsing");
+            delphiFile.setAst(createAST(delphiFile, preprocessor.getTokenStream(), config));
+          } catch (TimeBudgetExceededException e) {
+            // The file has no AST
+          }
+          delphiFile.setCompilerSwitchRegistry(preprocessor.getCompilerSwitchRegistry());
+          delphiFile.setIncludedFiles(preprocessor.getIncludedFiles());
+        }
+        delphiFile.setSourceCodeLines(source.getLines());
+        delphiFile.setTokenTable(createTokenTable(source, preprocessor));
+      } finally {
+        telemetry.record(Category.PHASE, "Parsing", parsing);
+      }
     } catch (IOException | RecognitionException | EmptyDelphiFileException e) {
       throw new DelphiFileConstructionException(e);
     }
   }
 
-  private static DelphiPreprocessor preprocess(DelphiFile delphiFile, DelphiFileConfig config)
-      throws IOException {
-    String filePath = delphiFile.getSourceCodeFile().getAbsolutePath();
-    DelphiFileStream fileStream = new DelphiFileStream(filePath, config.getEncoding());
+  private static DelphiPreprocessor preprocess(SourceBuffer source, DelphiFileConfig config) {
+    DelphiFileStream fileStream = new DelphiFileStream(source);
 
     DelphiLexer lexer = new DelphiLexer(fileStream, config.shouldSkipImplementation());
     DelphiPreprocessorFactory preprocessorFactory = config.getPreprocessorFactory();
@@ -149,7 +232,7 @@ public interface DelphiFile {
   }
 
   private static DelphiAst createAST(
-      DelphiFile delphiFile, BufferedTokenStream tokenStream, DelphiFileConfig config)
+      DelphiFile delphiFile, DelphiTokenStream tokenStream, DelphiFileConfig config)
       throws RecognitionException {
     List<?> tokens = tokenStream.getTokens();
     boolean isEmptyFile =
@@ -167,58 +250,34 @@ public interface DelphiFile {
     parser.setTreeAdaptor(new DelphiTreeAdaptor());
     DelphiNode root;
 
+    ParserProfile parserProfile = config.getParserProfile();
+    if (parserProfile != null) {
+      parserProfile.attach(parser, tokenStream);
+    }
+
+    AnalysisTelemetry telemetry = config.getTelemetry();
+    Stopwatch stopwatch = telemetry.start();
     if (config.shouldSkipImplementation()) {
       root = (DelphiNode) parser.fileWithoutImplementation().getTree();
     } else {
       root = (DelphiNode) parser.file().getTree();
     }
+    telemetry.recordParse(tokenStream.getSourceName(), stopwatch, parser.getPeakMemoSize());
 
     return new DelphiAstImpl(delphiFile, root);
   }
 
-  private static List<DelphiToken> createTokenList(
-      DelphiFile delphiFile, DelphiTokenStream preprocessedTokenStream) throws IOException {
-    String filePath = delphiFile.getSourceCodeFile().getAbsolutePath();
-    DelphiLexer lexer = new DelphiLexer(new DelphiFileStream(filePath, UTF_8.name()));
-    DelphiTokenStream tokenStream = new DelphiTokenStream(lexer);
-    tokenStream.fill();
-
-    List<DelphiToken> tokenList =
-        tokenStream.getTokens().stream()
-            .map(CommonToken.class::cast)
-            .map(DelphiTokenImpl::new)
-            .filter(not(DelphiToken::isEof))
-            .collect(Collectors.toUnmodifiableList());
-
-    int startIndex = 0;
-    boolean include = false;
-
-    for (Token token : preprocessedTokenStream.getTokens()) {
-      if (token instanceof IncludeToken) {
-        if (!include) {
-          startIndex = token.getTokenIndex();
-        }
-        include = true;
-      } else if (include) {
-        offsetTokenIndices(tokenList, startIndex, token.getTokenIndex() - startIndex);
-        include = false;
-      }
+  private static TokenTable createTokenTable(
+      SourceBuffer source, @Nullable DelphiPreprocessor preprocessor) {
+    List<Token> tokens;
+    if (preprocessor == null) {
+      DelphiTokenStream tokenStream =
+          new DelphiTokenStream(new DelphiLexer(new DelphiFileStream(source)));
+      tokenStream.fill();
+      tokens = tokenStream.getTokens();
+    } else {
+      tokens = preprocessor.getRawTokens();
     }
-
-    return tokenList;
-  }
-
-  private static void offsetTokenIndices(List<DelphiToken> tokens, int startIndex, int offset) {
-    tokens.stream()
-        .map(DelphiTokenImpl.class::cast)
-        .map(DelphiTokenImpl::getAntlrToken)
-        .filter(token -> token.getTokenIndex() > startIndex)
-        .forEach(token -> token.setTokenIndex(token.getTokenIndex() + offset));
-  }
-
-  private static List<DelphiToken> extractComments(List<DelphiToken> tokenList) {
-    return tokenList.stream()
-        .filter(DelphiToken::isComment)
-        .collect(Collectors.toUnmodifiableList());
+    return TokenTable.create(source.getData(), tokens);
   }
 }
@@ -20,6 +20,8 @@ package au.com.integradev.delphi.file;
 
 import au.com.integradev.delphi.preprocessor.DelphiPreprocessorFactory;
 import au.com.integradev.delphi.preprocessor.search.SearchPath;
+import au.com.integradev.delphi.telemetry.AnalysisTelemetry;
+import au.com.integradev.delphi.telemetry.ParserProfile;
 import java.util.Set;
 import javax.annotation.Nullable;
 import org.sonar.plugins.communitydelphi.api.type.TypeFactory;
@@ -71,4 +73,23 @@ public interface DelphiFileConfig {
    * @return true if the implementation should be skipped when parsing the file
    */
   boolean shouldSkipImplementation();
+
+  /**
+   * Returns the telemetry that the time spent preprocessing and parsing the file is recorded in
+   *
+   * @return Analysis telemetry, which does nothing if telemetry is disabled
+   */
+  default AnalysisTelemetry getTelemetry() {
+    return AnalysisTelemetry.disabled();
+  }
+
+  /**
+   * Returns the profile that the backtracking done while parsing the file is recorded in
+   *
+   * @return Parser profile, or null if the parser shouldn't be profiled
+   */
+  @Nullable
+  default ParserProfile getParserProfile() {
+    return null;
+  }
 }
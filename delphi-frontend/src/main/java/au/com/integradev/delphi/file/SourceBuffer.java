@@ -0,0 +1,192 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.file;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import javax.annotation.Nullable;
+import org.apache.commons.io.ByteOrderMark;
+
+/**
+ * The decoded contents of a source file, which are read once and then shared by everything that
+ * needs the text of the file.
+ *
+ * <p>The byte order mark and encoding are detected once when the file is read. The lexer streams
+ * read directly from the character buffer, and the lines of the file are views over it that are
+ * only turned into strings when they're accessed.
+ */
+public final class SourceBuffer {
+  private static final List<ByteOrderMark> BYTE_ORDER_MARKS =
+      List.of(
+          ByteOrderMark.UTF_32LE,
+          ByteOrderMark.UTF_32BE,
+          ByteOrderMark.UTF_8,
+          ByteOrderMark.UTF_16LE,
+          ByteOrderMark.UTF_16BE);
+
+  private final String fileName;
+  private final char[] data;
+  private final int length;
+  private final int[] lineStarts;
+  private final List<String> lines;
+
+  private SourceBuffer(String fileName, char[] data, int length) {
+    this.fileName = fileName;
+    this.data = data;
+    this.length = length;
+    this.lineStarts = findLineStarts(data, length);
+    this.lines = new Lines();
+  }
+
+  /**
+   * Reads a source file
+   *
+   * @param fileName path to the file
+   * @param encoding the encoding of the file, or null to detect it from the byte order mark
+   * @return the decoded contents of the file
+   * @throws IOException if the file couldn't be read
+   */
+  public static SourceBuffer read(String fileName, @Nullable String encoding) throws IOException {
+    return decode(fileName, Files.readAllBytes(Path.of(fileName)), encoding);
+  }
+
+  /**
+   * Decodes the contents of a source file that has already been read
+   *
+   * <p>A byte order mark is always left out of the decoded contents. If no encoding is given, the
+   * encoding is detected from the byte order mark, falling back to the default charset.
+   *
+   * @param fileName path to the file
+   * @param bytes the contents of the file
+   * @param encoding the encoding of the file, or null to detect it from the byte order mark
+   * @return the decoded contents of the file
+   */
+  public static SourceBuffer decode(String fileName, byte[] bytes, @Nullable String encoding) {
+    ByteOrderMark bom = findByteOrderMark(bytes);
+    int offset = bom == null ? 0 : bom.length();
+
+    if (encoding == null && bom != null) {
+      encoding = bom.getCharsetName();
+    }
+    Charset charset = encoding == null ? Charset.defaultCharset() : Charset.forName(encoding);
+
+    CharBuffer chars = charset.decode(ByteBuffer.wrap(bytes, offset, bytes.length - offset));
+    return new SourceBuffer(fileName, chars.array(), chars.limit());
+  }
+
+  @Nullable
+  private static ByteOrderMark findByteOrderMark(byte[] bytes) {
+    for (ByteOrderMark bom : BYTE_ORDER_MARKS) {
+      if (bytes.length >= bom.length()
+          && Arrays.equals(bom.getBytes(), 0, bom.length(), bytes, 0, bom.length())) {
+        return bom;
+      }
+    }
+    return null;
+  }
+
+  private static int[] findLineStarts(char[] data, int length) {
+    if (length == 0) {
+      return new int[0];
+    }
+
+    int[] result = new int[16];
+    int count = 1;
+
+    for (int i = 0; i < length; ++i) {
+      char c = data[i];
+      if (c == '\r' && i + 1 < length && data[i + 1] == '\n') {
+        ++i;
+      } else if (c != '\r' && c != '\n') {
+        continue;
+      }
+
+      if (i + 1 < length) {
+        if (count == result.length) {
+          result = Arrays.copyOf(result, count * 2);
+        }
+        result[count++] = i + 1;
+      }
+    }
+
+    return Arrays.copyOf(result, count);
+  }
+
+  public String getFileName() {
+    return fileName;
+  }
+
+  /**
+   * Returns the character buffer, which must not be modified
+   *
+   * @return the character buffer, which may be longer than the contents of the file
+   */
+  public char[] getData() {
+    return data;
+  }
+
+  /**
+   * Returns the number of characters in the file
+   *
+   * @return the number of characters in the file
+   */
+  public int length() {
+    return length;
+  }
+
+  /**
+   * Returns the lines of the file, without their line terminators
+   *
+   * <p>Lines are terminated by {@code \n}, {@code \r} or {@code \r\n}, and a line terminator at the
+   * end of the file doesn't start another line.
+   *
+   * @return an unmodifiable view of the lines of the file
+   */
+  public List<String> getLines() {
+    return lines;
+  }
+
+  private final class Lines extends AbstractList<String> implements RandomAccess {
+    @Override
+    public String get(int index) {
+      int start = lineStarts[index];
+      int end = index + 1 < lineStarts.length ? lineStarts[index + 1] : length;
+      if (end > start && data[end - 1] == '\n') {
+        --end;
+      }
+      if (end > start && data[end - 1] == '\r') {
+        --end;
+      }
+      return new String(data, start, end - start);
+    }
+
+    @Override
+    public int size() {
+      return lineStarts.length;
+    }
+  }
+}
@@ -0,0 +1,533 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.file;
+
+import au.com.integradev.delphi.antlr.DelphiParser;
+import au.com.integradev.delphi.antlr.ast.DelphiAstImpl;
+import au.com.integradev.delphi.antlr.ast.DelphiTreeAdaptor;
+import au.com.integradev.delphi.antlr.ast.node.CommonDelphiNodeImpl;
+import au.com.integradev.delphi.antlr.ast.node.MutableDelphiNode;
+import au.com.integradev.delphi.antlr.ast.token.DelphiTokenImpl;
+import au.com.integradev.delphi.antlr.ast.token.IncludeToken;
+import au.com.integradev.delphi.antlr.ast.token.TokenTable;
+import au.com.integradev.delphi.compiler.CompilerVersion;
+import au.com.integradev.delphi.compiler.Toolchain;
+import au.com.integradev.delphi.preprocessor.CompilerSwitchRegistry;
+import au.com.integradev.delphi.telemetry.AnalysisTelemetry;
+import au.com.integradev.delphi.telemetry.AnalysisTelemetry.Category;
+import au.com.integradev.delphi.telemetry.AnalysisTelemetry.Stopwatch;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import javax.annotation.Nullable;
+import org.antlr.runtime.CommonToken;
+import org.antlr.runtime.Token;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
+import org.sonar.plugins.communitydelphi.api.check.FilePosition;
+import org.sonar.plugins.communitydelphi.api.token.DelphiToken;
+
+/**
+ * Persistent cache of the parsed units of the Delphi standard library.
+ *
+ * <p>System, SysInit and the RTL, VCL and FMX units are imported by almost every project and rarely
+ * change, so they don't need to be preprocessed and parsed on every scan. Once a unit has been
+ * parsed, a summary of it is written to the cache directory: its AST (usually just the interface
+ * section) and its compiler switches, which are everything that symbol table construction reads
+ * from a library unit. The tokens, comments and source lines of a unit aren't part of its summary,
+ * so a summarized file is empty apart from its AST.
+ *
+ * <p>Summaries are keyed by the standard library path, toolchain, compiler version, conditional
+ * defines and the rest of the file configuration that affects preprocessing, along with a
+ * fingerprint of the parser. A summary is only reused while the unit file and every include file
+ * that it included have the same content hashes as when it was written.
+ */
+public final class UnitSummaryCache {
+  private static final Logger LOG = LoggerFactory.getLogger(UnitSummaryCache.class);
+  private static final String HEADER = "delphi-unit-summary 1";
+  private static final int NIL_TOKEN = -1;
+  private static final int NO_TOKEN = -2;
+
+  private final Path directory;
+  private final String configuration;
+  private final Map<String, HashCode> includeHashes = new ConcurrentHashMap<>();
+
+  private UnitSummaryCache(Path directory, String configuration) {
+    this.directory = directory;
+    this.configuration = configuration;
+  }
+
+  /**
+   * Creates a cache of the units in a standard library
+   *
+   * @param cacheDirectory directory where analysis data is cached between scans
+   * @param standardLibraryPath path to the standard library
+   * @param toolchain the toolchain that the units are compiled with
+   * @param compilerVersion the version of the compiler that the units are compiled with
+   * @return the cache, or null if the parser can't be fingerprinted
+   */
+  @Nullable
+  public static UnitSummaryCache create(
+      Path cacheDirectory,
+      Path standardLibraryPath,
+      Toolchain toolchain,
+      CompilerVersion compilerVersion) {
+    HashCode parserFingerprint = parserFingerprint();
+    if (parserFingerprint == null) {
+      return null;
+    }
+
+    String configuration =
+        "parser="
+            + parserFingerprint
+            + "\nstandardLibrary="
+            + standardLibraryPath.toAbsolutePath().normalize()
+            + "\ntoolchain="
+            + toolchain.name()
+            + "\ncompilerVersion="
+            + compilerVersion.symbol();
+
+    return new UnitSummaryCache(cacheDirectory.resolve("units"), configuration);
+  }
+
+  @Nullable
+  private static HashCode parserFingerprint() {
+    // Any change to the grammar changes the generated parser, and the shape of the trees it builds.
+    try (InputStream input = DelphiParser.class.getResourceAsStream("DelphiParser.class")) {
+      return input == null ? null : Hashing.sha256().hashBytes(input.readAllBytes());
+    } catch (IOException e) {
+      LOG.debug("Failed to fingerprint the parser, so unit summaries won't be cached: ", e);
+      return null;
+    }
+  }
+
+  /**
+   * Parses a unit, reusing its cached summary when it's still valid
+   *
+   * @param unitFile the unit file
+   * @param config the configuration to parse the unit with
+   * @return the parsed unit, which is only a summary if it was restored from the cache
+   */
+  public DelphiFile parse(File unitFile, DelphiFileConfig config) {
+    String key = key(unitFile, config);
+    Path cacheFile = cacheFile(key);
+    HashCode contentHash = hash(unitFile.getAbsolutePath());
+    AnalysisTelemetry telemetry = config.getTelemetry();
+
+    if (contentHash != null) {
+      Stopwatch stopwatch = telemetry.startPhase();
+      DelphiFile summary = read(cacheFile, key, contentHash, unitFile, config);
+      telemetry.record(Category.PHASE, "Reading unit summaries", stopwatch);
+      if (summary != null) {
+        return summary;
+      }
+    }
+
+    DelphiFile delphiFile = DelphiFile.from(unitFile, config);
+
+    if (contentHash != null && delphiFile.getAst() != null) {
+      Stopwatch stopwatch = telemetry.startPhase();
+      write(cacheFile, key, contentHash, (DefaultDelphiFile) delphiFile);
+      telemetry.record(Category.PHASE, "Writing unit summaries", stopwatch);
+    }
+
+    return delphiFile;
+  }
+
+  Path cacheFile(File unitFile, DelphiFileConfig config) {
+    return cacheFile(key(unitFile, config));
+  }
+
+  private Path cacheFile(String key) {
+    UUID uuid = UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8));
+    return directory.resolve("unit-" + uuid + ".summary");
+  }
+
+  private String key(File unitFile, DelphiFileConfig config) {
+    Set<String> definitions = new TreeSet<>();
+    config.getDefinitions().forEach(name -> definitions.add(name.toUpperCase(Locale.ROOT)));
+
+    return configuration
+        + "\nunit="
+        + unitFile.getAbsolutePath()
+        + "\nencoding="
+        + config.getEncoding()
+        + "\ndefinitions="
+        + definitions
+        + "\nsearchPath="
+        + config.getSearchPath().getRootDirectories()
+        + "\nskipImplementation="
+        + config.shouldSkipImplementation();
+  }
+
+  @Nullable
+  private HashCode hash(String path) {
+    try {
+      return Hashing.sha256().hashBytes(Files.readAllBytes(Path.of(path)));
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  private boolean isUnchanged(String includeFile, HashCode hash) {
+    // Include files are shared by many units, so they're only hashed once per scan.
+    return hash.equals(includeHashes.computeIfAbsent(includeFile, this::hash));
+  }
+
+  @Nullable
+  private DelphiFile read(
+      Path cacheFile, String key, HashCode contentHash, File unitFile, DelphiFileConfig config) {
+    if (!Files.isRegularFile(cacheFile)) {
+      return null;
+    }
+
+    try (DataInputStream in =
+        new DataInputStream(
+            new BufferedInputStream(new GZIPInputStream(Files.newInputStream(cacheFile))))) {
+      if (!HEADER.equals(in.readUTF())
+          || !key.equals(readString(in))
+          || !contentHash.equals(readHash(in))) {
+        return null;
+      }
+
+      Map<String, HashCode> includedFiles = new TreeMap<>();
+      int includeCount = in.readInt();
+      for (int i = 0; i < includeCount; ++i) {
+        String includeFile = readString(in);
+        HashCode hash = readHash(in);
+        if (!isUnchanged(includeFile, hash)) {
+          LOG.debug("Unit summary is out of date: {} has changed", includeFile);
+          return null;
+        }
+        includedFiles.put(includeFile, hash);
+      }
+
+      DefaultDelphiFile delphiFile = new DefaultDelphiFile();
+      delphiFile.setSourceCodeFile(unitFile);
+      delphiFile.setTypeFactory(config.getTypeFactory());
+      delphiFile.setSourceCodeLines(Collections.emptyList());
+      delphiFile.setTokenTable(TokenTable.create(new char[0], Collections.emptyList()));
+      delphiFile.setIncludedFiles(includedFiles);
+      delphiFile.setCompilerSwitchRegistry(CompilerSwitchRegistry.read(in));
+      delphiFile.setAst(new DelphiAstImpl(delphiFile, new SummaryReader(in).readTree()));
+      return delphiFile;
+    } catch (IOException | RuntimeException e) {
+      LOG.debug("Failed to read unit summary: {}", cacheFile, e);
+      return null;
+    }
+  }
+
+  private static void write(
+      Path cacheFile, String key, HashCode contentHash, DefaultDelphiFile delphiFile) {
+    try {
+      Files.createDirectories(cacheFile.getParent());
+      Path tempFile = Files.createTempFile(cacheFile.getParent(), "unit-", ".tmp");
+      try {
+        try (DataOutputStream out =
+            new DataOutputStream(
+                new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(tempFile))))) {
+          out.writeUTF(HEADER);
+          writeString(out, key);
+          writeHash(out, contentHash);
+          out.writeInt(delphiFile.getIncludedFiles().size());
+          for (Map.Entry<String, HashCode> include : delphiFile.getIncludedFiles().entrySet()) {
+            writeString(out, include.getKey());
+            writeHash(out, include.getValue());
+          }
+          delphiFile.getCompilerSwitchRegistry().write(out);
+          new SummaryWriter(out).writeTree(delphiFile.getAst());
+        }
+        // Units are parsed concurrently, so a summary should never be seen partially written.
+        Files.move(
+            tempFile,
+            cacheFile,
+            StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+        Files.deleteIfExists(tempFile);
+      }
+    } catch (IOException | RuntimeException e) {
+      LOG.warn("Failed to write unit summary: {}", cacheFile);
+      LOG.debug("Exception: ", e);
+    }
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    // Unlike writeUTF, this isn't limited to 64KB strings.
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    byte[] bytes = new byte[in.readInt()];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static void writeHash(DataOutputStream out, HashCode hash) throws IOException {
+    byte[] bytes = hash.asBytes();
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static HashCode readHash(DataInputStream in) throws IOException {
+    byte[] bytes = new byte[in.readInt()];
+    in.readFully(bytes);
+    return HashCode.fromBytes(bytes);
+  }
+
+  /**
+   * Writes a tree as tables of node classes, token images and tokens, followed by the nodes in
+   * pre-order. Nodes refer to their tokens and classes by their position in the tables.
+   */
+  private static final class SummaryWriter {
+    private final DataOutputStream out;
+    private final Map<Class<?>, Integer> classIds = new HashMap<>();
+    private final Map<String, Integer> imageIds = new HashMap<>();
+    private final IdentityHashMap<Token, Integer> tokenIds = new IdentityHashMap<>();
+    private final List<Class<?>> classes = new ArrayList<>();
+    private final List<String> images = new ArrayList<>();
+    private final List<Token> tokens = new ArrayList<>();
+
+    private SummaryWriter(DataOutputStream out) {
+      this.out = out;
+    }
+
+    private void writeTree(DelphiNode root) throws IOException {
+      List<DelphiNode> children = root.getChildren();
+      children.forEach(this::collect);
+
+      out.writeInt(classes.size());
+      for (Class<?> nodeClass : classes) {
+        out.writeUTF(nodeClass.getName());
+      }
+
+      out.writeInt(images.size());
+      for (String image : images) {
+        writeString(out, image);
+      }
+
+      out.writeInt(tokens.size());
+      for (Token token : tokens) {
+        writeToken(token);
+      }
+
+      out.writeInt(children.size());
+      for (DelphiNode child : children) {
+        writeNode(child);
+      }
+    }
+
+    private void collect(DelphiNode node) {
+      if (node.getToken().isNil()) {
+        throw new IllegalStateException("Nil nodes can't be summarized");
+      }
+      classIds.computeIfAbsent(
+          node.getClass(),
+          nodeClass -> {
+            classes.add(nodeClass);
+            return classes.size() - 1;
+          });
+      collect(node.getToken());
+      collect(node.getFirstToken());
+      collect(node.getLastToken());
+      node.getChildren().forEach(this::collect);
+    }
+
+    private void collect(@Nullable DelphiToken token) {
+      if (token == null || token.isNil()) {
+        return;
+      }
+      Token antlrToken = ((DelphiTokenImpl) token).getAntlrToken();
+      if (!tokenIds.containsKey(antlrToken)) {
+        tokenIds.put(antlrToken, tokens.size());
+        tokens.add(antlrToken);
+        String image = antlrToken.getText();
+        if (image != null) {
+          imageIds.computeIfAbsent(
+              image,
+              k -> {
+                images.add(image);
+                return images.size() - 1;
+              });
+        }
+      }
+    }
+
+    private void writeToken(Token token) throws IOException {
+      String image = token.getText();
+      out.writeInt(token.getType());
+      out.writeInt(image == null ? -1 : imageIds.get(image));
+      out.writeInt(token.getLine());
+      out.writeInt(token.getCharPositionInLine());
+      out.writeInt(token.getTokenIndex());
+      out.writeInt(token.getChannel());
+      out.writeBoolean(token instanceof IncludeToken);
+      if (token instanceof IncludeToken) {
+        FilePosition position = ((IncludeToken) token).getInsertionPosition();
+        out.writeInt(position.getBeginLine());
+        out.writeInt(position.getBeginColumn());
+        out.writeInt(position.getEndLine());
+        out.writeInt(position.getEndColumn());
+      }
+    }
+
+    private void writeNode(DelphiNode node) throws IOException {
+      out.writeInt(classIds.get(node.getClass()));
+      out.writeInt(tokenId(node.getToken()));
+      out.writeInt(tokenId(node.getFirstToken()));
+      out.writeInt(tokenId(node.getLastToken()));
+      out.writeInt(node.getChildren().size());
+      for (DelphiNode child : node.getChildren()) {
+        writeNode(child);
+      }
+    }
+
+    private int tokenId(@Nullable DelphiToken token) {
+      if (token == null) {
+        return NO_TOKEN;
+      }
+      if (token.isNil()) {
+        return NIL_TOKEN;
+      }
+      return tokenIds.get(((DelphiTokenImpl) token).getAntlrToken());
+    }
+  }
+
+  /** Rebuilds a tree that was written by a {@link SummaryWriter}. */
+  private static final class SummaryReader {
+    private final DataInputStream in;
+    private Class<?>[] classes;
+    private Token[] tokens;
+    private DelphiToken[] boundaryTokens;
+
+    private SummaryReader(DataInputStream in) {
+      this.in = in;
+    }
+
+    private DelphiNode readTree() throws IOException {
+      classes = new Class<?>[in.readInt()];
+      for (int i = 0; i < classes.length; ++i) {
+        classes[i] = nodeClass(in.readUTF());
+      }
+
+      String[] images = new String[in.readInt()];
+      for (int i = 0; i < images.length; ++i) {
+        images[i] = readString(in);
+      }
+
+      tokens = new Token[in.readInt()];
+      boundaryTokens = new DelphiToken[tokens.length];
+      for (int i = 0; i < tokens.length; ++i) {
+        tokens[i] = readToken(images);
+      }
+
+      MutableDelphiNode root = new CommonDelphiNodeImpl(null);
+      int childCount = in.readInt();
+      for (int i = 0; i < childCount; ++i) {
+        root.addChild(readNode());
+      }
+      return root;
+    }
+
+    private static Class<?> nodeClass(String name) throws IOException {
+      try {
+        Class<?> nodeClass = Class.forName(name, false, UnitSummaryCache.class.getClassLoader());
+        if (MutableDelphiNode.class.isAssignableFrom(nodeClass)) {
+          return nodeClass;
+        }
+      } catch (ClassNotFoundException e) {
+        throw new IOException(e);
+      }
+      throw new IOException(name + " is not a node class");
+    }
+
+    private Token readToken(String[] images) throws IOException {
+      int type = in.readInt();
+      int imageId = in.readInt();
+      CommonToken token = new CommonToken(type, imageId == -1 ? null : images[imageId]);
+      token.setLine(in.readInt());
+      token.setCharPositionInLine(in.readInt());
+      token.setTokenIndex(in.readInt());
+      token.setChannel(in.readInt());
+      if (in.readBoolean()) {
+        FilePosition position =
+            FilePosition.from(in.readInt(), in.readInt(), in.readInt(), in.readInt());
+        return new IncludeToken(token, position);
+      }
+      return token;
+    }
+
+    private DelphiNode readNode() throws IOException {
+      Class<?> nodeClass = classes[in.readInt()];
+      int tokenId = in.readInt();
+      MutableDelphiNode node =
+          DelphiTreeAdaptor.createNode(nodeClass, tokenId == NIL_TOKEN ? null : tokens[tokenId]);
+      node.setFirstToken(boundaryToken(in.readInt()));
+      node.setLastToken(boundaryToken(in.readInt()));
+      int childCount = in.readInt();
+      for (int i = 0; i < childCount; ++i) {
+        node.addChild(readNode());
+      }
+      return node;
+    }
+
+    @Nullable
+    private DelphiToken boundaryToken(int tokenId) {
+      if (tokenId == NO_TOKEN) {
+        return null;
+      }
+      if (tokenId == NIL_TOKEN) {
+        return new DelphiTokenImpl(null);
+      }
+      DelphiToken result = boundaryTokens[tokenId];
+      if (result == null) {
+        result = new DelphiTokenImpl(tokens[tokenId]);
+        boundaryTokens[tokenId] = result;
+      }
+      return result;
+    }
+  }
+}
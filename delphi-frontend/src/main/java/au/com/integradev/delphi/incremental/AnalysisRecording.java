@@ -0,0 +1,452 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.incremental;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.sensor.SensorContext;
+import org.sonar.api.measures.CoreMetrics;
+import org.sonar.api.rule.RuleKey;
+
+/**
+ * The results of analyzing a file, recorded so that they can be restored by a later scan if the
+ * file is unchanged.
+ *
+ * <p>Results that are saved through the sensor context (issues, measures, highlighting, CPD tokens
+ * and symbol references) are recorded as the calls that were made on the sensor context and the
+ * builders that it handed out, and are restored by replaying those calls. Results that are saved
+ * elsewhere are recorded by the executors themselves as named sets of lines.
+ *
+ * @see RecordingSensorContext
+ */
+public final class AnalysisRecording {
+  private static final Map<String, Method> METHODS = new ConcurrentHashMap<>();
+
+  private static final int NULL = 0;
+  private static final int HANDLE = 1;
+  private static final int CURRENT_FILE = 2;
+  private static final int RANGE = 3;
+  private static final int METRIC = 4;
+  private static final int RULE_KEY = 5;
+  private static final int STRING = 6;
+  private static final int INTEGER = 7;
+  private static final int LONG = 8;
+  private static final int DOUBLE = 9;
+  private static final int FLOAT = 10;
+  private static final int BOOLEAN = 11;
+  private static final int ENUM = 12;
+  private static final int LIST = 13;
+
+  private final List<Call> calls = new ArrayList<>();
+  private final Map<String, Set<Integer>> lines = new TreeMap<>();
+  private int handleCount = 1;
+  private boolean complete = true;
+
+  /**
+   * Records a named set of lines, which is restored along with the rest of the recording
+   *
+   * @param key The name of the set of lines
+   * @param lines The lines
+   */
+  public void putLines(String key, Set<Integer> lines) {
+    this.lines.put(key, new TreeSet<>(lines));
+  }
+
+  /**
+   * Returns a named set of lines
+   *
+   * @param key The name of the set of lines
+   * @return The lines, or an empty set if none were recorded under this name
+   */
+  public Set<Integer> getLines(String key) {
+    return Collections.unmodifiableSet(lines.getOrDefault(key, Collections.emptySet()));
+  }
+
+  /**
+   * Returns whether every result was recorded. Recordings are incomplete when a result was saved
+   * with a value that can't be recorded, in which case they should not be restored.
+   *
+   * @return true if the recording is complete
+   */
+  public boolean isComplete() {
+    return complete;
+  }
+
+  void markIncomplete() {
+    complete = false;
+  }
+
+  int newHandle() {
+    return handleCount++;
+  }
+
+  void addCall(int target, Method method, List<Object> args, int result) {
+    calls.add(new Call(target, signature(method), args, result));
+  }
+
+  /**
+   * Replays the recorded calls on a sensor context
+   *
+   * @param context The sensor context to save the results to
+   * @param inputFile The file that the results are for
+   */
+  public void replay(SensorContext context, InputFile inputFile) {
+    Object[] handles = new Object[handleCount];
+    handles[0] = context;
+
+    for (Call call : calls) {
+      Method method = resolveMethod(call.signature);
+      Object[] args = new Object[call.args.size()];
+      for (int i = 0; i < args.length; ++i) {
+        args[i] = decode(call.args.get(i), handles, inputFile);
+      }
+
+      Object result;
+      try {
+        result = method.invoke(handles[call.target], args);
+      } catch (InvocationTargetException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException) {
+          throw (RuntimeException) cause;
+        }
+        throw new IllegalStateException(cause);
+      } catch (IllegalAccessException e) {
+        throw new IllegalStateException(e);
+      }
+
+      if (call.result >= 0) {
+        handles[call.result] = result;
+      }
+    }
+  }
+
+  private static Object decode(Object value, Object[] handles, InputFile inputFile) {
+    if (value instanceof Handle) {
+      return handles[((Handle) value).id];
+    } else if (value == Marker.CURRENT_FILE) {
+      return inputFile;
+    } else if (value instanceof Range) {
+      int[] range = ((Range) value).values;
+      return inputFile.newRange(range[0], range[1], range[2], range[3]);
+    } else if (value instanceof MetricKey) {
+      return CoreMetrics.getMetric(((MetricKey) value).key);
+    } else if (value instanceof List) {
+      return ((List<?>) value)
+          .stream()
+              .map(element -> decode(element, handles, inputFile))
+              .collect(Collectors.toList());
+    }
+    return value;
+  }
+
+  /**
+   * Serializes the recording
+   *
+   * @return the serialized recording
+   */
+  public byte[] toBytes() {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      List<String> signatures = new ArrayList<>();
+      Map<String, Integer> signatureIndices = new HashMap<>();
+      for (Call call : calls) {
+        if (signatureIndices.putIfAbsent(call.signature, signatures.size()) == null) {
+          signatures.add(call.signature);
+        }
+      }
+
+      out.writeInt(signatures.size());
+      for (String signature : signatures) {
+        writeString(out, signature);
+      }
+
+      out.writeInt(handleCount);
+      out.writeInt(calls.size());
+      for (Call call : calls) {
+        out.writeInt(call.target);
+        out.writeInt(signatureIndices.get(call.signature));
+        out.writeInt(call.result);
+        out.writeInt(call.args.size());
+        for (Object arg : call.args) {
+          writeValue(out, arg);
+        }
+      }
+
+      out.writeInt(lines.size());
+      for (Map.Entry<String, Set<Integer>> entry : lines.entrySet()) {
+        writeString(out, entry.getKey());
+        out.writeInt(entry.getValue().size());
+        for (int line : entry.getValue()) {
+          out.writeInt(line);
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Deserializes a recording
+   *
+   * @param bytes The serialized recording
+   * @return the recording
+   * @throws IOException if the recording is malformed
+   */
+  public static AnalysisRecording fromBytes(byte[] bytes) throws IOException {
+    AnalysisRecording recording = new AnalysisRecording();
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+      String[] signatures = new String[in.readInt()];
+      for (int i = 0; i < signatures.length; ++i) {
+        signatures[i] = readString(in);
+      }
+
+      recording.handleCount = in.readInt();
+      int callCount = in.readInt();
+      for (int i = 0; i < callCount; ++i) {
+        int target = in.readInt();
+        String signature = signatures[in.readInt()];
+        int result = in.readInt();
+        int argCount = in.readInt();
+        List<Object> args = new ArrayList<>(argCount);
+        for (int j = 0; j < argCount; ++j) {
+          args.add(readValue(in));
+        }
+        recording.calls.add(new Call(target, signature, args, result));
+      }
+
+      int lineSetCount = in.readInt();
+      for (int i = 0; i < lineSetCount; ++i) {
+        String key = readString(in);
+        int lineCount = in.readInt();
+        Set<Integer> lineSet = new TreeSet<>();
+        for (int j = 0; j < lineCount; ++j) {
+          lineSet.add(in.readInt());
+        }
+        recording.lines.put(key, lineSet);
+      }
+    } catch (RuntimeException | ReflectiveOperationException e) {
+      throw new IOException("Malformed analysis recording", e);
+    }
+    return recording;
+  }
+
+  private static void writeValue(DataOutputStream out, @Nullable Object value) throws IOException {
+    if (value == null) {
+      out.writeByte(NULL);
+    } else if (value instanceof Handle) {
+      out.writeByte(HANDLE);
+      out.writeInt(((Handle) value).id);
+    } else if (value == Marker.CURRENT_FILE) {
+      out.writeByte(CURRENT_FILE);
+    } else if (value instanceof Range) {
+      out.writeByte(RANGE);
+      for (int position : ((Range) value).values) {
+        out.writeInt(position);
+      }
+    } else if (value instanceof MetricKey) {
+      out.writeByte(METRIC);
+      writeString(out, ((MetricKey) value).key);
+    } else if (value instanceof RuleKey) {
+      out.writeByte(RULE_KEY);
+      writeString(out, ((RuleKey) value).repository());
+      writeString(out, ((RuleKey) value).rule());
+    } else if (value instanceof String) {
+      out.writeByte(STRING);
+      writeString(out, (String) value);
+    } else if (value instanceof Integer) {
+      out.writeByte(INTEGER);
+      out.writeInt((Integer) value);
+    } else if (value instanceof Long) {
+      out.writeByte(LONG);
+      out.writeLong((Long) value);
+    } else if (value instanceof Double) {
+      out.writeByte(DOUBLE);
+      out.writeDouble((Double) value);
+    } else if (value instanceof Float) {
+      out.writeByte(FLOAT);
+      out.writeFloat((Float) value);
+    } else if (value instanceof Boolean) {
+      out.writeByte(BOOLEAN);
+      out.writeBoolean((Boolean) value);
+    } else if (value instanceof Enum) {
+      out.writeByte(ENUM);
+      writeString(out, ((Enum<?>) value).getDeclaringClass().getName());
+      writeString(out, ((Enum<?>) value).name());
+    } else if (value instanceof List) {
+      out.writeByte(LIST);
+      out.writeInt(((List<?>) value).size());
+      for (Object element : (List<?>) value) {
+        writeValue(out, element);
+      }
+    } else {
+      throw new IllegalStateException("Unexpected value in analysis recording: " + value);
+    }
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static Object readValue(DataInputStream in)
+      throws IOException, ReflectiveOperationException {
+    int tag = in.readByte();
+    switch (tag) {
+      case NULL:
+        return null;
+      case HANDLE:
+        return new Handle(in.readInt());
+      case CURRENT_FILE:
+        return Marker.CURRENT_FILE;
+      case RANGE:
+        return new Range(in.readInt(), in.readInt(), in.readInt(), in.readInt());
+      case METRIC:
+        return new MetricKey(readString(in));
+      case RULE_KEY:
+        return RuleKey.of(readString(in), readString(in));
+      case STRING:
+        return readString(in);
+      case INTEGER:
+        return in.readInt();
+      case LONG:
+        return in.readLong();
+      case DOUBLE:
+        return in.readDouble();
+      case FLOAT:
+        return in.readFloat();
+      case BOOLEAN:
+        return in.readBoolean();
+      case ENUM:
+        Class<?> enumClass = loadClass(readString(in));
+        return Enum.valueOf(
+            (Class<? extends Enum>) enumClass.asSubclass(Enum.class), readString(in));
+      case LIST:
+        int size = in.readInt();
+        List<Object> list = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i) {
+          list.add(readValue(in));
+        }
+        return list;
+      default:
+        throw new IOException("Unexpected value tag in analysis recording: " + tag);
+    }
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    byte[] bytes = new byte[in.readInt()];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static String signature(Method method) {
+    return method.getDeclaringClass().getName()
+        + "#"
+        + method.getName()
+        + Arrays.stream(method.getParameterTypes())
+            .map(Class::getName)
+            .collect(Collectors.joining(",", "(", ")"));
+  }
+
+  private static Method resolveMethod(String signature) {
+    return METHODS.computeIfAbsent(
+        signature,
+        key -> {
+          String className = key.substring(0, key.indexOf('#'));
+          try {
+            for (Method method : loadClass(className).getMethods()) {
+              if (signature(method).equals(key)) {
+                return method;
+              }
+            }
+          } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+          }
+          throw new IllegalStateException("Unknown method in analysis recording: " + key);
+        });
+  }
+
+  private static Class<?> loadClass(String name) throws ClassNotFoundException {
+    return Class.forName(name, false, AnalysisRecording.class.getClassLoader());
+  }
+
+  private static final class Call {
+    private final int target;
+    private final String signature;
+    private final List<Object> args;
+    private final int result;
+
+    private Call(int target, String signature, List<Object> args, int result) {
+      this.target = target;
+      this.signature = signature;
+      this.args = args;
+      this.result = result;
+    }
+  }
+
+  enum Marker {
+    CURRENT_FILE
+  }
+
+  static final class Handle {
+    private final int id;
+
+    Handle(int id) {
+      this.id = id;
+    }
+  }
+
+  static final class Range {
+    private final int[] values;
+
+    Range(int startLine, int startOffset, int endLine, int endOffset) {
+      this.values = new int[] {startLine, startOffset, endLine, endOffset};
+    }
+  }
+
+  static final class MetricKey {
+    private final String key;
+
+    MetricKey(String key) {
+      this.key = key;
+    }
+  }
+}
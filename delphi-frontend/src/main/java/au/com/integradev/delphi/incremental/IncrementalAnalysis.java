@@ -0,0 +1,401 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.incremental;
+
+import au.com.integradev.delphi.DelphiProperties;
+import au.com.integradev.delphi.msbuild.DelphiProjectHelper;
+import au.com.integradev.delphi.symbol.SymbolTable;
+import au.com.integradev.delphi.symbol.UnitHashes;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.rule.ActiveRule;
+import org.sonar.api.batch.sensor.SensorContext;
+
+/**
+ * Tracks the state of each source file between scans, so that the analysis of unchanged files can
+ * be skipped and their results restored from a previous scan.
+ *
+ * <p>A file is unchanged if its fingerprint matches the one from the previous scan. The fingerprint
+ * covers:
+ *
+ * <ul>
+ *   <li>the content of the file, including its include files
+ *   <li>the resolved interfaces of the units that it imports, which do not change when only the
+ *       implementation section of an imported unit changes
+ *   <li>the content of the source files that can use its declarations, since rules that look for
+ *       unused declarations depend on how a unit is used elsewhere. This includes the source files
+ *       that import it directly, as well as those that import a unit which exposes it through a
+ *       chain of interface imports.
+ * </ul>
+ *
+ * <p>The whole state is discarded if the analysis configuration changes, including the plugin
+ * version, the active rules and the project options.
+ */
+public final class IncrementalAnalysis {
+  private static final Logger LOG = LoggerFactory.getLogger(IncrementalAnalysis.class);
+  private static final String HEADER = "delphi-incremental-analysis 1";
+
+  private final Path stateFile;
+  private final String configurationHash;
+  private final SymbolTable symbolTable;
+  private final Map<String, Set<String>> dependentsByPath;
+  private final Map<String, Set<String>> interfaceDependentsByPath;
+  private final Map<String, Entry> previousEntries;
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+  private final AtomicInteger restoredFiles = new AtomicInteger();
+
+  private IncrementalAnalysis(
+      Path stateFile,
+      String configurationHash,
+      SymbolTable symbolTable,
+      Map<String, Set<String>> dependentsByPath,
+      Map<String, Set<String>> interfaceDependentsByPath,
+      Map<String, Entry> previousEntries) {
+    this.stateFile = stateFile;
+    this.configurationHash = configurationHash;
+    this.symbolTable = symbolTable;
+    this.dependentsByPath = dependentsByPath;
+    this.interfaceDependentsByPath = interfaceDependentsByPath;
+    this.previousEntries = previousEntries;
+  }
+
+  /**
+   * Loads the state of the previous scan
+   *
+   * @param stateFile The file that the state is persisted in
+   * @param configurationHash Hash of the current analysis configuration
+   * @param symbolTable Symbol table built with unit hashes
+   * @param sourceFiles The source files in the current scan
+   * @return the incremental analysis state
+   * @see #configurationHash(DelphiProjectHelper, SensorContext)
+   */
+  public static IncrementalAnalysis load(
+      Path stateFile,
+      String configurationHash,
+      SymbolTable symbolTable,
+      Collection<Path> sourceFiles) {
+    Map<String, Set<String>> dependentsByPath = new HashMap<>();
+    for (Path sourceFile : sourceFiles) {
+      String path = sourceFile.toAbsolutePath().toString();
+      UnitHashes hashes = symbolTable.getUnitHashes(path);
+      if (hashes != null) {
+        for (String importPath : hashes.getImportPaths()) {
+          dependentsByPath.computeIfAbsent(importPath, key -> new TreeSet<>()).add(path);
+        }
+      }
+    }
+
+    Map<String, Set<String>> interfaceDependentsByPath = new HashMap<>();
+    symbolTable
+        .getAllUnitHashes()
+        .forEach(
+            (path, hashes) -> {
+              for (String importPath : hashes.getInterfaceImportPaths()) {
+                interfaceDependentsByPath
+                    .computeIfAbsent(importPath, key -> new HashSet<>())
+                    .add(path);
+              }
+            });
+
+    return new IncrementalAnalysis(
+        stateFile,
+        configurationHash,
+        symbolTable,
+        dependentsByPath,
+        interfaceDependentsByPath,
+        readEntries(stateFile, configurationHash));
+  }
+
+  /**
+   * Computes the fingerprint of a source file
+   *
+   * @param path The absolute path of the source file
+   * @param type The type of the source file
+   * @return the fingerprint, or null if the file can't be analyzed incrementally
+   */
+  @Nullable
+  public String fingerprint(String path, InputFile.Type type) {
+    UnitHashes hashes = symbolTable.getUnitHashes(path);
+    if (hashes == null || hashes.getContentHash() == null) {
+      return null;
+    }
+
+    Hasher hasher = Hashing.sha256().newHasher();
+    hasher.putString(hashes.getContentHash(), StandardCharsets.UTF_8);
+    hasher.putString(type.name(), StandardCharsets.UTF_8);
+
+    hashes.getImportPaths().stream()
+        .map(symbolTable::getUnitHashes)
+        .filter(Objects::nonNull)
+        .map(UnitHashes::getInterfaceHash)
+        .sorted()
+        .forEach(hash -> hasher.putString(hash, StandardCharsets.UTF_8));
+
+    findDependents(path).stream()
+        .map(symbolTable::getUnitHashes)
+        .filter(Objects::nonNull)
+        .map(UnitHashes::getContentHash)
+        .filter(Objects::nonNull)
+        .sorted()
+        .forEach(hash -> hasher.putString(hash, StandardCharsets.UTF_8));
+
+    return hasher.hash().toString();
+  }
+
+  /**
+   * Finds the source files that can use the declarations of a unit, either by importing it directly
+   * or by importing a unit that exposes it through a chain of interface imports.
+   *
+   * @param path The absolute path of the unit
+   * @return paths of the source files that depend on the unit
+   */
+  private Set<String> findDependents(String path) {
+    Set<String> exposingUnits = new HashSet<>();
+    Deque<String> pending = new ArrayDeque<>();
+    exposingUnits.add(path);
+    pending.push(path);
+    while (!pending.isEmpty()) {
+      for (String dependent :
+          interfaceDependentsByPath.getOrDefault(pending.pop(), Collections.emptySet())) {
+        if (exposingUnits.add(dependent)) {
+          pending.push(dependent);
+        }
+      }
+    }
+
+    Set<String> result = new HashSet<>();
+    for (String unit : exposingUnits) {
+      result.addAll(dependentsByPath.getOrDefault(unit, Collections.emptySet()));
+    }
+    result.remove(path);
+    return result;
+  }
+
+  /**
+   * Returns the recorded results of a file from the previous scan, if the file is unchanged
+   *
+   * @param key The key of the file
+   * @param fingerprint The current fingerprint of the file
+   * @return the recorded results, or null if the file needs to be analyzed
+   */
+  @Nullable
+  public AnalysisRecording restore(String key, String fingerprint) {
+    Entry entry = previousEntries.get(key);
+    if (entry == null || !entry.fingerprint.equals(fingerprint)) {
+      return null;
+    }
+
+    try {
+      AnalysisRecording recording = AnalysisRecording.fromBytes(entry.recording);
+      entries.put(key, entry);
+      restoredFiles.incrementAndGet();
+      return recording;
+    } catch (IOException e) {
+      LOG.debug("Failed to read the recorded results of {}", key, e);
+      return null;
+    }
+  }
+
+  /**
+   * Keeps the recorded results of a file for the next scan
+   *
+   * @param key The key of the file
+   * @param fingerprint The current fingerprint of the file
+   * @param recording The recorded results of the analysis
+   */
+  public void record(String key, String fingerprint, AnalysisRecording recording) {
+    if (recording.isComplete()) {
+      entries.put(key, new Entry(fingerprint, recording.toBytes()));
+    }
+  }
+
+  /**
+   * Returns the number of files whose results were restored from the previous scan
+   *
+   * @return number of restored files
+   */
+  public int getRestoredFiles() {
+    return restoredFiles.get();
+  }
+
+  /** Persists the state of the current scan, replacing the state of the previous scan. */
+  public void save() {
+    try {
+      Files.createDirectories(stateFile.getParent());
+      Path tempFile = Files.createTempFile(stateFile.getParent(), "incremental-", ".tmp");
+      try {
+        try (DataOutputStream out =
+            new DataOutputStream(
+                new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(tempFile))))) {
+          out.writeUTF(HEADER);
+          out.writeUTF(configurationHash);
+          Map<String, Entry> sortedEntries = new TreeMap<>(entries);
+          out.writeInt(sortedEntries.size());
+          for (Map.Entry<String, Entry> entry : sortedEntries.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeUTF(entry.getValue().fingerprint);
+            out.writeInt(entry.getValue().recording.length);
+            out.write(entry.getValue().recording);
+          }
+        }
+        Files.move(
+            tempFile,
+            stateFile,
+            StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+        Files.deleteIfExists(tempFile);
+      }
+    } catch (IOException e) {
+      LOG.warn("Failed to write incremental analysis state: {}", stateFile);
+      LOG.debug("Exception: ", e);
+    }
+  }
+
+  private static Map<String, Entry> readEntries(Path stateFile, String configurationHash) {
+    if (!Files.isRegularFile(stateFile)) {
+      LOG.info("No incremental analysis state was found, so every file will be analyzed.");
+      return new HashMap<>();
+    }
+
+    Map<String, Entry> result = new HashMap<>();
+    try (DataInputStream in =
+        new DataInputStream(
+            new BufferedInputStream(new GZIPInputStream(Files.newInputStream(stateFile))))) {
+      if (!HEADER.equals(in.readUTF()) || !configurationHash.equals(in.readUTF())) {
+        LOG.info("The analysis configuration has changed, so every file will be analyzed.");
+        return new HashMap<>();
+      }
+
+      int count = in.readInt();
+      for (int i = 0; i < count; ++i) {
+        String key = in.readUTF();
+        String fingerprint = in.readUTF();
+        byte[] recording = new byte[in.readInt()];
+        in.readFully(recording);
+        result.put(key, new Entry(fingerprint, recording));
+      }
+    } catch (IOException | RuntimeException e) {
+      LOG.warn("Failed to read incremental analysis state, so every file will be analyzed.");
+      LOG.debug("Exception: ", e);
+      return new HashMap<>();
+    }
+
+    return result;
+  }
+
+  /**
+   * Returns the file that the incremental analysis state of a project is persisted in
+   *
+   * @param cacheDirectory The cache directory
+   * @param projectKey The key of the project
+   * @return path to the state file
+   */
+  public static Path stateFile(Path cacheDirectory, String projectKey) {
+    UUID key = UUID.nameUUIDFromBytes(projectKey.getBytes(StandardCharsets.UTF_8));
+    return cacheDirectory.resolve("incremental-" + key + ".state");
+  }
+
+  /**
+   * Hashes everything outside of the source code that can affect the analysis results
+   *
+   * @param delphiProjectHelper The project helper
+   * @param context The sensor context
+   * @return hash of the analysis configuration
+   */
+  public static String configurationHash(
+      DelphiProjectHelper delphiProjectHelper, SensorContext context) {
+    Hasher hasher = Hashing.sha256().newHasher();
+    putValue(hasher, HEADER);
+    putValue(hasher, IncrementalAnalysis.class.getPackage().getImplementationVersion());
+    putValue(hasher, delphiProjectHelper.getToolchain().name());
+    putValue(hasher, delphiProjectHelper.getCompilerVersion().symbol());
+    putValue(hasher, delphiProjectHelper.encoding());
+    putValue(hasher, delphiProjectHelper.standardLibraryPath());
+    putValue(hasher, new TreeSet<>(delphiProjectHelper.getConditionalDefines()));
+    putValue(hasher, new TreeSet<>(delphiProjectHelper.getUnitScopeNames()));
+    putValue(hasher, new TreeMap<>(delphiProjectHelper.getUnitAliases()));
+    putValue(hasher, delphiProjectHelper.getSearchDirectories());
+    putValue(hasher, delphiProjectHelper.getDebugSourceDirectories());
+    putValue(hasher, delphiProjectHelper.getReferencedFiles());
+    putValue(hasher, delphiProjectHelper.getFileTimeBudget());
+    putValue(hasher, context.config().get(DelphiProperties.TEST_TYPE_KEY).orElse(null));
+    putValue(hasher, context.config().get(DelphiProperties.TEST_ATTRIBUTE_KEY).orElse(null));
+
+    context.activeRules().findAll().stream()
+        .map(IncrementalAnalysis::describeRule)
+        .sorted()
+        .forEach(rule -> putValue(hasher, rule));
+
+    return hasher.hash().toString();
+  }
+
+  private static String describeRule(ActiveRule rule) {
+    return rule.ruleKey()
+        + " "
+        + rule.severity()
+        + " "
+        + rule.templateRuleKey()
+        + " "
+        + new TreeMap<>(rule.params());
+  }
+
+  private static void putValue(Hasher hasher, @Nullable Object value) {
+    hasher.putString(Objects.toString(value), StandardCharsets.UTF_8).putChar('\0');
+  }
+
+  private static final class Entry {
+    private final String fingerprint;
+    private final byte[] recording;
+
+    private Entry(String fingerprint, byte[] recording) {
+      this.fingerprint = fingerprint;
+      this.recording = recording;
+    }
+  }
+}
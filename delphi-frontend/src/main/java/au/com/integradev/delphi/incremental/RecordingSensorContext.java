@@ -0,0 +1,301 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.incremental;
+
+import au.com.integradev.delphi.incremental.AnalysisRecording.Handle;
+import au.com.integradev.delphi.incremental.AnalysisRecording.Marker;
+import au.com.integradev.delphi.incremental.AnalysisRecording.MetricKey;
+import au.com.integradev.delphi.incremental.AnalysisRecording.Range;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.TextRange;
+import org.sonar.api.batch.sensor.SensorContext;
+import org.sonar.api.measures.Metric;
+import org.sonar.api.rule.RuleKey;
+
+/**
+ * Wraps a {@link SensorContext} so that the results saved through it for a file can be recorded in
+ * an {@link AnalysisRecording}.
+ *
+ * <p>While a file is being recorded on the current thread, calls on the sensor context that create
+ * builders ({@code newIssue()}, {@code newMeasure()}, {@code newHighlighting()}...) are recorded,
+ * along with every call on those builders and on the builders that they hand out in turn.
+ * Everything else is passed straight through.
+ *
+ * <p>Recordings are bound to threads, rather than to separate sensor contexts per file, so that the
+ * wrapper can be shared by concurrent analysis workers through a single {@link
+ * au.com.integradev.delphi.executor.SynchronizedSensorContext}.
+ */
+public final class RecordingSensorContext {
+  private static final Logger LOG = LoggerFactory.getLogger(RecordingSensorContext.class);
+  private static final String BUILDER_PACKAGE = "org.sonar.api.batch.sensor";
+  private static final ThreadLocal<Recorder> CURRENT = new ThreadLocal<>();
+
+  private RecordingSensorContext() {
+    // Utility class
+  }
+
+  /**
+   * Wraps a sensor context so that the results saved through it can be recorded
+   *
+   * @param context The sensor context to wrap
+   * @return A sensor context that records the results saved through it during {@link #record}
+   */
+  public static SensorContext wrap(SensorContext context) {
+    return (SensorContext)
+        Proxy.newProxyInstance(
+            RecordingSensorContext.class.getClassLoader(),
+            new Class<?>[] {SensorContext.class},
+            new Handler(null, new Tracked(context, 0)));
+  }
+
+  /**
+   * Records the results that are saved for a file on the current thread
+   *
+   * @param inputFile The file that is being analyzed
+   * @param recording The recording to add the results to
+   * @param analysis Analyzes the file through a wrapped sensor context
+   */
+  public static void record(InputFile inputFile, AnalysisRecording recording, Runnable analysis) {
+    Recorder previous = CURRENT.get();
+    CURRENT.set(new Recorder(inputFile, recording));
+    try {
+      analysis.run();
+    } finally {
+      CURRENT.set(previous);
+    }
+  }
+
+  private static final class Recorder {
+    private final InputFile inputFile;
+    private final AnalysisRecording recording;
+    private final IdentityHashMap<Object, Tracked> trackedByProxy = new IdentityHashMap<>();
+
+    private Recorder(InputFile inputFile, AnalysisRecording recording) {
+      this.inputFile = inputFile;
+      this.recording = recording;
+    }
+
+    private Object createProxy(Class<?> type, Object delegate, int handle) {
+      Tracked tracked = new Tracked(delegate, handle);
+      Object proxy =
+          Proxy.newProxyInstance(
+              RecordingSensorContext.class.getClassLoader(),
+              new Class<?>[] {type},
+              new Handler(this, tracked));
+      synchronized (trackedByProxy) {
+        trackedByProxy.put(proxy, tracked);
+      }
+      return proxy;
+    }
+
+    private Tracked getTracked(Object value) {
+      synchronized (trackedByProxy) {
+        return trackedByProxy.get(value);
+      }
+    }
+
+    private Object unwrap(Object value) {
+      Tracked tracked = getTracked(value);
+      if (tracked != null) {
+        return tracked.delegate;
+      }
+      if (value instanceof Iterable) {
+        // Builders that were handed out by a recorded builder can be passed back in collections,
+        // as in NewIssue::addFlow.
+        List<Object> elements = new ArrayList<>();
+        boolean unwrapped = false;
+        for (Object element : (Iterable<?>) value) {
+          Object unwrappedElement = unwrap(element);
+          unwrapped |= unwrappedElement != element;
+          elements.add(unwrappedElement);
+        }
+        return unwrapped ? elements : value;
+      }
+      return value;
+    }
+
+    private Object encode(Object value) {
+      if (value == null
+          || value instanceof String
+          || value instanceof Integer
+          || value instanceof Long
+          || value instanceof Double
+          || value instanceof Float
+          || value instanceof Boolean
+          || value instanceof Enum
+          || value instanceof RuleKey) {
+        return value;
+      }
+
+      Tracked tracked = getTracked(value);
+      if (tracked != null) {
+        return new Handle(tracked.handle);
+      }
+
+      if (value instanceof InputFile) {
+        if (value.equals(inputFile)) {
+          return Marker.CURRENT_FILE;
+        }
+      } else if (value instanceof TextRange) {
+        TextRange range = (TextRange) value;
+        return new Range(
+            range.start().line(),
+            range.start().lineOffset(),
+            range.end().line(),
+            range.end().lineOffset());
+      } else if (value instanceof Metric) {
+        return new MetricKey(((Metric<?>) value).key());
+      } else if (value instanceof Iterable) {
+        List<Object> elements = new ArrayList<>();
+        for (Object element : (Iterable<?>) value) {
+          elements.add(encode(element));
+        }
+        return elements;
+      }
+
+      throw new UnrecordableValueException(value);
+    }
+  }
+
+  private static final class Tracked {
+    private final Object delegate;
+    private final int handle;
+
+    private Tracked(Object delegate, int handle) {
+      this.delegate = delegate;
+      this.handle = handle;
+    }
+  }
+
+  private static final class Handler implements InvocationHandler {
+    // Null for the sensor context itself, which records to the recorder of the current thread.
+    @Nullable private final Recorder recorder;
+    private final Tracked tracked;
+
+    private Handler(@Nullable Recorder recorder, Tracked tracked) {
+      this.recorder = recorder;
+      this.tracked = tracked;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      if (method.getDeclaringClass() == Object.class) {
+        return invokeObjectMethod(proxy, method, args);
+      }
+
+      Recorder active = (recorder == null) ? CURRENT.get() : recorder;
+      if (active == null || !shouldRecord(method)) {
+        return invokeDelegate(method, args);
+      }
+
+      Object[] delegateArgs = args == null ? new Object[0] : args.clone();
+      for (int i = 0; i < delegateArgs.length; ++i) {
+        delegateArgs[i] = active.unwrap(delegateArgs[i]);
+      }
+
+      Object result = invokeDelegate(method, delegateArgs);
+
+      int resultHandle = -1;
+      Object returnValue = result;
+
+      if (result == tracked.delegate) {
+        // Fluent builder methods return the builder itself
+        resultHandle = tracked.handle;
+        returnValue = proxy;
+      } else if (result != null && isBuilderType(method.getReturnType())) {
+        resultHandle = active.recording.newHandle();
+        returnValue = active.createProxy(method.getReturnType(), result, resultHandle);
+      }
+
+      record(active, method, args, resultHandle);
+
+      return returnValue;
+    }
+
+    private boolean shouldRecord(Method method) {
+      // Only the builder factories are recorded on the sensor context itself.
+      return tracked.handle != 0 || method.getName().startsWith("new");
+    }
+
+    private void record(Recorder recorder, Method method, Object[] args, int resultHandle) {
+      if (!recorder.recording.isComplete()) {
+        return;
+      }
+
+      try {
+        List<Object> encodedArgs = new ArrayList<>();
+        if (args != null) {
+          for (Object arg : args) {
+            encodedArgs.add(recorder.encode(arg));
+          }
+        }
+        recorder.recording.addCall(tracked.handle, method, encodedArgs, resultHandle);
+      } catch (UnrecordableValueException e) {
+        LOG.debug(
+            "Results for {} can't be recorded: {} was called with {}",
+            recorder.inputFile,
+            method.getName(),
+            e.value);
+        recorder.recording.markIncomplete();
+      }
+    }
+
+    private static boolean isBuilderType(Class<?> type) {
+      return type.isInterface() && type.getName().startsWith(BUILDER_PACKAGE);
+    }
+
+    private Object invokeObjectMethod(Object proxy, Method method, Object[] args) throws Throwable {
+      switch (method.getName()) {
+        case "equals":
+          return proxy == args[0];
+        case "hashCode":
+          return System.identityHashCode(proxy);
+        default:
+          return invokeDelegate(method, args);
+      }
+    }
+
+    private Object invokeDelegate(Method method, Object[] args) throws Throwable {
+      try {
+        return method.invoke(tracked.delegate, args);
+      } catch (InvocationTargetException e) {
+        throw e.getCause();
+      }
+    }
+  }
+
+  private static final class UnrecordableValueException extends RuntimeException {
+    private final transient Object value;
+
+    private UnrecordableValueException(Object value) {
+      super(null, null, false, false);
+      this.value = value;
+    }
+  }
+}
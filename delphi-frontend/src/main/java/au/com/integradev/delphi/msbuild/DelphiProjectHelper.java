@@ -38,6 +38,7 @@ import java.io.File;
 import java.nio.charset.Charset;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -46,6 +47,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import org.apache.commons.lang3.EnumUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -61,6 +63,7 @@ import org.sonarsource.api.sonarlint.SonarLintSide;
 @SonarLintSide
 public class DelphiProjectHelper {
   private static final Logger LOG = LoggerFactory.getLogger(DelphiProjectHelper.class);
+  private static final String DEFAULT_CACHE_DIRECTORY = "delphi";
   private final Configuration settings;
   private final FileSystem fs;
   private final EnvironmentVariableProvider environmentVariableProvider;
@@ -347,6 +350,89 @@ public class DelphiProjectHelper {
     return unitAliases;
   }
 
+  /**
+   * Gets the number of source files that should be analyzed concurrently
+   *
+   * @return number of analysis threads
+   */
+  /**
+   * Returns the time that the analysis of a single source file may take
+   *
+   * @return the time budget of each file, or {@link Duration#ZERO} if there is no limit
+   */
+  public Duration getFileTimeBudget() {
+    int seconds =
+        settings
+            .getInt(DelphiProperties.FILE_TIME_BUDGET_KEY)
+            .orElse(DelphiProperties.FILE_TIME_BUDGET_DEFAULT);
+    return Duration.ofSeconds(Math.max(seconds, 0));
+  }
+
+  public int getAnalysisThreads() {
+    int threads =
+        settings
+            .getInt(DelphiProperties.ANALYSIS_THREADS_KEY)
+            .orElse(DelphiProperties.ANALYSIS_THREADS_DEFAULT);
+
+    if (threads <= 0) {
+      threads = Runtime.getRuntime().availableProcessors();
+    }
+
+    return threads;
+  }
+
+  /**
+   * Indicates whether source files parsed during symbol table construction should be reused for
+   * analysis
+   *
+   * @return true if parsed source files should be reused
+   */
+  public boolean shouldReuseParsedFiles() {
+    return settings
+        .getBoolean(DelphiProperties.REUSE_PARSED_FILES_KEY)
+        .orElse(DelphiProperties.REUSE_PARSED_FILES_DEFAULT);
+  }
+
+  public boolean shouldAnalyzeIncrementally() {
+    return settings
+        .getBoolean(DelphiProperties.INCREMENTAL_ANALYSIS_KEY)
+        .orElse(DelphiProperties.INCREMENTAL_ANALYSIS_DEFAULT);
+  }
+
+  /**
+   * Returns the directory where analysis data is cached between scans
+   *
+   * @return the configured cache directory, or a directory within the scanner's working directory
+   */
+  public Path getCacheDirectory() {
+    return settings
+        .get(DelphiProperties.CACHE_DIRECTORY_KEY)
+        .filter(StringUtils::isNotBlank)
+        .map(path -> DelphiUtils.resolveAbsolutePath(fs.baseDir().getAbsolutePath(), path.trim()))
+        .orElseGet(() -> new File(fs.workDir(), DEFAULT_CACHE_DIRECTORY))
+        .toPath();
+  }
+
+  @Nullable
+  public Path getParserProfileReportPath() {
+    return settings
+        .get(DelphiProperties.PARSER_PROFILE_REPORT_KEY)
+        .filter(StringUtils::isNotBlank)
+        .map(path -> DelphiUtils.resolveAbsolutePath(fs.baseDir().getAbsolutePath(), path.trim()))
+        .map(File::toPath)
+        .orElse(null);
+  }
+
+  @Nullable
+  public Path getTelemetryReportPath() {
+    return settings
+        .get(DelphiProperties.TELEMETRY_REPORT_KEY)
+        .filter(StringUtils::isNotBlank)
+        .map(path -> DelphiUtils.resolveAbsolutePath(fs.baseDir().getAbsolutePath(), path.trim()))
+        .map(File::toPath)
+        .orElse(null);
+  }
+
   public List<Path> getReferencedFiles() {
     indexProjects();
     return referencedFiles;
@@ -18,25 +18,173 @@
  */
 package au.com.integradev.delphi.preprocessor;
 
-import com.google.common.collect.Maps;
-import com.google.common.collect.Multimap;
-import com.google.common.collect.Multimaps;
-import com.google.common.collect.Range;
-import java.util.HashSet;
+import com.google.common.base.Preconditions;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 import org.sonar.plugins.communitydelphi.api.directive.SwitchDirective.SwitchKind;
 
+/**
+ * Records the token ranges where each compiler switch is enabled.
+ *
+ * <p>Ranges are added while a file is preprocessed, and then the registry is frozen into a sorted
+ * array of non-overlapping intervals per switch kind. Queries are a binary search over these
+ * intervals.
+ */
 public class CompilerSwitchRegistry {
-  private final Multimap<SwitchKind, Range<Integer>> rangesBySwitchKind;
+  private Map<SwitchKind, List<int[]>> pendingRanges = new EnumMap<>(SwitchKind.class);
+  private final Map<SwitchKind, Intervals> intervalsBySwitchKind = new EnumMap<>(SwitchKind.class);
 
   CompilerSwitchRegistry() {
-    rangesBySwitchKind = Multimaps.newSetMultimap(Maps.newEnumMap(SwitchKind.class), HashSet::new);
+    // package-private constructor
   }
 
   void addSwitch(SwitchKind kind, int startIndex, int endIndex) {
-    rangesBySwitchKind.put(kind, Range.closed(startIndex, endIndex));
+    Preconditions.checkState(pendingRanges != null, "CompilerSwitchRegistry is frozen.");
+    pendingRanges
+        .computeIfAbsent(kind, k -> new ArrayList<>())
+        .add(new int[] {startIndex, endIndex});
+  }
+
+  void freeze() {
+    Preconditions.checkState(pendingRanges != null, "CompilerSwitchRegistry is already frozen.");
+    pendingRanges.forEach((kind, ranges) -> intervalsBySwitchKind.put(kind, Intervals.of(ranges)));
+    pendingRanges = null;
   }
 
   public boolean isActiveSwitch(SwitchKind kind, int tokenIndex) {
-    return rangesBySwitchKind.get(kind).stream().anyMatch(range -> range.contains(tokenIndex));
+    Intervals intervals = getIntervals(kind);
+    return intervals != null && intervals.contains(tokenIndex);
+  }
+
+  /**
+   * Returns whether a switch is enabled at each token in a range
+   *
+   * @param kind the switch kind
+   * @param startIndex the first token index in the range
+   * @param endIndex the last token index in the range
+   * @return a bit set where bit {@code i} is set if the switch is enabled at token index {@code
+   *     startIndex + i}
+   */
+  public BitSet getActiveSwitches(SwitchKind kind, int startIndex, int endIndex) {
+    BitSet result = new BitSet();
+    Intervals intervals = getIntervals(kind);
+    if (intervals != null) {
+      intervals.fill(result, startIndex, endIndex);
+    }
+    return result;
+  }
+
+  /**
+   * Writes the intervals of a frozen registry, so that they can be restored with {@link
+   * #read(DataInput)}
+   *
+   * @param output the output to write to
+   * @throws IOException if the intervals could not be written
+   */
+  public void write(DataOutput output) throws IOException {
+    Preconditions.checkState(pendingRanges == null, "CompilerSwitchRegistry is not frozen yet.");
+    output.writeInt(intervalsBySwitchKind.size());
+    for (Map.Entry<SwitchKind, Intervals> entry : intervalsBySwitchKind.entrySet()) {
+      Intervals intervals = entry.getValue();
+      output.writeUTF(entry.getKey().name());
+      output.writeInt(intervals.starts.length);
+      for (int i = 0; i < intervals.starts.length; ++i) {
+        output.writeInt(intervals.starts[i]);
+        output.writeInt(intervals.ends[i]);
+      }
+    }
+  }
+
+  /**
+   * Reads a frozen registry that was written with {@link #write(DataOutput)}
+   *
+   * @param input the input to read from
+   * @return the registry
+   * @throws IOException if the intervals could not be read
+   */
+  public static CompilerSwitchRegistry read(DataInput input) throws IOException {
+    CompilerSwitchRegistry registry = new CompilerSwitchRegistry();
+    int kinds = input.readInt();
+    for (int k = 0; k < kinds; ++k) {
+      SwitchKind kind = SwitchKind.valueOf(input.readUTF());
+      int size = input.readInt();
+      int[] starts = new int[size];
+      int[] ends = new int[size];
+      for (int i = 0; i < size; ++i) {
+        starts[i] = input.readInt();
+        ends[i] = input.readInt();
+      }
+      registry.intervalsBySwitchKind.put(kind, new Intervals(starts, ends));
+    }
+    registry.pendingRanges = null;
+    return registry;
+  }
+
+  private Intervals getIntervals(SwitchKind kind) {
+    Preconditions.checkState(pendingRanges == null, "CompilerSwitchRegistry is not frozen yet.");
+    return intervalsBySwitchKind.get(kind);
+  }
+
+  private static final class Intervals {
+    private final int[] starts;
+    private final int[] ends;
+
+    private Intervals(int[] starts, int[] ends) {
+      this.starts = starts;
+      this.ends = ends;
+    }
+
+    private static Intervals of(List<int[]> ranges) {
+      ranges.sort(Comparator.comparingInt(range -> range[0]));
+
+      int[] starts = new int[ranges.size()];
+      int[] ends = new int[ranges.size()];
+      int size = 0;
+
+      for (int[] range : ranges) {
+        if (size > 0 && range[0] <= ends[size - 1] + 1) {
+          ends[size - 1] = Math.max(ends[size - 1], range[1]);
+        } else {
+          starts[size] = range[0];
+          ends[size] = range[1];
+          ++size;
+        }
+      }
+
+      return new Intervals(Arrays.copyOf(starts, size), Arrays.copyOf(ends, size));
+    }
+
+    private boolean contains(int index) {
+      int position = floor(index);
+      return position != -1 && ends[position] >= index;
+    }
+
+    private void fill(BitSet bits, int startIndex, int endIndex) {
+      int position = floor(startIndex);
+      if (position == -1) {
+        position = 0;
+      }
+      for (; position < starts.length && starts[position] <= endIndex; ++position) {
+        int from = Math.max(starts[position], startIndex);
+        int to = Math.min(ends[position], endIndex);
+        if (from <= to) {
+          bits.set(from - startIndex, to - startIndex + 1);
+        }
+      }
+    }
+
+    /** Returns the position of the last interval that starts at or before an index, or -1. */
+    private int floor(int index) {
+      int position = Arrays.binarySearch(starts, index);
+      return position >= 0 ? position : -(position + 1) - 1;
+    }
   }
 }
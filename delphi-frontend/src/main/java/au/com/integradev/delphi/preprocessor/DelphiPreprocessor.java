@@ -18,34 +18,35 @@
  */
 package au.com.integradev.delphi.preprocessor;
 
-import static java.util.Comparator.comparingInt;
-
 import au.com.integradev.delphi.antlr.DelphiFileStream;
 import au.com.integradev.delphi.antlr.DelphiLexer;
 import au.com.integradev.delphi.antlr.DelphiTokenStream;
 import au.com.integradev.delphi.antlr.ast.token.DelphiTokenImpl;
-import au.com.integradev.delphi.antlr.ast.token.IncludeToken;
 import au.com.integradev.delphi.compiler.Platform;
 import au.com.integradev.delphi.file.DelphiFileConfig;
+import au.com.integradev.delphi.file.SourceBuffer;
+import au.com.integradev.delphi.preprocessor.IncludeFileCache.CachedInclude;
+import au.com.integradev.delphi.preprocessor.IncludeFileCache.Recording;
 import au.com.integradev.delphi.preprocessor.directive.BranchDirective;
-import au.com.integradev.delphi.preprocessor.directive.BranchingDirective;
 import au.com.integradev.delphi.preprocessor.directive.CompilerDirectiveImpl;
 import au.com.integradev.delphi.preprocessor.directive.CompilerDirectiveParserImpl;
 import au.com.integradev.delphi.utils.DelphiUtils;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Iterables;
+import com.google.common.hash.HashCode;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayDeque;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.TreeSet;
-import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import org.antlr.runtime.Token;
 import org.apache.commons.io.FilenameUtils;
 import org.slf4j.Logger;
@@ -63,17 +64,28 @@ public class DelphiPreprocessor {
   private final DelphiFileConfig config;
   private final Platform platform;
   private final Set<String> definitions;
-  private final List<CompilerDirective> directives;
-  private final Deque<BranchingDirective> parentDirective;
+  private final Deque<Conditional> conditionals;
   private final Map<SwitchKind, Integer> currentSwitches;
   private final CompilerSwitchRegistry switchRegistry;
+  private final IncludeFileCache includeCache;
+  private final Recording recording;
+  private final RawTokenRecorder rawTokenRecorder;
   private final boolean processingIncludeFile;
+  private final Map<String, HashCode> includedFiles = new TreeMap<>();
 
   private DelphiTokenStream tokenStream;
-  private Set<Token> tokens;
+  private TokenBuffer tokens;
   private int tokenIndex;
 
   DelphiPreprocessor(DelphiLexer lexer, DelphiFileConfig config, Platform platform) {
+    this(lexer, config, platform, new IncludeFileCache());
+  }
+
+  DelphiPreprocessor(
+      DelphiLexer lexer,
+      DelphiFileConfig config,
+      Platform platform,
+      IncludeFileCache includeCache) {
     this(
         lexer,
         config,
@@ -81,6 +93,8 @@ public class DelphiPreprocessor {
         caseInsensitiveSet(config.getDefinitions()),
         new EnumMap<>(SwitchKind.class),
         new CompilerSwitchRegistry(),
+        includeCache,
+        null,
         0,
         false);
   }
@@ -92,6 +106,8 @@ public class DelphiPreprocessor {
       Set<String> definitions,
       Map<SwitchKind, Integer> currentSwitches,
       CompilerSwitchRegistry switchRegistry,
+      IncludeFileCache includeCache,
+      @Nullable Recording recording,
       int tokenIndexStart,
       boolean processingIncludeFile) {
     this.lexer = lexer;
@@ -99,9 +115,11 @@ public class DelphiPreprocessor {
     this.platform = platform;
     this.switchRegistry = switchRegistry;
     this.definitions = definitions;
-    this.directives = new ArrayList<>();
-    this.parentDirective = new ArrayDeque<>();
+    this.conditionals = new ArrayDeque<>();
     this.currentSwitches = currentSwitches;
+    this.includeCache = includeCache;
+    this.recording = recording;
+    this.rawTokenRecorder = processingIncludeFile ? null : new RawTokenRecorder(lexer);
     this.processingIncludeFile = processingIncludeFile;
     this.tokenIndex = tokenIndexStart;
   }
@@ -116,37 +134,50 @@ public class DelphiPreprocessor {
     Preconditions.checkState(
         tokenStream == null, "DelphiPreprocessor.process cannot be called twice.");
     tokenStream = new DelphiTokenStream(lexer);
+    tokens = new TokenBuffer();
+
+    Token token;
+    do {
+      if (rawTokenRecorder != null) {
+        rawTokenRecorder.mark(tokenIndex);
+      }
+      if (isSkipping()) {
+        int skipped = InactiveCodeScanner.skipToNextDirective(lexer.getCharStream());
+        if (skipped > 0 && rawTokenRecorder != null) {
+          // Inactive code is never tokenized. It reserves a single token index, which its raw
+          // tokens share so that they're numbered in between the surrounding tokens.
+          ++tokenIndex;
+        }
+      }
+      token = lexer.nextToken();
+      processToken(token);
+      if (rawTokenRecorder != null) {
+        rawTokenRecorder.record(token);
+      }
+    } while (token.getType() != Token.EOF);
 
-    tokenStream.fill();
-    tokens = extractTokens(tokenStream);
-    tokens.forEach(this::processToken);
-    directives.stream()
-        .map(CompilerDirectiveImpl.class::cast)
-        .forEach(directive -> directive.execute(this));
-    tokenStream.setTokens(new ArrayList<>(tokens));
+    tokenStream.setTokens(tokens.toList());
     tokenStream.reset();
 
     if (!processingIncludeFile) {
       registerCurrentCompilerSwitches();
+      switchRegistry.freeze();
     }
   }
 
-  private static Set<Token> extractTokens(DelphiTokenStream tokenStream) {
-    Set<Token> result = new TreeSet<>(comparingInt(Token::getTokenIndex));
-    result.addAll(tokenStream.getTokens());
-    return result;
+  private boolean isSkipping() {
+    return !conditionals.isEmpty() && !conditionals.peek().active;
   }
 
   private void processToken(Token token) {
     token.setTokenIndex(tokenIndex);
     tokenIndex++;
+    tokens.add(token);
 
     if (token.getType() == DelphiLexer.TkCompilerDirective) {
       CompilerDirectiveParser parser = new CompilerDirectiveParserImpl(platform);
       DelphiToken directiveToken = new DelphiTokenImpl(token);
       parser.parse(directiveToken).ifPresent(this::processDirective);
-    } else if (!parentDirective.isEmpty()) {
-      parentDirective.peek().addToken(token);
     }
   }
 
@@ -157,26 +188,39 @@ public class DelphiPreprocessor {
         case IFDEF:
         case IFNDEF:
         case IFOPT:
-          addBranchingDirective(new BranchingDirective((BranchDirective) directive));
+          startConditional((BranchDirective) directive);
           break;
         case ELSEIF:
         case ELSE:
-          addBranch((BranchDirective) directive);
+          startBranch((BranchDirective) directive);
           break;
         case IFEND:
         case ENDIF:
-          endBranchingDirective();
+          endConditional();
           break;
       }
-    } else if (parentDirective.isEmpty()) {
-      directives.add(directive);
-    } else {
-      parentDirective.peek().addDirective(directive);
+    } else if (!isSkipping()) {
+      ((CompilerDirectiveImpl) directive).execute(this);
     }
   }
 
-  public void deleteToken(Token token) {
-    tokens.remove(token);
+  private void startConditional(BranchDirective directive) {
+    boolean parentActive = !isSkipping();
+    conditionals.push(new Conditional(parentActive));
+    startBranch(directive);
+  }
+
+  private void startBranch(BranchDirective directive) {
+    Preconditions.checkState(!conditionals.isEmpty());
+    Conditional conditional = conditionals.peek();
+    conditional.active =
+        conditional.parentActive && !conditional.branchTaken && directive.isSuccessfulBranch(this);
+    conditional.branchTaken |= conditional.active;
+  }
+
+  private void endConditional() {
+    Preconditions.checkState(!conditionals.isEmpty());
+    conditionals.pop();
   }
 
   public void resolveInclude(Token insertionToken, String includeFilePath) {
@@ -197,22 +241,10 @@ public class DelphiPreprocessor {
     DelphiToken location = new DelphiTokenImpl(insertionToken);
     List<Token> includeTokens = processIncludeFile(includeFileName, includePath, location);
 
-    offsetTokenIndices(location.getIndex(), getTokenOffset(includeTokens));
-    deleteToken(insertionToken);
-    tokens.addAll(includeTokens);
-  }
-
-  private static int getTokenOffset(List<Token> tokens) {
-    if (!tokens.isEmpty()) {
-      return Iterables.getLast(tokens).getTokenIndex() - tokens.get(0).getTokenIndex();
+    tokens.replace(insertionToken, includeTokens);
+    if (!includeTokens.isEmpty()) {
+      tokenIndex = Math.max(tokenIndex, Iterables.getLast(includeTokens).getTokenIndex() + 1);
     }
-    return 0;
-  }
-
-  private void offsetTokenIndices(int startIndex, int offset) {
-    tokens.stream()
-        .filter(token -> token.getTokenIndex() > startIndex)
-        .forEach(token -> token.setTokenIndex(token.getTokenIndex() + offset));
   }
 
   private List<Token> processIncludeFile(String filename, Path includePath, DelphiToken location) {
@@ -227,26 +259,7 @@ public class DelphiPreprocessor {
               "Include file <" + includeFile.toAbsolutePath() + "> references itself");
         }
 
-        DelphiFileStream fileStream = new DelphiFileStream(path, config.getEncoding());
-        DelphiLexer includeLexer = new DelphiLexer(fileStream);
-        DelphiPreprocessor preprocessor =
-            new DelphiPreprocessor(
-                includeLexer,
-                config,
-                platform,
-                definitions,
-                currentSwitches,
-                switchRegistry,
-                location.getIndex(),
-                true);
-
-        preprocessor.process();
-
-        List<Token> includeTokens = preprocessor.getTokenStream().getTokens();
-        return includeTokens.stream()
-            .limit(includeTokens.size() - 1L)
-            .map(token -> new IncludeToken(token, location))
-            .collect(Collectors.toList());
+        return includeFileTokens(path, location);
       }
     } catch (IOException | RuntimeException e) {
       LOG.debug("Error occurred while resolving includes: ", e);
@@ -256,39 +269,85 @@ public class DelphiPreprocessor {
     return Collections.emptyList();
   }
 
-  private void addBranchingDirective(BranchingDirective directive) {
-    if (!parentDirective.isEmpty()) {
-      parentDirective.peek().addDirective(directive);
+  private List<Token> includeFileTokens(String path, DelphiToken location) throws IOException {
+    HashCode hash = includeCache.hash(path);
+    IncludeFileCache.Key key =
+        new IncludeFileCache.Key(
+            path, hash, config.getEncoding(), config.getSearchPath(), config.getTypeFactory());
+
+    CachedInclude include = includeCache.find(key, definitions::contains);
+    if (include == null) {
+      byte[] bytes = Files.readAllBytes(Path.of(path));
+      include =
+          preprocessIncludeFile(SourceBuffer.decode(path, bytes, config.getEncoding()), location);
+      includeCache.add(key, include);
+    } else {
+      include.replay(this, location.getIndex());
+      if (recording != null) {
+        include.getIncludedFiles().forEach(recording::included);
+      }
+    }
+
+    if (recording != null) {
+      recording.included(path, hash);
+    } else {
+      includedFiles.putAll(include.getIncludedFiles());
+      includedFiles.put(path, hash);
     }
-    parentDirective.push(directive);
-  }
 
-  private void addBranch(BranchDirective directive) {
-    Preconditions.checkState(!parentDirective.isEmpty());
-    parentDirective.peek().addBranch(directive);
+    return include.createTokens(location);
   }
 
-  private void endBranchingDirective() {
-    Preconditions.checkState(!parentDirective.isEmpty());
-    BranchingDirective directive = parentDirective.pop();
-    if (parentDirective.isEmpty()) {
-      directives.add(directive);
-    }
+  private CachedInclude preprocessIncludeFile(SourceBuffer source, DelphiToken location) {
+    Recording includeRecording = new Recording(recording, location.getIndex());
+    DelphiFileStream fileStream = new DelphiFileStream(source);
+    DelphiLexer includeLexer = new DelphiLexer(fileStream);
+    DelphiPreprocessor preprocessor =
+        new DelphiPreprocessor(
+            includeLexer,
+            config,
+            platform,
+            definitions,
+            currentSwitches,
+            switchRegistry,
+            includeCache,
+            includeRecording,
+            location.getIndex(),
+            true);
+
+    preprocessor.process();
+
+    List<Token> includeTokens = preprocessor.getTokenStream().getTokens();
+    return includeRecording.toCachedInclude(includeTokens.subList(0, includeTokens.size() - 1));
   }
 
   public boolean isDefined(String define) {
-    return definitions.contains(define);
+    boolean defined = definitions.contains(define);
+    if (recording != null) {
+      recording.read(define, defined);
+    }
+    return defined;
   }
 
   public void define(String define) {
     definitions.add(define);
+    if (recording != null) {
+      recording.write(define, true);
+    }
   }
 
   public void undefine(String define) {
     definitions.remove(define);
+    if (recording != null) {
+      recording.write(define, false);
+    }
   }
 
   public void handleSwitch(SwitchKind kind, int tokenIndex, boolean value) {
+    if (recording != null) {
+      recording.switchChanged(kind, tokenIndex, value);
+    }
+
     if (value) {
       currentSwitches.put(kind, tokenIndex);
       return;
@@ -302,11 +361,28 @@ public class DelphiPreprocessor {
 
   private void registerCurrentCompilerSwitches() {
     if (!tokens.isEmpty()) {
-      int lastTokenIndex = Iterables.getLast(tokens).getTokenIndex();
+      int lastTokenIndex = tokens.getLast().getTokenIndex();
       currentSwitches.forEach((type, index) -> handleSwitch(type, lastTokenIndex, false));
     }
   }
 
+  /**
+   * Returns the tokens of the file before preprocessing, including the contents of inactive
+   * conditional branches and the include directives that were replaced by the contents of their
+   * include files
+   *
+   * <p>The tokens are numbered to match the preprocessed tokens, so tokens that the preprocessor
+   * left out are numbered in between the preprocessed tokens that surround them.
+   *
+   * @return the raw tokens of the file, including the EOF token
+   */
+  public List<Token> getRawTokens() {
+    Preconditions.checkState(
+        tokenStream != null && rawTokenRecorder != null,
+        "Raw tokens are only available after processing a file that isn't an include file.");
+    return rawTokenRecorder.build();
+  }
+
   public DelphiTokenStream getTokenStream() {
     return tokenStream;
   }
@@ -315,10 +391,30 @@ public class DelphiPreprocessor {
     return switchRegistry;
   }
 
+  /**
+   * Returns the include files that were included by the file, directly or through other include
+   * files
+   *
+   * @return the content hash of each include file, by absolute path
+   */
+  public Map<String, HashCode> getIncludedFiles() {
+    return Collections.unmodifiableMap(includedFiles);
+  }
+
   public TypeFactory getTypeFactory() {
     return config.getTypeFactory();
   }
 
+  private static final class Conditional {
+    private final boolean parentActive;
+    private boolean active;
+    private boolean branchTaken;
+
+    private Conditional(boolean parentActive) {
+      this.parentActive = parentActive;
+    }
+  }
+
   static class SelfReferencingIncludeFileException extends RuntimeException {
     SelfReferencingIncludeFileException(String message) {
       super(message);
@@ -24,12 +24,17 @@ import au.com.integradev.delphi.file.DelphiFileConfig;
 
 public final class DelphiPreprocessorFactory {
   private final Platform platform;
+  private final IncludeFileCache includeCache = new IncludeFileCache();
 
   public DelphiPreprocessorFactory(Platform platform) {
     this.platform = platform;
   }
 
   public DelphiPreprocessor createPreprocessor(DelphiLexer lexer, DelphiFileConfig config) {
-    return new DelphiPreprocessor(lexer, config, platform);
+    return new DelphiPreprocessor(lexer, config, platform, includeCache);
+  }
+
+  IncludeFileCache getIncludeCache() {
+    return includeCache;
   }
 }
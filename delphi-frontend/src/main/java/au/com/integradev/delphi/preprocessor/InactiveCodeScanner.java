@@ -0,0 +1,99 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.preprocessor;
+
+import org.antlr.runtime.CharStream;
+
+/**
+ * Skips over code in inactive conditional branches without tokenizing it.
+ *
+ * <p>Only compiler directives can end an inactive branch, so the scanner stops at the start of the
+ * next compiler directive and leaves it for the lexer. Comments and string literals are stepped
+ * over the same way that the lexer would, so that directive-like text inside them is ignored.
+ */
+final class InactiveCodeScanner {
+  private InactiveCodeScanner() {
+    // Utility class
+  }
+
+  /**
+   * Advances the input to the start of the next compiler directive, or to the end of the input
+   *
+   * @param input the input that the lexer reads from
+   * @return the number of characters that were skipped
+   */
+  static int skipToNextDirective(CharStream input) {
+    int start = input.index();
+    while (true) {
+      int c = input.LA(1);
+      if (c == CharStream.EOF) {
+        break;
+      } else if (c == '{') {
+        if (input.LA(2) == '$') {
+          break;
+        }
+        input.consume();
+        skipPast(input, '}');
+      } else if (c == '(' && input.LA(2) == '*') {
+        if (input.LA(3) == '$') {
+          break;
+        }
+        input.consume();
+        input.consume();
+        skipPastParenStarComment(input);
+      } else if (c == '/' && input.LA(2) == '/') {
+        skipLineComment(input);
+      } else if (c == '\'') {
+        input.consume();
+        skipPast(input, '\'');
+      } else {
+        input.consume();
+      }
+    }
+    return input.index() - start;
+  }
+
+  private static void skipPast(CharStream input, char end) {
+    int c;
+    while ((c = input.LA(1)) != CharStream.EOF) {
+      input.consume();
+      if (c == end) {
+        return;
+      }
+    }
+  }
+
+  private static void skipPastParenStarComment(CharStream input) {
+    int c;
+    while ((c = input.LA(1)) != CharStream.EOF) {
+      input.consume();
+      if (c == '*' && input.LA(1) == ')') {
+        input.consume();
+        return;
+      }
+    }
+  }
+
+  private static void skipLineComment(CharStream input) {
+    int c;
+    while ((c = input.LA(1)) != CharStream.EOF && c != '\n' && c != '\r') {
+      input.consume();
+    }
+  }
+}
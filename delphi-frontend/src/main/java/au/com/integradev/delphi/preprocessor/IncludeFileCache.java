@@ -0,0 +1,346 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.preprocessor;
+
+import au.com.integradev.delphi.antlr.ast.token.IncludeToken;
+import au.com.integradev.delphi.preprocessor.search.SearchPath;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
+import org.antlr.runtime.Token;
+import org.sonar.plugins.communitydelphi.api.directive.SwitchDirective.SwitchKind;
+import org.sonar.plugins.communitydelphi.api.token.DelphiToken;
+import org.sonar.plugins.communitydelphi.api.type.TypeFactory;
+
+/**
+ * Caches the preprocessed tokens of include files, so that an include file that is shared by many
+ * units is only lexed and preprocessed once for each set of defines that it depends on.
+ *
+ * <p>Include files are keyed by their resolved path and the hash of their contents. Each cached
+ * result records the defines that the include file read from its including file, along with the
+ * defines and compiler switches that it wrote. A result is replayed whenever the defines that it
+ * read have the same values, which applies its writes as if the include file had been processed
+ * again.
+ *
+ * <p>The content hash of each include file is memoized for the scan, and is only computed again if
+ * the modification time or size of the file changes.
+ *
+ * <p>The cache is safe to share between concurrent analysis workers.
+ */
+final class IncludeFileCache {
+  private static final int MAX_RESULTS_PER_FILE = 16;
+
+  private final Map<Key, List<CachedInclude>> cache = new ConcurrentHashMap<>();
+  private final Map<String, ContentHash> contentHashes = new ConcurrentHashMap<>();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  /**
+   * Returns the hash of the contents of an include file
+   *
+   * @param path the absolute path of the include file
+   * @return hash of the file contents
+   * @throws IOException if the file can't be read
+   */
+  HashCode hash(String path) throws IOException {
+    Path file = Path.of(path);
+    BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+    ContentHash cached = contentHashes.get(path);
+    if (cached != null && cached.matches(attributes)) {
+      return cached.hash;
+    }
+    HashCode hash = Hashing.sha256().hashBytes(Files.readAllBytes(file));
+    contentHashes.put(path, new ContentHash(attributes, hash));
+    return hash;
+  }
+
+  @Nullable
+  private HashCode hashOrNull(String path) {
+    try {
+      return hash(path);
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Finds a cached result that can be replayed against the current defines
+   *
+   * @param key the include file
+   * @param isDefined tests whether a symbol is currently defined
+   * @return a cached result that can be replayed, or null if there is none
+   */
+  @Nullable
+  CachedInclude find(Key key, Predicate<String> isDefined) {
+    for (CachedInclude result : cache.getOrDefault(key, Collections.emptyList())) {
+      if (result.canReplay(isDefined, this::hashOrNull)) {
+        hits.increment();
+        return result;
+      }
+    }
+    misses.increment();
+    return null;
+  }
+
+  void add(Key key, CachedInclude result) {
+    List<CachedInclude> results = cache.computeIfAbsent(key, k -> new CopyOnWriteArrayList<>());
+    if (results.size() < MAX_RESULTS_PER_FILE) {
+      results.add(result);
+    }
+  }
+
+  long getHitCount() {
+    return hits.sum();
+  }
+
+  long getMissCount() {
+    return misses.sum();
+  }
+
+  /** Identifies an include file, along with the configuration that it was preprocessed with. */
+  static final class Key {
+    private final String path;
+    private final HashCode hash;
+    private final String encoding;
+    private final SearchPath searchPath;
+    private final TypeFactory typeFactory;
+
+    Key(
+        String path,
+        HashCode hash,
+        @Nullable String encoding,
+        SearchPath searchPath,
+        TypeFactory typeFactory) {
+      this.path = path;
+      this.hash = hash;
+      this.encoding = encoding;
+      this.searchPath = searchPath;
+      this.typeFactory = typeFactory;
+    }
+
+    HashCode getHash() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key other = (Key) o;
+      return path.equals(other.path)
+          && hash.equals(other.hash)
+          && Objects.equals(encoding, other.encoding)
+          && searchPath.equals(other.searchPath)
+          && typeFactory.equals(other.typeFactory);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(path, hash, encoding, searchPath, typeFactory);
+    }
+  }
+
+  /**
+   * Records the defines and compiler switches that an include file reads and writes while it's
+   * being preprocessed, including those of the include files that it includes.
+   */
+  static final class Recording {
+    private final Recording parent;
+    private final int tokenIndexStart;
+    private final Map<String, Boolean> definesRead = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final Map<String, Boolean> definesWritten =
+        new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final List<SwitchChange> switchChanges = new ArrayList<>();
+    private final Map<String, HashCode> includedFiles = new HashMap<>();
+
+    Recording(@Nullable Recording parent, int tokenIndexStart) {
+      this.parent = parent;
+      this.tokenIndexStart = tokenIndexStart;
+    }
+
+    void read(String symbol, boolean defined) {
+      if (definesWritten.containsKey(symbol)) {
+        // The value was decided by this include file, not by the file that included it.
+        return;
+      }
+      definesRead.putIfAbsent(symbol, defined);
+      if (parent != null) {
+        parent.read(symbol, defined);
+      }
+    }
+
+    void write(String symbol, boolean defined) {
+      definesWritten.put(symbol, defined);
+      if (parent != null) {
+        parent.write(symbol, defined);
+      }
+    }
+
+    void switchChanged(SwitchKind kind, int tokenIndex, boolean value) {
+      switchChanges.add(new SwitchChange(kind, tokenIndex - tokenIndexStart, value));
+      if (parent != null) {
+        parent.switchChanged(kind, tokenIndex, value);
+      }
+    }
+
+    void included(String path, HashCode hash) {
+      includedFiles.put(path, hash);
+      if (parent != null) {
+        parent.included(path, hash);
+      }
+    }
+
+    CachedInclude toCachedInclude(List<Token> tokens) {
+      return new CachedInclude(
+          tokens, tokenIndexStart, definesRead, definesWritten, switchChanges, includedFiles);
+    }
+  }
+
+  /** The preprocessed result of an include file, which can be replayed into another file. */
+  static final class CachedInclude {
+    private final List<Token> tokens;
+    private final int tokenIndexStart;
+    private final Map<String, Boolean> definesRead;
+    private final Map<String, Boolean> definesWritten;
+    private final List<SwitchChange> switchChanges;
+    private final Map<String, HashCode> includedFiles;
+
+    private CachedInclude(
+        List<Token> tokens,
+        int tokenIndexStart,
+        Map<String, Boolean> definesRead,
+        Map<String, Boolean> definesWritten,
+        List<SwitchChange> switchChanges,
+        Map<String, HashCode> includedFiles) {
+      this.tokens = List.copyOf(tokens);
+      this.tokenIndexStart = tokenIndexStart;
+      this.definesRead = Collections.unmodifiableMap(new TreeMap<>(definesRead));
+      this.definesWritten = Collections.unmodifiableMap(new TreeMap<>(definesWritten));
+      this.switchChanges = List.copyOf(switchChanges);
+      this.includedFiles = Map.copyOf(includedFiles);
+    }
+
+    private boolean canReplay(
+        Predicate<String> isDefined, Function<String, HashCode> currentHashes) {
+      for (Map.Entry<String, Boolean> entry : definesRead.entrySet()) {
+        if (isDefined.test(entry.getKey()) != entry.getValue()) {
+          return false;
+        }
+      }
+      for (Map.Entry<String, HashCode> entry : includedFiles.entrySet()) {
+        if (!entry.getValue().equals(currentHashes.apply(entry.getKey()))) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /**
+     * Replays the defines and compiler switches that the include file read and wrote
+     *
+     * @param preprocessor the preprocessor of the including file
+     * @param tokenIndex the index that the include file's tokens start at
+     */
+    void replay(DelphiPreprocessor preprocessor, int tokenIndex) {
+      // Reading the defines again records them in the recording of an enclosing include file.
+      definesRead.keySet().forEach(preprocessor::isDefined);
+      definesWritten.forEach(
+          (symbol, defined) -> {
+            if (defined) {
+              preprocessor.define(symbol);
+            } else {
+              preprocessor.undefine(symbol);
+            }
+          });
+      for (SwitchChange change : switchChanges) {
+        preprocessor.handleSwitch(change.kind, change.tokenIndex + tokenIndex, change.value);
+      }
+    }
+
+    Map<String, HashCode> getIncludedFiles() {
+      return includedFiles;
+    }
+
+    /**
+     * Creates copies of the include file's tokens for a file that includes it
+     *
+     * @param location the include directive that the tokens are inserted at
+     * @return the tokens of the include file, starting at the index of the include directive
+     */
+    List<Token> createTokens(DelphiToken location) {
+      int offset = location.getIndex() - tokenIndexStart;
+      List<Token> result = new ArrayList<>(tokens.size());
+      for (Token token : tokens) {
+        Token copy = new IncludeToken(token, location);
+        copy.setTokenIndex(token.getTokenIndex() + offset);
+        result.add(copy);
+      }
+      return result;
+    }
+  }
+
+  private static final class ContentHash {
+    private final FileTime lastModifiedTime;
+    private final long size;
+    private final HashCode hash;
+
+    private ContentHash(BasicFileAttributes attributes, HashCode hash) {
+      this.lastModifiedTime = attributes.lastModifiedTime();
+      this.size = attributes.size();
+      this.hash = hash;
+    }
+
+    private boolean matches(BasicFileAttributes attributes) {
+      return lastModifiedTime.equals(attributes.lastModifiedTime()) && size == attributes.size();
+    }
+  }
+
+  private static final class SwitchChange {
+    private final SwitchKind kind;
+    private final int tokenIndex;
+    private final boolean value;
+
+    private SwitchChange(SwitchKind kind, int tokenIndex, boolean value) {
+      this.kind = kind;
+      this.tokenIndex = tokenIndex;
+      this.value = value;
+    }
+  }
+}
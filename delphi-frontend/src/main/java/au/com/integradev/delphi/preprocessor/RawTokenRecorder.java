@@ -0,0 +1,164 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.preprocessor;
+
+import au.com.integradev.delphi.antlr.DelphiFileStream;
+import au.com.integradev.delphi.antlr.DelphiLexer;
+import java.util.ArrayList;
+import java.util.List;
+import org.antlr.runtime.CommonToken;
+import org.antlr.runtime.Token;
+
+/**
+ * Records the tokens of a file as the preprocessor lexes them, so that the tokens of the file
+ * before preprocessing can be built without lexing the file a second time.
+ *
+ * <p>The preprocessor doesn't tokenize everything, like inactive conditional branches. The
+ * positions of these untokenized regions are recorded as well, and only these regions are lexed
+ * when the raw tokens are built.
+ */
+final class RawTokenRecorder {
+  private final DelphiLexer lexer;
+  private final DelphiFileStream input;
+  private final List<Token> tokens = new ArrayList<>();
+  private final List<UntokenizedRegion> regions = new ArrayList<>();
+
+  private int nextStart;
+  private int nextLine;
+  private int nextCharPositionInLine;
+  private int nextTokenIndex;
+  private boolean nextAsmMode;
+
+  RawTokenRecorder(DelphiLexer lexer) {
+    this.lexer = lexer;
+    this.input = (DelphiFileStream) lexer.getCharStream();
+  }
+
+  /**
+   * Marks the current position of the lexer, which is where the next token should start
+   *
+   * @param tokenIndex the index of the next token
+   */
+  void mark(int tokenIndex) {
+    nextStart = input.index();
+    nextLine = input.getLine();
+    nextCharPositionInLine = input.getCharPositionInLine();
+    nextTokenIndex = tokenIndex;
+    nextAsmMode = lexer.isAsmMode();
+  }
+
+  /**
+   * Records a token that was returned by the lexer. If the token doesn't start at the marked
+   * position, then the characters in between were left untokenized.
+   *
+   * @param token the token, which has already been numbered
+   */
+  void record(Token token) {
+    CommonToken lexed = (CommonToken) token;
+    if (lexed.getStartIndex() > nextStart) {
+      regions.add(
+          new UntokenizedRegion(
+              tokens.size(),
+              nextStart,
+              lexed.getStartIndex(),
+              nextLine,
+              nextCharPositionInLine,
+              nextTokenIndex,
+              nextAsmMode));
+    }
+
+    // The parser can modify tokens, so the raw tokens are copied. The text isn't copied, since it
+    // can be read from the input.
+    CommonToken copy =
+        new CommonToken(
+            input,
+            lexed.getType(),
+            lexed.getChannel(),
+            lexed.getStartIndex(),
+            lexed.getStopIndex());
+    copy.setLine(lexed.getLine());
+    copy.setCharPositionInLine(lexed.getCharPositionInLine());
+    copy.setTokenIndex(lexed.getTokenIndex());
+    tokens.add(copy);
+  }
+
+  /**
+   * Builds the raw tokens of the file in a single pass, lexing each untokenized region in turn
+   *
+   * <p>The tokens of an untokenized region all share the index that was marked at its start, which
+   * the preprocessor reserves for the region.
+   *
+   * @return the raw tokens of the file, including the EOF token
+   */
+  List<Token> build() {
+    List<Token> result = new ArrayList<>(tokens.size());
+    int position = 0;
+
+    for (UntokenizedRegion region : regions) {
+      result.addAll(tokens.subList(position, region.tokenPosition));
+      position = region.tokenPosition;
+      lexRegion(region, result);
+    }
+    result.addAll(tokens.subList(position, tokens.size()));
+
+    return result;
+  }
+
+  private void lexRegion(UntokenizedRegion region, List<Token> result) {
+    DelphiFileStream regionInput = input.fork(region.start, region.line, region.charPositionInLine);
+    DelphiLexer regionLexer = new DelphiLexer(regionInput);
+    regionLexer.setAsmMode(region.asmMode);
+
+    while (regionInput.index() < region.end) {
+      Token token = regionLexer.nextToken();
+      if (token.getType() == Token.EOF) {
+        break;
+      }
+      token.setTokenIndex(region.tokenIndex);
+      result.add(token);
+    }
+  }
+
+  private static final class UntokenizedRegion {
+    private final int tokenPosition;
+    private final int start;
+    private final int end;
+    private final int line;
+    private final int charPositionInLine;
+    private final int tokenIndex;
+    private final boolean asmMode;
+
+    private UntokenizedRegion(
+        int tokenPosition,
+        int start,
+        int end,
+        int line,
+        int charPositionInLine,
+        int tokenIndex,
+        boolean asmMode) {
+      this.tokenPosition = tokenPosition;
+      this.start = start;
+      this.end = end;
+      this.line = line;
+      this.charPositionInLine = charPositionInLine;
+      this.tokenIndex = tokenIndex;
+      this.asmMode = asmMode;
+    }
+  }
+}
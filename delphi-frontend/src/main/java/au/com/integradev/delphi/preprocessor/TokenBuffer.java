@@ -0,0 +1,133 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.preprocessor;
+
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.antlr.runtime.Token;
+
+/**
+ * An array of tokens, ordered by token index, that the preprocessor appends to as it lexes a file.
+ *
+ * <p>Removed tokens are left behind as tombstones and dropped in a single compaction pass by {@link
+ * #toList()}. Include directives are replaced by the tokens of their include files, which is a
+ * constant-time splice in the usual case where the directive is the last token in the buffer.
+ */
+final class TokenBuffer {
+  private static final int INITIAL_CAPACITY = 256;
+
+  private Token[] tokens = new Token[INITIAL_CAPACITY];
+  private int size;
+  private int liveCount;
+
+  /**
+   * Appends a token to the end of the buffer
+   *
+   * @param token the token, which must be numbered after every token in the buffer
+   */
+  void add(Token token) {
+    Token last = getLast();
+    Preconditions.checkArgument(
+        last == null || token.getTokenIndex() > last.getTokenIndex(),
+        "Token index %s is out of order",
+        token.getTokenIndex());
+    ensureCapacity(size + 1);
+    tokens[size++] = token;
+    ++liveCount;
+  }
+
+  /**
+   * Replaces a token in the buffer with a run of tokens
+   *
+   * @param token the token to replace
+   * @param replacement the tokens to splice in, which must be ordered and numbered in between the
+   *     tokens that surround the replaced token
+   */
+  void replace(Token token, List<Token> replacement) {
+    int position = positionOf(token);
+    Preconditions.checkArgument(position != -1, "Token is not in the buffer");
+
+    tokens[position] = null;
+    --liveCount;
+
+    if (replacement.isEmpty()) {
+      return;
+    }
+
+    int tail = size - position - 1;
+    ensureCapacity(size + replacement.size() - 1);
+    System.arraycopy(tokens, position + 1, tokens, position + replacement.size(), tail);
+    for (int i = 0; i < replacement.size(); ++i) {
+      tokens[position + i] = replacement.get(i);
+    }
+    size += replacement.size() - 1;
+    liveCount += replacement.size();
+  }
+
+  /**
+   * Returns the last token in the buffer
+   *
+   * @return the last token that hasn't been removed, or null if there are none
+   */
+  Token getLast() {
+    for (int i = size - 1; i >= 0; --i) {
+      if (tokens[i] != null) {
+        return tokens[i];
+      }
+    }
+    return null;
+  }
+
+  boolean isEmpty() {
+    return liveCount == 0;
+  }
+
+  /**
+   * Compacts the buffer into a list, dropping the tokens that were removed
+   *
+   * @return the tokens in the buffer
+   */
+  List<Token> toList() {
+    List<Token> result = new ArrayList<>(liveCount);
+    for (int i = 0; i < size; ++i) {
+      if (tokens[i] != null) {
+        result.add(tokens[i]);
+      }
+    }
+    return result;
+  }
+
+  private int positionOf(Token token) {
+    // Tokens are almost always replaced just after they're added, so the search starts at the end.
+    for (int i = size - 1; i >= 0; --i) {
+      if (tokens[i] == token) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (capacity > tokens.length) {
+      tokens = Arrays.copyOf(tokens, Math.max(capacity, tokens.length * 2));
+    }
+  }
+}
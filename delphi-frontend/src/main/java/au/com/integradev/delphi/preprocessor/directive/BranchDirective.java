@@ -19,43 +19,17 @@
 package au.com.integradev.delphi.preprocessor.directive;
 
 import au.com.integradev.delphi.preprocessor.DelphiPreprocessor;
-import java.util.ArrayList;
-import java.util.List;
-import org.antlr.runtime.Token;
-import org.sonar.plugins.communitydelphi.api.directive.CompilerDirective;
 import org.sonar.plugins.communitydelphi.api.token.DelphiToken;
 
 public abstract class BranchDirective extends ConditionalDirectiveImpl {
-  private final List<CompilerDirective> directives;
-  private final List<Token> tokens;
-
   BranchDirective(DelphiToken token, ConditionalKind kind) {
     super(token, kind);
-    this.directives = new ArrayList<>();
-    this.tokens = new ArrayList<>();
-  }
-
-  public List<CompilerDirective> getDirectives() {
-    return directives;
-  }
-
-  public List<Token> getTokens() {
-    return tokens;
-  }
-
-  public void addDirective(CompilerDirective directive) {
-    directives.add(directive);
-  }
-
-  public void addToken(Token token) {
-    tokens.add(token);
   }
 
   @Override
   public void execute(DelphiPreprocessor preprocessor) {
-    directives.stream()
-        .map(CompilerDirectiveImpl.class::cast)
-        .forEach(directive -> directive.execute(preprocessor));
+    // The preprocessor evaluates branches as it encounters them, using isSuccessfulBranch.
+    // They don't actually do anything at execution time.
   }
 
   public abstract boolean isSuccessfulBranch(DelphiPreprocessor preprocessor);
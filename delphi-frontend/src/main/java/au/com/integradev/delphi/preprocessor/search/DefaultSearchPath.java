@@ -18,48 +18,43 @@
  */
 package au.com.integradev.delphi.preprocessor.search;
 
-import static java.util.Comparator.comparingInt;
-
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.SetMultimap;
-import java.io.IOException;
-import java.nio.file.DirectoryStream;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.Nullable;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 public class DefaultSearchPath implements SearchPath {
-  private static final Logger LOG = LoggerFactory.getLogger(DefaultSearchPath.class);
   private final Set<Path> rootDirectories;
-  private final SetMultimap<Path, Path> filesByDirectory;
-  private final Set<Path> indexedPaths;
+  private final Map<Path, Map<String, Path>> filesByDirectory;
 
-  DefaultSearchPath(List<Path> searchDirectories) {
+  DefaultSearchPath(List<Path> searchDirectories, @Nullable Path cacheDirectory) {
     this.rootDirectories = Collections.unmodifiableSet(new LinkedHashSet<>(searchDirectories));
-    this.filesByDirectory = HashMultimap.create();
-    this.indexedPaths = new HashSet<>();
+    this.filesByDirectory = new ConcurrentHashMap<>();
 
-    rootDirectories.forEach(this::indexIncludePath);
+    rootDirectories.parallelStream()
+        .map(root -> DirectoryIndex.create(root, cacheDirectory))
+        .forEach(this::addIndex);
   }
 
   @Override
   @Nullable
   public Path search(String filename, Path includePath) {
-    if (!indexedPaths.contains(includePath)) {
-      indexIncludePath(includePath);
+    if (!filesByDirectory.containsKey(includePath)) {
+      addIndex(DirectoryIndex.create(includePath, null));
     }
 
-    Path path = findFileForPath(filename, includePath);
+    String key = filename.toLowerCase(Locale.ROOT);
+
+    Path path = findFileForPath(key, includePath);
     if (path == null) {
       for (Path root : rootDirectories) {
-        path = findFileForPath(filename, root);
+        path = findFileForPath(key, root);
         if (path != null) {
           break;
         }
@@ -74,28 +69,39 @@ public class DefaultSearchPath implements SearchPath {
     return rootDirectories;
   }
 
-  private Set<Path> indexIncludePath(Path path) {
-    try (DirectoryStream<Path> stream = Files.newDirectoryStream(path)) {
-      for (Path child : stream) {
-        if (Files.isDirectory(child)) {
-          filesByDirectory.putAll(path, indexIncludePath(child));
-        } else {
-          filesByDirectory.put(path, child);
-        }
+  private void addIndex(DirectoryIndex index) {
+    Path root = index.getRoot();
+    Map<Path, Map<String, Path>> result = new HashMap<>();
+    result.put(root, new HashMap<>());
+    for (Path directory : index.getDirectories()) {
+      result.put(directory, new HashMap<>());
+    }
+
+    for (Path file : index.getFiles()) {
+      String key = file.getFileName().toString().toLowerCase(Locale.ROOT);
+      for (Path directory = file.getParent();
+          directory != null && directory.startsWith(root);
+          directory = directory.getParent()) {
+        result
+            .computeIfAbsent(directory, k -> new HashMap<>())
+            .merge(key, file, DefaultSearchPath::nearest);
       }
-    } catch (IOException e) {
-      LOG.info("Failed to index include path directory '{}'", path);
-      LOG.debug("Error while indexing search path:", e);
     }
 
-    indexedPaths.add(path);
-    return filesByDirectory.get(path);
+    result.forEach((directory, files) -> filesByDirectory.put(directory, Map.copyOf(files)));
   }
 
-  private Path findFileForPath(String filename, Path path) {
-    return filesByDirectory.get(path).stream()
-        .filter(file -> filename.equalsIgnoreCase(file.getFileName().toString()))
-        .min(comparingInt(Path::getNameCount))
-        .orElse(null);
+  private static Path nearest(Path a, Path b) {
+    int difference = Integer.compare(a.getNameCount(), b.getNameCount());
+    if (difference == 0) {
+      difference = a.compareTo(b);
+    }
+    return difference <= 0 ? a : b;
+  }
+
+  @Nullable
+  private Path findFileForPath(String key, Path path) {
+    Map<String, Path> files = filesByDirectory.get(path);
+    return files == null ? null : files.get(key);
   }
 }
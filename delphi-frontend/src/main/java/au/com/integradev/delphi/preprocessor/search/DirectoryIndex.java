@@ -0,0 +1,303 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.preprocessor.search;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystemLoopException;
+import java.nio.file.Files;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RecursiveAction;
+import javax.annotation.Nullable;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Index of the directories and files in a directory tree, such as a search path directory or the
+ * Delphi standard library.
+ *
+ * <p>These directory trees can be very large and rarely change between scans, so the index can be
+ * persisted to a cache directory. Indexes are cached by root directory, so a tree that is both a
+ * search path directory and the standard library is only walked once. A cached index records the
+ * modification time of every directory in the tree, which is enough to tell whether files have been
+ * added, removed or renamed since it was written.
+ *
+ * <p>A directory tree is walked concurrently, with a task for each directory.
+ */
+public final class DirectoryIndex {
+  private static final Logger LOG = LoggerFactory.getLogger(DirectoryIndex.class);
+  private static final String HEADER = "delphi-directory-index 1";
+  private static final String DIRECTORY_PREFIX = "d ";
+  private static final String FILE_PREFIX = "f ";
+
+  private final Path root;
+  private final List<Directory> directories;
+  private final List<Path> files;
+  private final boolean complete;
+
+  private DirectoryIndex(
+      Path root, List<Directory> directories, List<Path> files, boolean complete) {
+    this.root = root;
+    this.directories = directories;
+    this.files = files;
+    this.complete = complete;
+  }
+
+  /**
+   * Indexes a directory tree, reusing a cached index when it is still valid.
+   *
+   * @param root the root directory of the tree
+   * @param cacheDirectory directory where the index is cached, or null to disable caching
+   * @return the index of the directory
+   */
+  public static DirectoryIndex create(Path root, @Nullable Path cacheDirectory) {
+    if (cacheDirectory == null) {
+      return walk(root);
+    }
+
+    Path cacheFile = cacheFile(root, cacheDirectory);
+    DirectoryIndex index = read(root, cacheFile);
+
+    if (index == null) {
+      index = walk(root);
+      if (index.complete) {
+        index.write(cacheFile);
+      }
+    } else {
+      LOG.debug("Using cached directory index: {}", cacheFile);
+    }
+
+    return index;
+  }
+
+  public static Path cacheFile(Path root, Path cacheDirectory) {
+    String path = root.toAbsolutePath().normalize().toString();
+    UUID key = UUID.nameUUIDFromBytes(path.getBytes(StandardCharsets.UTF_8));
+    return cacheDirectory.resolve("directory-" + key + ".idx");
+  }
+
+  public Path getRoot() {
+    return root;
+  }
+
+  public List<Path> getDirectories() {
+    List<Path> result = new ArrayList<>(directories.size());
+    directories.forEach(directory -> result.add(directory.path));
+    return result;
+  }
+
+  public List<Path> getFiles() {
+    return files;
+  }
+
+  private static DirectoryIndex walk(Path root) {
+    Walk walk = new Walk();
+    BasicFileAttributes attributes = readAttributes(root);
+    if (attributes == null || !attributes.isDirectory()) {
+      walk.failed(root, new NotDirectoryException(root.toString()));
+    } else {
+      new DirectoryWalk(walk, root, attributes, Collections.emptySet()).invoke();
+    }
+
+    List<Directory> directories = new ArrayList<>(walk.directories);
+    directories.sort(Comparator.comparing(directory -> directory.path));
+    List<Path> files = new ArrayList<>(walk.files);
+    Collections.sort(files);
+
+    return new DirectoryIndex(root, directories, files, walk.complete);
+  }
+
+  @Nullable
+  private static BasicFileAttributes readAttributes(Path path) {
+    try {
+      return Files.readAttributes(path, BasicFileAttributes.class);
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  @Nullable
+  private static DirectoryIndex read(Path root, Path cacheFile) {
+    if (!Files.isRegularFile(cacheFile)) {
+      return null;
+    }
+
+    List<Directory> directories = new ArrayList<>();
+    List<Path> files = new ArrayList<>();
+
+    try (BufferedReader reader = Files.newBufferedReader(cacheFile, StandardCharsets.UTF_8)) {
+      if (!HEADER.equals(reader.readLine()) || !root.toString().equals(reader.readLine())) {
+        return null;
+      }
+
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.startsWith(DIRECTORY_PREFIX)) {
+          String value = line.substring(DIRECTORY_PREFIX.length());
+          long lastModified = Long.parseLong(StringUtils.substringBefore(value, " "));
+          Path dir = root.resolve(StringUtils.substringAfter(value, " "));
+          if (!Files.isDirectory(dir)
+              || Files.getLastModifiedTime(dir).toMillis() != lastModified) {
+            LOG.debug("Directory index is out of date: {} has changed", dir);
+            return null;
+          }
+          directories.add(new Directory(dir, lastModified));
+        } else if (line.startsWith(FILE_PREFIX)) {
+          files.add(root.resolve(line.substring(FILE_PREFIX.length())));
+        } else {
+          return null;
+        }
+      }
+    } catch (IOException | RuntimeException e) {
+      LOG.debug("Failed to read directory index: {}", cacheFile, e);
+      return null;
+    }
+
+    return new DirectoryIndex(root, directories, files, true);
+  }
+
+  private void write(Path cacheFile) {
+    try {
+      Files.createDirectories(cacheFile.getParent());
+      Path tempFile = Files.createTempFile(cacheFile.getParent(), "directory-", ".tmp");
+      try {
+        try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+          writer.write(HEADER);
+          writer.newLine();
+          writer.write(root.toString());
+          writer.newLine();
+          for (Directory directory : directories) {
+            writer.write(
+                DIRECTORY_PREFIX + directory.lastModified + " " + root.relativize(directory.path));
+            writer.newLine();
+          }
+          for (Path file : files) {
+            writer.write(FILE_PREFIX + root.relativize(file));
+            writer.newLine();
+          }
+        }
+        // Concurrent scans sharing a cache directory should never see a partially written index.
+        Files.move(
+            tempFile,
+            cacheFile,
+            StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+        Files.deleteIfExists(tempFile);
+      }
+    } catch (IOException e) {
+      LOG.warn("Failed to write directory index: {}", cacheFile);
+      LOG.debug("Exception: ", e);
+    }
+  }
+
+  /** The results of walking a directory tree, which are collected from concurrent tasks. */
+  private static final class Walk {
+    private final Queue<Directory> directories = new ConcurrentLinkedQueue<>();
+    private final Queue<Path> files = new ConcurrentLinkedQueue<>();
+    private volatile boolean complete = true;
+
+    private void failed(Path path, Exception e) {
+      LOG.info("Failed to index directory '{}'", path);
+      LOG.debug("Error while indexing directory:", e);
+      complete = false;
+    }
+  }
+
+  /**
+   * Indexes a directory, and forks a task for each of its subdirectories so that large trees are
+   * walked concurrently.
+   *
+   * <p>Symbolic links are followed, and a link back to one of its own ancestors is skipped as a
+   * failure, like {@link Files#walkFileTree} does.
+   */
+  private static final class DirectoryWalk extends RecursiveAction {
+    private final transient Walk walk;
+    private final transient Path directory;
+    private final transient BasicFileAttributes attributes;
+    private final transient Set<Object> ancestors;
+
+    private DirectoryWalk(
+        Walk walk, Path directory, BasicFileAttributes attributes, Set<Object> ancestors) {
+      this.walk = walk;
+      this.directory = directory;
+      this.attributes = attributes;
+      this.ancestors = ancestors;
+    }
+
+    @Override
+    protected void compute() {
+      Object key = attributes.fileKey();
+      if (key != null && ancestors.contains(key)) {
+        walk.failed(directory, new FileSystemLoopException(directory.toString()));
+        return;
+      }
+      walk.directories.add(new Directory(directory, attributes.lastModifiedTime().toMillis()));
+
+      Set<Object> path = ancestors;
+      if (key != null) {
+        path = new HashSet<>(ancestors);
+        path.add(key);
+      }
+
+      List<DirectoryWalk> subdirectories = new ArrayList<>();
+      try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+        for (Path entry : entries) {
+          BasicFileAttributes entryAttributes = readAttributes(entry);
+          if (entryAttributes != null && entryAttributes.isDirectory()) {
+            subdirectories.add(new DirectoryWalk(walk, entry, entryAttributes, path));
+          } else {
+            walk.files.add(entry);
+          }
+        }
+      } catch (IOException | DirectoryIteratorException e) {
+        walk.failed(directory, e);
+      }
+
+      invokeAll(subdirectories);
+    }
+  }
+
+  private static final class Directory {
+    private final Path path;
+    private final long lastModified;
+
+    private Directory(Path path, long lastModified) {
+      this.path = path;
+      this.lastModified = lastModified;
+    }
+  }
+}
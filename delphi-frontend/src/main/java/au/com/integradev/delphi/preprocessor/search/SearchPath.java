@@ -30,6 +30,18 @@ public interface SearchPath {
   Set<Path> getRootDirectories();
 
   static SearchPath create(List<Path> searchDirectories) {
-    return new DefaultSearchPath(searchDirectories);
+    return create(searchDirectories, null);
+  }
+
+  /**
+   * Creates a search path, reusing the indexes of its directories that were cached by a previous
+   * scan if they're still valid
+   *
+   * @param searchDirectories the root directories of the search path
+   * @param cacheDirectory directory where the indexes are cached, or null to disable caching
+   * @return the search path
+   */
+  static SearchPath create(List<Path> searchDirectories, @Nullable Path cacheDirectory) {
+    return new DefaultSearchPath(searchDirectories, cacheDirectory);
   }
 }
@@ -19,22 +19,27 @@
 package au.com.integradev.delphi.reporting;
 
 import au.com.integradev.delphi.DelphiProperties;
-import java.util.Optional;
-import org.apache.commons.lang3.builder.CompareToBuilder;
+import au.com.integradev.delphi.reporting.TestCodeRegions.Regions;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
 import org.sonar.api.config.Configuration;
 import org.sonar.plugins.communitydelphi.api.ast.DelphiAst;
-import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.ast.RoutineImplementationNode;
 import org.sonar.plugins.communitydelphi.api.ast.TypeDeclarationNode;
-import org.sonar.plugins.communitydelphi.api.check.FilePosition;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.TypeNameDeclaration;
 import org.sonar.plugins.communitydelphi.api.symbol.scope.DelphiScope;
 import org.sonar.plugins.communitydelphi.api.symbol.scope.TypeScope;
 import org.sonar.plugins.communitydelphi.api.type.Type;
 import org.sonar.plugins.communitydelphi.api.type.Type.ScopedType;
 import org.sonar.plugins.communitydelphi.api.type.Type.StructType;
-import org.sonar.plugins.communitydelphi.api.type.TypeFactory;
 
+/**
+ * Detects test code, which is code within a test type or a type nested inside one.
+ *
+ * <p>Test types are types that descend from the {@code sonar.delphi.testType} type, or that are
+ * annotated with the {@code sonar.delphi.testAttribute} attribute.
+ */
 public class TestCodeDetector {
   private final String testTypeName;
   private final String testAttributeName;
@@ -44,14 +49,32 @@ public class TestCodeDetector {
     this.testAttributeName = config.get(DelphiProperties.TEST_ATTRIBUTE_KEY).orElse(null);
   }
 
-  public boolean isInTestCode(DelphiAst ast, FilePosition position) {
-    Type type = findEnclosingType(ast, position);
-    return isTestType(type) || isNestedInsideTestType(type);
-  }
-
-  public boolean isInTestCode(DelphiNode node) {
-    Type type = findEnclosingType(node.getAst(), FilePosition.from(node));
-    return isTestType(type) || isNestedInsideTestType(type);
+  /**
+   * Finds the regions of a file that are test code
+   *
+   * <p>Whether each type is a test type is only worked out once, so the regions should be found
+   * once per file and then reused for every query.
+   *
+   * @param ast the AST of the file
+   * @return the test code regions of the file
+   */
+  public TestCodeRegions findTestCodeRegions(DelphiAst ast) {
+    Map<Type, Boolean> testCodeTypes = new HashMap<>();
+    Predicate<Type> isTestCodeType =
+        type ->
+            testCodeTypes.computeIfAbsent(
+                type, key -> isTestType(key) || isNestedInsideTestType(key));
+
+    return new TestCodeRegions(
+        new Regions(
+            ast.findDescendantsOfType(TypeDeclarationNode.class),
+            node -> isTestCodeType.test(node.getType())),
+        new Regions(
+            ast.findDescendantsOfType(RoutineImplementationNode.class),
+            node -> {
+              TypeNameDeclaration typeDeclaration = node.getTypeDeclaration();
+              return typeDeclaration != null && isTestCodeType.test(typeDeclaration.getType());
+            }));
   }
 
   private boolean isTestType(Type type) {
@@ -82,57 +105,4 @@ public class TestCodeDetector {
     }
     return false;
   }
-
-  private static Type findEnclosingType(DelphiAst ast, FilePosition filePosition) {
-    Optional<TypeDeclarationNode> typeDeclarationNode =
-        findNodeEnclosingFilePosition(ast, filePosition, TypeDeclarationNode.class);
-
-    if (typeDeclarationNode.isPresent()) {
-      return typeDeclarationNode.get().getType();
-    }
-
-    Optional<RoutineImplementationNode> routine =
-        findNodeEnclosingFilePosition(ast, filePosition, RoutineImplementationNode.class);
-
-    if (routine.isPresent()) {
-      TypeNameDeclaration typeDeclaration = routine.get().getTypeDeclaration();
-      if (typeDeclaration != null) {
-        return typeDeclaration.getType();
-      }
-    }
-
-    return TypeFactory.unknownType();
-  }
-
-  private static <T extends DelphiNode> Optional<T> findNodeEnclosingFilePosition(
-      DelphiAst ast, FilePosition filePosition, Class<T> nodeClass) {
-    if (filePosition != null) {
-      return ast.findDescendantsOfType(nodeClass).stream()
-          .filter(node -> nodeEnclosesFilePosition(node, filePosition))
-          .max(
-              (a, b) ->
-                  new CompareToBuilder()
-                      .append(a.getBeginLine(), b.getBeginLine())
-                      .append(a.getBeginColumn(), b.getBeginColumn())
-                      .toComparison());
-    }
-    return Optional.empty();
-  }
-
-  private static boolean nodeEnclosesFilePosition(DelphiNode node, FilePosition position) {
-    return nodeStartsBeforeFilePosition(node, position)
-        && nodeEndsAfterFilePosition(node, position);
-  }
-
-  private static boolean nodeStartsBeforeFilePosition(DelphiNode node, FilePosition position) {
-    return node.getBeginLine() <= position.getBeginLine()
-        && (node.getBeginLine() != position.getBeginLine()
-            || node.getBeginColumn() <= position.getBeginColumn());
-  }
-
-  private static boolean nodeEndsAfterFilePosition(DelphiNode node, FilePosition position) {
-    return node.getEndLine() >= position.getEndLine()
-        && (node.getEndLine() != position.getEndLine()
-            || node.getEndColumn() >= position.getEndColumn());
-  }
 }
@@ -0,0 +1,159 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.reporting;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import javax.annotation.Nullable;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
+import org.sonar.plugins.communitydelphi.api.check.FilePosition;
+
+/**
+ * The regions of a file that are test code.
+ *
+ * <p>Code is test code if its innermost enclosing type declaration is a test type. Outside of type
+ * declarations, code is test code if its innermost enclosing routine implementation belongs to a
+ * test type. See {@link TestCodeDetector}.
+ *
+ * <p>Each kind of region is kept as a nested set of source ranges sorted by where they begin, so
+ * the innermost range that encloses a position is found with a binary search.
+ */
+public final class TestCodeRegions {
+  private final Regions typeDeclarations;
+  private final Regions routineImplementations;
+
+  TestCodeRegions(Regions typeDeclarations, Regions routineImplementations) {
+    this.typeDeclarations = typeDeclarations;
+    this.routineImplementations = routineImplementations;
+  }
+
+  public boolean isInTestCode(DelphiNode node) {
+    return isInTestCode(FilePosition.from(node));
+  }
+
+  public boolean isInTestCode(@Nullable FilePosition position) {
+    if (position == null) {
+      return false;
+    }
+
+    long begin = encode(position.getBeginLine(), position.getBeginColumn());
+    long end = encode(position.getEndLine(), position.getEndColumn());
+
+    int typeDeclaration = typeDeclarations.findInnermost(begin, end);
+    if (typeDeclaration != -1) {
+      return typeDeclarations.isTestCode(typeDeclaration);
+    }
+
+    int routine = routineImplementations.findInnermost(begin, end);
+    return routine != -1 && routineImplementations.isTestCode(routine);
+  }
+
+  private static long encode(int line, int column) {
+    return ((long) line << 32) + column;
+  }
+
+  /** A nested set of source ranges, each of which is either test code or main code. */
+  static final class Regions {
+    private final long[] begins;
+    private final long[] ends;
+    private final int[] parents;
+    private final boolean[] testCode;
+
+    /**
+     * Creates a set of regions from nodes
+     *
+     * @param nodes the nodes that each enclose a region. The nodes must be nested or disjoint.
+     * @param isTestCode whether the region of a node is test code
+     * @param <T> the type of the nodes
+     */
+    <T extends DelphiNode> Regions(List<T> nodes, Predicate<T> isTestCode) {
+      int size = nodes.size();
+      long[] nodeBegins = new long[size];
+      long[] nodeEnds = new long[size];
+      for (int i = 0; i < size; ++i) {
+        T node = nodes.get(i);
+        nodeBegins[i] = encode(node.getBeginLine(), node.getBeginColumn());
+        nodeEnds[i] = encode(node.getEndLine(), node.getEndColumn());
+      }
+
+      // Sorted by where they begin, with enclosing regions before the regions that they enclose
+      int[] order =
+          IntStream.range(0, size)
+              .boxed()
+              .sorted(
+                  Comparator.<Integer>comparingLong(i -> nodeBegins[i])
+                      .thenComparing(
+                          Comparator.<Integer>comparingLong(i -> nodeEnds[i]).reversed()))
+              .mapToInt(Integer::intValue)
+              .toArray();
+
+      this.begins = new long[size];
+      this.ends = new long[size];
+      this.parents = new int[size];
+      this.testCode = new boolean[size];
+
+      int[] open = new int[size];
+      int openCount = 0;
+      for (int i = 0; i < size; ++i) {
+        int node = order[i];
+        begins[i] = nodeBegins[node];
+        ends[i] = nodeEnds[node];
+        testCode[i] = isTestCode.test(nodes.get(node));
+
+        while (openCount > 0 && ends[open[openCount - 1]] < ends[i]) {
+          --openCount;
+        }
+        parents[i] = openCount == 0 ? -1 : open[openCount - 1];
+        open[openCount++] = i;
+      }
+    }
+
+    /**
+     * Finds the innermost region that encloses a source range
+     *
+     * @param begin the encoded beginning of the source range
+     * @param end the encoded end of the source range
+     * @return the index of the innermost enclosing region, or -1 if no region encloses the range
+     */
+    int findInnermost(long begin, long end) {
+      // The last region that begins at or before the range, which is either the innermost region
+      // enclosing the beginning of the range, or inside it, or before it.
+      int index = Arrays.binarySearch(begins, begin);
+      if (index < 0) {
+        index = -index - 2;
+      } else {
+        while (index + 1 < begins.length && begins[index + 1] == begin) {
+          ++index;
+        }
+      }
+
+      while (index != -1 && ends[index] < end) {
+        index = parents[index];
+      }
+      return index;
+    }
+
+    boolean isTestCode(int index) {
+      return testCode[index];
+    }
+  }
+}
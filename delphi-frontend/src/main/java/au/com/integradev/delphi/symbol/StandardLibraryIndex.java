@@ -0,0 +1,54 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.symbol;
+
+import au.com.integradev.delphi.preprocessor.search.DirectoryIndex;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+
+/**
+ * Finds the unit files in the Delphi standard library.
+ *
+ * <p>The standard library is a large directory tree that rarely changes between scans, so it's
+ * indexed with a {@link DirectoryIndex} that can be persisted to a cache directory.
+ */
+final class StandardLibraryIndex {
+  private StandardLibraryIndex() {
+    // Utility class
+  }
+
+  /**
+   * Finds the unit files in the standard library, reusing a cached index when it is still valid.
+   *
+   * @param standardLibraryPath Path to the standard library
+   * @param cacheDirectory Directory where the index is cached, or null to disable caching
+   * @return the unit files in the standard library
+   */
+  static List<Path> findUnitFiles(Path standardLibraryPath, @Nullable Path cacheDirectory) {
+    Path root = standardLibraryPath.toAbsolutePath().normalize();
+    Path tools = root.resolve("Tools");
+
+    return DirectoryIndex.create(root, cacheDirectory).getFiles().stream()
+        .filter(file -> !file.startsWith(tools))
+        .filter(SymbolTableBuilder::isPasFile)
+        .collect(Collectors.toList());
+  }
+}
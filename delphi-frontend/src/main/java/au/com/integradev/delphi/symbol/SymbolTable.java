@@ -18,21 +18,73 @@
  */
 package au.com.integradev.delphi.symbol;
 
-import java.util.HashMap;
+import au.com.integradev.delphi.file.DelphiFile;
+import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.UnitNameDeclaration;
 
 public class SymbolTable {
-  private final Map<String, UnitNameDeclaration> unitsByFilePath = new HashMap<>();
+  private final Map<String, UnitNameDeclaration> unitsByFilePath = new ConcurrentHashMap<>();
+  private final Map<String, DelphiFile> sourceFilesByFilePath = new ConcurrentHashMap<>();
+  private final Map<String, UnitHashes> unitHashesByFilePath = new ConcurrentHashMap<>();
 
   public void addUnit(String path, UnitNameDeclaration declaration) {
     unitsByFilePath.put(path, declaration);
   }
 
+  /**
+   * Retains a fully-resolved source file, so that it can be analyzed without being parsed again
+   *
+   * @param path The absolute path of the source file
+   * @param delphiFile The source file, with symbol information attached to its AST
+   */
+  public void addSourceFile(String path, DelphiFile delphiFile) {
+    sourceFilesByFilePath.put(path, delphiFile);
+  }
+
+  /**
+   * Removes and returns a source file that was retained during symbol table construction
+   *
+   * @param path The absolute path of the source file
+   * @return The retained source file, or null if it was not retained
+   */
+  @Nullable
+  public DelphiFile takeSourceFile(String path) {
+    return sourceFilesByFilePath.remove(path);
+  }
+
   public UnitNameDeclaration getUnitByPath(String path) {
     return unitsByFilePath.get(path);
   }
 
+  void addUnitHashes(String path, UnitHashes unitHashes) {
+    unitHashesByFilePath.put(path, unitHashes);
+  }
+
+  /**
+   * Returns the hashes of a unit, which are only computed if requested when building the table
+   *
+   * @param path The absolute path of the unit
+   * @return The hashes of the unit, or null if they were not computed
+   * @see SymbolTableBuilder#computeUnitHashes(boolean)
+   */
+  @Nullable
+  public UnitHashes getUnitHashes(String path) {
+    return unitHashesByFilePath.get(path);
+  }
+
+  /**
+   * Returns the hashes of every unit, which are only computed if requested when building the table
+   *
+   * @return The hashes of every unit, by the absolute path of the unit
+   * @see SymbolTableBuilder#computeUnitHashes(boolean)
+   */
+  public Map<String, UnitHashes> getAllUnitHashes() {
+    return Collections.unmodifiableMap(unitHashesByFilePath);
+  }
+
   public static SymbolTableBuilder builder() {
     return new SymbolTableBuilder();
   }
@@ -23,25 +23,52 @@ import static au.com.integradev.delphi.utils.DelphiUtils.stopProgressReport;
 import au.com.integradev.delphi.DelphiProperties;
 import au.com.integradev.delphi.antlr.ast.visitors.DependencyAnalysisVisitor;
 import au.com.integradev.delphi.antlr.ast.visitors.SymbolTableVisitor;
+import au.com.integradev.delphi.budget.TimeBudget;
+import au.com.integradev.delphi.budget.TimeBudgetExceededException;
 import au.com.integradev.delphi.file.DelphiFile;
 import au.com.integradev.delphi.file.DelphiFile.DelphiFileConstructionException;
 import au.com.integradev.delphi.file.DelphiFileConfig;
+import au.com.integradev.delphi.file.UnitSummaryCache;
 import au.com.integradev.delphi.preprocessor.DelphiPreprocessorFactory;
 import au.com.integradev.delphi.preprocessor.search.SearchPath;
+import au.com.integradev.delphi.symbol.UnitImportScanner.UnitImports;
 import au.com.integradev.delphi.symbol.declaration.UnitImportNameDeclarationImpl;
+import au.com.integradev.delphi.symbol.scope.ConcurrentResolution;
 import au.com.integradev.delphi.symbol.scope.FileScopeImpl;
+import au.com.integradev.delphi.telemetry.AnalysisTelemetry;
+import au.com.integradev.delphi.telemetry.AnalysisTelemetry.Category;
+import au.com.integradev.delphi.telemetry.AnalysisTelemetry.Stopwatch;
+import au.com.integradev.delphi.telemetry.ParserProfile;
+import au.com.integradev.delphi.type.factory.TypeFactoryImpl;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+import com.google.common.base.Ticker;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -52,6 +79,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.plugins.communitydelphi.api.ast.UnitImportNode;
 import org.sonar.plugins.communitydelphi.api.symbol.Qualifiable;
+import org.sonar.plugins.communitydelphi.api.symbol.QualifiedName;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.NameDeclaration;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.RoutineDirective;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.TypeNameDeclaration;
@@ -82,10 +110,20 @@ public class SymbolTableBuilder {
   private Set<String> conditionalDefines = Collections.emptySet();
   private Set<String> unitScopeNames = Collections.emptySet();
   private Map<String, String> unitAliases = Collections.emptyMap();
+  private boolean retainSourceFiles;
+  private int threads = 1;
+  private Path cacheDirectory;
+  private boolean computeUnitHashes;
+  private AnalysisTelemetry telemetry = AnalysisTelemetry.disabled();
+  private ParserProfile parserProfile;
+  private Duration fileTimeBudget = Duration.ZERO;
+  private Ticker timeBudgetTicker = Ticker.systemTicker();
 
   private SystemScope systemScope;
   private SysInitScope sysInitScope;
-  private int nestingLevel;
+  private UnitSummaryCache unitSummaryCache;
+  private ConcurrentResolution concurrentResolution;
+  private final ThreadLocal<Integer> nestingLevel = ThreadLocal.withInitial(() -> 0);
 
   SymbolTableBuilder() {
     // package-private constructor
@@ -137,11 +175,52 @@ public class SymbolTableBuilder {
     return this;
   }
 
+  public SymbolTableBuilder retainSourceFiles(boolean retainSourceFiles) {
+    this.retainSourceFiles = retainSourceFiles;
+    return this;
+  }
+
+  public SymbolTableBuilder threads(int threads) {
+    this.threads = threads;
+    return this;
+  }
+
   public SymbolTableBuilder standardLibraryPath(Path standardLibraryPath) {
     this.standardLibraryPath = standardLibraryPath;
     return this;
   }
 
+  public SymbolTableBuilder computeUnitHashes(boolean computeUnitHashes) {
+    this.computeUnitHashes = computeUnitHashes;
+    return this;
+  }
+
+  public SymbolTableBuilder telemetry(AnalysisTelemetry telemetry) {
+    this.telemetry = telemetry;
+    return this;
+  }
+
+  public SymbolTableBuilder parserProfile(@Nullable ParserProfile parserProfile) {
+    this.parserProfile = parserProfile;
+    return this;
+  }
+
+  public SymbolTableBuilder fileTimeBudget(Duration fileTimeBudget) {
+    this.fileTimeBudget = fileTimeBudget;
+    return this;
+  }
+
+  @VisibleForTesting
+  SymbolTableBuilder timeBudgetTicker(Ticker timeBudgetTicker) {
+    this.timeBudgetTicker = timeBudgetTicker;
+    return this;
+  }
+
+  public SymbolTableBuilder cacheDirectory(@Nullable Path cacheDirectory) {
+    this.cacheDirectory = cacheDirectory;
+    return this;
+  }
+
   private void processStandardLibrarySearchPaths() {
     if (standardLibraryPath == null) {
       return;
@@ -153,19 +232,17 @@ public class SymbolTableBuilder {
           String.format("Path to Delphi standard library is invalid: %s", absolutePath));
     }
 
-    Path tools = standardLibraryPath.resolve("Tools");
-
-    try (Stream<Path> fileStream =
-        Files.find(
-            standardLibraryPath,
-            Integer.MAX_VALUE,
-            (filePath, attributes) -> attributes.isRegularFile())) {
-      fileStream
-          .filter(SymbolTableBuilder::isPasFile)
-          .filter(path -> !path.startsWith(tools))
-          .forEach(file -> createUnitData(file, false));
-    } catch (IOException e) {
-      throw new SymbolTableConstructionException(e);
+    StandardLibraryIndex.findUnitFiles(standardLibraryPath, cacheDirectory)
+        .forEach(file -> createUnitData(file, false));
+
+    if (cacheDirectory != null) {
+      TypeFactoryImpl typeFactoryImpl = (TypeFactoryImpl) typeFactory;
+      unitSummaryCache =
+          UnitSummaryCache.create(
+              cacheDirectory,
+              standardLibraryPath,
+              typeFactoryImpl.getToolchain(),
+              typeFactoryImpl.getCompilerVersion());
     }
   }
 
@@ -180,7 +257,7 @@ public class SymbolTableBuilder {
     }
   }
 
-  private static boolean isPasFile(Path path) {
+  static boolean isPasFile(Path path) {
     return path.getFileName().toString().endsWith(".pas");
   }
 
@@ -209,7 +286,7 @@ public class SymbolTableBuilder {
       process(data, ResolutionLevel.INTERFACE);
       unitDeclaration = data.unitDeclaration;
     } else if (LOG.isDebugEnabled()) {
-      String indentation = StringUtils.repeat('\t', nestingLevel + 1);
+      String indentation = StringUtils.repeat('\t', nestingLevel.get() + 1);
       String unitName = node.getNameNode().fullyQualifiedName();
       LOG.debug("{}X {} **Failed to locate unit**", indentation, unitName);
     }
@@ -219,6 +296,12 @@ public class SymbolTableBuilder {
 
   @Nullable
   private UnitData searchForImport(UnitNameDeclaration unit, Qualifiable qualifiableImportName) {
+    return searchForImport(unit.getImage(), unit.getNamespace(), qualifiableImportName);
+  }
+
+  @Nullable
+  private UnitData searchForImport(
+      String unitName, String namespace, Qualifiable qualifiableImportName) {
     String importName = qualifiableImportName.fullyQualifiedName();
     String aliased = unitAliases.get(importName);
 
@@ -226,11 +309,11 @@ public class SymbolTableBuilder {
       importName = aliased;
     }
 
-    UnitData data = findImportByName(unit, importName);
+    UnitData data = findImportByName(unitName, importName);
 
     if (data == null) {
       for (String unitScopeName : unitScopeNames) {
-        data = findImportByName(unit, unitScopeName + "." + importName);
+        data = findImportByName(unitName, unitScopeName + "." + importName);
         if (data != null) {
           break;
         }
@@ -238,9 +321,8 @@ public class SymbolTableBuilder {
     }
 
     if (data == null) {
-      String namespace = unit.getNamespace();
       if (!qualifiableImportName.isQualified() && !namespace.isEmpty()) {
-        data = findImportByName(unit, namespace + "." + importName);
+        data = findImportByName(unitName, namespace + "." + importName);
       }
     }
 
@@ -248,8 +330,8 @@ public class SymbolTableBuilder {
   }
 
   @Nullable
-  private UnitData findImportByName(UnitNameDeclaration unit, String importName) {
-    if (unit.getImage().equalsIgnoreCase(importName)) {
+  private UnitData findImportByName(String unitName, String importName) {
+    if (unitName.equalsIgnoreCase(importName)) {
       return null;
     }
     return allUnitsByName.get(importName.toLowerCase());
@@ -262,7 +344,9 @@ public class SymbolTableBuilder {
         typeFactory,
         searchPath,
         conditionalDefines,
-        shouldSkipImplementation);
+        shouldSkipImplementation,
+        telemetry,
+        parserProfile);
   }
 
   private void process(UnitData unit, ResolutionLevel resolutionLevel) {
@@ -270,37 +354,155 @@ public class SymbolTableBuilder {
       return;
     }
 
-    try {
-      ++nestingLevel;
-
-      if (LOG.isDebugEnabled()) {
-        String indentation = StringUtils.repeat('\t', nestingLevel);
-        Path fileName = unit.unitFile.getFileName();
-        LOG.debug("{}> {}", indentation, fileName);
+    synchronized (unit) {
+      if (unit.resolved.ordinal() >= resolutionLevel.ordinal() || unit.overBudget) {
+        return;
       }
 
-      boolean shouldSkipImplementation = (resolutionLevel != ResolutionLevel.COMPLETE);
-      DelphiFileConfig fileConfig = createFileConfig(unit, shouldSkipImplementation);
-      DelphiFile delphiFile = DelphiFile.from(unit.unitFile.toFile(), fileConfig);
+      // The budget of an importing unit doesn't run while its imports are processed.
+      TimeBudget.Pause pause = TimeBudget.pause();
+      try (TimeBudget budget = startTimeBudget(unit)) {
+        nestingLevel.set(nestingLevel.get() + 1);
 
-      if (unit.resolved == ResolutionLevel.NONE) {
-        runSymbolTableVisitor(unit, delphiFile, ResolutionLevel.INTERFACE);
-        runDependencyAnalysisVisitor(unit, delphiFile, ResolutionLevel.INTERFACE);
-      }
+        if (LOG.isDebugEnabled()) {
+          String indentation = StringUtils.repeat('\t', nestingLevel.get());
+          Path fileName = unit.unitFile.getFileName();
+          LOG.debug("{}> {}", indentation, fileName);
+        }
 
-      if (resolutionLevel == ResolutionLevel.COMPLETE) {
-        runSymbolTableVisitor(unit, delphiFile, ResolutionLevel.COMPLETE);
-        processImportsWithInlineRoutines(unit);
-        runDependencyAnalysisVisitor(unit, delphiFile, ResolutionLevel.COMPLETE);
+        DelphiFile delphiFile = parse(unit, resolutionLevel);
+        if (budget.isExceeded()) {
+          TimeBudget.ensureWithinBudget();
+        }
+        TimeBudget.enterPhase("Symbol table construction");
+
+        if (unit.resolved == ResolutionLevel.NONE) {
+          runSymbolTableVisitor(unit, delphiFile, ResolutionLevel.INTERFACE);
+          runDependencyAnalysisVisitor(unit, delphiFile, ResolutionLevel.INTERFACE);
+          if (computeUnitHashes) {
+            hashInterface(unit, delphiFile);
+          }
+          if (!unit.isSourceFile) {
+            unit.delphiFile = null;
+          }
+        }
+
+        if (resolutionLevel == ResolutionLevel.COMPLETE) {
+          runSymbolTableVisitor(unit, delphiFile, ResolutionLevel.COMPLETE);
+          if (computeUnitHashes && unit.isSourceFile) {
+            unit.contentHash = UnitHasher.contentHash(delphiFile, unit.unitFile);
+          }
+          analyzeImplementationDependencies(unit, delphiFile);
+        }
+      } catch (DelphiFileConstructionException e) {
+        String error = String.format("Error while processing %s", unit.unitFile.toAbsolutePath());
+        LOG.error(error, e);
+      } catch (TimeBudgetExceededException e) {
+        handleExceededTimeBudget(unit, e);
+      } finally {
+        nestingLevel.set(nestingLevel.get() - 1);
+        pause.close();
       }
-    } catch (DelphiFileConstructionException e) {
-      String error = String.format("Error while processing %s", unit.unitFile.toAbsolutePath());
-      LOG.error(error, e);
-    } finally {
-      --nestingLevel;
     }
   }
 
+  private TimeBudget startTimeBudget(UnitData unit) {
+    return TimeBudget.start(unit.isSourceFile ? fileTimeBudget : Duration.ZERO, timeBudgetTicker);
+  }
+
+  /**
+   * Leaves a unit that ran over its time budget at the resolution level it had already reached. A
+   * unit whose interface pass was abandoned is left out of the symbol table, while a unit whose
+   * implementation pass was abandoned keeps its interface declarations but isn't retained.
+   */
+  private static void handleExceededTimeBudget(UnitData unit, TimeBudgetExceededException e) {
+    unit.overBudget = true;
+    unit.delphiFile = null;
+    if (unit.resolved == ResolutionLevel.NONE) {
+      LOG.warn(
+          "{}, so the declarations of {} are unavailable",
+          e.getMessage(),
+          unit.unitFile.toAbsolutePath());
+    } else {
+      LOG.warn(
+          "{}, so the implementation of {} is only partially resolved",
+          e.getMessage(),
+          unit.unitFile.toAbsolutePath());
+    }
+  }
+
+  private static void hashInterface(UnitData unit, DelphiFile delphiFile) {
+    if (unit.unitDeclaration == null) {
+      return;
+    }
+
+    unit.interfaceImportDeclarations =
+        unit.unitDeclaration.getScope().getImportDeclarations().stream()
+            .map(UnitImportNameDeclaration::getOriginalDeclaration)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    unit.interfaceHash =
+        UnitHasher.interfaceHash(
+            delphiFile, unit.unitFile, hasInlineRoutines(unit.unitDeclaration));
+  }
+
+  private void analyzeImplementationDependencies(UnitData unit, DelphiFile delphiFile) {
+    processImportsWithInlineRoutines(unit);
+    runDependencyAnalysisVisitor(unit, delphiFile, ResolutionLevel.COMPLETE);
+    if (shouldRetain(unit)) {
+      symbolTable.addSourceFile(unit.unitFile.toAbsolutePath().toString(), delphiFile);
+    }
+    unit.delphiFile = null;
+  }
+
+  private DelphiFile parse(UnitData unit, ResolutionLevel resolutionLevel) {
+    if (unit.delphiFile != null) {
+      return unit.delphiFile;
+    }
+
+    boolean shouldSkipImplementation =
+        resolutionLevel != ResolutionLevel.COMPLETE && !shouldParseInFull(unit);
+    DelphiFile delphiFile = parseFile(unit, shouldSkipImplementation);
+
+    if (shouldParseInFull(unit)) {
+      unit.delphiFile = delphiFile;
+    }
+
+    return delphiFile;
+  }
+
+  /**
+   * Standard library units are parsed through the unit summary cache, if there is one, so that
+   * they're only parsed again when they or the analysis configuration change.
+   */
+  private DelphiFile parseFile(UnitData unit, boolean shouldSkipImplementation) {
+    DelphiFileConfig fileConfig = createFileConfig(unit, shouldSkipImplementation);
+    if (unitSummaryCache != null && isStandardLibraryUnit(unit)) {
+      return unitSummaryCache.parse(unit.unitFile.toFile(), fileConfig);
+    }
+    return DelphiFile.from(unit.unitFile.toFile(), fileConfig);
+  }
+
+  private boolean isStandardLibraryUnit(UnitData unit) {
+    return !unit.isSourceFile
+        && unit.unitFile
+            .toAbsolutePath()
+            .normalize()
+            .startsWith(standardLibraryPath.toAbsolutePath().normalize());
+  }
+
+  /**
+   * Source files are parsed in full up-front when their AST will be reused, so the same AST can
+   * carry the symbol information from both the interface and implementation passes.
+   */
+  private boolean shouldParseInFull(UnitData unit) {
+    return shouldRetain(unit);
+  }
+
+  private boolean shouldRetain(UnitData unit) {
+    return retainSourceFiles && unit.isSourceFile;
+  }
+
   private void runSymbolTableVisitor(
       UnitData unit, DelphiFile delphiFile, ResolutionLevel resolutionLevel) {
     var data =
@@ -310,15 +512,23 @@ public class SymbolTableBuilder {
             this::createImportDeclaration,
             this.systemScope,
             this.sysInitScope,
-            unit.unitDeclaration);
+            unit.unitDeclaration,
+            concurrentResolution);
 
-    symbolTableVisitor(resolutionLevel).visit(delphiFile.getAst(), data);
+    Stopwatch stopwatch = telemetry.startPhase();
+    try {
+      symbolTableVisitor(resolutionLevel).visit(delphiFile.getAst(), data);
+    } finally {
+      telemetry.record(Category.PHASE, "Symbol table construction", stopwatch);
+    }
 
     if (data.getUnitDeclaration() != null) {
       String filePath = unit.unitFile.toAbsolutePath().toString();
       unit.unitDeclaration = data.getUnitDeclaration();
       symbolTable.addUnit(filePath, unit.unitDeclaration);
-      if (!unit.isSourceFile) {
+      if (!unit.isSourceFile || retainSourceFiles) {
+        // Symbol information only needs to be re-attached to a fresh AST for source files that
+        // will be parsed again for analysis.
         FileScopeImpl fileScope = (FileScopeImpl) data.getUnitDeclaration().getFileScope();
         fileScope.unregisterScopes();
         fileScope.unregisterDeclarations();
@@ -329,10 +539,15 @@ public class SymbolTableBuilder {
     unit.resolved = resolutionLevel;
   }
 
-  private static void runDependencyAnalysisVisitor(
+  private void runDependencyAnalysisVisitor(
       UnitData unit, DelphiFile delphiFile, ResolutionLevel resolutionLevel) {
     var data = new DependencyAnalysisVisitor.Data(unit.unitDeclaration);
-    dependencyVisitor(resolutionLevel).visit(delphiFile.getAst(), data);
+    Stopwatch stopwatch = telemetry.startPhase();
+    try {
+      dependencyVisitor(resolutionLevel).visit(delphiFile.getAst(), data);
+    } finally {
+      telemetry.record(Category.PHASE, "Dependency analysis", stopwatch);
+    }
   }
 
   private static SymbolTableVisitor symbolTableVisitor(ResolutionLevel resolutionLevel) {
@@ -358,7 +573,7 @@ public class SymbolTableBuilder {
             .filter(Objects::nonNull)
             .filter(SymbolTableBuilder::hasInlineRoutines)
             .map(UnitNameDeclaration::getName)
-            .map(name -> findImportByName(unit.unitDeclaration, name))
+            .map(name -> findImportByName(unit.unitDeclaration.getImage(), name))
             .filter(Objects::nonNull)
             .filter(unitData -> unitData.resolved == ResolutionLevel.INTERFACE)
             .collect(Collectors.toSet());
@@ -455,10 +670,15 @@ public class SymbolTableBuilder {
       throw new SymbolTableConstructionException("typeFactory was not supplied.");
     }
 
-    processStandardLibrarySearchPaths();
-    searchPath.getRootDirectories().forEach(this::processSearchPath);
-    referencedFiles.forEach(file -> this.createUnitData(file, false));
-    sourceFiles.forEach(file -> this.createUnitData(file, true));
+    Stopwatch stopwatch = telemetry.startPhase();
+    try {
+      processStandardLibrarySearchPaths();
+      searchPath.getRootDirectories().forEach(this::processSearchPath);
+      referencedFiles.forEach(file -> this.createUnitData(file, false));
+      sourceFiles.forEach(file -> this.createUnitData(file, true));
+    } finally {
+      telemetry.record(Category.PHASE, "Unit discovery", stopwatch);
+    }
 
     ProgressReport progressReport =
         new ProgressReport(
@@ -466,25 +686,296 @@ public class SymbolTableBuilder {
             TimeUnit.SECONDS.toMillis(10),
             "indexed");
 
-    indexSystemUnit();
-    indexSysInitUnit();
-    progressReport.start(getSourceFileNames());
-
-    boolean success = false;
+    ExecutorService pool = (threads > 1) ? new ForkJoinPool(threads) : null;
 
     try {
-      for (UnitData unit : sourceFileUnits) {
-        indexUnit(unit, ResolutionLevel.COMPLETE);
-        progressReport.nextFile();
+      if (pool != null) {
+        LOG.info("Parsing units with {} threads...", threads);
+        concurrentResolution = new ConcurrentResolution();
+        discoverUnits(pool);
+      }
+
+      indexSystemUnit();
+      indexSysInitUnit();
+      progressReport.start(getSourceFileNames());
+
+      boolean success = false;
+
+      try {
+        if (pool == null) {
+          for (UnitData unit : sourceFileUnits) {
+            indexUnit(unit, ResolutionLevel.COMPLETE);
+            progressReport.nextFile();
+          }
+        } else {
+          indexConcurrently(pool, progressReport);
+        }
+        success = true;
+      } finally {
+        stopProgressReport(progressReport, success);
       }
-      success = true;
     } finally {
-      stopProgressReport(progressReport, success);
+      if (pool != null) {
+        pool.shutdownNow();
+        concurrentResolution.complete();
+      }
+    }
+
+    if (computeUnitHashes) {
+      addUnitHashes();
     }
 
     return symbolTable;
   }
 
+  /**
+   * Finds every unit that is reachable from the source files and records the imports between them.
+   * The imports are scanned from the preprocessed tokens of each unit, without parsing it, and each
+   * level of the search is scanned concurrently.
+   *
+   * @param pool the pool that units are scanned on
+   */
+  private void discoverUnits(ExecutorService pool) {
+    Set<UnitData> discovered = new HashSet<>();
+    List<UnitData> frontier = new ArrayList<>();
+
+    Stream.concat(
+            Stream.of("system", "sysinit").map(allUnitsByName::get).filter(Objects::nonNull),
+            sourceFileUnits.stream())
+        .filter(discovered::add)
+        .forEach(frontier::add);
+
+    while (!frontier.isEmpty()) {
+      invokeAll(pool, frontier, this::discoverImports);
+
+      List<UnitData> next = new ArrayList<>();
+      for (UnitData unit : frontier) {
+        Stream.concat(unit.interfaceImports.stream(), unit.implementationImports.stream())
+            .filter(discovered::add)
+            .forEach(next::add);
+      }
+      frontier = next;
+    }
+  }
+
+  private void discoverImports(UnitData unit) {
+    try {
+      // Only source files need their implementation imports, which are completed when the imports
+      // have inline routines.
+      UnitImports imports;
+      try (TimeBudget budget = startTimeBudget(unit)) {
+        imports = scanImports(unit, !unit.isSourceFile);
+        if (budget.isExceeded()) {
+          TimeBudget.ensureWithinBudget();
+        }
+      }
+
+      addDiscoveredImports(imports, imports.getInterfaceImports(), unit.interfaceImports);
+      addDiscoveredImports(imports, imports.getImplementationImports(), unit.implementationImports);
+
+      unit.discovered = true;
+    } catch (IOException | DelphiFileConstructionException e) {
+      // The unit is parsed again when it's processed, which is where the error is reported.
+    } catch (TimeBudgetExceededException e) {
+      handleExceededTimeBudget(unit, e);
+    }
+  }
+
+  /**
+   * Finds the imports of a unit without parsing it. Standard library units that have a cached
+   * summary are read from the summary instead, since that's cheaper than preprocessing them.
+   */
+  private UnitImports scanImports(UnitData unit, boolean shouldSkipImplementation)
+      throws IOException {
+    if (unitSummaryCache != null && isStandardLibraryUnit(unit)) {
+      return UnitImports.from(parseFile(unit, shouldSkipImplementation).getAst());
+    }
+    return UnitImportScanner.scan(
+        unit.unitFile.toFile(), createFileConfig(unit, shouldSkipImplementation));
+  }
+
+  private void addDiscoveredImports(
+      UnitImports imports, List<QualifiedName> importNames, Set<UnitData> discovered) {
+    for (QualifiedName importName : importNames) {
+      UnitData imported =
+          searchForImport(imports.getName(), imports.getNamespace(), () -> importName);
+      if (imported != null) {
+        discovered.add(imported);
+      }
+    }
+  }
+
+  /**
+   * Resolves the discovered units concurrently.
+   *
+   * <ol>
+   *   <li>Interface passes run in waves, where each unit's interface imports were resolved by an
+   *       earlier wave. Units stuck in an interface import cycle are resolved on a single thread
+   *       afterward, the same way as in a sequential build.
+   *   <li>Imports of source files that have inline routines are completed on a single thread, since
+   *       they can import each other in their implementation sections.
+   *   <li>Implementation passes and implementation dependency analysis of source files run
+   *       concurrently, since every import has been resolved far enough.
+   * </ol>
+   *
+   * <p>Each wave parses its units, and the implementation pass of a source file parses it in full.
+   * An AST is only held until its own unit is finished with it, unless source files are retained
+   * for analysis.
+   *
+   * @param pool the pool that units are resolved on
+   * @param progressReport progress report for source files
+   */
+  private void indexConcurrently(ExecutorService pool, ProgressReport progressReport) {
+    Set<UnitData> pending =
+        Stream.concat(allUnitsByName.values().stream(), sourceFileUnits.stream())
+            .filter(unit -> unit.resolved == ResolutionLevel.NONE && unit.discovered)
+            .collect(Collectors.toSet());
+
+    InterfaceSchedule schedule = InterfaceSchedule.create(pending);
+    for (List<UnitData> wave : schedule.waves) {
+      invokeAll(pool, wave, unit -> indexUnit(unit, ResolutionLevel.INTERFACE));
+    }
+    schedule.cyclic.forEach(unit -> indexUnit(unit, ResolutionLevel.INTERFACE));
+
+    sourceFileUnits.forEach(this::completeImportsWithInlineRoutines);
+
+    invokeAll(
+        pool,
+        sourceFileUnits,
+        unit -> {
+          indexUnit(unit, ResolutionLevel.COMPLETE);
+          synchronized (progressReport) {
+            progressReport.nextFile();
+          }
+        });
+  }
+
+  /**
+   * Completes the discovered imports of a unit that have inline routines, which is what {@link
+   * #processImportsWithInlineRoutines} would do after the implementation pass of the unit.
+   */
+  private void completeImportsWithInlineRoutines(UnitData unit) {
+    Stream.concat(unit.interfaceImports.stream(), unit.implementationImports.stream())
+        .filter(imported -> imported.resolved == ResolutionLevel.INTERFACE)
+        .filter(imported -> imported.unitDeclaration != null)
+        .filter(imported -> hasInlineRoutines(imported.unitDeclaration))
+        .forEach(imported -> process(imported, ResolutionLevel.COMPLETE));
+  }
+
+  private void addUnitHashes() {
+    Set<UnitData> units = new HashSet<>(allUnitsByName.values());
+    units.addAll(sourceFileUnits);
+
+    IdentityHashMap<UnitNameDeclaration, UnitData> unitsByDeclaration = new IdentityHashMap<>();
+    for (UnitData unit : units) {
+      if (unit.unitDeclaration != null) {
+        unitsByDeclaration.put(unit.unitDeclaration, unit);
+      }
+    }
+
+    Map<UnitData, HashCode> resolvedInterfaceHashes = new HashMap<>();
+    for (UnitData unit : units) {
+      if (unit.interfaceHash == null) {
+        continue;
+      }
+
+      Set<String> importPaths =
+          unit.unitDeclaration.getScope().getImportDeclarations().stream()
+              .map(UnitImportNameDeclaration::getOriginalDeclaration)
+              .map(unitsByDeclaration::get)
+              .filter(Objects::nonNull)
+              .map(imported -> imported.unitFile.toAbsolutePath().toString())
+              .collect(Collectors.toSet());
+      Set<String> interfaceImportPaths =
+          unit.interfaceImportDeclarations.stream()
+              .map(unitsByDeclaration::get)
+              .filter(Objects::nonNull)
+              .map(imported -> imported.unitFile.toAbsolutePath().toString())
+              .collect(Collectors.toSet());
+
+      symbolTable.addUnitHashes(
+          unit.unitFile.toAbsolutePath().toString(),
+          new UnitHashes(
+              Objects.requireNonNull(
+                      resolveInterfaceHash(
+                          unit, unitsByDeclaration, resolvedInterfaceHashes, new HashSet<>()))
+                  .toString(),
+              unit.contentHash == null ? null : unit.contentHash.toString(),
+              importPaths,
+              interfaceImportPaths));
+    }
+  }
+
+  /**
+   * Combines the interface hash of a unit with the resolved interface hashes of its interface
+   * imports, so that a change to an interface propagates to every unit that depends on it through
+   * the interfaces of other units.
+   */
+  @Nullable
+  private static HashCode resolveInterfaceHash(
+      UnitData unit,
+      IdentityHashMap<UnitNameDeclaration, UnitData> unitsByDeclaration,
+      Map<UnitData, HashCode> resolved,
+      Set<UnitData> visiting) {
+    HashCode result = resolved.get(unit);
+    if (result != null) {
+      return result;
+    }
+
+    if (unit.interfaceHash == null || !visiting.add(unit)) {
+      // Unresolved units and interface import cycles don't contribute anything further.
+      return null;
+    }
+
+    List<HashCode> importHashes = new ArrayList<>();
+    for (UnitNameDeclaration declaration : unit.interfaceImportDeclarations) {
+      UnitData imported = unitsByDeclaration.get(declaration);
+      if (imported != null) {
+        HashCode importHash =
+            resolveInterfaceHash(imported, unitsByDeclaration, resolved, visiting);
+        if (importHash != null) {
+          importHashes.add(importHash);
+        }
+      }
+    }
+
+    visiting.remove(unit);
+
+    result = unit.interfaceHash;
+    if (!importHashes.isEmpty()) {
+      // Imports are combined without regard to order, since the order of the import declarations
+      // in a scope isn't stable between scans.
+      result = Hashing.combineOrdered(List.of(result, Hashing.combineUnordered(importHashes)));
+    }
+    resolved.put(unit, result);
+    return result;
+  }
+
+  private static <T> void invokeAll(ExecutorService pool, Collection<T> items, Consumer<T> action) {
+    List<Callable<Void>> tasks =
+        items.stream()
+            .map(
+                item ->
+                    (Callable<Void>)
+                        () -> {
+                          action.accept(item);
+                          return null;
+                        })
+            .collect(Collectors.toList());
+
+    try {
+      for (Future<Void> future : pool.invokeAll(tasks)) {
+        future.get();
+      }
+    } catch (ExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new SymbolTableConstructionException(e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SymbolTableConstructionException(e);
+    }
+  }
+
   private Iterable<String> getSourceFileNames() {
     return sourceFileUnits.stream()
         .map(data -> data.unitFile)
@@ -498,11 +989,68 @@ public class SymbolTableBuilder {
     COMPLETE
   }
 
+  /** Groups units into waves, where each unit only imports units from earlier waves. */
+  private static final class InterfaceSchedule {
+    private final List<List<UnitData>> waves = new ArrayList<>();
+    private final List<UnitData> cyclic = new ArrayList<>();
+
+    private static InterfaceSchedule create(Set<UnitData> units) {
+      Map<UnitData, Integer> pendingImports = new HashMap<>();
+      ListMultimap<UnitData, UnitData> dependents = ArrayListMultimap.create();
+      List<UnitData> wave = new ArrayList<>();
+
+      for (UnitData unit : units) {
+        int count = 0;
+        for (UnitData imported : unit.interfaceImports) {
+          if (imported.resolved == ResolutionLevel.NONE && units.contains(imported)) {
+            dependents.put(imported, unit);
+            ++count;
+          }
+        }
+        pendingImports.put(unit, count);
+        if (count == 0) {
+          wave.add(unit);
+        }
+      }
+
+      InterfaceSchedule schedule = new InterfaceSchedule();
+      while (!wave.isEmpty()) {
+        schedule.waves.add(wave);
+        List<UnitData> next = new ArrayList<>();
+        for (UnitData unit : wave) {
+          for (UnitData dependent : dependents.get(unit)) {
+            if (pendingImports.merge(dependent, -1, Integer::sum) == 0) {
+              next.add(dependent);
+            }
+          }
+        }
+        wave = next;
+      }
+
+      pendingImports.forEach(
+          (unit, count) -> {
+            if (count > 0) {
+              schedule.cyclic.add(unit);
+            }
+          });
+
+      return schedule;
+    }
+  }
+
   private static final class UnitData {
     private final Path unitFile;
     private final boolean isSourceFile;
-    private ResolutionLevel resolved;
+    private final Set<UnitData> interfaceImports = new HashSet<>();
+    private final Set<UnitData> implementationImports = new HashSet<>();
+    private volatile ResolutionLevel resolved;
+    private volatile boolean discovered;
+    private volatile boolean overBudget;
     private UnitNameDeclaration unitDeclaration;
+    private DelphiFile delphiFile;
+    private List<UnitNameDeclaration> interfaceImportDeclarations = Collections.emptyList();
+    private HashCode interfaceHash;
+    private HashCode contentHash;
 
     private UnitData(Path unitFile, boolean isSourceFile) {
       this.unitFile = unitFile;
@@ -0,0 +1,107 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.symbol;
+
+import au.com.integradev.delphi.file.DelphiFile;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
+import org.sonar.plugins.communitydelphi.api.ast.ImplementationSectionNode;
+import org.sonar.plugins.communitydelphi.api.token.DelphiToken;
+
+/** Computes the hashes that are used to tell whether a unit has changed between scans. */
+final class UnitHasher {
+  private UnitHasher() {
+    // Utility class
+  }
+
+  /**
+   * Hashes the preprocessed tokens in the interface section of a unit, along with everything that
+   * precedes it. Programs, packages and libraries are hashed in full. Token positions are left out,
+   * since moving declarations around doesn't affect the analysis of the importing units.
+   *
+   * <p>The contents of a unit file are hashed as well if the unit has inline routines, since
+   * routines that are inlined from an implementation section can affect the importing units.
+   *
+   * @param delphiFile The unit, which may have been parsed without its implementation section
+   * @param unitFile Path to the unit file
+   * @param hasInlineRoutines Whether the unit has inline routines
+   * @return hash of the interface of the unit
+   */
+  static HashCode interfaceHash(DelphiFile delphiFile, Path unitFile, boolean hasInlineRoutines) {
+    Hasher hasher = Hashing.sha256().newHasher();
+    for (DelphiNode child : delphiFile.getAst().getChildren()) {
+      if (child instanceof ImplementationSectionNode) {
+        break;
+      }
+      putNode(hasher, child, false);
+    }
+    if (hasInlineRoutines) {
+      hasher.putBytes(readFile(unitFile));
+    }
+    return hasher.hash();
+  }
+
+  /**
+   * Hashes everything about a unit that can affect its own analysis results, which is the contents
+   * of the unit file and the position of every preprocessed token (including tokens from include
+   * files).
+   *
+   * @param delphiFile The fully-parsed unit
+   * @param unitFile Path to the unit file
+   * @return hash of the content of the unit
+   */
+  static HashCode contentHash(DelphiFile delphiFile, Path unitFile) {
+    Hasher hasher = Hashing.sha256().newHasher();
+    hasher.putBytes(readFile(unitFile));
+    putNode(hasher, delphiFile.getAst(), true);
+    return hasher.hash();
+  }
+
+  private static void putNode(Hasher hasher, DelphiNode node, boolean includePositions) {
+    DelphiToken token = node.getToken();
+    String image = token.getImage();
+    hasher
+        .putInt(token.getType().ordinal())
+        .putString(image == null ? "" : image, StandardCharsets.UTF_8)
+        .putInt(node.getChildren().size());
+
+    if (includePositions) {
+      hasher.putInt(token.getBeginLine()).putInt(token.getBeginColumn());
+    }
+
+    for (DelphiNode child : node.getChildren()) {
+      putNode(hasher, child, includePositions);
+    }
+  }
+
+  private static byte[] readFile(Path unitFile) {
+    try {
+      return Files.readAllBytes(unitFile);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.symbol;
+
+import java.util.Set;
+import javax.annotation.Nullable;
+
+/** Hashes of a unit that was resolved during symbol table construction. */
+public final class UnitHashes {
+  private final String interfaceHash;
+  private final String contentHash;
+  private final Set<String> importPaths;
+  private final Set<String> interfaceImportPaths;
+
+  UnitHashes(
+      String interfaceHash,
+      @Nullable String contentHash,
+      Set<String> importPaths,
+      Set<String> interfaceImportPaths) {
+    this.interfaceHash = interfaceHash;
+    this.contentHash = contentHash;
+    this.importPaths = Set.copyOf(importPaths);
+    this.interfaceImportPaths = Set.copyOf(interfaceImportPaths);
+  }
+
+  /**
+   * Returns a hash of the resolved interface of the unit, which covers the interface section of the
+   * unit and the resolved interfaces of the units that it imports from its interface section.
+   *
+   * @return hash of the resolved interface
+   */
+  public String getInterfaceHash() {
+    return interfaceHash;
+  }
+
+  /**
+   * Returns a hash of the full contents of the unit, which is only available for source files.
+   *
+   * @return hash of the full contents, or null if the unit is not a source file
+   */
+  @Nullable
+  public String getContentHash() {
+    return contentHash;
+  }
+
+  /**
+   * Returns the absolute paths of the units imported by the unit, from both its interface and
+   * implementation sections.
+   *
+   * @return paths of the imported units
+   */
+  public Set<String> getImportPaths() {
+    return importPaths;
+  }
+
+  /**
+   * Returns the absolute paths of the units imported by the interface section of the unit.
+   *
+   * @return paths of the units imported by the interface section
+   */
+  public Set<String> getInterfaceImportPaths() {
+    return interfaceImportPaths;
+  }
+}
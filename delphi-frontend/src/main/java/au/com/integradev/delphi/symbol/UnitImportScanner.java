@@ -0,0 +1,249 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.symbol;
+
+import au.com.integradev.delphi.antlr.DelphiFileStream;
+import au.com.integradev.delphi.antlr.DelphiLexer;
+import au.com.integradev.delphi.file.DelphiFileConfig;
+import au.com.integradev.delphi.file.SourceBuffer;
+import au.com.integradev.delphi.preprocessor.DelphiPreprocessor;
+import au.com.integradev.delphi.telemetry.AnalysisTelemetry;
+import au.com.integradev.delphi.telemetry.AnalysisTelemetry.Category;
+import au.com.integradev.delphi.telemetry.AnalysisTelemetry.Stopwatch;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.antlr.runtime.Token;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiAst;
+import org.sonar.plugins.communitydelphi.api.ast.FileHeaderNode;
+import org.sonar.plugins.communitydelphi.api.ast.ImplementationSectionNode;
+import org.sonar.plugins.communitydelphi.api.ast.UnitImportNode;
+import org.sonar.plugins.communitydelphi.api.symbol.QualifiedName;
+
+/**
+ * Finds the imports of a unit from its preprocessed tokens, without parsing it. This is how units
+ * are discovered before they're resolved concurrently, so that each unit is only parsed when it's
+ * actually resolved.
+ */
+final class UnitImportScanner {
+  private final List<Token> tokens;
+  private final boolean isPackage;
+  private int index;
+
+  private UnitImportScanner(List<Token> tokens) {
+    this.tokens = tokens;
+    this.isPackage = !tokens.isEmpty() && tokens.get(0).getType() == DelphiLexer.PACKAGE;
+  }
+
+  /**
+   * Preprocesses a unit and finds its file header name and the imports in its uses, requires and
+   * contains clauses. The preprocessor honors the configuration the same way as when the unit is
+   * parsed, so conditional imports and imports in include files are found as well.
+   *
+   * @param unitFile the unit file
+   * @param config the configuration that the unit would be parsed with
+   * @return the imports of the unit
+   * @throws IOException if the unit file couldn't be read
+   */
+  static UnitImports scan(File unitFile, DelphiFileConfig config) throws IOException {
+    AnalysisTelemetry telemetry = config.getTelemetry();
+    Stopwatch stopwatch = telemetry.startPhase();
+    try {
+      SourceBuffer source = SourceBuffer.read(unitFile.getAbsolutePath(), config.getEncoding());
+      DelphiLexer lexer =
+          new DelphiLexer(new DelphiFileStream(source), config.shouldSkipImplementation());
+      DelphiPreprocessor preprocessor =
+          config.getPreprocessorFactory().createPreprocessor(lexer, config);
+      preprocessor.process();
+
+      List<Token> tokens =
+          preprocessor.getTokenStream().getTokens().stream()
+              .map(Token.class::cast)
+              .filter(token -> token.getChannel() == Token.DEFAULT_CHANNEL)
+              .filter(token -> token.getType() != Token.EOF)
+              .collect(Collectors.toList());
+
+      return new UnitImportScanner(tokens).scan();
+    } finally {
+      telemetry.record(Category.PHASE, "Import scanning", stopwatch);
+    }
+  }
+
+  private UnitImports scan() {
+    String name = "";
+    if (!tokens.isEmpty() && isFileHeaderKeyword(tokens.get(0).getType())) {
+      index = 1;
+      QualifiedName headerName = readName();
+      if (headerName != null) {
+        name = headerName.fullyQualifiedName();
+      }
+    }
+
+    UnitImports result = new UnitImports(name);
+    boolean isImplementation = false;
+
+    while (index < tokens.size()) {
+      int type = tokens.get(index++).getType();
+      if (type == DelphiLexer.IMPLEMENTATION) {
+        isImplementation = true;
+      } else if (isImportClauseKeyword(type)) {
+        readImportList(isImplementation ? result.implementationImports : result.interfaceImports);
+      }
+    }
+
+    return result;
+  }
+
+  private boolean isImportClauseKeyword(int type) {
+    return type == DelphiLexer.USES
+        || (isPackage && (type == DelphiLexer.REQUIRES || type == DelphiLexer.CONTAINS));
+  }
+
+  private static boolean isFileHeaderKeyword(int type) {
+    return type == DelphiLexer.UNIT
+        || type == DelphiLexer.PROGRAM
+        || type == DelphiLexer.LIBRARY
+        || type == DelphiLexer.PACKAGE;
+  }
+
+  private void readImportList(List<QualifiedName> imports) {
+    while (index < tokens.size()) {
+      QualifiedName name = readName();
+      if (name != null) {
+        imports.add(name);
+      }
+
+      // Skips the file name of an import like `Foo in 'Foo.pas'`
+      while (index < tokens.size() && !isImportSeparator(tokens.get(index).getType())) {
+        ++index;
+      }
+
+      if (index < tokens.size() && tokens.get(index++).getType() == DelphiLexer.SEMICOLON) {
+        return;
+      }
+    }
+  }
+
+  private static boolean isImportSeparator(int type) {
+    return type == DelphiLexer.COMMA || type == DelphiLexer.SEMICOLON;
+  }
+
+  /**
+   * Reads a dotted name, the way that the parser reads a qualified name declaration. Keywords are
+   * allowed as name parts, and the ampersands that escape them are left out.
+   *
+   * @return the name, or null if there isn't one
+   */
+  private QualifiedName readName() {
+    List<String> parts = new ArrayList<>();
+    StringBuilder part = new StringBuilder();
+
+    while (index < tokens.size()) {
+      Token token = tokens.get(index);
+      int type = token.getType();
+      if (type == DelphiLexer.DOT) {
+        parts.add(part.toString());
+        part.setLength(0);
+      } else if (type == DelphiLexer.AMPERSAND) {
+        // Escaped keyword
+      } else if (isNamePart(type) && part.length() == 0) {
+        part.append(token.getText());
+      } else {
+        break;
+      }
+      ++index;
+    }
+
+    parts.add(part.toString());
+    if (parts.stream().anyMatch(String::isEmpty)) {
+      return null;
+    }
+    return new QualifiedNameImpl(parts);
+  }
+
+  private static boolean isNamePart(int type) {
+    return type != DelphiLexer.IN
+        && type != DelphiLexer.COMMA
+        && type != DelphiLexer.SEMICOLON
+        && type != DelphiLexer.PAREN_LEFT
+        && type != DelphiLexer.TkQuotedString;
+  }
+
+  /** The imports of a unit, which are classified by the section of the unit they're in. */
+  static final class UnitImports {
+    private final String name;
+    private final List<QualifiedName> interfaceImports = new ArrayList<>();
+    private final List<QualifiedName> implementationImports = new ArrayList<>();
+
+    private UnitImports(String name) {
+      this.name = name;
+    }
+
+    /**
+     * Collects the imports of a unit that has already been parsed.
+     *
+     * @param ast the AST of the unit
+     * @return the imports of the unit
+     */
+    static UnitImports from(DelphiAst ast) {
+      FileHeaderNode header = ast.getFileHeader();
+      UnitImports result = new UnitImports(header == null ? "" : header.getName());
+      for (UnitImportNode node : ast.findDescendantsOfType(UnitImportNode.class)) {
+        QualifiedName importName = node.getNameNode().getQualifiedName();
+        if (node.getFirstParentOfType(ImplementationSectionNode.class) == null) {
+          result.interfaceImports.add(importName);
+        } else {
+          result.implementationImports.add(importName);
+        }
+      }
+      return result;
+    }
+
+    /**
+     * Returns the name in the file header, which is empty for a program without one.
+     *
+     * @return the name of the unit
+     */
+    String getName() {
+      return name;
+    }
+
+    String getNamespace() {
+      int dotIndex = name.lastIndexOf('.');
+      return dotIndex == -1 ? "" : name.substring(0, dotIndex);
+    }
+
+    /**
+     * Returns the imports of the unit that aren't in its implementation section, which includes
+     * every import of a program, library or package.
+     *
+     * @return the interface imports
+     */
+    List<QualifiedName> getInterfaceImports() {
+      return Collections.unmodifiableList(interfaceImports);
+    }
+
+    List<QualifiedName> getImplementationImports() {
+      return Collections.unmodifiableList(implementationImports);
+    }
+  }
+}
@@ -28,10 +28,10 @@ import au.com.integradev.delphi.type.parameter.IntrinsicParameter;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ComparisonChain;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import org.sonar.plugins.communitydelphi.api.ast.AttributeListNode;
@@ -98,7 +98,8 @@ public final class RoutineNameDeclarationImpl extends NameDeclarationImpl
     this.visibility = visibility;
     this.typeParameters = typeParameters;
     this.attributeTypes = attributeTypes;
-    this.dependencies = new HashSet<>();
+    // Inline routines can be read by other units while their own unit is still being resolved.
+    this.dependencies = ConcurrentHashMap.newKeySet();
   }
 
   public static RoutineNameDeclaration create(
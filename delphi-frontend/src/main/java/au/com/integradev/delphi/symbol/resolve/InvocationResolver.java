@@ -46,6 +46,7 @@ import static au.com.integradev.delphi.symbol.resolve.VariantConversionType.WORD
 import static java.lang.Math.abs;
 import static java.util.function.Predicate.not;
 
+import au.com.integradev.delphi.budget.TimeBudget;
 import au.com.integradev.delphi.symbol.resolve.TypeConverter.TypeConversion;
 import au.com.integradev.delphi.type.TypeUtils;
 import com.google.common.base.Preconditions;
@@ -101,6 +102,7 @@ public class InvocationResolver {
    */
   public void processCandidates() {
     for (InvocationCandidate candidate : candidates) {
+      TimeBudget.checkpoint();
       for (int i = 0; i < arguments.size(); ++i) {
         InvocationArgument argument = arguments.get(i);
         Parameter parameter = candidate.getData().getParameter(i);
@@ -385,6 +387,7 @@ public class InvocationResolver {
     InvocationCandidate bestCandidate = candidates.get(0);
 
     for (int i = 1; i < candidates.size(); ++i) {
+      TimeBudget.checkpoint();
       InvocationCandidate candidate = candidates.get(i);
       if (candidate.isInvalid()) {
         // If it's invalid then it can't possibly be a better candidate.
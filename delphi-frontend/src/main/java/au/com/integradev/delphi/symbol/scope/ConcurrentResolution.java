@@ -0,0 +1,38 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.symbol.scope;
+
+/**
+ * A symbol table construction that resolves units concurrently.
+ *
+ * <p>File scopes and type scopes are shared between units, so the ones created during a concurrent
+ * construction can be read by one unit while another unit is still adding to them. Once the
+ * construction is complete, nothing is added to any scope.
+ */
+public final class ConcurrentResolution {
+  private volatile boolean complete;
+
+  public boolean isComplete() {
+    return complete;
+  }
+
+  public void complete() {
+    complete = true;
+  }
+}
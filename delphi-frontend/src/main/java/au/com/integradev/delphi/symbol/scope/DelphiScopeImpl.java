@@ -31,6 +31,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.sonar.plugins.communitydelphi.api.symbol.Invocable;
@@ -50,6 +51,16 @@ import org.sonar.plugins.communitydelphi.api.type.Type;
 import org.sonar.plugins.communitydelphi.api.type.Type.HelperType;
 import org.sonar.plugins.communitydelphi.api.type.Type.StructType;
 
+/**
+ * Base scope implementation.
+ *
+ * <p>During symbol table construction, units can be resolved concurrently. Other units may then add
+ * occurrences to a shared scope and look up its declarations while its own unit is still adding
+ * declarations to it. Mutations and lookups are synchronized on the scope. The declaration sets of
+ * a shared scope that was created during a {@link ConcurrentResolution} can be iterated while
+ * declarations are being added, and its occurrences are copied until the resolution is complete.
+ * Every other scope is only used by its own unit, so it hands out views.
+ */
 public class DelphiScopeImpl implements DelphiScope {
   private final Set<NameDeclaration> declarationSet;
   private final ListMultimap<NameDeclaration, NameOccurrence> occurrencesByDeclaration;
@@ -61,35 +72,55 @@ public class DelphiScopeImpl implements DelphiScope {
   private final Set<RoutineNameDeclaration> routineDeclarations;
   private final Set<VariableNameDeclaration> variableDeclarations;
   private final Map<Type, HelperType> helpersByType;
+  private final ConcurrentResolution concurrentResolution;
 
   private DelphiScope parent;
 
   protected DelphiScopeImpl() {
-    declarationSet = new HashSet<>();
+    this(null);
+  }
+
+  /**
+   * Creates a scope
+   *
+   * @param concurrentResolution the concurrent resolution that shares this scope between units, or
+   *     null if the scope is only used by one unit at a time
+   */
+  protected DelphiScopeImpl(@Nullable ConcurrentResolution concurrentResolution) {
+    this.concurrentResolution = concurrentResolution;
+    declarationSet = createDeclarationSet();
     occurrencesByDeclaration = ArrayListMultimap.create();
     declarationsByName = TreeMultimap.create(String.CASE_INSENSITIVE_ORDER, Ordering.natural());
-    unitDeclarations = new HashSet<>();
-    importDeclarations = new HashSet<>();
-    typeDeclarations = new HashSet<>();
-    propertyDeclarations = new HashSet<>();
-    routineDeclarations = new HashSet<>();
-    variableDeclarations = new HashSet<>();
+    unitDeclarations = createDeclarationSet();
+    importDeclarations = createDeclarationSet();
+    typeDeclarations = createDeclarationSet();
+    propertyDeclarations = createDeclarationSet();
+    routineDeclarations = createDeclarationSet();
+    variableDeclarations = createDeclarationSet();
     helpersByType = new HashMap<>();
   }
 
+  private <T> Set<T> createDeclarationSet() {
+    return concurrentResolution == null ? new HashSet<>() : ConcurrentHashMap.newKeySet();
+  }
+
   public Set<NameDeclaration> addNameOccurrence(@Nonnull NameOccurrence occurrence) {
     NameDeclaration declaration = getDeclaration(occurrence.getNameDeclaration());
-    occurrencesByDeclaration.put(declaration, occurrence);
+    synchronized (this) {
+      occurrencesByDeclaration.put(declaration, occurrence);
+    }
     return Set.of(declaration);
   }
 
   public void addDeclaration(NameDeclaration declaration) {
-    checkForwardTypeDeclarations(declaration);
-    checkForDuplicatedNameDeclaration(declaration);
-    declarationSet.add(declaration);
-    declarationsByName.put(declaration.getImage(), declaration);
-    addDeclarationByClass(declaration);
-    handleHelperDeclaration(declaration);
+    synchronized (this) {
+      checkForwardTypeDeclarations(declaration);
+      checkForDuplicatedNameDeclaration(declaration);
+      declarationSet.add(declaration);
+      declarationsByName.put(declaration.getImage(), declaration);
+      addDeclarationByClass(declaration);
+      handleHelperDeclaration(declaration);
+    }
   }
 
   private void addDeclarationByClass(NameDeclaration declaration) {
@@ -201,7 +232,14 @@ public class DelphiScopeImpl implements DelphiScope {
 
   @Override
   public List<NameOccurrence> getOccurrencesFor(NameDeclaration declaration) {
-    return occurrencesByDeclaration.get(getDeclaration(declaration));
+    NameDeclaration genericDeclaration = getDeclaration(declaration);
+    if (concurrentResolution == null || concurrentResolution.isComplete()) {
+      return Collections.unmodifiableList(occurrencesByDeclaration.get(genericDeclaration));
+    }
+    synchronized (this) {
+      // Copied under the lock, since other units can still be adding occurrences.
+      return List.copyOf(occurrencesByDeclaration.get(genericDeclaration));
+    }
   }
 
   @Override
@@ -314,20 +352,25 @@ public class DelphiScopeImpl implements DelphiScope {
 
   @Override
   public Set<NameDeclaration> findDeclaration(NameOccurrence occurrence) {
-    Set<NameDeclaration> result = Collections.emptySet();
+    Set<NameDeclaration> result;
 
-    Set<NameDeclaration> found = declarationsByName.get(occurrence.getImage());
-    if (occurrence.isAttributeReference()) {
-      found = new HashSet<>(found);
-      found.addAll(declarationsByName.get(occurrence.getImage() + "Attribute"));
-    }
+    synchronized (this) {
+      Set<NameDeclaration> found = declarationsByName.get(occurrence.getImage());
+      if (occurrence.isAttributeReference()) {
+        found = new HashSet<>(found);
+        found.addAll(declarationsByName.get(occurrence.getImage() + "Attribute"));
+      }
+
+      if (found.isEmpty()) {
+        return Collections.emptySet();
+      }
 
-    if (!found.isEmpty()) {
       result = new HashSet<>(found);
-      findRoutineOverloads(occurrence, result);
-      handleGenerics(occurrence, result);
     }
 
+    findRoutineOverloads(occurrence, result);
+    handleGenerics(occurrence, result);
+
     return result;
   }
 
@@ -362,7 +405,9 @@ public class DelphiScopeImpl implements DelphiScope {
   }
 
   protected HelperType findHelper(Type type) {
-    return helpersByType.get(type);
+    synchronized (this) {
+      return helpersByType.get(type);
+    }
   }
 
   private static NameDeclaration getDeclaration(NameDeclaration declaration) {
@@ -32,6 +32,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import org.sonar.plugins.communitydelphi.api.ast.ArrayAccessorNode;
 import org.sonar.plugins.communitydelphi.api.ast.NameDeclarationNode;
 import org.sonar.plugins.communitydelphi.api.ast.NameReferenceNode;
@@ -54,7 +55,8 @@ public abstract class FileScopeImpl extends DelphiScopeImpl implements FileScope
   private Map<Integer, NameDeclaration> registeredDeclarations = new HashMap<>();
   private Map<Integer, NameOccurrence> registeredOccurrences = new HashMap<>();
 
-  protected FileScopeImpl(String name) {
+  protected FileScopeImpl(String name, @Nullable ConcurrentResolution concurrentResolution) {
+    super(concurrentResolution);
     this.name = name;
   }
 
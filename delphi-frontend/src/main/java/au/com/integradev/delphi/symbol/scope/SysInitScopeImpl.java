@@ -18,14 +18,16 @@
  */
 package au.com.integradev.delphi.symbol.scope;
 
+import javax.annotation.Nullable;
 import org.sonar.plugins.communitydelphi.api.symbol.scope.SysInitScope;
 import org.sonar.plugins.communitydelphi.api.symbol.scope.SystemScope;
 
 public class SysInitScopeImpl extends FileScopeImpl implements SysInitScope {
   private final SystemScope systemScope;
 
-  public SysInitScopeImpl(String name, SystemScope systemScope) {
-    super(name);
+  public SysInitScopeImpl(
+      String name, SystemScope systemScope, @Nullable ConcurrentResolution concurrentResolution) {
+    super(name, concurrentResolution);
     this.systemScope = systemScope;
     addImport(systemScope);
   }
@@ -19,6 +19,7 @@
 package au.com.integradev.delphi.symbol.scope;
 
 import au.com.integradev.delphi.type.intrinsic.IntrinsicsInjector;
+import javax.annotation.Nullable;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.NameDeclaration;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.TypeNameDeclaration;
 import org.sonar.plugins.communitydelphi.api.symbol.scope.SystemScope;
@@ -30,8 +31,9 @@ public class SystemScopeImpl extends FileScopeImpl implements SystemScope {
   private TypeNameDeclaration varRecDeclaration;
   private TypeNameDeclaration classHelperBase;
 
-  public SystemScopeImpl(TypeFactory typeFactory) {
-    super("System");
+  public SystemScopeImpl(
+      TypeFactory typeFactory, @Nullable ConcurrentResolution concurrentResolution) {
+    super("System", concurrentResolution);
     injectIntrinsics(typeFactory);
   }
 
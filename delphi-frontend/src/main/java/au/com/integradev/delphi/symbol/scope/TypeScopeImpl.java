@@ -37,6 +37,14 @@ public class TypeScopeImpl extends DelphiScopeImpl implements TypeScope {
   private Type type = unknownType();
   private DelphiScope parentTypeScope = unknownScope();
 
+  public TypeScopeImpl() {
+    this(null);
+  }
+
+  public TypeScopeImpl(@Nullable ConcurrentResolution concurrentResolution) {
+    super(concurrentResolution);
+  }
+
   public void setType(Type type) {
     this.type = type;
 
@@ -87,7 +95,8 @@ public class TypeScopeImpl extends DelphiScopeImpl implements TypeScope {
 
   /**
    * Specialized type scopes just wrap a generic type's "real" scope. Name occurrences of
-   * specialized declarations are forwarded to their generic declarations in the real scope.
+   * specialized declarations are forwarded to their generic declarations in the real scope, so a
+   * specialized scope is never changed after it's created.
    */
   private static final class SpecializedTypeScope extends TypeScopeImpl {
     private final DelphiScope genericScope;
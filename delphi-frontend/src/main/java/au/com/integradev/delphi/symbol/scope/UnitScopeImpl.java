@@ -18,6 +18,7 @@
  */
 package au.com.integradev.delphi.symbol.scope;
 
+import javax.annotation.Nullable;
 import org.sonar.plugins.communitydelphi.api.symbol.scope.SysInitScope;
 import org.sonar.plugins.communitydelphi.api.symbol.scope.SystemScope;
 import org.sonar.plugins.communitydelphi.api.symbol.scope.UnitScope;
@@ -25,8 +26,12 @@ import org.sonar.plugins.communitydelphi.api.symbol.scope.UnitScope;
 public class UnitScopeImpl extends FileScopeImpl implements UnitScope {
   private final SystemScope systemScope;
 
-  public UnitScopeImpl(String name, SystemScope systemScope, SysInitScope sysInitScope) {
-    super(name);
+  public UnitScopeImpl(
+      String name,
+      SystemScope systemScope,
+      SysInitScope sysInitScope,
+      @Nullable ConcurrentResolution concurrentResolution) {
+    super(name, concurrentResolution);
     this.systemScope = systemScope;
     addImport(systemScope);
     addImport(sysInitScope);
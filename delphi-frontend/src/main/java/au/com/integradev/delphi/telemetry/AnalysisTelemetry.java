@@ -0,0 +1,358 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.telemetry;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import org.json.simple.JSONValue;
+
+/**
+ * Collects the wall time, CPU time and allocated bytes spent in each analysis phase, executor, rule
+ * and file.
+ *
+ * <p>Measurements are taken on the thread that does the work, so they can be collected from
+ * concurrent analysis workers. When telemetry is disabled, {@link #start()} returns a shared
+ * stopwatch that does nothing and {@link #record} returns immediately.
+ */
+public final class AnalysisTelemetry {
+  private static final AnalysisTelemetry DISABLED =
+      new AnalysisTelemetry(false, Ticker.systemTicker());
+  private static final int REPORT_VERSION = 1;
+  private static final int MAX_REPORTED_FILES = 100;
+  private static final ThreadLocal<Stopwatch> CURRENT_PHASE = new ThreadLocal<>();
+
+  public enum Category {
+    /**
+     * Phases are mutually exclusive, so a phase that is measured within another phase is excluded
+     * from the time of the outer phase.
+     */
+    PHASE("phases", true, false),
+    EXECUTOR("executors", false, false),
+    RULE("rules", false, false),
+    FILE("files", false, true),
+    /** Parses of each file, which also record the peak size of the parser's memo tables. */
+    PARSE("parses", false, true);
+
+    private final String reportKey;
+    private final boolean exclusive;
+    private final boolean perFile;
+
+    Category(String reportKey, boolean exclusive, boolean perFile) {
+      this.reportKey = reportKey;
+      this.exclusive = exclusive;
+      this.perFile = perFile;
+    }
+  }
+
+  private final boolean enabled;
+  private final Ticker ticker;
+  private final ThreadMXBean threadBean;
+  private final boolean cpuTimeSupported;
+  private final boolean allocationSupported;
+  private final Map<Category, Map<String, Stats>> stats = new EnumMap<>(Category.class);
+
+  private AnalysisTelemetry(boolean enabled, Ticker ticker) {
+    this.enabled = enabled;
+    this.ticker = ticker;
+    this.threadBean = enabled ? ManagementFactory.getThreadMXBean() : null;
+    this.cpuTimeSupported = enabled && threadBean.isCurrentThreadCpuTimeSupported();
+    this.allocationSupported = enabled && isAllocationSupported(threadBean);
+    for (Category category : Category.values()) {
+      stats.put(category, new ConcurrentHashMap<>());
+    }
+  }
+
+  public static AnalysisTelemetry disabled() {
+    return DISABLED;
+  }
+
+  public static AnalysisTelemetry create() {
+    return create(Ticker.systemTicker());
+  }
+
+  @VisibleForTesting
+  static AnalysisTelemetry create(Ticker ticker) {
+    return new AnalysisTelemetry(true, ticker);
+  }
+
+  private static boolean isAllocationSupported(ThreadMXBean threadBean) {
+    return threadBean instanceof com.sun.management.ThreadMXBean
+        && ((com.sun.management.ThreadMXBean) threadBean).isThreadAllocatedMemorySupported()
+        && ((com.sun.management.ThreadMXBean) threadBean).isThreadAllocatedMemoryEnabled();
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Starts measuring on the current thread
+   *
+   * @return a stopwatch to pass to {@link #record}
+   */
+  public Stopwatch start() {
+    if (!enabled) {
+      return Stopwatch.NONE;
+    }
+    return new Stopwatch(ticker.read(), cpuTime(), allocatedBytes());
+  }
+
+  /**
+   * Starts measuring a phase on the current thread
+   *
+   * <p>Phases that are started before this one is recorded are excluded from its measurements.
+   *
+   * @return a stopwatch to pass to {@link #record}
+   */
+  public Stopwatch startPhase() {
+    if (!enabled) {
+      return Stopwatch.NONE;
+    }
+    Stopwatch stopwatch = start();
+    stopwatch.parent = CURRENT_PHASE.get();
+    CURRENT_PHASE.set(stopwatch);
+    return stopwatch;
+  }
+
+  /**
+   * Records the measurements taken since a stopwatch was started
+   *
+   * @param category the category of the measured work
+   * @param name the name of the measured work within its category
+   * @param stopwatch a stopwatch from {@link #start()}, or {@link #startPhase()} for phases
+   */
+  public void record(Category category, String name, Stopwatch stopwatch) {
+    if (!enabled || stopwatch == Stopwatch.NONE) {
+      return;
+    }
+    measure(category, name, stopwatch);
+  }
+
+  /**
+   * Reads the wall clock, for work that is too fine-grained to measure with a {@link Stopwatch}
+   *
+   * @return the wall time in nanoseconds, or 0 if telemetry is disabled
+   */
+  public long wallTime() {
+    return enabled ? ticker.read() : 0;
+  }
+
+  /**
+   * Records work that was shared between several names, such as the checks that take part in a
+   * single walk over an AST
+   *
+   * <p>Only the wall time of each name is measured, since reading the CPU time and allocated bytes
+   * of a thread around every small piece of work would distort the measurements. Instead, the CPU
+   * time and allocated bytes measured since the stopwatch was started are shared out between the
+   * names in proportion to their wall time.
+   *
+   * @param category the category of the measured work
+   * @param wallTimes the wall time spent on each name, from {@link #wallTime()}
+   * @param stopwatch a stopwatch from {@link #start()} that was started before all of the work
+   */
+  public void recordShares(Category category, Map<String, Long> wallTimes, Stopwatch stopwatch) {
+    if (!enabled || stopwatch == Stopwatch.NONE) {
+      return;
+    }
+
+    long totalWallTime = ticker.read() - stopwatch.wallTime;
+    long cpuTime = cpuTime() - stopwatch.cpuTime;
+    long allocatedBytes = allocatedBytes() - stopwatch.allocatedBytes;
+    Map<String, Stats> categoryStats = stats.get(category);
+
+    wallTimes.forEach(
+        (name, wallTime) -> {
+          double share = totalWallTime > 0 ? (double) wallTime / totalWallTime : 0;
+          categoryStats
+              .computeIfAbsent(name, key -> new Stats())
+              .add(wallTime, Math.round(cpuTime * share), Math.round(allocatedBytes * share));
+        });
+  }
+
+  /**
+   * Records the measurements taken while parsing a file
+   *
+   * @param fileName the name of the parsed file
+   * @param stopwatch a stopwatch from {@link #start()}
+   * @param peakMemoSize the largest number of memoized rule results held by the parser at once
+   */
+  public void recordParse(String fileName, Stopwatch stopwatch, int peakMemoSize) {
+    if (!enabled || stopwatch == Stopwatch.NONE) {
+      return;
+    }
+    measure(Category.PARSE, fileName, stopwatch).peakMemoSize.accumulate(peakMemoSize);
+  }
+
+  private Stats measure(Category category, String name, Stopwatch stopwatch) {
+    long wallTime = ticker.read() - stopwatch.wallTime;
+    long cpuTime = cpuTime() - stopwatch.cpuTime;
+    long allocatedBytes = allocatedBytes() - stopwatch.allocatedBytes;
+
+    if (category.exclusive) {
+      CURRENT_PHASE.set(stopwatch.parent);
+      if (stopwatch.parent != null) {
+        stopwatch.parent.nestedWallTime += wallTime;
+        stopwatch.parent.nestedCpuTime += cpuTime;
+        stopwatch.parent.nestedAllocatedBytes += allocatedBytes;
+      }
+      wallTime -= stopwatch.nestedWallTime;
+      cpuTime -= stopwatch.nestedCpuTime;
+      allocatedBytes -= stopwatch.nestedAllocatedBytes;
+    }
+
+    Stats result = stats.get(category).computeIfAbsent(name, key -> new Stats());
+    result.add(wallTime, cpuTime, allocatedBytes);
+    return result;
+  }
+
+  private long cpuTime() {
+    return cpuTimeSupported ? threadBean.getCurrentThreadCpuTime() : 0;
+  }
+
+  private long allocatedBytes() {
+    return allocationSupported
+        ? ((com.sun.management.ThreadMXBean) threadBean)
+            .getThreadAllocatedBytes(Thread.currentThread().getId())
+        : 0;
+  }
+
+  /**
+   * Returns the names recorded in a category, from the most to the least wall time spent
+   *
+   * @param category the category
+   * @return the names recorded in the category, slowest first
+   */
+  public List<String> getSlowest(Category category) {
+    return sortedEntries(category).stream().map(Map.Entry::getKey).collect(Collectors.toList());
+  }
+
+  /**
+   * Writes a JSON report of every measurement that was recorded
+   *
+   * <p>Phases, executors and rules are reported in full, while only the slowest files and parses
+   * are reported. Each category is sorted from the most to the least wall time spent.
+   *
+   * @param reportFile the file to write the report to
+   */
+  public void writeReport(Path reportFile) {
+    Map<String, Object> report = new LinkedHashMap<>();
+    report.put("version", REPORT_VERSION);
+    report.put("cpuTimeSupported", cpuTimeSupported);
+    report.put("allocatedBytesSupported", allocationSupported);
+
+    for (Category category : Category.values()) {
+      List<Map<String, Object>> entries = new ArrayList<>();
+      for (Map.Entry<String, Stats> entry : sortedEntries(category)) {
+        if (category.perFile && entries.size() == MAX_REPORTED_FILES) {
+          break;
+        }
+        entries.add(entry.getValue().toJson(category, entry.getKey()));
+      }
+      report.put(category.reportKey, entries);
+    }
+
+    try {
+      Path parent = reportFile.toAbsolutePath().getParent();
+      if (parent != null) {
+        Files.createDirectories(parent);
+      }
+      Files.writeString(reportFile, JSONValue.toJSONString(report), StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private List<Map.Entry<String, Stats>> sortedEntries(Category category) {
+    return stats.get(category).entrySet().stream()
+        .sorted(
+            Comparator.comparingLong(
+                    (Map.Entry<String, Stats> entry) -> entry.getValue().wallTime())
+                .reversed()
+                .thenComparing(Map.Entry::getKey))
+        .collect(Collectors.toList());
+  }
+
+  /** The starting point of a measurement on a single thread. */
+  public static final class Stopwatch {
+    private static final Stopwatch NONE = new Stopwatch(0, 0, 0);
+
+    private final long wallTime;
+    private final long cpuTime;
+    private final long allocatedBytes;
+    private Stopwatch parent;
+    private long nestedWallTime;
+    private long nestedCpuTime;
+    private long nestedAllocatedBytes;
+
+    private Stopwatch(long wallTime, long cpuTime, long allocatedBytes) {
+      this.wallTime = wallTime;
+      this.cpuTime = cpuTime;
+      this.allocatedBytes = allocatedBytes;
+    }
+  }
+
+  private static final class Stats {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder wallTime = new LongAdder();
+    private final LongAdder cpuTime = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+    private final LongAccumulator peakMemoSize = new LongAccumulator(Math::max, 0);
+
+    private void add(long wallTime, long cpuTime, long allocatedBytes) {
+      this.count.increment();
+      this.wallTime.add(wallTime);
+      this.cpuTime.add(cpuTime);
+      this.allocatedBytes.add(allocatedBytes);
+    }
+
+    private long wallTime() {
+      return wallTime.sum();
+    }
+
+    private Map<String, Object> toJson(Category category, String name) {
+      Map<String, Object> json = new LinkedHashMap<>();
+      json.put("name", name);
+      json.put("count", count.sum());
+      json.put("wallTimeNanos", wallTime.sum());
+      json.put("cpuTimeNanos", cpuTime.sum());
+      json.put("allocatedBytes", allocatedBytes.sum());
+      if (category == Category.PARSE) {
+        json.put("peakMemoSize", peakMemoSize.get());
+      }
+      return json;
+    }
+  }
+}
@@ -0,0 +1,163 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.telemetry;
+
+import au.com.integradev.delphi.antlr.DelphiParser;
+import au.com.integradev.delphi.antlr.DelphiTokenStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import org.json.simple.JSONValue;
+
+/**
+ * Counts the backtracking done by the parser in each grammar rule and decision, across every file
+ * parsed during a scan.
+ *
+ * <p>A decision is identified by the syntactic predicate that the parser backtracks into, along
+ * with the rule and the DFA decision number that it was evaluated from. The report is sorted by the
+ * number of tokens consumed speculatively, so the hottest rules and decisions come first.
+ */
+public final class ParserProfile {
+  private static final int REPORT_VERSION = 1;
+
+  private final LongAdder parses = new LongAdder();
+  private final Map<String, Counts> rules = new ConcurrentHashMap<>();
+  private final Map<String, Counts> decisions = new ConcurrentHashMap<>();
+
+  /**
+   * Attaches a profiler to a parser, which records into this profile while the parser runs
+   *
+   * @param parser the parser to profile
+   * @param tokenStream the token stream that the parser reads from
+   */
+  public void attach(DelphiParser parser, DelphiTokenStream tokenStream) {
+    ParserProfiler profiler = new ParserProfiler(this, parser);
+    parser.setProfiler(profiler);
+    tokenStream.setProfiler(profiler);
+    parses.increment();
+  }
+
+  public long getParseCount() {
+    return parses.sum();
+  }
+
+  /**
+   * Returns the names of the profiled rules, from the most to the least speculatively consumed
+   * tokens
+   *
+   * @return the names of the profiled rules
+   */
+  public List<String> getHottestRules() {
+    return sorted(rules).stream().map(Map.Entry::getKey).collect(Collectors.toList());
+  }
+
+  Counts rule(String name) {
+    return rules.computeIfAbsent(name, key -> new Counts(name, name, 0));
+  }
+
+  Counts decision(String name, String rule, int decisionNumber) {
+    // The same predicate can be evaluated from decisions in different rules.
+    String key = name + " " + rule + " " + decisionNumber;
+    return decisions.computeIfAbsent(key, k -> new Counts(name, rule, decisionNumber));
+  }
+
+  /**
+   * Writes a JSON report of the counts for every rule and decision
+   *
+   * @param reportFile the file to write the report to
+   */
+  public void writeReport(Path reportFile) {
+    Map<String, Object> report = new LinkedHashMap<>();
+    report.put("version", REPORT_VERSION);
+    report.put("parses", parses.sum());
+    report.put("rules", toJson(rules, false));
+    report.put("decisions", toJson(decisions, true));
+
+    try {
+      Path parent = reportFile.toAbsolutePath().getParent();
+      if (parent != null) {
+        Files.createDirectories(parent);
+      }
+      Files.writeString(reportFile, JSONValue.toJSONString(report), StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static List<Map<String, Object>> toJson(Map<String, Counts> counts, boolean decision) {
+    List<Map<String, Object>> result = new ArrayList<>();
+    for (Map.Entry<String, Counts> entry : sorted(counts)) {
+      result.add(entry.getValue().toJson(decision));
+    }
+    return result;
+  }
+
+  private static List<Map.Entry<String, Counts>> sorted(Map<String, Counts> counts) {
+    return counts.entrySet().stream()
+        .sorted(
+            Comparator.comparingLong(
+                    (Map.Entry<String, Counts> entry) -> entry.getValue().speculativeTokens.sum())
+                .thenComparingLong(entry -> entry.getValue().backtracks.sum())
+                .reversed()
+                .thenComparing(Map.Entry::getKey))
+        .collect(Collectors.toList());
+  }
+
+  static final class Counts {
+    private final String name;
+    private final String rule;
+    private final int decisionNumber;
+    final LongAdder backtracks = new LongAdder();
+    final LongAdder speculativeTokens = new LongAdder();
+    final LongAdder memoHits = new LongAdder();
+    final LongAdder memoMisses = new LongAdder();
+
+    private Counts(String name, String rule, int decisionNumber) {
+      this.name = name;
+      this.rule = rule;
+      this.decisionNumber = decisionNumber;
+    }
+
+    private Map<String, Object> toJson(boolean decision) {
+      Map<String, Object> json = new LinkedHashMap<>();
+      json.put("name", name);
+      if (decision) {
+        json.put("rule", rule);
+        json.put("decision", decisionNumber);
+      }
+      json.put("backtracks", backtracks.sum());
+      json.put("speculativeTokens", speculativeTokens.sum());
+      if (!decision) {
+        json.put("memoHits", memoHits.sum());
+        json.put("memoMisses", memoMisses.sum());
+      }
+      return json;
+    }
+  }
+}
@@ -0,0 +1,179 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.telemetry;
+
+import au.com.integradev.delphi.antlr.DelphiParser;
+import au.com.integradev.delphi.telemetry.ParserProfile.Counts;
+import java.lang.StackWalker.StackFrame;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Instruments a single parse, recording its backtracking into a {@link ParserProfile}.
+ *
+ * <p>The generated parser enters a syntactic predicate by incrementing its backtracking level and
+ * then marking the token stream, and leaves it by rewinding to that marker. Marks made within a
+ * predicate at the same level, like DFA predictions, are always rewound before the predicate ends.
+ * This is enough to track the predicates that the parser is in from the token stream alone. The
+ * predicate and its rule are only looked up from the call stack when a predicate is entered.
+ */
+public final class ParserProfiler {
+  private static final String PARSER_CLASS = DelphiParser.class.getName();
+  private static final String DFA_CLASS_PREFIX = PARSER_CLASS + "$DFA";
+  private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+  private static final Map<Integer, String> RULE_NAMES = new ConcurrentHashMap<>();
+
+  private final ParserProfile profile;
+  private final DelphiParser parser;
+  private final Deque<Attempt> attempts = new ArrayDeque<>();
+
+  ParserProfiler(ParserProfile profile, DelphiParser parser) {
+    this.profile = profile;
+    this.parser = parser;
+  }
+
+  /**
+   * Called when the token stream is marked
+   *
+   * @param marker the marker
+   */
+  public void marked(int marker) {
+    int level = parser.getBacktrackingLevel();
+    if (level > attempts.size()) {
+      attempts.push(enterPredicate(marker));
+    } else if (level > 0) {
+      ++attempts.element().nestedMarks;
+    }
+  }
+
+  /**
+   * Called when the token stream is rewound to a marker
+   *
+   * @param marker the marker
+   */
+  public void rewound(int marker) {
+    Attempt attempt = attempts.peek();
+    if (attempt == null || parser.getBacktrackingLevel() != attempts.size()) {
+      return;
+    }
+    if (attempt.nestedMarks > 0) {
+      --attempt.nestedMarks;
+    } else if (attempt.marker == marker) {
+      attempts.pop();
+    }
+  }
+
+  /** Called when a token is consumed from the token stream */
+  public void consumed() {
+    Attempt attempt = attempts.peek();
+    if (attempt != null) {
+      attempt.rule.speculativeTokens.increment();
+      attempt.decision.speculativeTokens.increment();
+    }
+  }
+
+  /**
+   * Called when the parser looks up a memoized rule result
+   *
+   * @param ruleIndex the index of the rule
+   * @param hit whether the rule had already been parsed at the current position
+   */
+  public void memoLookup(int ruleIndex, boolean hit) {
+    String ruleName = RULE_NAMES.computeIfAbsent(ruleIndex, key -> findCallingRule());
+    Counts rule = profile.rule(ruleName);
+    if (hit) {
+      rule.memoHits.increment();
+    } else {
+      rule.memoMisses.increment();
+    }
+  }
+
+  private Attempt enterPredicate(int marker) {
+    List<StackFrame> frames =
+        STACK_WALKER.walk(
+            stream ->
+                stream
+                    .dropWhile(frame -> !isPredicate(frame))
+                    .limit(16)
+                    .collect(Collectors.toList()));
+
+    String predicate = "<unknown>";
+    String ruleName = "<unknown>";
+    int decisionNumber = 0;
+
+    if (!frames.isEmpty()) {
+      predicate = frames.get(0).getMethodName().replace("_Delphi", "");
+      for (StackFrame frame : frames.subList(1, frames.size())) {
+        if (decisionNumber == 0 && frame.getClassName().startsWith(DFA_CLASS_PREFIX)) {
+          decisionNumber =
+              Integer.parseInt(frame.getClassName().substring(DFA_CLASS_PREFIX.length()));
+        } else if (isRule(frame)) {
+          ruleName = frame.getMethodName();
+          break;
+        }
+      }
+    }
+
+    Counts rule = profile.rule(ruleName);
+    Counts decision = profile.decision(predicate, ruleName, decisionNumber);
+    rule.backtracks.increment();
+    decision.backtracks.increment();
+
+    return new Attempt(marker, rule, decision);
+  }
+
+  private static String findCallingRule() {
+    return STACK_WALKER.walk(
+        stream ->
+            stream
+                .filter(ParserProfiler::isRule)
+                .filter(frame -> !frame.getMethodName().equals("alreadyParsedRule"))
+                .findFirst()
+                .map(StackFrame::getMethodName)
+                .orElse("<unknown>"));
+  }
+
+  private static boolean isPredicate(StackFrame frame) {
+    return frame.getClassName().equals(PARSER_CLASS)
+        && frame.getMethodName().startsWith("synpred")
+        && frame.getMethodName().endsWith("_Delphi");
+  }
+
+  private static boolean isRule(StackFrame frame) {
+    return frame.getClassName().equals(PARSER_CLASS)
+        && !frame.getMethodName().startsWith("synpred");
+  }
+
+  private static final class Attempt {
+    private final int marker;
+    private final Counts rule;
+    private final Counts decision;
+    private int nestedMarks;
+
+    private Attempt(int marker, Counts rule, Counts decision) {
+      this.marker = marker;
+      this.rule = rule;
+      this.decision = decision;
+    }
+  }
+}
@@ -23,9 +23,9 @@ import static net.bytebuddy.implementation.MethodCall.invoke;
 import static net.bytebuddy.matcher.ElementMatchers.named;
 
 import java.lang.reflect.Constructor;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import net.bytebuddy.ByteBuddy;
 import net.bytebuddy.NamingStrategy;
 import net.bytebuddy.dynamic.DynamicType;
@@ -79,7 +79,7 @@ final class TypeAliasGenerator {
   private final Map<Class<? extends Type>, Class<? extends AliasType>> cache;
 
   public TypeAliasGenerator() {
-    this.cache = new HashMap<>();
+    this.cache = new ConcurrentHashMap<>();
   }
 
   public AliasType generate(String aliasImage, Type aliased, boolean strong) {
@@ -94,6 +94,14 @@ public class TypeFactoryImpl implements TypeFactory {
     createIntrinsicTypes();
   }
 
+  public Toolchain getToolchain() {
+    return toolchain;
+  }
+
+  public CompilerVersion getCompilerVersion() {
+    return compilerVersion;
+  }
+
   private boolean isReal48Bit() {
     // See: http://www.ebob42.eu/delphi4/language.htm
     return compilerVersion.compareTo(VERSION_4) < 0;
@@ -20,7 +20,9 @@ package au.com.integradev.delphi.type.generic;
 
 import au.com.integradev.delphi.type.TypeImpl;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.sonar.plugins.communitydelphi.api.type.Type;
 import org.sonar.plugins.communitydelphi.api.type.TypeSpecializationContext;
 
@@ -41,10 +43,12 @@ import org.sonar.plugins.communitydelphi.api.type.TypeSpecializationContext;
  *     Generics</a>
  */
 public abstract class GenerifiableTypeImpl extends TypeImpl {
+  private static final ThreadLocal<PendingSpecializations> PENDING =
+      ThreadLocal.withInitial(PendingSpecializations::new);
   private final Map<TypeSpecializationContext, GenerifiableTypeImpl> cache;
 
   protected GenerifiableTypeImpl() {
-    cache = new HashMap<>();
+    cache = new ConcurrentHashMap<>();
   }
 
   /**
@@ -61,15 +65,8 @@ public abstract class GenerifiableTypeImpl extends TypeImpl {
 
     GenerifiableTypeImpl result = cache.get(context);
     if (result == null) {
-      result = this.doSpecialization(context);
-      if (result.is(this)) {
-        result = this;
-      } else {
-        cache.put(context, result);
-        result.doAfterSpecialization(context);
-      }
+      result = PENDING.get().specialize(this, context);
     }
-
     return result;
   }
 
@@ -96,4 +93,55 @@ public abstract class GenerifiableTypeImpl extends TypeImpl {
   protected void doAfterSpecialization(TypeSpecializationContext context) {
     // Do nothing
   }
+
+  /**
+   * The specializations that are being built on a thread.
+   *
+   * <p>A specialized type is only half-built until {@link #doAfterSpecialization} has run, and the
+   * specializations that it triggers can refer back to it. These are kept on the thread that builds
+   * them, and are only published to the caches once the outermost specialization is finished, so
+   * other threads never see a half-built type. If two threads build the same specialization at
+   * once, the first one to publish it wins.
+   */
+  private static final class PendingSpecializations {
+    private final IdentityHashMap<
+            GenerifiableTypeImpl, Map<TypeSpecializationContext, GenerifiableTypeImpl>>
+        pending = new IdentityHashMap<>();
+    private int depth;
+
+    private GenerifiableTypeImpl specialize(
+        GenerifiableTypeImpl type, TypeSpecializationContext context) {
+      Map<TypeSpecializationContext, GenerifiableTypeImpl> specializations = pending.get(type);
+      GenerifiableTypeImpl result = specializations == null ? null : specializations.get(context);
+      if (result != null) {
+        return result;
+      }
+
+      result = type.doSpecialization(context);
+      if (result.is(type)) {
+        return type;
+      }
+
+      pending.computeIfAbsent(type, key -> new HashMap<>()).put(context, result);
+      ++depth;
+      boolean finished = false;
+      try {
+        result.doAfterSpecialization(context);
+        finished = true;
+      } finally {
+        if (--depth == 0) {
+          if (finished) {
+            publish();
+          }
+          pending.clear();
+        }
+      }
+
+      return depth == 0 ? type.cache.get(context) : result;
+    }
+
+    private void publish() {
+      pending.forEach((type, specializations) -> specializations.forEach(type.cache::putIfAbsent));
+    }
+  }
 }
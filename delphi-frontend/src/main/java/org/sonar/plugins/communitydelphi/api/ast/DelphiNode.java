@@ -70,6 +70,23 @@ public interface DelphiNode extends Node {
    */
   List<DelphiToken> getComments();
 
+  /**
+   * Returns comments directly before this node
+   *
+   * <p>These are the comments between this node and the previous token that isn't whitespace or a
+   * comment, except for comments that begin on the line where that token ends.
+   *
+   * @return comments directly before this node
+   */
+  List<DelphiToken> getLeadingComments();
+
+  /**
+   * Returns comments directly after this node that begin on the line where this node ends
+   *
+   * @return comments directly after this node on its last line
+   */
+  List<DelphiToken> getTrailingComments();
+
   /**
    * Allow a DelphiParserVisitor to visit this node and do some work
    *
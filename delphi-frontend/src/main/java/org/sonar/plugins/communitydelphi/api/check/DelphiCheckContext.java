@@ -72,6 +72,18 @@ public interface DelphiCheckContext {
    */
   TypeFactory getTypeFactory();
 
+  /**
+   * Returns whether a node is within test code
+   *
+   * <p>Test code is code within a type that descends from the {@code sonar.delphi.testType} type or
+   * is annotated with the {@code sonar.delphi.testAttribute} attribute, including the types nested
+   * inside it and the implementations of its routines.
+   *
+   * @param node the node
+   * @return true if the node is within test code
+   */
+  boolean isInTestCode(DelphiNode node);
+
   /**
    * Creates and returns a new issue builder
    *
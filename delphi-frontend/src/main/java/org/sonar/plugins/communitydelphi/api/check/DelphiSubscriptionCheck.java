@@ -0,0 +1,71 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.plugins.communitydelphi.api.check;
+
+import au.com.integradev.delphi.check.SubscriptionDispatcher;
+import java.util.Set;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiAst;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
+
+/**
+ * A check that subscribes to the node types that it handles, instead of visiting the whole AST.
+ *
+ * <p>Subscription checks are executed together in a single walk over the AST, where each node is
+ * only handed to the checks that subscribed to its type.
+ */
+public abstract class DelphiSubscriptionCheck extends DelphiCheck {
+  /**
+   * Returns the node types that this check subscribes to
+   *
+   * <p>Subtypes are matched as well, so subscribing to {@code StatementNode} will visit every kind
+   * of statement.
+   *
+   * @return the node types that this check subscribes to
+   */
+  public abstract Set<Class<? extends DelphiNode>> nodesToVisit();
+
+  /**
+   * Called when a node of a subscribed type is entered, before its children are visited
+   *
+   * @param node the node being visited
+   * @param context the check context
+   */
+  public void visitNode(DelphiNode node, DelphiCheckContext context) {
+    // do nothing
+  }
+
+  /**
+   * Called when a node of a subscribed type is left, after its children have been visited
+   *
+   * @param node the node being left
+   * @param context the check context
+   */
+  public void leaveNode(DelphiNode node, DelphiCheckContext context) {
+    // do nothing
+  }
+
+  @Override
+  public DelphiCheckContext visit(DelphiAst ast, DelphiCheckContext context) {
+    // Allows subscription checks to be executed on their own, as a regular visitor.
+    SubscriptionDispatcher dispatcher = new SubscriptionDispatcher();
+    dispatcher.subscribe(this, context);
+    dispatcher.walk(ast);
+    return context;
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.antlr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import au.com.integradev.delphi.file.SourceBuffer;
+import java.nio.charset.StandardCharsets;
+import org.antlr.runtime.CharStream;
+import org.junit.jupiter.api.Test;
+
+class DelphiFileStreamTest {
+  @Test
+  void testLookaheadShouldBeLowerCase() {
+    DelphiFileStream stream = stream("BeGiN");
+
+    assertThat(stream.LA(1)).isEqualTo('b');
+    assertThat(stream.LA(2)).isEqualTo('e');
+    assertThat(stream.LA(5)).isEqualTo('n');
+    assertThat(stream.LA(6)).isEqualTo(CharStream.EOF);
+    assertThat(stream.LA(-1)).isEqualTo(CharStream.EOF);
+
+    stream.consume();
+    stream.consume();
+
+    assertThat(stream.LA(-1)).isEqualTo('e');
+    assertThat(stream.LA(1)).isEqualTo('g');
+  }
+
+  @Test
+  void testTextShouldKeepItsOriginalCase() {
+    DelphiFileStream stream = stream("BeGiN");
+
+    assertThat(stream.substring(0, 4)).isEqualTo("BeGiN");
+  }
+
+  @Test
+  void testForkShouldStartAtTheGivenPosition() {
+    DelphiFileStream stream = stream("Foo\nBAR");
+
+    DelphiFileStream fork = stream.fork(4, 2, 0);
+
+    assertThat(fork.LA(1)).isEqualTo('b');
+    assertThat(fork.getLine()).isEqualTo(2);
+    assertThat(fork.substring(4, 6)).isEqualTo("BAR");
+    assertThat(stream.LA(1)).isEqualTo('f');
+  }
+
+  private static DelphiFileStream stream(String text) {
+    return new DelphiFileStream(
+        SourceBuffer.decode("Test.pas", text.getBytes(StandardCharsets.UTF_8), "UTF-8"));
+  }
+}
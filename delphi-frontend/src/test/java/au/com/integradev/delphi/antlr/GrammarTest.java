@@ -22,12 +22,15 @@
  */
 package au.com.integradev.delphi.antlr;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import au.com.integradev.delphi.antlr.ast.DelphiTreeAdaptor;
 import au.com.integradev.delphi.compiler.Platform;
 import au.com.integradev.delphi.file.DelphiFile;
 import au.com.integradev.delphi.file.DelphiFile.DelphiFileConstructionException;
 import au.com.integradev.delphi.file.DelphiFileConfig;
+import au.com.integradev.delphi.preprocessor.DelphiPreprocessor;
 import au.com.integradev.delphi.preprocessor.DelphiPreprocessorFactory;
 import au.com.integradev.delphi.preprocessor.search.SearchPath;
 import au.com.integradev.delphi.utils.DelphiUtils;
@@ -36,11 +39,13 @@ import au.com.integradev.delphi.utils.types.TypeFactoryUtils;
 import java.io.File;
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 
 class GrammarTest {
   private static final Logger LOG = LoggerFactory.getLogger(GrammarTest.class);
@@ -52,6 +57,41 @@ class GrammarTest {
     fileConfig = DelphiFileUtils.mockConfig();
   }
 
+  private ParseResult parse(String fileName, boolean pruneRuleMemo) throws Exception {
+    File file = DelphiUtils.getResource(BASE_DIR + fileName);
+    DelphiLexer lexer = new DelphiLexer(new DelphiFileStream(file.getAbsolutePath(), null));
+    DelphiPreprocessor preprocessor =
+        fileConfig.getPreprocessorFactory().createPreprocessor(lexer, fileConfig);
+    preprocessor.process();
+
+    DelphiParser parser = new DelphiParser(preprocessor.getTokenStream());
+    parser.setTreeAdaptor(new DelphiTreeAdaptor());
+    parser.setPruneRuleMemo(pruneRuleMemo);
+    DelphiNode root = (DelphiNode) parser.file().getTree();
+
+    return new ParseResult(describe(root), parser.getPeakMemoSize());
+  }
+
+  private static String describe(DelphiNode node) {
+    StringBuilder result = new StringBuilder();
+    result.append('(').append(node.getClass().getSimpleName());
+    result.append(' ').append(node.getToken().getImage()).append('@').append(node.getTokenIndex());
+    for (DelphiNode child : node.getChildren()) {
+      result.append(' ').append(describe(child));
+    }
+    return result.append(')').toString();
+  }
+
+  private static final class ParseResult {
+    private final String tree;
+    private final int peakMemoSize;
+
+    private ParseResult(String tree, int peakMemoSize) {
+      this.tree = tree;
+      this.peakMemoSize = peakMemoSize;
+    }
+  }
+
   private void assertParsed(String fileName) {
     try {
       String path = BASE_DIR + fileName;
@@ -62,6 +102,20 @@ class GrammarTest {
     }
   }
 
+  @Test
+  void testPruningTheRuleMemoShouldNotChangeTheParseTree() throws Exception {
+    for (String fileName : List.of("GrammarTest.pas", "MultipleAttributes.pas", "ListUtils.pas")) {
+      ParseResult unpruned = parse(fileName, false);
+      ParseResult pruned = parse(fileName, true);
+
+      assertThat(pruned.tree).as(fileName).isEqualTo(unpruned.tree);
+      assertThat(pruned.peakMemoSize).as(fileName).isLessThanOrEqualTo(unpruned.peakMemoSize);
+    }
+
+    assertThat(parse("GrammarTest.pas", true).peakMemoSize)
+        .isLessThan(parse("GrammarTest.pas", false).peakMemoSize);
+  }
+
   @Test
   void testEmptyBeginStatement() {
     assertParsed("EmptyProcs.pas");
@@ -0,0 +1,140 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.antlr;
+
+import au.com.integradev.delphi.compiler.Platform;
+import au.com.integradev.delphi.file.DelphiFile;
+import au.com.integradev.delphi.file.DelphiFile.DelphiFileConstructionException;
+import au.com.integradev.delphi.file.DelphiFileConfig;
+import au.com.integradev.delphi.preprocessor.DelphiPreprocessorFactory;
+import au.com.integradev.delphi.preprocessor.search.SearchPath;
+import au.com.integradev.delphi.telemetry.AnalysisTelemetry;
+import au.com.integradev.delphi.telemetry.ParserProfile;
+import au.com.integradev.delphi.utils.types.TypeFactoryUtils;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Benchmarks the parser over a corpus of sample units, and profiles the backtracking that it does.
+ *
+ * <p>Each iteration parses every unit in the corpus without profiling, which is what the reported
+ * times are measured from. The corpus is then parsed once more with the parser profiler attached,
+ * and the profile is written to a report.
+ *
+ * <p>Usage: {@code ParserBenchmark <corpus directory> [report file] [iterations]}
+ *
+ * <p>The {@code parser-benchmark} profile runs it from Maven, with the report written to the target
+ * directory by default:
+ *
+ * <pre>{@code
+ * mvn -pl delphi-frontend -Pparser-benchmark process-test-classes -Dbenchmark.corpus=<dir>
+ * }</pre>
+ */
+public final class ParserBenchmark {
+  private static final Logger LOG = LoggerFactory.getLogger(ParserBenchmark.class);
+
+  private final List<Path> units;
+  private final DelphiPreprocessorFactory preprocessorFactory;
+  private final SearchPath searchPath;
+
+  ParserBenchmark(Path corpus) throws IOException {
+    try (Stream<Path> files = Files.walk(corpus)) {
+      this.units =
+          files
+              .filter(Files::isRegularFile)
+              .filter(file -> file.getFileName().toString().toLowerCase().endsWith(".pas"))
+              .sorted()
+              .collect(Collectors.toList());
+    }
+    this.preprocessorFactory = new DelphiPreprocessorFactory(Platform.WINDOWS);
+    this.searchPath = SearchPath.create(List.of(corpus));
+  }
+
+  List<Path> getUnits() {
+    return units;
+  }
+
+  /**
+   * Parses every unit in the corpus
+   *
+   * @param parserProfile the profile to record the backtracking into, or null to parse without
+   *     profiling
+   * @return the number of units that were parsed successfully
+   */
+  int parse(@Nullable ParserProfile parserProfile) {
+    DelphiFileConfig config =
+        DelphiFile.createConfig(
+            null,
+            preprocessorFactory,
+            TypeFactoryUtils.defaultFactory(),
+            searchPath,
+            Collections.emptySet(),
+            false,
+            AnalysisTelemetry.disabled(),
+            parserProfile);
+
+    int parsed = 0;
+    for (Path unit : units) {
+      try {
+        DelphiFile.from(unit.toFile(), config);
+        ++parsed;
+      } catch (DelphiFileConstructionException e) {
+        LOG.debug("Failed to parse {}", unit, e);
+      }
+    }
+    return parsed;
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length == 0) {
+      LOG.error("Usage: ParserBenchmark <corpus directory> [report file] [iterations]");
+      return;
+    }
+
+    Path corpus = Path.of(args[0]);
+    Path reportFile = Path.of(args.length > 1 ? args[1] : "parser-profile.json");
+    int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+    ParserBenchmark benchmark = new ParserBenchmark(corpus);
+    LOG.info("Parsing {} units from {}", benchmark.getUnits().size(), corpus);
+
+    for (int i = 1; i <= iterations; ++i) {
+      long start = System.nanoTime();
+      int parsed = benchmark.parse(null);
+      long elapsed = System.nanoTime() - start;
+      LOG.info("Iteration {}: parsed {} units in {} ms", i, parsed, elapsed / 1_000_000);
+    }
+
+    ParserProfile parserProfile = new ParserProfile();
+    benchmark.parse(parserProfile);
+    parserProfile.writeReport(reportFile);
+
+    List<String> hottestRules = parserProfile.getHottestRules();
+    LOG.info("Hottest rules: {}", hottestRules.subList(0, Math.min(10, hottestRules.size())));
+    LOG.info("Parser profile report written to {}", reportFile);
+  }
+}
@@ -24,16 +24,26 @@ import static au.com.integradev.delphi.antlr.ast.DelphiNodeUtils.IMPLEMENT_ACCEP
 import static au.com.integradev.delphi.antlr.ast.DelphiNodeUtils.NODE_IMPL_PACKAGE;
 import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.classes;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 
+import au.com.integradev.delphi.antlr.ast.node.MutableDelphiNode;
 import au.com.integradev.delphi.antlr.ast.visitors.DelphiParserVisitor;
+import au.com.integradev.delphi.file.DelphiFile;
+import au.com.integradev.delphi.utils.DelphiUtils;
+import au.com.integradev.delphi.utils.files.DelphiFileUtils;
 import com.tngtech.archunit.core.domain.JavaModifier;
+import java.io.File;
 import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.Optional;
 import org.junit.jupiter.api.Test;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiAst;
 import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
+import org.sonar.plugins.communitydelphi.api.ast.FileHeaderNode;
+import org.sonar.plugins.communitydelphi.api.ast.InterfaceSectionNode;
+import org.sonar.plugins.communitydelphi.api.symbol.scope.DelphiScope;
 
 class DelphiNodeTest {
   @Test
@@ -95,6 +105,40 @@ class DelphiNodeTest {
     }
   }
 
+  @Test
+  void testNodesShouldBeLinkedToTheirAst() {
+    DelphiAst ast = parse();
+
+    assertThat(ast.findDescendantsOfType(DelphiNode.class)).allMatch(node -> node.getAst() == ast);
+  }
+
+  @Test
+  void testLinkedScopesShouldFollowScopesSetAfterwards() {
+    DelphiAstImpl ast = (DelphiAstImpl) parse();
+    DelphiScope fileScope = mock(DelphiScope.class);
+    DelphiScope headerScope = mock(DelphiScope.class);
+    FileHeaderNode header = ast.getFileHeader();
+    DelphiNode headerName = header.getNameNode();
+
+    ast.setScope(fileScope);
+    ast.linkScopes();
+
+    assertThat(ast.getScope()).isSameAs(fileScope);
+    assertThat(headerName.getScope()).isSameAs(fileScope);
+
+    ((MutableDelphiNode) header).setScope(headerScope);
+
+    assertThat(header.getScope()).isSameAs(headerScope);
+    assertThat(headerName.getScope()).isSameAs(headerScope);
+    assertThat(ast.getFirstDescendantOfType(InterfaceSectionNode.class).getScope())
+        .isSameAs(fileScope);
+  }
+
+  private static DelphiAst parse() {
+    File sourceFile = DelphiUtils.getResource("/au/com/integradev/delphi/file/Simple.pas");
+    return DelphiFile.from(sourceFile, DelphiFileUtils.mockConfig()).getAst();
+  }
+
   @Test
   void testAllNodesHaveTokenConstructor() {
     classes()
@@ -22,10 +22,12 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import au.com.integradev.delphi.antlr.DelphiLexer;
+import au.com.integradev.delphi.antlr.ast.node.DelphiNodeImpl;
 import au.com.integradev.delphi.antlr.ast.node.RoutineDeclarationNodeImpl;
+import au.com.integradev.delphi.antlr.ast.visitors.DelphiParserVisitor;
+import java.util.List;
 import org.antlr.runtime.CommonToken;
 import org.antlr.runtime.Token;
-import org.antlr.runtime.tree.Tree;
 import org.junit.jupiter.api.Test;
 import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.ast.RoutineDeclarationNode;
@@ -60,6 +62,58 @@ class DelphiTreeAdaptorTest {
     assertThat(routineNode).isNotEqualTo(dupNode).isInstanceOf(dupNode.getClass());
   }
 
+  @Test
+  void testChildrenShouldBeAnUnmodifiableViewThatIsNotReallocated() {
+    DelphiNode node = (DelphiNode) adaptor.create(token(0));
+    adaptor.addChild(node, adaptor.create(token(1)));
+    adaptor.addChild(node, adaptor.create(token(2)));
+    adaptor.addChild(node, adaptor.create(token(3)));
+
+    List<DelphiNode> children = node.getChildren();
+    assertThat(node.getChildren()).isSameAs(children).hasSize(3);
+    assertThat(node.getChild(2)).isSameAs(children.get(2));
+    assertThat(node.getChild(3)).isNull();
+    assertThatThrownBy(() -> children.add(node)).isInstanceOf(UnsupportedOperationException.class);
+
+    ((DelphiNodeImpl) node).trimChildren();
+    assertThat(node.getChildren())
+        .hasSize(3)
+        .extracting(DelphiNode::getChildIndex)
+        .containsExactly(0, 1, 2);
+  }
+
+  @Test
+  void testTokenBoundariesShouldShareTheTokensOfNodes() {
+    Token first = token(0);
+    Token last = token(1);
+    DelphiNode node = (DelphiNode) adaptor.create(token(2));
+    DelphiNode firstChild = (DelphiNode) adaptor.create(first);
+    DelphiNode lastChild = (DelphiNode) adaptor.create(last);
+    adaptor.addChild(node, firstChild);
+    adaptor.addChild(node, lastChild);
+
+    adaptor.setTokenBoundaries(node, first, last);
+
+    assertThat(node.getFirstToken()).isSameAs(firstChild.getToken());
+    assertThat(node.getLastToken()).isSameAs(lastChild.getToken());
+  }
+
+  @Test
+  void testTokenBoundariesShouldShareTokensWithLargeIndices() {
+    Token first = token(1_000_000);
+    Token last = token(5_000_000);
+    DelphiNode node = (DelphiNode) adaptor.create(token(2));
+    DelphiNode firstChild = (DelphiNode) adaptor.create(first);
+    DelphiNode lastChild = (DelphiNode) adaptor.create(last);
+    adaptor.addChild(node, firstChild);
+    adaptor.addChild(node, lastChild);
+
+    adaptor.setTokenBoundaries(node, first, last);
+
+    assertThat(node.getFirstToken()).isSameAs(firstChild.getToken());
+    assertThat(node.getLastToken()).isSameAs(lastChild.getToken());
+  }
+
   @Test
   void testBecomeRoot() {
     Object oldRoot = adaptor.create(Token.INVALID_TOKEN);
@@ -95,7 +149,8 @@ class DelphiTreeAdaptorTest {
 
   @Test
   void testDupNodeInstantiationError() {
-    assertThatThrownBy(() -> adaptor.dupNode(Tree.INVALID_NODE)).isInstanceOf(AssertionError.class);
+    DelphiNode node = new NodeWithoutTokenConstructor();
+    assertThatThrownBy(() -> adaptor.dupNode(node)).isInstanceOf(AssertionError.class);
   }
 
   @Test
@@ -177,4 +232,21 @@ class DelphiTreeAdaptorTest {
     assertThatThrownBy(() -> adaptor.replaceChildren(null, 0, 0, null))
         .isInstanceOf(UnsupportedOperationException.class);
   }
+
+  private static Token token(int index) {
+    CommonToken token = new CommonToken(DelphiLexer.TkIdentifier, "Foo" + index);
+    token.setTokenIndex(index);
+    return token;
+  }
+
+  private static final class NodeWithoutTokenConstructor extends DelphiNodeImpl {
+    private NodeWithoutTokenConstructor() {
+      super(DelphiLexer.TkIdentifier);
+    }
+
+    @Override
+    public <T> T accept(DelphiParserVisitor<T> visitor, T data) {
+      return data;
+    }
+  }
 }
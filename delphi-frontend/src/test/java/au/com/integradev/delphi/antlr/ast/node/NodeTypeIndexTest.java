@@ -0,0 +1,107 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.antlr.ast.node;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import au.com.integradev.delphi.antlr.ast.DelphiAstImpl;
+import au.com.integradev.delphi.file.DelphiFile;
+import au.com.integradev.delphi.utils.DelphiUtils;
+import au.com.integradev.delphi.utils.files.DelphiFileUtils;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
+import org.sonar.plugins.communitydelphi.api.ast.ExpressionNode;
+import org.sonar.plugins.communitydelphi.api.ast.IdentifierNode;
+import org.sonar.plugins.communitydelphi.api.ast.NameReferenceNode;
+import org.sonar.plugins.communitydelphi.api.ast.RoutineImplementationNode;
+import org.sonar.plugins.communitydelphi.api.ast.StatementNode;
+
+class NodeTypeIndexTest {
+  private static final List<Class<?>> TYPES =
+      List.of(
+          DelphiNode.class,
+          StatementNode.class,
+          ExpressionNode.class,
+          NameReferenceNode.class,
+          IdentifierNode.class,
+          RoutineImplementationNode.class,
+          String.class);
+
+  @Test
+  void testNodesShouldBeNumberedInPreOrder() {
+    DelphiAstImpl ast = parse();
+    ast.getNodeTypeIndex();
+
+    List<DelphiNode> nodes = walk(ast, DelphiNode.class);
+    assertThat(((DelphiNodeImpl) ast).preOrder).isZero();
+    assertThat(((DelphiNodeImpl) ast).lastDescendant).isEqualTo(nodes.size());
+    for (int i = 0; i < nodes.size(); ++i) {
+      DelphiNodeImpl node = (DelphiNodeImpl) nodes.get(i);
+      assertThat(node.preOrder).isEqualTo(i + 1);
+      assertThat(node.lastDescendant - node.preOrder)
+          .isEqualTo(walk(node, DelphiNode.class).size());
+    }
+  }
+
+  @Test
+  void testQueriesShouldMatchAWalkOfTheSubtree() {
+    DelphiAstImpl ast = parse();
+    NodeTypeIndex index = ast.getNodeTypeIndex();
+
+    List<DelphiNode> nodes = new ArrayList<>(walk(ast, DelphiNode.class));
+    nodes.add(ast);
+    for (DelphiNode node : nodes) {
+      for (Class<?> type : TYPES) {
+        assertQueriesMatchAWalk(index, (DelphiNodeImpl) node, type);
+      }
+    }
+  }
+
+  private static <T> void assertQueriesMatchAWalk(
+      NodeTypeIndex index, DelphiNodeImpl node, Class<T> type) {
+    List<T> expected = walk(node, type);
+    assertThat(index.findDescendantsOfType(node, type)).containsExactlyElementsOf(expected);
+    assertThat(index.getFirstDescendantOfType(node, type))
+        .isEqualTo(expected.isEmpty() ? null : expected.get(0));
+    assertThat(node.findDescendantsOfType(type)).containsExactlyElementsOf(expected);
+    assertThat(node.getFirstDescendantOfType(type))
+        .isEqualTo(expected.isEmpty() ? null : expected.get(0));
+  }
+
+  private static DelphiAstImpl parse() {
+    DelphiFile file =
+        DelphiFile.from(
+            DelphiUtils.getResource("/au/com/integradev/delphi/grammar/GrammarTest.pas"),
+            DelphiFileUtils.mockConfig());
+    return (DelphiAstImpl) file.getAst();
+  }
+
+  private static <T> List<T> walk(DelphiNode node, Class<T> type) {
+    List<T> result = new ArrayList<>();
+    for (DelphiNode child : node.getChildren()) {
+      if (type.isInstance(child)) {
+        result.add(type.cast(child));
+      }
+      result.addAll(walk(child, type));
+    }
+    return result;
+  }
+}
@@ -0,0 +1,193 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.antlr.ast.token;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import au.com.integradev.delphi.antlr.DelphiFileStream;
+import au.com.integradev.delphi.antlr.DelphiLexer;
+import au.com.integradev.delphi.antlr.DelphiTokenStream;
+import au.com.integradev.delphi.file.SourceBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.antlr.runtime.Token;
+import org.junit.jupiter.api.Test;
+import org.sonar.plugins.communitydelphi.api.token.DelphiToken;
+import org.sonar.plugins.communitydelphi.api.token.DelphiTokenType;
+
+class TokenTableTest {
+  private static final String SOURCE =
+      "unit Foo;\r\n"
+          + "{ A multiline\r\n  comment }\n"
+          + "interface\n"
+          + "{$IFDEF BAR\r  BAZ}\n"
+          + "const X = 'Flarp'; // Trailing\n"
+          + "implementation\n"
+          + "end.";
+
+  @Test
+  void testTokensShouldMatchTheAntlrTokens() {
+    SourceBuffer source = source(SOURCE);
+    List<Token> antlrTokens = lex(source);
+    TokenTable table = TokenTable.create(source.getData(), antlrTokens);
+
+    // The EOF token is left out of the table
+    assertThat(table.size()).isEqualTo(antlrTokens.size() - 1);
+
+    for (int i = 0; i < table.size(); ++i) {
+      DelphiToken expected = new DelphiTokenImpl(antlrTokens.get(i));
+      DelphiToken actual = table.get(i);
+
+      assertThat(actual.getType()).isEqualTo(expected.getType());
+      assertThat(actual.getImage()).isEqualTo(expected.getImage());
+      assertThat(actual.getIndex()).isEqualTo(expected.getIndex());
+      assertThat(actual.getBeginLine()).isEqualTo(expected.getBeginLine());
+      assertThat(actual.getBeginColumn()).isEqualTo(expected.getBeginColumn());
+      assertThat(actual.getEndLine()).isEqualTo(expected.getEndLine());
+      assertThat(actual.getEndColumn()).isEqualTo(expected.getEndColumn());
+      assertThat(actual.isKeyword()).isEqualTo(expected.isKeyword());
+      assertThat(actual.isImaginary()).isEqualTo(expected.isImaginary());
+      assertThat(actual.isEof()).isFalse();
+      assertThat(actual.isNil()).isFalse();
+    }
+  }
+
+  @Test
+  void testCommentsShouldBeAViewOfTheCommentTokens() {
+    SourceBuffer source = source(SOURCE);
+    TokenTable table = TokenTable.create(source.getData(), lex(source));
+
+    assertThat(table.getComments())
+        .extracting(DelphiToken::getImage)
+        .containsExactly("{ A multiline\r\n  comment }", "// Trailing");
+    assertThat(table.getComments()).allMatch(DelphiToken::isComment);
+    assertThat(table.getComments().get(0).getEndLine()).isEqualTo(3);
+    assertThat(table.getComments().get(0).getEndColumn()).isEqualTo(11);
+  }
+
+  @Test
+  void testViewsOfTheSameTokenShouldBeEqual() {
+    SourceBuffer source = source(SOURCE);
+    TokenTable table = TokenTable.create(source.getData(), lex(source));
+
+    assertThat(table.get(0)).isEqualTo(table.asList().get(0)).hasSameHashCodeAs(table.get(0));
+    assertThat(table.get(0)).isNotEqualTo(table.get(1));
+  }
+
+  @Test
+  void testCursorShouldWalkEveryToken() {
+    SourceBuffer source = source(SOURCE);
+    TokenTable table = TokenTable.create(source.getData(), lex(source));
+    TokenTable.Cursor cursor = table.cursor();
+
+    assertThatThrownBy(cursor::getImage).isInstanceOf(IllegalStateException.class);
+
+    int count = 0;
+    DelphiToken frozen = null;
+    while (cursor.next()) {
+      assertThat(cursor.getImage()).isEqualTo(table.getImage(count));
+      if (count == 0) {
+        frozen = cursor.freeze();
+      }
+      ++count;
+    }
+
+    assertThat(count).isEqualTo(table.size());
+    assertThat(cursor.next()).isFalse();
+    assertThat(frozen).isNotNull();
+    assertThat(frozen.getType()).isEqualTo(DelphiTokenType.UNIT);
+  }
+
+  @Test
+  void testImageCharactersShouldBeReadWithoutSlicing() {
+    SourceBuffer source = source(SOURCE);
+    TokenTable table = TokenTable.create(source.getData(), lex(source));
+
+    assertThat(table.getImageLength(0)).isEqualTo(4);
+    assertThat(table.getImageChar(0, 0)).isEqualTo('u');
+    assertThatThrownBy(() -> table.getImageChar(0, 4))
+        .isInstanceOf(IndexOutOfBoundsException.class);
+  }
+
+  @Test
+  void testCommentsBetweenTokensShouldBeASubListOfTheComments() {
+    SourceBuffer source = source(SOURCE);
+    TokenTable table = TokenTable.create(source.getData(), lex(source));
+    int unit = index(table, "unit", 0);
+    int interfaceKeyword = index(table, "interface", 0);
+    int end = index(table, "end", 0);
+
+    assertThat(table.getCommentsBetween(unit, end))
+        .extracting(DelphiToken::getImage)
+        .containsExactly("{ A multiline\r\n  comment }", "// Trailing");
+    assertThat(table.getCommentsBetween(interfaceKeyword, end))
+        .extracting(DelphiToken::getImage)
+        .containsExactly("// Trailing");
+    assertThat(table.getCommentsBetween(end, unit)).isEmpty();
+    assertThat(table.getCommentsBetween(unit, end).subList(1, 2))
+        .extracting(DelphiToken::getImage)
+        .containsExactly("// Trailing");
+  }
+
+  @Test
+  void testLeadingCommentsShouldNotIncludeTrailingCommentsOfThePreviousToken() {
+    SourceBuffer source = source(SOURCE);
+    TokenTable table = TokenTable.create(source.getData(), lex(source));
+
+    assertThat(table.getLeadingComments(index(table, "interface", 0)))
+        .extracting(DelphiToken::getImage)
+        .containsExactly("{ A multiline\r\n  comment }");
+    assertThat(table.getLeadingComments(index(table, "implementation", 0))).isEmpty();
+    assertThat(table.getLeadingComments(index(table, "unit", 0))).isEmpty();
+  }
+
+  @Test
+  void testTrailingCommentsShouldBeginOnTheLastLineOfTheToken() {
+    SourceBuffer source = source(SOURCE);
+    TokenTable table = TokenTable.create(source.getData(), lex(source));
+
+    assertThat(table.getTrailingComments(index(table, ";", 1)))
+        .extracting(DelphiToken::getImage)
+        .containsExactly("// Trailing");
+    assertThat(table.getTrailingComments(index(table, ";", 0))).isEmpty();
+    assertThat(table.getTrailingComments(index(table, "end", 0))).isEmpty();
+  }
+
+  private static int index(TokenTable table, String image, int occurrence) {
+    int count = 0;
+    for (int i = 0; i < table.size(); ++i) {
+      if (table.getImage(i).equals(image) && count++ == occurrence) {
+        return table.getIndex(i);
+      }
+    }
+    throw new AssertionError("No token: " + image);
+  }
+
+  private static SourceBuffer source(String text) {
+    return SourceBuffer.decode("Test.pas", text.getBytes(StandardCharsets.UTF_8), "UTF-8");
+  }
+
+  private static List<Token> lex(SourceBuffer source) {
+    DelphiTokenStream tokenStream =
+        new DelphiTokenStream(new DelphiLexer(new DelphiFileStream(source)));
+    tokenStream.fill();
+    return tokenStream.getTokens();
+  }
+}
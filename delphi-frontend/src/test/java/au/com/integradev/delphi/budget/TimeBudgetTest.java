@@ -0,0 +1,134 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.budget;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import au.com.integradev.delphi.utils.ManualTicker;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class TimeBudgetTest {
+  private final ManualTicker ticker = new ManualTicker();
+
+  @Test
+  void testUnlimitedBudgetShouldNotBeInstalled() {
+    TimeBudget budget = TimeBudget.start(Duration.ZERO, ticker);
+    try {
+      assertThat(TimeBudget.current()).isNull();
+      assertThatCode(TimeBudget::ensureWithinBudget).doesNotThrowAnyException();
+      assertThatCode(TimeBudget::checkpoint).doesNotThrowAnyException();
+    } finally {
+      budget.close();
+    }
+  }
+
+  @Test
+  void testBudgetShouldNotBeExceededWithinItsLimit() {
+    TimeBudget budget = TimeBudget.start(Duration.ofSeconds(1), ticker);
+    try {
+      assertThat(TimeBudget.current()).isSameAs(budget);
+      for (int i = 0; i < 10_000; ++i) {
+        TimeBudget.checkpoint();
+      }
+      ticker.advance(Duration.ofSeconds(1));
+      TimeBudget.ensureWithinBudget();
+      assertThat(budget.isExceeded()).isFalse();
+      assertThat(budget.getExceededPhase()).isNull();
+    } finally {
+      budget.close();
+    }
+    assertThat(TimeBudget.current()).isNull();
+  }
+
+  @Test
+  void testExceededBudgetShouldFailEveryCheckpoint() {
+    TimeBudget budget = TimeBudget.start(Duration.ofSeconds(1), ticker);
+    try {
+      TimeBudget.enterPhase("Parsing");
+      ticker.advance(Duration.ofMillis(1001));
+
+      assertThatThrownBy(TimeBudget::ensureWithinBudget)
+          .isInstanceOf(TimeBudgetExceededException.class)
+          .hasMessage("Time budget of 1s exceeded during Parsing");
+
+      TimeBudget.enterPhase("Checks");
+      assertThatThrownBy(TimeBudget::checkpoint)
+          .isInstanceOf(TimeBudgetExceededException.class)
+          .extracting(e -> ((TimeBudgetExceededException) e).getPhase())
+          .isEqualTo("Parsing");
+      assertThat(budget.isExceeded()).isTrue();
+      assertThat(budget.getExceededPhase()).isEqualTo("Parsing");
+    } finally {
+      budget.close();
+    }
+  }
+
+  @Test
+  void testCheckpointsShouldOnlyReadTheClockPeriodically() {
+    TimeBudget budget = TimeBudget.start(Duration.ofSeconds(1), ticker);
+    try {
+      ticker.advance(Duration.ofSeconds(2));
+      for (int i = 0; i < 1023; ++i) {
+        TimeBudget.checkpoint();
+      }
+      assertThat(budget.isExceeded()).isFalse();
+
+      assertThatThrownBy(TimeBudget::checkpoint).isInstanceOf(TimeBudgetExceededException.class);
+      assertThat(budget.isExceeded()).isTrue();
+    } finally {
+      budget.close();
+    }
+  }
+
+  @Test
+  void testPausedBudgetShouldNotBeCharged() {
+    TimeBudget budget = TimeBudget.start(Duration.ofSeconds(1), ticker);
+    try {
+      TimeBudget.Pause pause = TimeBudget.pause();
+      assertThat(TimeBudget.current()).isNull();
+      ticker.advance(Duration.ofSeconds(5));
+      pause.close();
+
+      assertThat(TimeBudget.current()).isSameAs(budget);
+      assertThatCode(TimeBudget::ensureWithinBudget).doesNotThrowAnyException();
+
+      ticker.advance(Duration.ofSeconds(2));
+      assertThatThrownBy(TimeBudget::ensureWithinBudget)
+          .isInstanceOf(TimeBudgetExceededException.class);
+    } finally {
+      budget.close();
+    }
+  }
+
+  @Test
+  void testClosingNestedBudgetShouldRestoreOuterBudget() {
+    TimeBudget outer = TimeBudget.start(Duration.ofHours(1), ticker);
+    try {
+      TimeBudget inner = TimeBudget.start(Duration.ofMinutes(1), ticker);
+      assertThat(TimeBudget.current()).isSameAs(inner);
+      inner.close();
+      assertThat(TimeBudget.current()).isSameAs(outer);
+    } finally {
+      outer.close();
+    }
+  }
+}
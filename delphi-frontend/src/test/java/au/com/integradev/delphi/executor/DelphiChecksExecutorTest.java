@@ -30,6 +30,7 @@ import au.com.integradev.delphi.check.MasterCheckRegistrar;
 import au.com.integradev.delphi.compiler.Toolchain;
 import au.com.integradev.delphi.file.DelphiFile.DelphiInputFile;
 import au.com.integradev.delphi.msbuild.DelphiProjectHelper;
+import au.com.integradev.delphi.telemetry.AnalysisTelemetry;
 import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -38,7 +39,9 @@ import org.sonar.api.SonarRuntime;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.rule.RuleScope;
 import org.sonar.plugins.communitydelphi.api.ast.DelphiAst;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
 import org.sonar.plugins.communitydelphi.api.check.DelphiCheck;
+import org.sonar.plugins.communitydelphi.api.check.DelphiSubscriptionCheck;
 
 class DelphiChecksExecutorTest {
   private DelphiChecksExecutor executor;
@@ -61,6 +64,7 @@ class DelphiChecksExecutorTest {
   @Test
   void testExecute() {
     Executor.Context context = mock();
+    when(context.telemetry()).thenReturn(AnalysisTelemetry.disabled());
 
     DelphiCheck mainCheck = mockDelphiCheck(RuleScope.MAIN);
     DelphiCheck testCheck = mockDelphiCheck(RuleScope.TEST);
@@ -83,6 +87,33 @@ class DelphiChecksExecutorTest {
     verify(allCheck, times(1)).visit(eq(testFile.getAst()), any());
   }
 
+  @Test
+  void testSubscriptionChecksShouldBeDispatchedInsteadOfVisited() {
+    Executor.Context context = mock();
+    when(context.telemetry()).thenReturn(AnalysisTelemetry.disabled());
+
+    DelphiSubscriptionCheck subscribedCheck = mock();
+    when(subscribedCheck.nodesToVisit()).thenReturn(Set.of(DelphiAst.class));
+    DelphiSubscriptionCheck unsubscribedCheck = mock();
+    when(unsubscribedCheck.nodesToVisit()).thenReturn(Set.of(DelphiNodeStub.class));
+    when(checkRegistrar.getChecks(RuleScope.ALL))
+        .thenReturn(Set.of(subscribedCheck, unsubscribedCheck));
+
+    DelphiInputFile mainFile = mockDelphiFile(InputFile.Type.MAIN);
+
+    executor.execute(context, mainFile);
+
+    verify(subscribedCheck, times(1)).start(any());
+    verify(subscribedCheck, times(1)).visitNode(eq(mainFile.getAst()), any());
+    verify(subscribedCheck, times(1)).leaveNode(eq(mainFile.getAst()), any());
+    verify(subscribedCheck, times(1)).end(any());
+    verify(subscribedCheck, never()).visit(any(DelphiAst.class), any());
+
+    verify(unsubscribedCheck, times(1)).start(any());
+    verify(unsubscribedCheck, never()).visitNode(any(), any());
+    verify(unsubscribedCheck, times(1)).end(any());
+  }
+
   private DelphiCheck mockDelphiCheck(RuleScope scope) {
     DelphiCheck check = mock();
     when(checkRegistrar.getChecks(scope)).thenReturn(Set.of(check));
@@ -101,4 +132,6 @@ class DelphiChecksExecutorTest {
 
     return file;
   }
+
+  private interface DelphiNodeStub extends DelphiNode {}
 }
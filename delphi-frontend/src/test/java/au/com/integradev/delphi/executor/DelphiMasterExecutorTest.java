@@ -18,8 +18,10 @@
  */
 package au.com.integradev.delphi.executor;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
@@ -29,19 +31,22 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import au.com.integradev.delphi.DelphiProperties;
+import au.com.integradev.delphi.budget.TimeBudget;
 import au.com.integradev.delphi.compiler.Platform;
 import au.com.integradev.delphi.core.Delphi;
-import au.com.integradev.delphi.executor.Executor.Context;
 import au.com.integradev.delphi.file.DelphiFile.DelphiInputFile;
 import au.com.integradev.delphi.file.DelphiFileConfig;
 import au.com.integradev.delphi.preprocessor.DelphiPreprocessorFactory;
 import au.com.integradev.delphi.preprocessor.search.SearchPath;
+import au.com.integradev.delphi.telemetry.AnalysisTelemetry;
 import au.com.integradev.delphi.type.factory.TypeFactoryImpl;
+import au.com.integradev.delphi.utils.ManualTicker;
 import java.io.File;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.Set;
 import org.apache.commons.io.FileUtils;
@@ -87,7 +92,7 @@ class DelphiMasterExecutorTest {
 
   @Test
   void testRegularExceptionShouldNotAbortExecution() {
-    ExecutorContext context = mock(ExecutorContext.class);
+    ExecutorContext context = mockContext();
     Executor brokenExecutor = mock(Executor.class);
     Executor workingExecutor = mock(Executor.class);
     DelphiMasterExecutor executor = new DelphiMasterExecutor(brokenExecutor, workingExecutor);
@@ -100,7 +105,7 @@ class DelphiMasterExecutorTest {
 
   @Test
   void testFatalExecutorErrorShouldAbortExecution() {
-    ExecutorContext context = mock(ExecutorContext.class);
+    ExecutorContext context = mockContext();
     Executor brokenExecutor = mock(Executor.class);
     Executor workingExecutor = mock(Executor.class);
     DelphiMasterExecutor executor = new DelphiMasterExecutor(brokenExecutor, workingExecutor);
@@ -122,7 +127,7 @@ class DelphiMasterExecutorTest {
     when(executor.dependencies()).thenReturn(Set.of(dependency.getClass()));
 
     DelphiMasterExecutor masterExecutor = new DelphiMasterExecutor(executor, dependency);
-    masterExecutor.execute(mock(Context.class), testInputFile);
+    masterExecutor.execute(mockContext(), testInputFile);
 
     InOrder inOrder = inOrder(dependency, executor);
     inOrder.verify(dependency).execute(any(), any());
@@ -137,7 +142,7 @@ class DelphiMasterExecutorTest {
     when(executor.dependencies()).thenReturn(Set.of(dependency.getClass()));
 
     DelphiMasterExecutor masterExecutor = new DelphiMasterExecutor(executor);
-    masterExecutor.execute(mock(Context.class), testInputFile);
+    masterExecutor.execute(mockContext(), testInputFile);
 
     verify(executor, never()).execute(any(), any());
   }
@@ -151,7 +156,7 @@ class DelphiMasterExecutorTest {
     when(executor.dependencies()).thenReturn(Set.of(dependency.getClass()));
 
     DelphiMasterExecutor masterExecutor = new DelphiMasterExecutor(executor, dependency);
-    masterExecutor.execute(mock(Context.class), testInputFile);
+    masterExecutor.execute(mockContext(), testInputFile);
 
     verify(executor, never()).execute(any(), any());
   }
@@ -168,12 +173,88 @@ class DelphiMasterExecutorTest {
 
     DelphiMasterExecutor masterExecutor = new DelphiMasterExecutor(executor, dependency);
 
-    assertThatThrownBy(() -> masterExecutor.execute(mock(Context.class), testInputFile))
+    assertThatThrownBy(() -> masterExecutor.execute(mockContext(), testInputFile))
         .isInstanceOf(FatalAnalysisError.class);
 
     verify(executor, never()).execute(any(), any());
   }
 
+  @Test
+  void testForkShouldForkEveryExecutor() {
+    Executor statelessExecutor = mock(DelphiMetricsExecutor.class);
+    Executor statefulExecutor = mock(DelphiSymbolTableExecutor.class);
+    Executor statefulExecutorFork = mock(DelphiSymbolTableExecutor.class);
+    when(statelessExecutor.fork()).thenReturn(statelessExecutor);
+    when(statefulExecutor.fork()).thenReturn(statefulExecutorFork);
+
+    DelphiMasterExecutor masterExecutor =
+        new DelphiMasterExecutor(statelessExecutor, statefulExecutor);
+    masterExecutor.fork().execute(mockContext(), testInputFile);
+
+    verify(statelessExecutor).execute(any(), any());
+    verify(statefulExecutorFork).execute(any(), any());
+    verify(statefulExecutor, never()).execute(any(), any());
+  }
+
+  @Test
+  void testTokenExecutorsShouldShareASinglePassOverTheTokens() {
+    DelphiTokenExecutor first = mock(DelphiCpdExecutor.class);
+    DelphiTokenExecutor second = mock(DelphiHighlightExecutor.class);
+    Executor other = mock(DelphiMetricsExecutor.class);
+    int tokens = testInputFile.getTokens().size();
+
+    DelphiMasterExecutor masterExecutor = new DelphiMasterExecutor(first, other, second);
+    masterExecutor.execute(mockContext(), testInputFile);
+
+    InOrder inOrder = inOrder(first, second, other);
+    inOrder.verify(first).onFile(any(), any());
+    inOrder.verify(second).onFile(any(), any());
+    inOrder.verify(first).handleToken(any());
+    inOrder.verify(second).handleToken(any());
+    inOrder.verify(first).save();
+    inOrder.verify(second).save();
+    inOrder.verify(other).execute(any(), any());
+
+    verify(first, times(tokens)).handleToken(any());
+    verify(second, times(tokens)).handleToken(any());
+    verify(first, never()).execute(any(), any());
+    verify(second, never()).execute(any(), any());
+  }
+
+  @Test
+  void testOnlyTokenExecutorsShouldRunOnceOverTimeBudget() {
+    ManualTicker ticker = new ManualTicker();
+    DelphiTokenExecutor tokenExecutor = mock(DelphiCpdExecutor.class);
+    Executor expensiveExecutor = mock(DelphiSymbolTableExecutor.class);
+    Executor dependentExecutor = mock(DelphiChecksExecutor.class);
+    when(dependentExecutor.dependencies()).thenReturn(Set.of(DelphiSymbolTableExecutor.class));
+
+    DelphiMasterExecutor masterExecutor =
+        new DelphiMasterExecutor(dependentExecutor, expensiveExecutor, tokenExecutor);
+
+    doAnswer(
+            invocation -> {
+              ticker.advance(Duration.ofSeconds(2));
+              TimeBudget.ensureWithinBudget();
+              return null;
+            })
+        .when(expensiveExecutor)
+        .execute(any(), any());
+
+    TimeBudget budget = TimeBudget.start(Duration.ofSeconds(1), ticker);
+    try {
+      masterExecutor.execute(mockContext(), testInputFile);
+      assertThat(budget.getExceededPhase()).isEqualTo(expensiveExecutor.getClass().getSimpleName());
+    } finally {
+      budget.close();
+    }
+
+    verify(expensiveExecutor, times(1)).execute(any(), any());
+    verify(dependentExecutor, never()).execute(any(), any());
+    verify(tokenExecutor).onFile(any(), any());
+    verify(tokenExecutor).save();
+  }
+
   private static DelphiFileConfig mockConfig() {
     TypeFactory typeFactory =
         new TypeFactoryImpl(
@@ -182,8 +263,15 @@ class DelphiMasterExecutorTest {
     when(mock.getEncoding()).thenReturn(StandardCharsets.UTF_8.name());
     when(mock.getPreprocessorFactory()).thenReturn(new DelphiPreprocessorFactory(Platform.WINDOWS));
     when(mock.getTypeFactory()).thenReturn(typeFactory);
+    when(mock.getTelemetry()).thenReturn(AnalysisTelemetry.disabled());
     when(mock.getSearchPath()).thenReturn(SearchPath.create(Collections.emptyList()));
     when(mock.getDefinitions()).thenReturn(Collections.emptySet());
     return mock;
   }
+
+  private static ExecutorContext mockContext() {
+    ExecutorContext context = mock(ExecutorContext.class);
+    when(context.telemetry()).thenReturn(AnalysisTelemetry.disabled());
+    return context;
+  }
 }
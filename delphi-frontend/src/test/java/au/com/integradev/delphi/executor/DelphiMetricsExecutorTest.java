@@ -33,6 +33,7 @@ import au.com.integradev.delphi.file.DelphiFileConfig;
 import au.com.integradev.delphi.preprocessor.DelphiPreprocessorFactory;
 import au.com.integradev.delphi.preprocessor.search.SearchPath;
 import au.com.integradev.delphi.symbol.SymbolTable;
+import au.com.integradev.delphi.telemetry.AnalysisTelemetry;
 import au.com.integradev.delphi.type.factory.TypeFactoryImpl;
 import au.com.integradev.delphi.utils.DelphiUtils;
 import java.io.File;
@@ -180,6 +181,7 @@ class DelphiMetricsExecutorTest {
     when(mock.getEncoding()).thenReturn(StandardCharsets.UTF_8.name());
     when(mock.getPreprocessorFactory()).thenReturn(new DelphiPreprocessorFactory(Platform.WINDOWS));
     when(mock.getTypeFactory()).thenReturn(typeFactory);
+    when(mock.getTelemetry()).thenReturn(AnalysisTelemetry.disabled());
     when(mock.getSearchPath()).thenReturn(SearchPath.create(Collections.emptyList()));
     when(mock.getDefinitions()).thenReturn(Collections.emptySet());
     return mock;
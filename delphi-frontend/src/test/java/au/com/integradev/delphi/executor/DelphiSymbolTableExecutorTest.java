@@ -27,11 +27,13 @@ import static org.mockito.Mockito.when;
 import au.com.integradev.delphi.DelphiProperties;
 import au.com.integradev.delphi.compiler.Platform;
 import au.com.integradev.delphi.core.Delphi;
+import au.com.integradev.delphi.file.DelphiFile;
 import au.com.integradev.delphi.file.DelphiFile.DelphiInputFile;
 import au.com.integradev.delphi.file.DelphiFileConfig;
 import au.com.integradev.delphi.preprocessor.DelphiPreprocessorFactory;
 import au.com.integradev.delphi.preprocessor.search.SearchPath;
 import au.com.integradev.delphi.symbol.SymbolTable;
+import au.com.integradev.delphi.telemetry.AnalysisTelemetry;
 import au.com.integradev.delphi.type.factory.TypeFactoryImpl;
 import au.com.integradev.delphi.utils.DelphiUtils;
 import com.google.common.collect.Sets;
@@ -61,6 +63,7 @@ import org.sonar.api.batch.fs.internal.DefaultTextPointer;
 import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
 import org.sonar.api.batch.sensor.internal.SensorContextTester;
 import org.sonar.plugins.communitydelphi.api.symbol.declaration.UnitNameDeclaration;
+import org.sonar.plugins.communitydelphi.api.symbol.scope.FileScope;
 
 class DelphiSymbolTableExecutorTest {
   private static final String ROOT_PATH = "/au/com/integradev/delphi/symbol/";
@@ -73,6 +76,7 @@ class DelphiSymbolTableExecutorTest {
   private Map<String, String> unitAliases;
   private Path standardLibraryPath;
   private String componentKey;
+  private boolean reuseParsedFiles;
 
   @BeforeEach
   void setup(@TempDir Path tempDir) {
@@ -93,6 +97,17 @@ class DelphiSymbolTableExecutorTest {
     verifyUsages(10, 14, reference(31, 1), reference(34, 22));
   }
 
+  @Test
+  void testSimpleFileWithReusedParsedFile() {
+    reuseParsedFiles = true;
+    execute("Simple.pas");
+    verifyUsages(7, 2, reference(20, 10), reference(29, 10), reference(34, 10));
+    verifyUsages(12, 3);
+    verifyUsages(20, 2);
+    verifyUsages(9, 14, reference(29, 22), reference(36, 1));
+    verifyUsages(10, 14, reference(31, 1), reference(34, 22));
+  }
+
   @Test
   void testSimilarParameterDeclarations() {
     execute("SimilarParameterDeclarations.pas");
@@ -1109,6 +1124,17 @@ class DelphiSymbolTableExecutorTest {
     verifyUsages(16, 10, reference(23, 8), reference(24, 2));
   }
 
+  @Test
+  void testImportsWithReusedParsedFile() {
+    reuseParsedFiles = true;
+    execute("imports/source/Unit1.pas", "imports/", "imports/source/", "imports/ignored/");
+    verifyUsages(1, 5, reference(23, 2), reference(26, 18));
+    verifyUsages(6, 2, reference(26, 2));
+    verifyUsages(9, 2, reference(26, 24), reference(27, 12));
+    verifyUsages(14, 2, reference(23, 18));
+    verifyUsages(16, 10, reference(23, 8), reference(24, 2));
+  }
+
   @Test
   void testNamespaces() {
     execute("namespaces/Namespaced.Unit1.pas", "namespaces/");
@@ -1342,6 +1368,7 @@ class DelphiSymbolTableExecutorTest {
     when(fileConfig.getEncoding()).thenReturn(StandardCharsets.UTF_8.name());
     when(fileConfig.getPreprocessorFactory()).thenReturn(preprocessorFactory);
     when(fileConfig.getTypeFactory()).thenReturn(typeFactory);
+    when(fileConfig.getTelemetry()).thenReturn(AnalysisTelemetry.disabled());
     when(fileConfig.getSearchPath()).thenReturn(SearchPath.create(Collections.emptyList()));
     when(fileConfig.getDefinitions()).thenReturn(Collections.emptySet());
 
@@ -1364,8 +1391,17 @@ class DelphiSymbolTableExecutorTest {
             .standardLibraryPath(standardLibraryPath)
             .unitScopeNames(unitScopeNames)
             .unitAliases(unitAliases)
+            .retainSourceFiles(reuseParsedFiles)
             .build();
 
+    if (reuseParsedFiles) {
+      String path = mainFile.getSourceCodeFile().getAbsolutePath();
+      DelphiFile parsedFile = symbolTable.takeSourceFile(path);
+      assertThat(parsedFile).as("Expected source file to be retained").isNotNull();
+      assertThat(parsedFile.getAst().getScope()).isInstanceOf(FileScope.class);
+      mainFile = DelphiInputFile.from(inputFile, parsedFile);
+    }
+
     ExecutorContext executorContext = new ExecutorContext(context, symbolTable);
 
     componentKey = mainFile.getInputFile().key();
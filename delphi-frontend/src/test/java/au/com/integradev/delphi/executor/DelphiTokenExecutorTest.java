@@ -40,6 +40,7 @@ import au.com.integradev.delphi.file.DelphiFileConfig;
 import au.com.integradev.delphi.preprocessor.DelphiPreprocessorFactory;
 import au.com.integradev.delphi.preprocessor.search.SearchPath;
 import au.com.integradev.delphi.symbol.SymbolTable;
+import au.com.integradev.delphi.telemetry.AnalysisTelemetry;
 import au.com.integradev.delphi.type.factory.TypeFactoryImpl;
 import au.com.integradev.delphi.utils.DelphiUtils;
 import com.google.common.collect.Range;
@@ -49,6 +50,7 @@ import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.Objects;
+import java.util.Set;
 import org.apache.commons.io.FileUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -58,6 +60,7 @@ import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.batch.sensor.cpd.NewCpdTokens;
 import org.sonar.api.batch.sensor.highlighting.NewHighlighting;
+import org.sonar.api.issue.NoSonarFilter;
 import org.sonar.plugins.communitydelphi.api.type.TypeFactory;
 
 class DelphiTokenExecutorTest {
@@ -68,10 +71,12 @@ class DelphiTokenExecutorTest {
   private static final String LITERALS_FILE = ROOT_DIR_PATH + "Literals.pas";
   private static final String MIXED_CASE_FILE = ROOT_DIR_PATH + "MixedCase.pas";
   private static final String ASM_FILE = ROOT_DIR_PATH + "AsmHighlighting.pas";
+  private static final String NOSONAR_FILE = ROOT_DIR_PATH + "NoSonar.pas";
 
   private DelphiMasterExecutor executor;
   private DelphiHighlightExecutor highlightExecutor;
   private DelphiCpdExecutor cpdExecutor;
+  private NoSonarFilter noSonarFilter;
 
   private ExecutorContext context;
   private NewCpdTokens cpdTokens;
@@ -93,7 +98,10 @@ class DelphiTokenExecutorTest {
 
     highlightExecutor = new DelphiHighlightExecutor();
     cpdExecutor = new DelphiCpdExecutor();
-    executor = new DelphiMasterExecutor(highlightExecutor, cpdExecutor);
+    noSonarFilter = mock(NoSonarFilter.class);
+    executor =
+        new DelphiMasterExecutor(
+            highlightExecutor, cpdExecutor, new DelphiNoSonarExecutor(noSonarFilter));
   }
 
   @Test
@@ -110,6 +118,26 @@ class DelphiTokenExecutorTest {
     verify(highlighting, never()).save();
   }
 
+  @Test
+  void testTokenizationFailureShouldNotAffectOtherTokenExecutors() {
+    when(cpdTokens.addToken(anyInt(), anyInt(), anyInt(), anyInt(), any()))
+        .thenThrow(IllegalStateException.class);
+
+    execute(makeDelphiFile(SIMPLE_FILE));
+
+    verify(cpdTokens, never()).save();
+    verify(highlighting, times(1)).save();
+    highlightCount(40);
+  }
+
+  @Test
+  void testNoSonarFile() {
+    DelphiInputFile delphiFile = makeDelphiFile(NOSONAR_FILE);
+    execute(delphiFile);
+
+    verify(noSonarFilter, times(1)).noSonarInFile(delphiFile.getInputFile(), Set.of(9, 10, 15));
+  }
+
   @Test
   void testSimpleFile() {
     execute(makeDelphiFile(SIMPLE_FILE));
@@ -235,6 +263,7 @@ class DelphiTokenExecutorTest {
       when(fileConfig.getPreprocessorFactory())
           .thenReturn(new DelphiPreprocessorFactory(Platform.WINDOWS));
       when(fileConfig.getTypeFactory()).thenReturn(typeFactory);
+      when(fileConfig.getTelemetry()).thenReturn(AnalysisTelemetry.disabled());
       when(fileConfig.getSearchPath()).thenReturn(SearchPath.create(Collections.emptyList()));
       when(fileConfig.getDefinitions()).thenReturn(Collections.emptySet());
 
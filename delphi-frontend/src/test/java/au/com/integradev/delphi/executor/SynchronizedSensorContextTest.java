@@ -0,0 +1,85 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.Test;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.sensor.SensorContext;
+import org.sonar.api.batch.sensor.highlighting.NewHighlighting;
+import org.sonar.api.batch.sensor.highlighting.TypeOfText;
+import org.sonar.api.batch.sensor.issue.NewIssue;
+import org.sonar.api.batch.sensor.issue.NewIssueLocation;
+
+class SynchronizedSensorContextTest {
+  @Test
+  void testBuildersShouldBeWrapped() {
+    NewHighlighting highlighting = mock(NewHighlighting.class);
+    when(highlighting.onFile(any())).thenReturn(highlighting);
+    when(highlighting.highlight(1, 0, 1, 5, TypeOfText.KEYWORD)).thenReturn(highlighting);
+
+    SensorContext context = mock(SensorContext.class);
+    when(context.newHighlighting()).thenReturn(highlighting);
+
+    SensorContext synchronizedContext = SynchronizedSensorContext.wrap(context);
+    NewHighlighting wrapped = synchronizedContext.newHighlighting();
+
+    assertThat(wrapped).isNotSameAs(highlighting);
+    assertThat(wrapped.onFile(mock(InputFile.class))).isSameAs(wrapped);
+    assertThat(wrapped.highlight(1, 0, 1, 5, TypeOfText.KEYWORD)).isSameAs(wrapped);
+
+    wrapped.save();
+    verify(highlighting).save();
+  }
+
+  @Test
+  void testBuilderPartsWithoutSaveShouldNotBeWrapped() {
+    NewIssueLocation location = mock(NewIssueLocation.class);
+    NewIssue issue = mock(NewIssue.class);
+    when(issue.newLocation()).thenReturn(location);
+
+    SensorContext context = mock(SensorContext.class);
+    when(context.newIssue()).thenReturn(issue);
+
+    NewIssue wrapped = SynchronizedSensorContext.wrap(context).newIssue();
+
+    assertThat(wrapped.newLocation()).isSameAs(location);
+  }
+
+  @Test
+  void testExceptionsShouldBeUnwrapped() {
+    IllegalStateException exception = new IllegalStateException("Test");
+    NewIssue issue = mock(NewIssue.class);
+    doThrow(exception).when(issue).save();
+
+    SensorContext context = mock(SensorContext.class);
+    when(context.newIssue()).thenReturn(issue);
+
+    NewIssue wrapped = SynchronizedSensorContext.wrap(context).newIssue();
+
+    assertThatThrownBy(wrapped::save).isSameAs(exception);
+  }
+}
@@ -18,14 +18,29 @@
  */
 package au.com.integradev.delphi.file;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 
+import au.com.integradev.delphi.antlr.DelphiFileStream;
+import au.com.integradev.delphi.antlr.DelphiLexer;
+import au.com.integradev.delphi.antlr.DelphiTokenStream;
+import au.com.integradev.delphi.budget.TimeBudget;
+import au.com.integradev.delphi.budget.TimeBudgetExceededException;
 import au.com.integradev.delphi.file.DelphiFile.DelphiFileConstructionException;
 import au.com.integradev.delphi.file.DelphiFile.EmptyDelphiFileException;
 import au.com.integradev.delphi.utils.DelphiUtils;
+import au.com.integradev.delphi.utils.ManualTicker;
 import au.com.integradev.delphi.utils.files.DelphiFileUtils;
 import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.antlr.runtime.Token;
 import org.junit.jupiter.api.Test;
+import org.sonar.plugins.communitydelphi.api.ast.CompoundStatementNode;
+import org.sonar.plugins.communitydelphi.api.token.DelphiToken;
 
 class DelphiFileTest {
   @Test
@@ -37,4 +52,100 @@ class DelphiFileTest {
         .isInstanceOf(DelphiFileConstructionException.class)
         .hasCauseInstanceOf(EmptyDelphiFileException.class);
   }
+
+  @Test
+  void testTokensInInactiveBranchesShouldBeNumberedBetweenTheSurroundingTokens() {
+    File sourceFile =
+        DelphiUtils.getResource("/au/com/integradev/delphi/file/InactiveBranches.pas");
+    DelphiFileConfig config = DelphiFileUtils.mockConfig();
+
+    DelphiFile delphiFile = DelphiFile.from(sourceFile, config);
+
+    List<DelphiToken> tokens = delphiFile.getTokens();
+    assertThat(tokens).extracting(DelphiToken::getIndex).isSorted();
+
+    int start = indexOfImage(tokens, "{$IFDEF NEVER_DEFINED}");
+    int end = indexOfImage(tokens, "{$ENDIF}");
+    int startIndex = tokens.get(start).getIndex();
+
+    // The inactive code shares a single token index, rather than reserving one per character.
+    assertThat(tokens.subList(start + 1, end))
+        .isNotEmpty()
+        .extracting(DelphiToken::getIndex)
+        .containsOnly(startIndex + 1);
+    assertThat(tokens.get(end).getIndex()).isEqualTo(startIndex + 2);
+
+    CompoundStatementNode block =
+        delphiFile.getAst().getFirstDescendantOfType(CompoundStatementNode.class);
+    assertThat(block.getStatements()).isEmpty();
+    assertThat(block.getComments())
+        .extracting(DelphiToken::getImage)
+        .contains("// Inactive comment");
+  }
+
+  @Test
+  void testTokensShouldMatchTheUnpreprocessedSource() throws IOException {
+    File sourceFile = DelphiUtils.getResource("/au/com/integradev/delphi/file/RawTokens.pas");
+    DelphiFileConfig config = DelphiFileUtils.mockConfig();
+
+    DelphiFile delphiFile = DelphiFile.from(sourceFile, config);
+
+    DelphiTokenStream tokenStream =
+        new DelphiTokenStream(
+            new DelphiLexer(new DelphiFileStream(sourceFile.getAbsolutePath(), null)));
+    tokenStream.fill();
+    List<Token> expected = tokenStream.getTokens();
+    expected = expected.subList(0, expected.size() - 1);
+
+    assertThat(delphiFile.getTokens())
+        .extracting(DelphiToken::getImage, DelphiToken::getBeginLine, DelphiToken::getBeginColumn)
+        .containsExactlyElementsOf(
+            expected.stream()
+                .map(
+                    token -> tuple(token.getText(), token.getLine(), token.getCharPositionInLine()))
+                .collect(Collectors.toList()));
+    List<DelphiToken> tokens = delphiFile.getTokens();
+    assertThat(tokens).extracting(DelphiToken::getIndex).isSorted();
+
+    int start = indexOfImage(tokens, "{$IFDEF NEVER_DEFINED}");
+    int end = indexOfImage(tokens, "{$ELSE}");
+    assertThat(tokens.subList(start + 1, end))
+        .extracting(DelphiToken::getIndex)
+        .containsOnly(tokens.get(start).getIndex() + 1);
+    assertThat(tokens.subList(end, tokens.size()))
+        .extracting(DelphiToken::getIndex)
+        .doesNotHaveDuplicates();
+  }
+
+  @Test
+  void testFileOverTimeBudgetShouldHaveTokensWithoutAst() {
+    File sourceFile = DelphiUtils.getResource("/au/com/integradev/delphi/file/Simple.pas");
+    DelphiFileConfig config = DelphiFileUtils.mockConfig();
+
+    ManualTicker ticker = new ManualTicker();
+    TimeBudget budget = TimeBudget.start(Duration.ofSeconds(1), ticker);
+    try {
+      ticker.advance(Duration.ofSeconds(2));
+      assertThatThrownBy(TimeBudget::ensureWithinBudget)
+          .isInstanceOf(TimeBudgetExceededException.class);
+
+      DelphiFile delphiFile = DelphiFile.from(sourceFile, config);
+
+      assertThat(delphiFile.getAst()).isNull();
+      assertThat(delphiFile.getTokens()).isNotEmpty();
+      assertThat(delphiFile.getComments()).hasSize(1);
+      assertThat(delphiFile.getSourceCodeFilesLines()).hasSize(7);
+    } finally {
+      budget.close();
+    }
+  }
+
+  private static int indexOfImage(List<DelphiToken> tokens, String image) {
+    for (int i = 0; i < tokens.size(); ++i) {
+      if (tokens.get(i).getImage().equals(image)) {
+        return i;
+      }
+    }
+    throw new AssertionError("No token with image " + image);
+  }
 }
@@ -0,0 +1,91 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.file;
+
+import static java.nio.charset.StandardCharsets.UTF_16LE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SourceBufferTest {
+  @TempDir private Path tempDir;
+
+  @Test
+  void testUtf8ByteOrderMarkShouldBeLeftOut() throws IOException {
+    byte[] bom = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+    SourceBuffer source = read(concat(bom, "unit Foo;".getBytes(UTF_8)), UTF_8.name());
+
+    assertThat(text(source)).isEqualTo("unit Foo;");
+    assertThat(source.getLines()).containsExactly("unit Foo;");
+  }
+
+  @Test
+  void testEncodingShouldBeDetectedFromByteOrderMark() throws IOException {
+    byte[] bom = {(byte) 0xFF, (byte) 0xFE};
+    SourceBuffer source = read(concat(bom, "unit Föö;".getBytes(UTF_16LE)), null);
+
+    assertThat(text(source)).isEqualTo("unit Föö;");
+  }
+
+  @Test
+  void testLinesShouldBeSplitOnEveryKindOfLineTerminator() throws IOException {
+    SourceBuffer source = read("a\nb\r\nc\rd\r\n\ne".getBytes(UTF_8), UTF_8.name());
+
+    assertThat(source.getLines()).containsExactly("a", "b", "c", "d", "", "e");
+  }
+
+  @Test
+  void testTrailingLineTerminatorShouldNotStartAnotherLine() throws IOException {
+    assertThat(read("a\r\n".getBytes(UTF_8), UTF_8.name()).getLines()).containsExactly("a");
+    assertThat(read("a\n\n".getBytes(UTF_8), UTF_8.name()).getLines()).containsExactly("a", "");
+    assertThat(read(new byte[0], UTF_8.name()).getLines()).isEmpty();
+  }
+
+  @Test
+  void testLinesShouldBeUnmodifiable() throws IOException {
+    SourceBuffer source = read("a\nb".getBytes(UTF_8), UTF_8.name());
+
+    assertThatThrownBy(() -> source.getLines().set(0, "c"))
+        .isInstanceOf(UnsupportedOperationException.class);
+    assertThatThrownBy(() -> source.getLines().get(2))
+        .isInstanceOf(IndexOutOfBoundsException.class);
+  }
+
+  private SourceBuffer read(byte[] contents, String encoding) throws IOException {
+    Path file = Files.write(tempDir.resolve("Source.pas"), contents);
+    return SourceBuffer.read(file.toString(), encoding);
+  }
+
+  private static String text(SourceBuffer source) {
+    return new String(source.getData(), 0, source.length());
+  }
+
+  private static byte[] concat(byte[] first, byte[] second) {
+    byte[] result = new byte[first.length + second.length];
+    System.arraycopy(first, 0, result, 0, first.length);
+    System.arraycopy(second, 0, result, first.length, second.length);
+    return result;
+  }
+}
@@ -0,0 +1,237 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.file;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import au.com.integradev.delphi.compiler.CompilerVersion;
+import au.com.integradev.delphi.compiler.Toolchain;
+import au.com.integradev.delphi.preprocessor.CompilerSwitchRegistry;
+import au.com.integradev.delphi.utils.DelphiUtils;
+import au.com.integradev.delphi.utils.files.DelphiFileUtils;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
+import org.sonar.plugins.communitydelphi.api.ast.RoutineNameNode;
+import org.sonar.plugins.communitydelphi.api.directive.SwitchDirective.SwitchKind;
+import org.sonar.plugins.communitydelphi.api.token.DelphiToken;
+
+class UnitSummaryCacheTest {
+  @TempDir private Path cacheDirectory;
+  @TempDir private Path standardLibraryPath;
+  private UnitSummaryCache cache;
+
+  @BeforeEach
+  void setup() {
+    cache =
+        UnitSummaryCache.create(
+            cacheDirectory,
+            standardLibraryPath,
+            Toolchain.DCC32,
+            CompilerVersion.fromVersionSymbol("VER350"));
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "grammar/GrammarTest.pas",
+        "grammar/Generics.pas",
+        "grammar/AnonymousMethods.pas",
+        "grammar/UTF8WithBOM.pas",
+        "preprocessor/includeTest/SameFolder.pas",
+        "symbol/enums/ScopedEnum.pas",
+        "symbol/operators/PointerMath.pas"
+      })
+  void testSummaryShouldMatchTheParsedUnit(String resource) {
+    File unitFile = DelphiUtils.getResource("/au/com/integradev/delphi/" + resource);
+    DelphiFileConfig config = DelphiFileUtils.mockConfig();
+
+    DelphiFile parsed = cache.parse(unitFile, config);
+    DelphiFile summary = cache.parse(unitFile, config);
+
+    assertThat(parsed.getTokens()).isNotEmpty();
+    assertThat(summary.getTokens()).isEmpty();
+    assertThat(summary.getSourceCodeFile()).isEqualTo(unitFile);
+    assertThat(summary.getTypeFactory()).isSameAs(config.getTypeFactory());
+    assertThat(describe(summary.getAst())).isEqualTo(describe(parsed.getAst()));
+
+    int lastIndex = parsed.getTokens().get(parsed.getTokens().size() - 1).getIndex();
+    CompilerSwitchRegistry parsedSwitches = parsed.getCompilerSwitchRegistry();
+    CompilerSwitchRegistry summarySwitches = summary.getCompilerSwitchRegistry();
+    for (SwitchKind kind : SwitchKind.values()) {
+      assertThat(summarySwitches.getActiveSwitches(kind, 0, lastIndex))
+          .as(kind.name())
+          .isEqualTo(parsedSwitches.getActiveSwitches(kind, 0, lastIndex));
+    }
+  }
+
+  @Test
+  void testChangedUnitShouldInvalidateSummary() throws IOException {
+    File unitFile = createUnit("procedure Foo;");
+    DelphiFileConfig config = DelphiFileUtils.mockConfig();
+    cache.parse(unitFile, config);
+
+    Files.writeString(unitFile.toPath(), unit("procedure Other;"));
+
+    DelphiFile delphiFile = cache.parse(unitFile, config);
+    assertThat(delphiFile.getTokens()).isNotEmpty();
+    assertThat(routineNames(delphiFile)).containsExactly("Other");
+    assertThat(routineNames(cache.parse(unitFile, config))).containsExactly("Other");
+  }
+
+  @Test
+  void testChangedIncludeFileShouldInvalidateSummary() throws IOException {
+    Path includeFile = standardLibraryPath.resolve("Routines.inc");
+    Files.writeString(includeFile, "procedure Foo;");
+    File unitFile = createUnit("{$I Routines.inc}");
+    DelphiFileConfig config = DelphiFileUtils.mockConfig();
+    cache.parse(unitFile, config);
+
+    assertThat(cache.parse(unitFile, config).getTokens()).isEmpty();
+
+    // The include file changes size, so that its preprocessed tokens aren't reused either.
+    Files.writeString(includeFile, "procedure Other;");
+    cache = recreate();
+
+    DelphiFile delphiFile = cache.parse(unitFile, config);
+    assertThat(delphiFile.getTokens()).isNotEmpty();
+    assertThat(routineNames(delphiFile)).containsExactly("Other");
+  }
+
+  @Test
+  void testDifferentDefinitionsShouldUseDifferentSummaries() throws IOException {
+    File unitFile = createUnit("{$IFDEF FOO}procedure Foo;{$ELSE}procedure Bar;{$ENDIF}");
+    DelphiFileConfig config = DelphiFileUtils.mockConfig();
+    DelphiFileConfig fooConfig = DelphiFileUtils.mockConfig();
+    when(fooConfig.getDefinitions()).thenReturn(Set.of("FOO"));
+
+    cache.parse(unitFile, config);
+    cache.parse(unitFile, fooConfig);
+
+    assertThat(cache.cacheFile(unitFile, config))
+        .isRegularFile()
+        .isNotEqualTo(cache.cacheFile(unitFile, fooConfig));
+    assertThat(routineNames(cache.parse(unitFile, config))).containsExactly("Bar");
+    assertThat(routineNames(cache.parse(unitFile, fooConfig))).containsExactly("Foo");
+  }
+
+  @Test
+  void testDifferentCompilerVersionShouldUseDifferentSummaries() throws IOException {
+    File unitFile = createUnit("procedure Foo;");
+    DelphiFileConfig config = DelphiFileUtils.mockConfig();
+    UnitSummaryCache other =
+        UnitSummaryCache.create(
+            cacheDirectory,
+            standardLibraryPath,
+            Toolchain.DCC32,
+            CompilerVersion.fromVersionSymbol("VER360"));
+
+    cache.parse(unitFile, config);
+
+    assertThat(other.cacheFile(unitFile, config)).isNotEqualTo(cache.cacheFile(unitFile, config));
+    assertThat(other.parse(unitFile, config).getTokens()).isNotEmpty();
+  }
+
+  @Test
+  void testCorruptSummaryShouldBeIgnored() throws IOException {
+    File unitFile = createUnit("procedure Foo;");
+    DelphiFileConfig config = DelphiFileUtils.mockConfig();
+    Path cacheFile = cache.cacheFile(unitFile, config);
+    Files.createDirectories(cacheFile.getParent());
+    Files.writeString(cacheFile, "garbage");
+
+    assertThat(routineNames(cache.parse(unitFile, config))).containsExactly("Foo");
+    assertThat(routineNames(cache.parse(unitFile, config))).containsExactly("Foo");
+    assertThat(cacheFile.getParent()).isDirectoryNotContaining("glob:**.tmp");
+  }
+
+  private UnitSummaryCache recreate() {
+    return UnitSummaryCache.create(
+        cacheDirectory,
+        standardLibraryPath,
+        Toolchain.DCC32,
+        CompilerVersion.fromVersionSymbol("VER350"));
+  }
+
+  private File createUnit(String interfaceSection) throws IOException {
+    Path unitFile = standardLibraryPath.resolve("Unit1.pas");
+    Files.writeString(unitFile, unit(interfaceSection));
+    return unitFile.toFile();
+  }
+
+  private static String unit(String interfaceSection) {
+    return "unit Unit1;\ninterface\n" + interfaceSection + "\nimplementation\nend.";
+  }
+
+  private static List<String> routineNames(DelphiFile delphiFile) {
+    List<String> result = new ArrayList<>();
+    for (RoutineNameNode node : delphiFile.getAst().findDescendantsOfType(RoutineNameNode.class)) {
+      result.add(node.getImage());
+    }
+    return result;
+  }
+
+  private static List<String> describe(DelphiNode root) {
+    List<String> result = new ArrayList<>();
+    root.getChildren().forEach(child -> describe(child, result));
+    return result;
+  }
+
+  private static void describe(DelphiNode node, List<String> result) {
+    DelphiToken token = node.getToken();
+    result.add(
+        String.join(
+            "|",
+            node.getClass().getSimpleName(),
+            token.getType().name(),
+            String.valueOf(node.getImage()),
+            String.valueOf(token.getIndex()),
+            position(token),
+            position(node.getFirstToken()),
+            position(node.getLastToken()),
+            String.valueOf(node.getChildren().size())));
+    node.getChildren().forEach(child -> describe(child, result));
+  }
+
+  private static String position(DelphiToken token) {
+    if (token.isNil()) {
+      return "nil";
+    }
+    return token.getIndex()
+        + "@"
+        + token.getBeginLine()
+        + ":"
+        + token.getBeginColumn()
+        + "-"
+        + token.getEndLine()
+        + ":"
+        + token.getEndColumn();
+  }
+}
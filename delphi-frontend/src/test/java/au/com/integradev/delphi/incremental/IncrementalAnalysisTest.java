@@ -0,0 +1,154 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.incremental;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import au.com.integradev.delphi.compiler.Platform;
+import au.com.integradev.delphi.preprocessor.DelphiPreprocessorFactory;
+import au.com.integradev.delphi.symbol.SymbolTable;
+import au.com.integradev.delphi.utils.types.TypeFactoryUtils;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.api.batch.fs.InputFile;
+
+class IncrementalAnalysisTest {
+  @TempDir private Path standardLibraryPath;
+  @TempDir private Path sourcePath;
+  @TempDir private Path cachePath;
+
+  private Path basePath;
+  private Path exposingPath;
+  private Path clientPath;
+
+  @BeforeEach
+  void setup() throws IOException {
+    Files.writeString(
+        standardLibraryPath.resolve("SysInit.pas"),
+        "unit SysInit;\ninterface\nimplementation\nend.");
+    Files.writeString(
+        standardLibraryPath.resolve("System.pas"),
+        "unit System;\n"
+            + "interface\n"
+            + "type\n"
+            + "  TObject = class\n"
+            + "  end;\n"
+            + "  IInterface = interface\n"
+            + "  end;\n"
+            + "  TClassHelperBase = class\n"
+            + "  end;\n"
+            + "  TVarRec = record\n"
+            + "  end;\n"
+            + "implementation\n"
+            + "end.");
+
+    basePath = sourcePath.resolve("Base.pas");
+    exposingPath = sourcePath.resolve("Exposing.pas");
+    clientPath = sourcePath.resolve("Client.pas");
+    Files.writeString(
+        basePath, "unit Base;\ninterface\ntype\n  TBase = class\n  end;\nimplementation\nend.");
+    Files.writeString(
+        exposingPath,
+        "unit Exposing;\n"
+            + "interface\n"
+            + "uses Base;\n"
+            + "type\n"
+            + "  TExposing = class(TBase)\n"
+            + "  end;\n"
+            + "implementation\n"
+            + "end.");
+  }
+
+  @Test
+  void testFingerprintShouldChangeWithTheDirectDependents() throws IOException {
+    writeClient("Base", "TBase");
+    String original = fingerprint(basePath);
+
+    writeClient("Base", "TObject");
+    assertThat(fingerprint(basePath)).isNotEqualTo(original);
+  }
+
+  @Test
+  void testFingerprintShouldChangeWithDependentsThroughInterfaceImports() throws IOException {
+    writeClient("Exposing", "TExposing");
+    String original = fingerprint(basePath);
+
+    writeClient("Exposing", "TObject");
+    assertThat(fingerprint(basePath)).isNotEqualTo(original);
+  }
+
+  @Test
+  void testFingerprintShouldNotChangeWithDependentsThroughImplementationImports()
+      throws IOException {
+    Files.writeString(
+        exposingPath,
+        "unit Exposing;\n"
+            + "interface\n"
+            + "type\n"
+            + "  TExposing = class\n"
+            + "  end;\n"
+            + "implementation\n"
+            + "uses Base;\n"
+            + "end.");
+    writeClient("Exposing", "TExposing");
+    String original = fingerprint(basePath);
+
+    writeClient("Exposing", "TObject");
+    assertThat(fingerprint(basePath)).isEqualTo(original);
+  }
+
+  private void writeClient(String importedUnit, String typeName) throws IOException {
+    Files.writeString(
+        clientPath,
+        "unit Client;\n"
+            + "interface\n"
+            + "implementation\n"
+            + "uses "
+            + importedUnit
+            + ";\n"
+            + "var\n"
+            + "  Foo: "
+            + typeName
+            + ";\n"
+            + "end.");
+  }
+
+  private String fingerprint(Path path) {
+    List<Path> sourceFiles = List.of(basePath, exposingPath, clientPath);
+    SymbolTable symbolTable =
+        SymbolTable.builder()
+            .preprocessorFactory(new DelphiPreprocessorFactory(Platform.WINDOWS))
+            .typeFactory(TypeFactoryUtils.defaultFactory())
+            .standardLibraryPath(standardLibraryPath)
+            .sourceFiles(sourceFiles)
+            .computeUnitHashes(true)
+            .build();
+
+    IncrementalAnalysis analysis =
+        IncrementalAnalysis.load(
+            cachePath.resolve("incremental.state"), "configuration", symbolTable, sourceFiles);
+
+    return analysis.fingerprint(path.toAbsolutePath().toString(), InputFile.Type.MAIN);
+  }
+}
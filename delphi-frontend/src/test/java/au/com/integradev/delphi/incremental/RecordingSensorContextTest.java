@@ -0,0 +1,142 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.incremental;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
+import org.sonar.api.batch.sensor.SensorContext;
+import org.sonar.api.batch.sensor.highlighting.TypeOfText;
+import org.sonar.api.batch.sensor.internal.SensorContextTester;
+import org.sonar.api.batch.sensor.issue.Issue;
+import org.sonar.api.batch.sensor.issue.NewIssue;
+import org.sonar.api.batch.sensor.issue.NewIssueLocation;
+import org.sonar.api.measures.CoreMetrics;
+import org.sonar.api.rule.RuleKey;
+
+class RecordingSensorContextTest {
+  private static final String CONTENT = "unit Foo;\ninterface\nimplementation\nend.\n";
+  private static final RuleKey RULE_KEY = RuleKey.of("delphi", "TestRule");
+
+  @TempDir private Path baseDir;
+  private InputFile inputFile;
+
+  @BeforeEach
+  void setup() {
+    inputFile = createInputFile();
+  }
+
+  @Test
+  void testRecordedResultsShouldBeReplayed() throws IOException {
+    SensorContextTester original = SensorContextTester.create(baseDir);
+    AnalysisRecording recording = new AnalysisRecording();
+    SensorContextTester restored = SensorContextTester.create(baseDir);
+    InputFile restoredFile = createInputFile();
+
+    RecordingSensorContext.record(
+        inputFile, recording, () -> saveResults(RecordingSensorContext.wrap(original)));
+
+    assertThat(recording.isComplete()).isTrue();
+    AnalysisRecording.fromBytes(recording.toBytes()).replay(restored, restoredFile);
+
+    String componentKey = restoredFile.key();
+    assertThat(restored.highlightingTypeAt(componentKey, 1, 0)).containsExactly(TypeOfText.KEYWORD);
+    assertThat(restored.measure(componentKey, CoreMetrics.NCLOC).value()).isEqualTo(4);
+    assertThat(restored.cpdTokens(componentKey)).hasSize(1);
+
+    assertThat(restored.allIssues()).hasSize(1);
+    Issue issue = restored.allIssues().iterator().next();
+    assertThat(issue.ruleKey()).isEqualTo(RULE_KEY);
+    assertThat(issue.primaryLocation().message()).isEqualTo("Message");
+    assertThat(issue.primaryLocation().textRange()).isEqualTo(inputFile.selectLine(2));
+    assertThat(issue.flows()).hasSize(1);
+  }
+
+  @Test
+  void testResultsSavedOutsideOfRecordingShouldNotBeRecorded() {
+    SensorContextTester context = SensorContextTester.create(baseDir);
+    SensorContextTester restored = SensorContextTester.create(baseDir);
+
+    saveResults(RecordingSensorContext.wrap(context));
+    AnalysisRecording recording = new AnalysisRecording();
+    recording.replay(restored, createInputFile());
+
+    assertThat(context.allIssues()).hasSize(1);
+    assertThat(restored.allIssues()).isEmpty();
+  }
+
+  @Test
+  void testResultsOnOtherFilesShouldMarkRecordingIncomplete() {
+    SensorContextTester context = SensorContextTester.create(baseDir);
+    AnalysisRecording recording = new AnalysisRecording();
+    InputFile otherFile =
+        TestInputFileBuilder.create("moduleKey", "Bar.pas").setContents(CONTENT).build();
+
+    RecordingSensorContext.record(
+        inputFile,
+        recording,
+        () ->
+            RecordingSensorContext.wrap(context)
+                .<Integer>newMeasure()
+                .on(otherFile)
+                .forMetric(CoreMetrics.NCLOC)
+                .withValue(4)
+                .save());
+
+    assertThat(recording.isComplete()).isFalse();
+    assertThat(context.measure(otherFile.key(), CoreMetrics.NCLOC).value()).isEqualTo(4);
+  }
+
+  @Test
+  void testLinesShouldSurviveSerialization() throws IOException {
+    AnalysisRecording recording = new AnalysisRecording();
+    recording.putLines("key", Set.of(1, 5, 9));
+
+    assertThat(AnalysisRecording.fromBytes(recording.toBytes()).getLines("key"))
+        .containsExactlyInAnyOrder(1, 5, 9);
+    assertThat(recording.getLines("unknown")).isEmpty();
+  }
+
+  private void saveResults(SensorContext context) {
+    context.newHighlighting().onFile(inputFile).highlight(1, 0, 1, 4, TypeOfText.KEYWORD).save();
+
+    context.<Integer>newMeasure().on(inputFile).forMetric(CoreMetrics.NCLOC).withValue(4).save();
+
+    context.newCpdTokens().onFile(inputFile).addToken(inputFile.selectLine(1), "unit").save();
+
+    NewIssue newIssue = context.newIssue().forRule(RULE_KEY);
+    NewIssueLocation primaryLocation =
+        newIssue.newLocation().on(inputFile).at(inputFile.selectLine(2)).message("Message");
+    NewIssueLocation flowLocation =
+        newIssue.newLocation().on(inputFile).at(inputFile.selectLine(3)).message("Flow");
+    newIssue.at(primaryLocation).addFlow(List.of(flowLocation)).save();
+  }
+
+  private InputFile createInputFile() {
+    return TestInputFileBuilder.create("moduleKey", "Foo.pas").setContents(CONTENT).build();
+  }
+}
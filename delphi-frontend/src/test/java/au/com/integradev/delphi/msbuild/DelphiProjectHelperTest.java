@@ -351,4 +351,26 @@ class DelphiProjectHelperTest {
     assertThat(delphiProjectHelper.inputFiles()).isEmpty();
     assertThat(delphiProjectHelper.shouldExecuteOnProject()).isFalse();
   }
+
+  @Test
+  void testCacheDirectoryShouldDefaultToTheWorkingDirectory(@TempDir Path tempDir) {
+    fs.setWorkDir(tempDir);
+    when(settings.get(DelphiProperties.CACHE_DIRECTORY_KEY)).thenReturn(Optional.empty());
+
+    DelphiProjectHelper delphiProjectHelper =
+        new DelphiProjectHelper(settings, fs, environmentVariableProvider);
+
+    assertThat(delphiProjectHelper.getCacheDirectory()).isEqualTo(tempDir.resolve("delphi"));
+  }
+
+  @Test
+  void testCacheDirectoryShouldBeRelativeToTheBaseDirectory() {
+    when(settings.get(DelphiProperties.CACHE_DIRECTORY_KEY)).thenReturn(Optional.of("cache"));
+
+    DelphiProjectHelper delphiProjectHelper =
+        new DelphiProjectHelper(settings, fs, environmentVariableProvider);
+
+    assertThat(delphiProjectHelper.getCacheDirectory())
+        .isEqualTo(BASE_DIR.toPath().resolve("cache").toAbsolutePath());
+  }
 }
@@ -0,0 +1,90 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.preprocessor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.BitSet;
+import org.junit.jupiter.api.Test;
+import org.sonar.plugins.communitydelphi.api.directive.SwitchDirective.SwitchKind;
+
+class CompilerSwitchRegistryTest {
+  @Test
+  void testSwitchShouldBeActiveWithinItsRanges() {
+    CompilerSwitchRegistry registry = new CompilerSwitchRegistry();
+    registry.addSwitch(SwitchKind.RANGECHECKS, 20, 30);
+    registry.addSwitch(SwitchKind.RANGECHECKS, 5, 10);
+    registry.freeze();
+
+    assertThat(registry.isActiveSwitch(SwitchKind.RANGECHECKS, 4)).isFalse();
+    assertThat(registry.isActiveSwitch(SwitchKind.RANGECHECKS, 5)).isTrue();
+    assertThat(registry.isActiveSwitch(SwitchKind.RANGECHECKS, 10)).isTrue();
+    assertThat(registry.isActiveSwitch(SwitchKind.RANGECHECKS, 11)).isFalse();
+    assertThat(registry.isActiveSwitch(SwitchKind.RANGECHECKS, 25)).isTrue();
+    assertThat(registry.isActiveSwitch(SwitchKind.RANGECHECKS, 31)).isFalse();
+    assertThat(registry.isActiveSwitch(SwitchKind.OVERFLOWCHECKS, 25)).isFalse();
+  }
+
+  @Test
+  void testOverlappingRangesShouldBeMerged() {
+    CompilerSwitchRegistry registry = new CompilerSwitchRegistry();
+    registry.addSwitch(SwitchKind.RANGECHECKS, 0, 10);
+    registry.addSwitch(SwitchKind.RANGECHECKS, 5, 8);
+    registry.addSwitch(SwitchKind.RANGECHECKS, 11, 15);
+    registry.freeze();
+
+    assertThat(registry.getActiveSwitches(SwitchKind.RANGECHECKS, 0, 20)).isEqualTo(bits(0, 16));
+  }
+
+  @Test
+  void testActiveSwitchesShouldBeRelativeToTheStartOfTheRange() {
+    CompilerSwitchRegistry registry = new CompilerSwitchRegistry();
+    registry.addSwitch(SwitchKind.RANGECHECKS, 5, 10);
+    registry.addSwitch(SwitchKind.RANGECHECKS, 20, 30);
+    registry.freeze();
+
+    BitSet expected = bits(0, 3);
+    expected.set(12, 16);
+
+    assertThat(registry.getActiveSwitches(SwitchKind.RANGECHECKS, 8, 23)).isEqualTo(expected);
+    assertThat(registry.getActiveSwitches(SwitchKind.RANGECHECKS, 11, 19).isEmpty()).isTrue();
+    assertThat(registry.getActiveSwitches(SwitchKind.OVERFLOWCHECKS, 0, 100).isEmpty()).isTrue();
+  }
+
+  @Test
+  void testRegistryShouldBeFrozenBeforeItIsQueried() {
+    CompilerSwitchRegistry registry = new CompilerSwitchRegistry();
+    registry.addSwitch(SwitchKind.RANGECHECKS, 5, 10);
+
+    assertThatThrownBy(() -> registry.isActiveSwitch(SwitchKind.RANGECHECKS, 5))
+        .isInstanceOf(IllegalStateException.class);
+
+    registry.freeze();
+
+    assertThatThrownBy(() -> registry.addSwitch(SwitchKind.RANGECHECKS, 20, 30))
+        .isInstanceOf(IllegalStateException.class);
+  }
+
+  private static BitSet bits(int fromIndex, int toIndex) {
+    BitSet bits = new BitSet();
+    bits.set(fromIndex, toIndex);
+    return bits;
+  }
+}
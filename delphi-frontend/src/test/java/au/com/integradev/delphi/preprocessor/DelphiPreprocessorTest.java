@@ -20,6 +20,7 @@ package au.com.integradev.delphi.preprocessor;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Collections.emptySet;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
@@ -37,8 +38,10 @@ import au.com.integradev.delphi.utils.types.TypeFactoryUtils;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.stream.Collectors;
 import org.antlr.runtime.BufferedTokenStream;
+import org.antlr.runtime.Token;
 import org.junit.jupiter.api.Test;
 import org.sonar.plugins.communitydelphi.api.type.TypeFactory;
 
@@ -57,6 +60,27 @@ class DelphiPreprocessorTest {
         .doesNotThrowAnyException();
   }
 
+  @Test
+  void testInactiveBranches() {
+    assertThatCode(() -> execute("InactiveBranches.pas")).doesNotThrowAnyException();
+  }
+
+  @Test
+  void testInactiveBranchesShouldNotBeTokenized() throws Exception {
+    String filePath = DelphiUtils.getResource(BASE_DIR + "InactiveBranches.pas").getAbsolutePath();
+    DelphiFileConfig config = DelphiFileUtils.mockConfig();
+    DelphiLexer lexer = new DelphiLexer(new DelphiFileStream(filePath, config.getEncoding()));
+    DelphiPreprocessor preprocessor = new DelphiPreprocessor(lexer, config, Platform.WINDOWS);
+    preprocessor.process();
+
+    List<Token> tokens = preprocessor.getTokenStream().getTokens();
+    assertThat(tokens)
+        .extracting(Token::getText)
+        .doesNotContain("ERROR", "Foo", "// {$ENDIF}", "'{$ENDIF}'")
+        .contains("{$IFNDEF FAIL_IF_DEFINED}", "{$DEFINE FAIL_IF_DEFINED}");
+    assertThat(tokens).extracting(Token::getTokenIndex).isSorted().doesNotHaveDuplicates();
+  }
+
   @Test
   void testSizeOfIntrinsic() {
     assertThatCode(() -> execute("SizeOfIntrinsic.pas")).doesNotThrowAnyException();
@@ -0,0 +1,264 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.preprocessor;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import au.com.integradev.delphi.antlr.DelphiFileStream;
+import au.com.integradev.delphi.antlr.DelphiLexer;
+import au.com.integradev.delphi.antlr.ast.token.IncludeToken;
+import au.com.integradev.delphi.compiler.Platform;
+import au.com.integradev.delphi.file.DelphiFile;
+import au.com.integradev.delphi.file.DelphiFileConfig;
+import au.com.integradev.delphi.preprocessor.search.SearchPath;
+import au.com.integradev.delphi.utils.types.TypeFactoryUtils;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import org.antlr.runtime.Token;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.plugins.communitydelphi.api.directive.SwitchDirective.SwitchKind;
+import org.sonar.plugins.communitydelphi.api.type.TypeFactory;
+
+class IncludeFileCacheTest {
+  private static final TypeFactory TYPE_FACTORY = TypeFactoryUtils.defaultFactory();
+  private static final SearchPath SEARCH_PATH = SearchPath.create(Collections.emptyList());
+
+  @TempDir private Path tempDir;
+
+  private final DelphiPreprocessorFactory factory = new DelphiPreprocessorFactory(Platform.WINDOWS);
+
+  @Test
+  void testReplayedIncludeShouldHaveTheSameTokensAsThePreprocessedInclude() throws IOException {
+    write(
+        "Shared.inc", "{$IFDEF FOO}", "  Foo: Integer;", "{$ELSE}", "  Bar: Integer;", "{$ENDIF}");
+    Path first = write("First.pas", "var", "{$I Shared.inc}", "  Baz: Integer;");
+    Path second = write("Second.pas", "var", "{$I Shared.inc}", "  Baz: Integer;");
+
+    List<String> expected = describe(preprocess(first, Set.of()));
+    List<String> actual = describe(preprocess(second, Set.of()));
+
+    assertThat(actual).isEqualTo(expected).anyMatch(token -> token.startsWith("Bar@4 (included)"));
+    assertThat(cache().getMissCount()).isEqualTo(1);
+    assertThat(cache().getHitCount()).isEqualTo(1);
+  }
+
+  @Test
+  void testIncludeShouldBePreprocessedAgainWhenTheDefinesItReadsDiffer() throws IOException {
+    write(
+        "Shared.inc", "{$IFDEF FOO}", "  Foo: Integer;", "{$ELSE}", "  Bar: Integer;", "{$ENDIF}");
+    Path unit = write("Unit.pas", "var", "{$I Shared.inc}");
+
+    assertThat(texts(preprocess(unit, Set.of("FOO")))).contains("Foo");
+    assertThat(texts(preprocess(unit, Set.of()))).contains("Bar");
+    assertThat(texts(preprocess(unit, Set.of("BAR")))).contains("Bar");
+    assertThat(texts(preprocess(unit, Set.of("foo")))).contains("Foo");
+
+    assertThat(cache().getMissCount()).isEqualTo(2);
+    assertThat(cache().getHitCount()).isEqualTo(2);
+  }
+
+  @Test
+  void testDefinesWrittenByIncludeShouldBeReplayed() throws IOException {
+    write("Defines.inc", "{$DEFINE FOO}", "{$UNDEF BAR}");
+    Path unit =
+        write(
+            "Unit.pas",
+            "{$I Defines.inc}",
+            "{$IFDEF FOO}",
+            "  Foo: Integer;",
+            "{$ENDIF}",
+            "{$IFDEF BAR}",
+            "  Bar: Integer;",
+            "{$ENDIF}");
+
+    for (int i = 0; i < 2; ++i) {
+      List<String> tokens = texts(preprocess(unit, Set.of("BAR")));
+      assertThat(tokens).contains("Foo").doesNotContain("Bar");
+    }
+    assertThat(cache().getHitCount()).isEqualTo(1);
+  }
+
+  @Test
+  void testSwitchesWrittenByIncludeShouldBeReplayed() throws IOException {
+    write("Switches.inc", "{$R+}", "  Foo: Integer;", "{$R-}");
+    Path unit = write("Unit.pas", "var", "{$I Switches.inc}", "  Bar: Integer;");
+
+    for (int i = 0; i < 2; ++i) {
+      DelphiPreprocessor preprocessor = preprocess(unit, Set.of());
+      CompilerSwitchRegistry switches = preprocessor.getCompilerSwitchRegistry();
+      int foo = indexOf(preprocessor, "Foo");
+      int bar = indexOf(preprocessor, "Bar");
+      assertThat(switches.isActiveSwitch(SwitchKind.RANGECHECKS, foo)).isTrue();
+      assertThat(switches.isActiveSwitch(SwitchKind.RANGECHECKS, bar)).isFalse();
+    }
+    assertThat(cache().getHitCount()).isEqualTo(1);
+  }
+
+  @Test
+  void testNestedIncludeShouldBeReplayedWithTheIncludeThatIncludesIt() throws IOException {
+    write("Outer.inc", "{$I Inner.inc}", "{$IFDEF FOO}", "  Foo: Integer;", "{$ENDIF}");
+    write("Inner.inc", "{$IFNDEF BAR}", "{$DEFINE FOO}", "{$ENDIF}");
+    Path unit = write("Unit.pas", "var", "{$I Outer.inc}");
+
+    assertThat(texts(preprocess(unit, Set.of()))).contains("Foo");
+    assertThat(texts(preprocess(unit, Set.of()))).contains("Foo");
+    assertThat(texts(preprocess(unit, Set.of("BAR")))).doesNotContain("Foo");
+
+    assertThat(cache().getHitCount()).isEqualTo(1);
+  }
+
+  @Test
+  void testChangedIncludeShouldNotBeReplayed() throws IOException {
+    write("Shared.inc", "  Foo: Integer;");
+    Path unit = write("Unit.pas", "var", "{$I Shared.inc}");
+    assertThat(texts(preprocess(unit, Set.of()))).contains("Foo");
+
+    edit("Shared.inc", "  Bar: Integer;");
+    assertThat(texts(preprocess(unit, Set.of()))).contains("Bar");
+
+    assertThat(cache().getHitCount()).isZero();
+  }
+
+  @Test
+  void testChangedNestedIncludeShouldNotBeReplayed() throws IOException {
+    write("Outer.inc", "{$I Inner.inc}");
+    write("Inner.inc", "  Foo: Integer;");
+    Path unit = write("Unit.pas", "var", "{$I Outer.inc}");
+    assertThat(texts(preprocess(unit, Set.of()))).contains("Foo");
+
+    edit("Inner.inc", "  Bar: Integer;");
+    assertThat(texts(preprocess(unit, Set.of()))).contains("Bar");
+  }
+
+  @Test
+  void testIncludeHashesShouldBeMemoizedUntilTheFileIsModified() throws IOException {
+    write("Outer.inc", "{$I Inner.inc}");
+    Path inner = write("Inner.inc", "  Foo: Integer;");
+    Path unit = write("Unit.pas", "var", "{$I Outer.inc}");
+    assertThat(texts(preprocess(unit, Set.of()))).contains("Foo");
+
+    // Contents that change without the modification time or size changing aren't hashed again.
+    FileTime lastModifiedTime = Files.getLastModifiedTime(inner);
+    write("Inner.inc", "  Bar: Integer;");
+    Files.setLastModifiedTime(inner, lastModifiedTime);
+    assertThat(texts(preprocess(unit, Set.of()))).contains("Foo");
+    assertThat(cache().getHitCount()).isEqualTo(1);
+
+    Files.setLastModifiedTime(inner, FileTime.fromMillis(lastModifiedTime.toMillis() + 1000));
+    assertThat(texts(preprocess(unit, Set.of()))).contains("Bar");
+    assertThat(cache().getHitCount()).isEqualTo(1);
+  }
+
+  @Test
+  void testCacheShouldBeSharedBetweenConcurrentWorkers() throws Exception {
+    write(
+        "Shared.inc", "{$IFDEF FOO}", "  Foo: Integer;", "{$ELSE}", "  Bar: Integer;", "{$ENDIF}");
+    Path unit = write("Unit.pas", "var", "{$I Shared.inc}", "  Baz: Integer;");
+    List<String> expected =
+        describe(new DelphiPreprocessorFactory(Platform.WINDOWS), unit, Set.of());
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<List<String>>> results =
+          executor.invokeAll(Collections.nCopies(32, () -> describe(preprocess(unit, Set.of()))));
+      for (Future<List<String>> result : results) {
+        assertThat(result.get()).isEqualTo(expected);
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    assertThat(cache().getHitCount() + cache().getMissCount()).isEqualTo(32);
+  }
+
+  private IncludeFileCache cache() {
+    return factory.getIncludeCache();
+  }
+
+  private Path write(String fileName, String... lines) throws IOException {
+    return Files.write(tempDir.resolve(fileName), List.of(lines), UTF_8);
+  }
+
+  private void edit(String fileName, String... lines) throws IOException {
+    Path file = tempDir.resolve(fileName);
+    FileTime lastModifiedTime = Files.getLastModifiedTime(file);
+    write(fileName, lines);
+    // An edit within the resolution of the file system clock wouldn't change the modification time.
+    Files.setLastModifiedTime(file, FileTime.fromMillis(lastModifiedTime.toMillis() + 1000));
+  }
+
+  private DelphiPreprocessor preprocess(Path file, Set<String> definitions) throws IOException {
+    return preprocess(factory, file, definitions);
+  }
+
+  private static DelphiPreprocessor preprocess(
+      DelphiPreprocessorFactory factory, Path file, Set<String> definitions) throws IOException {
+    DelphiFileConfig config =
+        DelphiFile.createConfig(UTF_8.name(), factory, TYPE_FACTORY, SEARCH_PATH, definitions);
+    DelphiLexer lexer =
+        new DelphiLexer(new DelphiFileStream(file.toAbsolutePath().toString(), UTF_8.name()));
+    DelphiPreprocessor preprocessor = factory.createPreprocessor(lexer, config);
+    preprocessor.process();
+    return preprocessor;
+  }
+
+  private static List<String> describe(
+      DelphiPreprocessorFactory factory, Path file, Set<String> definitions) throws IOException {
+    return describe(preprocess(factory, file, definitions));
+  }
+
+  private static List<String> describe(DelphiPreprocessor preprocessor) {
+    return preprocessor.getTokenStream().getTokens().stream()
+        .filter(token -> token.getChannel() == Token.DEFAULT_CHANNEL)
+        .map(
+            token ->
+                token.getText()
+                    + "@"
+                    + token.getLine()
+                    + (token instanceof IncludeToken ? " (included)" : "")
+                    + " #"
+                    + token.getTokenIndex())
+        .collect(Collectors.toList());
+  }
+
+  private static List<String> texts(DelphiPreprocessor preprocessor) {
+    return preprocessor.getTokenStream().getTokens().stream()
+        .map(Token::getText)
+        .collect(Collectors.toList());
+  }
+
+  private static int indexOf(DelphiPreprocessor preprocessor, String text) {
+    return preprocessor.getTokenStream().getTokens().stream()
+        .filter(token -> text.equals(token.getText()))
+        .findFirst()
+        .orElseThrow()
+        .getTokenIndex();
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.preprocessor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Collections;
+import java.util.List;
+import org.antlr.runtime.CommonToken;
+import org.antlr.runtime.Token;
+import org.junit.jupiter.api.Test;
+
+class TokenBufferTest {
+  @Test
+  void testTokensShouldBeKeptInOrder() {
+    TokenBuffer buffer = new TokenBuffer();
+    for (int i = 0; i < 1000; ++i) {
+      buffer.add(token(i));
+    }
+
+    assertThat(buffer.toList()).extracting(Token::getTokenIndex).hasSize(1000).isSorted();
+    assertThat(buffer.getLast().getTokenIndex()).isEqualTo(999);
+  }
+
+  @Test
+  void testTokensShouldNotBeAddedOutOfOrder() {
+    TokenBuffer buffer = new TokenBuffer();
+    buffer.add(token(1));
+
+    Token token = token(0);
+    assertThatThrownBy(() -> buffer.add(token)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void testReplacingTheLastToken() {
+    TokenBuffer buffer = new TokenBuffer();
+    buffer.add(token(0));
+    Token directive = token(1);
+    buffer.add(directive);
+
+    buffer.replace(directive, List.of(token(1), token(2), token(3)));
+    buffer.add(token(4));
+
+    assertThat(buffer.toList()).extracting(Token::getTokenIndex).containsExactly(0, 1, 2, 3, 4);
+  }
+
+  @Test
+  void testReplacingATokenInTheMiddle() {
+    TokenBuffer buffer = new TokenBuffer();
+    buffer.add(token(0));
+    Token directive = token(10);
+    buffer.add(directive);
+    buffer.add(token(20));
+
+    buffer.replace(directive, List.of(token(10), token(11)));
+
+    assertThat(buffer.toList()).extracting(Token::getTokenIndex).containsExactly(0, 10, 11, 20);
+  }
+
+  @Test
+  void testReplacingWithNoTokensShouldRemoveTheToken() {
+    TokenBuffer buffer = new TokenBuffer();
+    Token directive = token(0);
+    buffer.add(directive);
+
+    buffer.replace(directive, Collections.emptyList());
+
+    assertThat(buffer.isEmpty()).isTrue();
+    assertThat(buffer.getLast()).isNull();
+    assertThat(buffer.toList()).isEmpty();
+  }
+
+  private static Token token(int tokenIndex) {
+    CommonToken token = new CommonToken(Token.INVALID_TOKEN_TYPE);
+    token.setTokenIndex(tokenIndex);
+    return token;
+  }
+}
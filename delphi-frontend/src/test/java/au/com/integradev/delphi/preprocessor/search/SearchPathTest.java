@@ -18,17 +18,129 @@
  */
 package au.com.integradev.delphi.preprocessor.search;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.Collections;
+import java.util.List;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
 
 class SearchPathTest {
+  @TempDir private Path tempDir;
+
   @Test
   void testSearchWithInvalidPathShouldNotThrowException() {
     SearchPath searchPath = SearchPath.create(Collections.emptyList());
     Path invalidPath = Path.of("C:/MY/INVALID/PATH");
     assertThatCode(() -> searchPath.search("file", invalidPath)).doesNotThrowAnyException();
   }
+
+  @Test
+  void testSearchShouldIgnoreCase() throws IOException {
+    Path file = createFile("Root/Include.INC");
+
+    SearchPath searchPath = SearchPath.create(List.of(tempDir.resolve("Root")));
+
+    assertThat(searchPath.search("include.inc", tempDir.resolve("Other"))).isEqualTo(file);
+  }
+
+  @Test
+  void testSearchShouldPreferTheNearestFile() throws IOException {
+    createFile("Root/Nested/Deeper/Include.inc");
+    Path nearest = createFile("Root/Nested/Include.inc");
+
+    SearchPath searchPath = SearchPath.create(List.of(tempDir.resolve("Root")));
+
+    assertThat(searchPath.search("Include.inc", tempDir.resolve("Root"))).isEqualTo(nearest);
+  }
+
+  @Test
+  void testSearchShouldPreferTheIncludePathOverRootDirectories() throws IOException {
+    createFile("Root/Include.inc");
+    Path local = createFile("Source/Include.inc");
+
+    SearchPath searchPath = SearchPath.create(List.of(tempDir.resolve("Root")));
+
+    assertThat(searchPath.search("Include.inc", tempDir.resolve("Source"))).isEqualTo(local);
+  }
+
+  @Test
+  void testSearchShouldFindFilesAcrossManyDirectories() throws IOException {
+    for (int i = 0; i < 20; ++i) {
+      for (int j = 0; j < 5; ++j) {
+        createFile("Root/Dir" + i + "/Nested" + j + "/Include" + i + "_" + j + ".inc");
+      }
+    }
+
+    SearchPath searchPath = SearchPath.create(List.of(tempDir.resolve("Root")));
+
+    assertThat(searchPath.search("Include19_4.inc", tempDir.resolve("Root")))
+        .isEqualTo(tempDir.resolve("Root/Dir19/Nested4/Include19_4.inc"));
+  }
+
+  @Test
+  @DisabledOnOs(value = OS.WINDOWS, disabledReason = "Symbolic links need elevated privileges")
+  void testSymbolicLinkToAnAncestorShouldNotBeFollowed() throws IOException {
+    Path root = tempDir.resolve("Root");
+    Path cache = tempDir.resolve("Cache");
+    Path file = createFile("Root/Nested/Include.inc");
+    Files.createSymbolicLink(root.resolve("Nested/Loop"), root);
+
+    SearchPath searchPath = SearchPath.create(List.of(root), cache);
+
+    assertThat(searchPath.search("Include.inc", root)).isEqualTo(file);
+    // An index that failed to walk part of the tree isn't cached.
+    assertThat(DirectoryIndex.cacheFile(root, cache)).doesNotExist();
+  }
+
+  @Test
+  void testCachedIndexShouldBeReused() throws IOException {
+    Path root = tempDir.resolve("Root");
+    Path cache = tempDir.resolve("Cache");
+    Path file = createFile("Root/Include.inc");
+
+    SearchPath.create(List.of(root), cache);
+    Path cacheFile = DirectoryIndex.cacheFile(root, cache);
+    assertThat(cacheFile).isRegularFile();
+
+    // Deleting a file without changing the directory modification time can't be detected, so the
+    // cached index still contains it.
+    FileTime lastModified = Files.getLastModifiedTime(root);
+    Files.delete(file);
+    Files.setLastModifiedTime(root, lastModified);
+
+    SearchPath searchPath = SearchPath.create(List.of(root), cache);
+    assertThat(searchPath.search("Include.inc", root)).isEqualTo(file);
+  }
+
+  @Test
+  void testCachedIndexShouldBeInvalidatedWhenADirectoryChanges() throws IOException {
+    Path root = tempDir.resolve("Root");
+    Path cache = tempDir.resolve("Cache");
+    createFile("Root/Nested/Placeholder.inc");
+
+    SearchPath searchPath = SearchPath.create(List.of(root), cache);
+    assertThat(searchPath.search("Include.inc", root)).isNull();
+
+    Path nested = root.resolve("Nested");
+    FileTime lastModified = Files.getLastModifiedTime(nested);
+    Path file = createFile("Root/Nested/Include.inc");
+    Files.setLastModifiedTime(nested, FileTime.fromMillis(lastModified.toMillis() + 1000));
+
+    searchPath = SearchPath.create(List.of(root), cache);
+    assertThat(searchPath.search("Include.inc", root)).isEqualTo(file);
+  }
+
+  private Path createFile(String path) throws IOException {
+    Path file = tempDir.resolve(path);
+    Files.createDirectories(file.getParent());
+    return Files.createFile(file);
+  }
 }
@@ -0,0 +1,79 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.reporting;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import au.com.integradev.delphi.reporting.TestCodeRegions.Regions;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.sonar.plugins.communitydelphi.api.ast.DelphiNode;
+import org.sonar.plugins.communitydelphi.api.check.FilePosition;
+
+class TestCodeRegionsTest {
+  @Test
+  void testInnermostTypeDeclarationShouldDecide() {
+    DelphiNode outer = node(1, 30);
+    DelphiNode inner = node(5, 10);
+    DelphiNode sibling = node(12, 20);
+    TestCodeRegions regions =
+        new TestCodeRegions(
+            new Regions(List.of(sibling, inner, outer), Set.of(outer)::contains),
+            new Regions(List.of(), node -> true));
+
+    assertThat(regions.isInTestCode(position(2, 3))).isTrue();
+    assertThat(regions.isInTestCode(position(6, 7))).isFalse();
+    assertThat(regions.isInTestCode(position(11, 11))).isTrue();
+    assertThat(regions.isInTestCode(position(13, 14))).isFalse();
+    assertThat(regions.isInTestCode(position(21, 30))).isTrue();
+    assertThat(regions.isInTestCode(position(31, 32))).isFalse();
+    assertThat(regions.isInTestCode(position(9, 13))).isTrue();
+  }
+
+  @Test
+  void testRoutineImplementationsShouldDecideOutsideOfTypeDeclarations() {
+    DelphiNode testRoutine = node(10, 20);
+    TestCodeRegions regions =
+        new TestCodeRegions(
+            new Regions(List.of(node(1, 5)), node -> false),
+            new Regions(List.of(testRoutine, node(30, 40)), Set.of(testRoutine)::contains));
+
+    assertThat(regions.isInTestCode(position(2, 3))).isFalse();
+    assertThat(regions.isInTestCode(position(15, 16))).isTrue();
+    assertThat(regions.isInTestCode(position(35, 36))).isFalse();
+    assertThat(regions.isInTestCode(position(25, 26))).isFalse();
+    assertThat(regions.isInTestCode((FilePosition) null)).isFalse();
+  }
+
+  private static DelphiNode node(int beginLine, int endLine) {
+    DelphiNode node = mock(DelphiNode.class);
+    when(node.getBeginLine()).thenReturn(beginLine);
+    when(node.getBeginColumn()).thenReturn(0);
+    when(node.getEndLine()).thenReturn(endLine);
+    when(node.getEndColumn()).thenReturn(0);
+    return node;
+  }
+
+  private static FilePosition position(int beginLine, int endLine) {
+    return FilePosition.from(beginLine, 0, endLine, 0);
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.symbol;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import au.com.integradev.delphi.preprocessor.search.DirectoryIndex;
+import au.com.integradev.delphi.preprocessor.search.SearchPath;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class StandardLibraryIndexTest {
+  @TempDir private Path standardLibraryPath;
+  @TempDir private Path cacheDirectory;
+
+  @BeforeEach
+  void setup() throws IOException {
+    createFile("System.pas");
+    createFile("Common/System.SysUtils.pas");
+    createFile("Common/System.SysUtils.inc");
+    createFile("Tools/Ignored.pas");
+  }
+
+  @Test
+  void testWithoutCacheDirectory() {
+    assertThat(StandardLibraryIndex.findUnitFiles(standardLibraryPath, null))
+        .containsExactlyInAnyOrder(resolve("System.pas"), resolve("Common/System.SysUtils.pas"));
+    assertThat(cacheDirectory).isEmptyDirectory();
+  }
+
+  @Test
+  void testCachedIndexShouldBeReused() throws IOException {
+    List<Path> unitFiles = StandardLibraryIndex.findUnitFiles(standardLibraryPath, cacheDirectory);
+    Path cacheFile = DirectoryIndex.cacheFile(standardLibraryPath, cacheDirectory);
+
+    assertThat(cacheFile).isRegularFile();
+    assertThat(cacheDirectory).isDirectoryNotContaining("glob:**.tmp");
+
+    // Replacing a file doesn't change the modification time of its directory.
+    Files.delete(resolve("System.pas"));
+    createFile("Other.pas");
+    restoreModifiedTime(standardLibraryPath, cacheFile);
+
+    assertThat(StandardLibraryIndex.findUnitFiles(standardLibraryPath, cacheDirectory))
+        .containsExactlyElementsOf(unitFiles);
+  }
+
+  @Test
+  void testChangedDirectoryShouldInvalidateCachedIndex() throws IOException {
+    StandardLibraryIndex.findUnitFiles(standardLibraryPath, cacheDirectory);
+
+    createFile("Common/System.Classes.pas");
+    Files.setLastModifiedTime(
+        standardLibraryPath.resolve("Common"),
+        FileTime.fromMillis(System.currentTimeMillis() + 5000));
+
+    assertThat(StandardLibraryIndex.findUnitFiles(standardLibraryPath, cacheDirectory))
+        .containsExactlyInAnyOrder(
+            resolve("System.pas"),
+            resolve("Common/System.SysUtils.pas"),
+            resolve("Common/System.Classes.pas"));
+  }
+
+  @Test
+  void testCorruptCachedIndexShouldBeIgnored() throws IOException {
+    Path cacheFile = DirectoryIndex.cacheFile(standardLibraryPath, cacheDirectory);
+    Files.writeString(cacheFile, "garbage");
+
+    assertThat(StandardLibraryIndex.findUnitFiles(standardLibraryPath, cacheDirectory))
+        .containsExactlyInAnyOrder(resolve("System.pas"), resolve("Common/System.SysUtils.pas"));
+    assertThat(Files.readString(cacheFile)).isNotEqualTo("garbage");
+  }
+
+  @Test
+  void testSearchPathIndexShouldBeShared() throws IOException {
+    SearchPath.create(List.of(standardLibraryPath), cacheDirectory);
+    Path cacheFile = DirectoryIndex.cacheFile(standardLibraryPath, cacheDirectory);
+    FileTime written = Files.getLastModifiedTime(cacheFile);
+
+    assertThat(StandardLibraryIndex.findUnitFiles(standardLibraryPath, cacheDirectory))
+        .containsExactlyInAnyOrder(resolve("System.pas"), resolve("Common/System.SysUtils.pas"));
+    assertThat(cacheDirectory.toFile().list()).containsExactly(cacheFile.getFileName().toString());
+    assertThat(Files.getLastModifiedTime(cacheFile)).isEqualTo(written);
+  }
+
+  private void createFile(String relativePath) throws IOException {
+    Path file = resolve(relativePath);
+    Files.createDirectories(file.getParent());
+    Files.createFile(file);
+  }
+
+  private Path resolve(String relativePath) {
+    return standardLibraryPath.toAbsolutePath().normalize().resolve(relativePath);
+  }
+
+  private static void restoreModifiedTime(Path directory, Path cacheFile) throws IOException {
+    List<String> lines = Files.readAllLines(cacheFile);
+    String rootEntry =
+        lines.stream().filter(line -> line.matches("d \\d+ ")).findFirst().orElseThrow();
+    long lastModified = Long.parseLong(rootEntry.substring(2).trim());
+    Files.setLastModifiedTime(directory, FileTime.fromMillis(lastModified));
+  }
+}
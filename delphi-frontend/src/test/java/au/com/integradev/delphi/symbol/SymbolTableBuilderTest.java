@@ -24,22 +24,33 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import au.com.integradev.delphi.antlr.DelphiParser;
 import au.com.integradev.delphi.compiler.Platform;
 import au.com.integradev.delphi.preprocessor.DelphiPreprocessorFactory;
 import au.com.integradev.delphi.preprocessor.search.SearchPath;
 import au.com.integradev.delphi.symbol.SymbolTableBuilder.SymbolTableConstructionException;
+import au.com.integradev.delphi.symbol.resolve.InvocationResolver;
 import au.com.integradev.delphi.utils.types.TypeFactoryUtils;
+import com.google.common.base.Ticker;
 import java.io.IOException;
 import java.nio.file.FileSystem;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
 import java.nio.file.spi.FileSystemProvider;
+import java.time.Duration;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentMatchers;
+import org.sonar.plugins.communitydelphi.api.symbol.declaration.NameDeclaration;
+import org.sonar.plugins.communitydelphi.api.symbol.declaration.UnitNameDeclaration;
+import org.sonar.plugins.communitydelphi.api.symbol.scope.FileScope;
 
 class SymbolTableBuilderTest {
   @Test
@@ -174,4 +185,385 @@ class SymbolTableBuilderTest {
 
     assertThat(symbolTable.getUnitByPath(excludedPath.toString())).isNull();
   }
+
+  @Test
+  void testConcurrentBuildShouldMatchSequentialBuild(
+      @TempDir Path standardLibraryPath, @TempDir Path searchPath, @TempDir Path sourcePath)
+      throws IOException {
+    createSystemUnits(standardLibraryPath);
+
+    Files.writeString(
+        searchPath.resolve("MathLib.pas"),
+        "unit MathLib;\n"
+            + "interface\n"
+            + "function Twice(I: Integer): Integer; inline;\n"
+            + "implementation\n"
+            + "uses UnitC;\n"
+            + "function Twice(I: Integer): Integer;\n"
+            + "begin\n"
+            + "  Result := Identity(I) * 2;\n"
+            + "end;\n"
+            + "end.");
+
+    Files.writeString(
+        sourcePath.resolve("UnitA.pas"),
+        "unit UnitA;\n"
+            + "interface\n"
+            + "uses UnitB;\n"
+            + "type\n"
+            + "  TFoo = class(TBar)\n"
+            + "  end;\n"
+            + "implementation\n"
+            + "uses UnitC, MathLib;\n"
+            + "procedure Baz;\n"
+            + "begin\n"
+            + "  Twice(Identity(1));\n"
+            + "end;\n"
+            + "end.");
+
+    Files.writeString(
+        sourcePath.resolve("UnitB.pas"),
+        "unit UnitB;\n"
+            + "interface\n"
+            + "uses UnitC;\n"
+            + "type\n"
+            + "  TBar = class\n"
+            + "  end;\n"
+            + "implementation\n"
+            + "uses UnitA;\n"
+            + "procedure Baz;\n"
+            + "begin\n"
+            + "  TFoo.Create;\n"
+            + "end;\n"
+            + "end.");
+
+    Files.writeString(
+        sourcePath.resolve("UnitC.pas"),
+        "unit UnitC;\n"
+            + "interface\n"
+            + "function Identity(I: Integer): Integer; inline;\n"
+            + "implementation\n"
+            + "uses UnitB;\n"
+            + "function Identity(I: Integer): Integer;\n"
+            + "begin\n"
+            + "  Result := I;\n"
+            + "end;\n"
+            + "end.");
+
+    List<Path> sourceFiles =
+        List.of(
+            sourcePath.resolve("UnitA.pas"),
+            sourcePath.resolve("UnitB.pas"),
+            sourcePath.resolve("UnitC.pas"));
+
+    SymbolTable sequential =
+        buildSymbolTable(standardLibraryPath, searchPath, sourceFiles).threads(1).build();
+    SymbolTable concurrent =
+        buildSymbolTable(standardLibraryPath, searchPath, sourceFiles).threads(4).build();
+
+    UnitNameDeclaration unitA =
+        concurrent.getUnitByPath(sourceFiles.get(0).toAbsolutePath().toString());
+    assertThat(dependencyNames(unitA.getInterfaceDependencies())).contains("UnitB");
+    assertThat(dependencyNames(unitA.getImplementationDependencies())).contains("UnitC", "MathLib");
+
+    for (Path sourceFile : sourceFiles) {
+      String path = sourceFile.toAbsolutePath().toString();
+      UnitNameDeclaration expected = sequential.getUnitByPath(path);
+      UnitNameDeclaration actual = concurrent.getUnitByPath(path);
+
+      assertThat(actual).isNotNull();
+      assertThat(dependencyNames(actual.getInterfaceDependencies()))
+          .isEqualTo(dependencyNames(expected.getInterfaceDependencies()));
+      assertThat(dependencyNames(actual.getImplementationDependencies()))
+          .isEqualTo(dependencyNames(expected.getImplementationDependencies()));
+      assertThat(declarationImages(actual.getFileScope()))
+          .isEqualTo(declarationImages(expected.getFileScope()));
+    }
+  }
+
+  @Test
+  void testStandardLibraryUnitsShouldBeRestoredFromTheirCachedSummaries(
+      @TempDir Path standardLibraryPath, @TempDir Path sourcePath, @TempDir Path cacheDirectory)
+      throws IOException {
+    createSystemUnits(standardLibraryPath);
+    Files.writeString(
+        standardLibraryPath.resolve("System.Math.pas"),
+        "unit System.Math;\n"
+            + "interface\n"
+            + "type\n"
+            + "  TRoundingMode = (rmNearest, rmDown, rmUp);\n"
+            + "function Twice(I: Integer): Integer; inline;\n"
+            + "implementation\n"
+            + "function Twice(I: Integer): Integer;\n"
+            + "begin\n"
+            + "  Result := I * 2;\n"
+            + "end;\n"
+            + "end.");
+    Path sourceFile = sourcePath.resolve("Client.pas");
+    Files.writeString(
+        sourceFile,
+        "unit Client;\n"
+            + "interface\n"
+            + "uses System.Math;\n"
+            + "implementation\n"
+            + "procedure Foo;\n"
+            + "begin\n"
+            + "  Twice(1);\n"
+            + "end;\n"
+            + "end.");
+
+    Supplier<SymbolTable> build =
+        () ->
+            buildSymbolTable(standardLibraryPath, sourcePath, List.of(sourceFile))
+                .cacheDirectory(cacheDirectory)
+                .build();
+
+    SymbolTable parsed = build.get();
+
+    // Every summary would be written again if the units were parsed again.
+    FileTime written = FileTime.fromMillis(1000);
+    List<Path> summaries;
+    try (Stream<Path> files = Files.list(cacheDirectory.resolve("units"))) {
+      summaries = files.collect(Collectors.toList());
+    }
+    assertThat(summaries).hasSize(4);
+    for (Path summary : summaries) {
+      Files.setLastModifiedTime(summary, written);
+    }
+
+    SymbolTable restored = build.get();
+
+    for (Path summary : summaries) {
+      assertThat(Files.getLastModifiedTime(summary)).isEqualTo(written);
+    }
+    for (Path unit :
+        List.of(
+            standardLibraryPath.resolve("System.pas"),
+            standardLibraryPath.resolve("System.Math.pas"),
+            sourceFile)) {
+      String path = unit.toAbsolutePath().toString();
+      UnitNameDeclaration expected = parsed.getUnitByPath(path);
+      UnitNameDeclaration actual = restored.getUnitByPath(path);
+
+      assertThat(actual).isNotNull();
+      assertThat(declarationImages(actual.getFileScope()))
+          .isNotEmpty()
+          .isEqualTo(declarationImages(expected.getFileScope()));
+      assertThat(dependencyNames(actual.getInterfaceDependencies()))
+          .isEqualTo(dependencyNames(expected.getInterfaceDependencies()));
+      assertThat(dependencyNames(actual.getImplementationDependencies()))
+          .isEqualTo(dependencyNames(expected.getImplementationDependencies()));
+    }
+  }
+
+  private static SymbolTableBuilder buildSymbolTable(
+      Path standardLibraryPath, Path searchPath, List<Path> sourceFiles) {
+    return SymbolTable.builder()
+        .preprocessorFactory(new DelphiPreprocessorFactory(Platform.WINDOWS))
+        .typeFactory(TypeFactoryUtils.defaultFactory())
+        .standardLibraryPath(standardLibraryPath)
+        .searchPath(SearchPath.create(List.of(searchPath)))
+        .sourceFiles(sourceFiles);
+  }
+
+  @Test
+  void testUnitHashesShouldTrackInterfaceChanges(
+      @TempDir Path standardLibraryPath, @TempDir Path sourcePath) throws IOException {
+    createSystemUnits(standardLibraryPath);
+
+    Path libPath = sourcePath.resolve("Lib.pas");
+    Path clientPath = sourcePath.resolve("Client.pas");
+    Files.writeString(
+        clientPath, "unit Client;\n" + "interface\n" + "uses Lib;\n" + "implementation\n" + "end.");
+
+    Files.writeString(libPath, libUnit("procedure Foo;", "begin\nend;"));
+    SymbolTable original = buildWithUnitHashes(standardLibraryPath, libPath, clientPath);
+
+    Files.writeString(libPath, libUnit("procedure Foo;", "var\n  I: Integer;\nbegin\nend;"));
+    SymbolTable implementationChanged =
+        buildWithUnitHashes(standardLibraryPath, libPath, clientPath);
+
+    Files.writeString(libPath, libUnit("procedure Foo(I: Integer);", "begin\nend;"));
+    SymbolTable interfaceChanged = buildWithUnitHashes(standardLibraryPath, libPath, clientPath);
+
+    UnitHashes lib = original.getUnitHashes(libPath.toString());
+    UnitHashes client = original.getUnitHashes(clientPath.toString());
+    assertThat(lib).isNotNull();
+    assertThat(client).isNotNull();
+    assertThat(client.getImportPaths()).contains(libPath.toString());
+
+    UnitHashes libAfterImplementationChange =
+        implementationChanged.getUnitHashes(libPath.toString());
+    assertThat(libAfterImplementationChange.getInterfaceHash()).isEqualTo(lib.getInterfaceHash());
+    assertThat(libAfterImplementationChange.getContentHash()).isNotEqualTo(lib.getContentHash());
+    assertThat(implementationChanged.getUnitHashes(clientPath.toString()).getInterfaceHash())
+        .isEqualTo(client.getInterfaceHash());
+
+    assertThat(interfaceChanged.getUnitHashes(libPath.toString()).getInterfaceHash())
+        .isNotEqualTo(lib.getInterfaceHash());
+    assertThat(interfaceChanged.getUnitHashes(clientPath.toString()).getInterfaceHash())
+        .isNotEqualTo(client.getInterfaceHash());
+  }
+
+  @Test
+  void testSourceFileOverTimeBudgetShouldBeLeftOutOfTheSymbolTable(
+      @TempDir Path standardLibraryPath, @TempDir Path sourcePath) throws IOException {
+    createSystemUnits(standardLibraryPath);
+
+    // Large enough for the parser to read the clock at a checkpoint
+    StringBuilder constants = new StringBuilder();
+    for (int i = 0; i < 1000; ++i) {
+      constants.append("  C").append(i).append(" = ").append(i).append(";\n");
+    }
+    Path slowPath = sourcePath.resolve("Slow.pas");
+    Files.writeString(
+        slowPath, "unit Slow;\ninterface\nconst\n" + constants + "implementation\nend.");
+    Path clientPath = sourcePath.resolve("Client.pas");
+    Files.writeString(
+        clientPath,
+        "unit Client;\n" + "interface\n" + "uses Slow;\n" + "implementation\n" + "end.");
+
+    SymbolTable symbolTable =
+        SymbolTable.builder()
+            .preprocessorFactory(new DelphiPreprocessorFactory(Platform.WINDOWS))
+            .typeFactory(TypeFactoryUtils.defaultFactory())
+            .standardLibraryPath(standardLibraryPath)
+            .sourceFiles(List.of(slowPath, clientPath))
+            .fileTimeBudget(Duration.ofSeconds(1))
+            .timeBudgetTicker(tickerRunningOnlyIn(DelphiParser.class))
+            .build();
+
+    assertThat(symbolTable.getUnitByPath(slowPath.toString())).isNull();
+    assertThat(symbolTable.getUnitByPath(clientPath.toString())).isNotNull();
+  }
+
+  @Test
+  void testSourceFileOverTimeBudgetDuringResolutionShouldOnlyKeepItsInterface(
+      @TempDir Path standardLibraryPath, @TempDir Path sourcePath) throws IOException {
+    createSystemUnits(standardLibraryPath);
+
+    // Enough invocations for the resolver to read the clock at a checkpoint
+    StringBuilder invocations = new StringBuilder();
+    for (int i = 0; i < 1000; ++i) {
+      invocations.append("  Foo(").append(i).append(");\n");
+    }
+    Path slowPath = sourcePath.resolve("Slow.pas");
+    Files.writeString(
+        slowPath,
+        "unit Slow;\n"
+            + "interface\n"
+            + "procedure Foo(I: Integer); overload;\n"
+            + "procedure Foo(D: Double); overload;\n"
+            + "implementation\n"
+            + "procedure Foo(I: Integer);\n"
+            + "begin\n"
+            + "end;\n"
+            + "procedure Foo(D: Double);\n"
+            + "begin\n"
+            + "end;\n"
+            + "procedure Bar;\n"
+            + "begin\n"
+            + invocations
+            + "end;\n"
+            + "end.");
+    Path clientPath = sourcePath.resolve("Client.pas");
+    Files.writeString(
+        clientPath,
+        "unit Client;\n" + "interface\n" + "uses Slow;\n" + "implementation\n" + "end.");
+
+    SymbolTable symbolTable =
+        SymbolTable.builder()
+            .preprocessorFactory(new DelphiPreprocessorFactory(Platform.WINDOWS))
+            .typeFactory(TypeFactoryUtils.defaultFactory())
+            .standardLibraryPath(standardLibraryPath)
+            .sourceFiles(List.of(slowPath, clientPath))
+            .retainSourceFiles(true)
+            .fileTimeBudget(Duration.ofSeconds(1))
+            .timeBudgetTicker(tickerRunningOnlyIn(InvocationResolver.class))
+            .build();
+
+    assertThat(symbolTable.getUnitByPath(slowPath.toString())).isNotNull();
+    assertThat(symbolTable.takeSourceFile(slowPath.toString())).isNull();
+    assertThat(symbolTable.getUnitByPath(clientPath.toString())).isNotNull();
+    assertThat(symbolTable.takeSourceFile(clientPath.toString())).isNotNull();
+  }
+
+  /**
+   * Creates a ticker whose time only passes while the given class is running, so that a time budget
+   * can only be exceeded there.
+   */
+  private static Ticker tickerRunningOnlyIn(Class<?> clazz) {
+    return new Ticker() {
+      private long nanos;
+
+      @Override
+      public long read() {
+        boolean running =
+            StackWalker.getInstance()
+                .walk(frames -> frames.anyMatch(f -> f.getClassName().equals(clazz.getName())));
+        if (running) {
+          nanos += Duration.ofSeconds(2).toNanos();
+        }
+        return nanos;
+      }
+    };
+  }
+
+  private static String libUnit(String declaration, String body) {
+    return "unit Lib;\n"
+        + "interface\n"
+        + declaration
+        + "\nimplementation\n"
+        + declaration
+        + "\n"
+        + body
+        + "\nend.";
+  }
+
+  private static SymbolTable buildWithUnitHashes(Path standardLibraryPath, Path... sourceFiles) {
+    return SymbolTable.builder()
+        .preprocessorFactory(new DelphiPreprocessorFactory(Platform.WINDOWS))
+        .typeFactory(TypeFactoryUtils.defaultFactory())
+        .standardLibraryPath(standardLibraryPath)
+        .sourceFiles(List.of(sourceFiles))
+        .computeUnitHashes(true)
+        .build();
+  }
+
+  private static Set<String> dependencyNames(Set<UnitNameDeclaration> dependencies) {
+    return dependencies.stream().map(UnitNameDeclaration::getName).collect(Collectors.toSet());
+  }
+
+  private static Set<String> declarationImages(FileScope scope) {
+    return scope.getAllDeclarations().stream()
+        .map(NameDeclaration::getImage)
+        .collect(Collectors.toSet());
+  }
+
+  private static void createSystemUnits(Path standardLibraryPath) throws IOException {
+    Files.writeString(
+        standardLibraryPath.resolve("SysInit.pas"),
+        "unit SysInit;\n" //
+            + "interface\n"
+            + "implementation\n"
+            + "end.");
+
+    Files.writeString(
+        standardLibraryPath.resolve("System.pas"),
+        "unit System;\n"
+            + "interface\n"
+            + "type\n"
+            + "  TObject = class\n"
+            + "  public\n"
+            + "    constructor Create;\n"
+            + "  end;\n"
+            + "  IInterface = interface\n"
+            + "  end;\n"
+            + "  TClassHelperBase = class\n"
+            + "  end;\n"
+            + "  TVarRec = record\n"
+            + "  end;\n"
+            + "implementation\n"
+            + "end.");
+  }
 }
@@ -0,0 +1,193 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.symbol;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import au.com.integradev.delphi.file.DelphiFile;
+import au.com.integradev.delphi.file.DelphiFileConfig;
+import au.com.integradev.delphi.symbol.UnitImportScanner.UnitImports;
+import au.com.integradev.delphi.utils.DelphiUtils;
+import au.com.integradev.delphi.utils.files.DelphiFileUtils;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.sonar.plugins.communitydelphi.api.symbol.QualifiedName;
+
+class UnitImportScannerTest {
+  @TempDir private Path tempDir;
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "grammar/GrammarTest.pas",
+        "grammar/KeyWordsAsIdentifier.pas",
+        "grammar/QualifiedKeywordIdentifier.pas",
+        "preprocessor/includeTest/SameFolder.pas",
+        "projects/SimpleProject/MainWindow.pas",
+        "symbol/UsesDeclarations.pas",
+        "symbol/namespaces/UnitScopeNameTest.pas",
+        "symbol/namespaces/Namespaced.Unit1.pas",
+        "symbol/unitAliases/Unit1.pas",
+        "symbol/dependencies/Explicit.pas"
+      })
+  void testScannedImportsShouldMatchTheParsedUnit(String resource) throws IOException {
+    File unitFile = DelphiUtils.getResource("/au/com/integradev/delphi/" + resource);
+    DelphiFileConfig config = DelphiFileUtils.mockConfig();
+
+    UnitImports scanned = UnitImportScanner.scan(unitFile, config);
+    UnitImports parsed = UnitImports.from(DelphiFile.from(unitFile, config).getAst());
+
+    assertThat(scanned.getName()).isEqualTo(parsed.getName());
+    assertThat(scanned.getNamespace()).isEqualTo(parsed.getNamespace());
+    assertThat(scanned.getInterfaceImports()).isEqualTo(parsed.getInterfaceImports());
+    assertThat(scanned.getImplementationImports()).isEqualTo(parsed.getImplementationImports());
+  }
+
+  @Test
+  void testImportsShouldBeClassifiedBySection() throws IOException {
+    File unitFile =
+        write(
+            "Foo.Bar.pas",
+            "unit Foo.Bar platform;",
+            "interface",
+            "uses",
+            "  // Comment",
+            "  System.SysUtils, {$IFDEF DEBUG} Debug.Only, {$ENDIF} &Type.&Unit;",
+            "type",
+            "  IBaz = interface",
+            "  end;",
+            "implementation",
+            "uses Impl;",
+            "end.");
+
+    UnitImports imports = UnitImportScanner.scan(unitFile, DelphiFileUtils.mockConfig());
+
+    assertThat(imports.getName()).isEqualTo("Foo.Bar");
+    assertThat(imports.getNamespace()).isEqualTo("Foo");
+    assertThat(names(imports.getInterfaceImports()))
+        .containsExactly("System.SysUtils", "Type.Unit");
+    assertThat(names(imports.getImplementationImports())).containsExactly("Impl");
+  }
+
+  @Test
+  void testImplementationImportsShouldBeSkippedWithTheImplementation() throws IOException {
+    File unitFile =
+        write(
+            "Foo.pas",
+            "unit Foo;",
+            "interface",
+            "uses Bar;",
+            "implementation",
+            "uses Baz;",
+            "end.");
+    DelphiFileConfig config = DelphiFileUtils.mockConfig();
+    when(config.shouldSkipImplementation()).thenReturn(true);
+
+    UnitImports imports = UnitImportScanner.scan(unitFile, config);
+
+    assertThat(names(imports.getInterfaceImports())).containsExactly("Bar");
+    assertThat(imports.getImplementationImports()).isEmpty();
+  }
+
+  @Test
+  void testDefinitionsShouldSelectConditionalImports() throws IOException {
+    File unitFile =
+        write(
+            "Foo.pas",
+            "unit Foo;",
+            "interface",
+            "uses {$IFDEF BAR} Bar {$ELSE} Baz {$ENDIF};",
+            "implementation",
+            "end.");
+    DelphiFileConfig config = DelphiFileUtils.mockConfig();
+    when(config.getDefinitions()).thenReturn(Set.of("BAR"));
+
+    UnitImports imports = UnitImportScanner.scan(unitFile, config);
+
+    assertThat(names(imports.getInterfaceImports())).containsExactly("Bar");
+  }
+
+  @Test
+  void testProgramImportsShouldSkipFileNames() throws IOException {
+    File programFile =
+        write(
+            "Foo.dpr",
+            "program Foo;",
+            "uses",
+            "  Bar in 'Bar.pas',",
+            "  Baz.Qux in '..\\Baz.Qux.pas' {Form};",
+            "begin",
+            "end.");
+
+    UnitImports imports = UnitImportScanner.scan(programFile, DelphiFileUtils.mockConfig());
+
+    assertThat(imports.getName()).isEqualTo("Foo");
+    assertThat(names(imports.getInterfaceImports())).containsExactly("Bar", "Baz.Qux");
+    assertThat(imports.getImplementationImports()).isEmpty();
+  }
+
+  @Test
+  void testProgramWithoutHeaderShouldHaveNoName() throws IOException {
+    File programFile = write("Foo.dpr", "uses Bar;", "begin", "end.");
+
+    UnitImports imports = UnitImportScanner.scan(programFile, DelphiFileUtils.mockConfig());
+
+    assertThat(imports.getName()).isEmpty();
+    assertThat(imports.getNamespace()).isEmpty();
+    assertThat(names(imports.getInterfaceImports())).containsExactly("Bar");
+  }
+
+  @Test
+  void testPackageImportsShouldIncludeRequiresAndContains() throws IOException {
+    File packageFile =
+        write(
+            "Foo.dpk",
+            "package Foo;",
+            "requires",
+            "  rtl, vcl;",
+            "contains",
+            "  Bar in 'Bar.pas';",
+            "end.");
+
+    UnitImports imports = UnitImportScanner.scan(packageFile, DelphiFileUtils.mockConfig());
+
+    assertThat(names(imports.getInterfaceImports())).containsExactly("rtl", "vcl", "Bar");
+  }
+
+  private File write(String fileName, String... lines) throws IOException {
+    Path file = tempDir.resolve(fileName);
+    Files.write(file, List.of(lines), StandardCharsets.UTF_8);
+    return file.toFile();
+  }
+
+  private static List<String> names(List<QualifiedName> names) {
+    return names.stream().map(QualifiedName::fullyQualifiedName).collect(Collectors.toList());
+  }
+}
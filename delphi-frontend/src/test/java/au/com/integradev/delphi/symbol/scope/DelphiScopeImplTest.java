@@ -31,6 +31,7 @@ import au.com.integradev.delphi.symbol.occurrence.NameOccurrenceImpl;
 import au.com.integradev.delphi.utils.types.TypeMocker;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.sonar.plugins.communitydelphi.api.symbol.NameOccurrence;
@@ -171,4 +172,36 @@ class DelphiScopeImplTest {
     VariableNameDeclaration bar = createVariable("Bar");
     assertThatCode(() -> scope.addDeclaration(bar)).doesNotThrowAnyException();
   }
+
+  @Test
+  void testOccurrencesShouldBeAViewOfTheScope() {
+    VariableNameDeclaration declaration = createVariable();
+    scope.addDeclaration(declaration);
+
+    List<NameOccurrence> occurrences = scope.getOccurrencesFor(declaration);
+    scope.addNameOccurrence(createOccurrenceOf(declaration));
+
+    assertThat(occurrences).hasSize(1);
+    assertThat(scope.getAllDeclarations()).isNotInstanceOf(ConcurrentHashMap.KeySetView.class);
+  }
+
+  @Test
+  void testOccurrencesShouldBeCopiedUntilTheConcurrentResolutionIsComplete() {
+    ConcurrentResolution resolution = new ConcurrentResolution();
+    DelphiScopeImpl sharedScope = new DelphiScopeImpl(resolution) {};
+    VariableNameDeclaration declaration = createVariable();
+    sharedScope.addDeclaration(declaration);
+
+    List<NameOccurrence> copy = sharedScope.getOccurrencesFor(declaration);
+    sharedScope.addNameOccurrence(createOccurrenceOf(declaration));
+
+    assertThat(copy).isEmpty();
+    assertThat(sharedScope.getAllDeclarations()).isInstanceOf(ConcurrentHashMap.KeySetView.class);
+
+    resolution.complete();
+    List<NameOccurrence> view = sharedScope.getOccurrencesFor(declaration);
+    sharedScope.addNameOccurrence(createOccurrenceOf(declaration));
+
+    assertThat(view).hasSize(2);
+  }
 }
@@ -0,0 +1,180 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.telemetry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import au.com.integradev.delphi.telemetry.AnalysisTelemetry.Category;
+import au.com.integradev.delphi.telemetry.AnalysisTelemetry.Stopwatch;
+import au.com.integradev.delphi.utils.ManualTicker;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.json.simple.JSONValue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AnalysisTelemetryTest {
+  @TempDir private Path tempDir;
+  private final ManualTicker ticker = new ManualTicker();
+
+  @Test
+  void testDisabledTelemetryShouldNotRecordAnything() {
+    AnalysisTelemetry telemetry = AnalysisTelemetry.disabled();
+
+    assertThat(telemetry.isEnabled()).isFalse();
+    assertThat(telemetry.start()).isSameAs(telemetry.startPhase());
+
+    telemetry.record(Category.RULE, "Rule", telemetry.start());
+    telemetry.recordShares(Category.RULE, Map.of("Rule", telemetry.wallTime()), telemetry.start());
+
+    assertThat(telemetry.wallTime()).isZero();
+    assertThat(telemetry.getSlowest(Category.RULE)).isEmpty();
+  }
+
+  @Test
+  void testMeasurementsShouldBeRecordedByName() {
+    AnalysisTelemetry telemetry = AnalysisTelemetry.create(ticker);
+
+    Stopwatch fast = telemetry.start();
+    ticker.advance(10);
+    telemetry.record(Category.RULE, "Fast", fast);
+    Stopwatch slow = telemetry.start();
+    ticker.advance(100);
+    telemetry.record(Category.RULE, "Slow", slow);
+
+    assertThat(telemetry.getSlowest(Category.RULE)).containsExactly("Slow", "Fast");
+    assertThat(telemetry.getSlowest(Category.FILE)).isEmpty();
+  }
+
+  @Test
+  void testNestedPhasesShouldBeExcludedFromTheOuterPhase() throws Exception {
+    AnalysisTelemetry telemetry = AnalysisTelemetry.create(ticker);
+
+    Stopwatch outer = telemetry.startPhase();
+    ticker.advance(10);
+    Stopwatch inner = telemetry.startPhase();
+    ticker.advance(100);
+    telemetry.record(Category.PHASE, "Inner", inner);
+    ticker.advance(5);
+    telemetry.record(Category.PHASE, "Outer", outer);
+    Stopwatch next = telemetry.startPhase();
+    ticker.advance(1);
+    telemetry.record(Category.PHASE, "Next", next);
+
+    assertThat(telemetry.getSlowest(Category.PHASE)).containsExactly("Inner", "Outer", "Next");
+    assertThat(wallTimes(telemetry, "phases"))
+        .containsExactly(Map.entry("Inner", 100L), Map.entry("Outer", 15L), Map.entry("Next", 1L));
+  }
+
+  @Test
+  void testSharedWorkShouldBeRecordedOncePerName() throws Exception {
+    AnalysisTelemetry telemetry = AnalysisTelemetry.create(ticker);
+
+    Stopwatch walk = telemetry.start();
+    long begin = telemetry.wallTime();
+    ticker.advance(75);
+    long first = telemetry.wallTime() - begin;
+    ticker.advance(5);
+    begin = telemetry.wallTime();
+    ticker.advance(20);
+    long second = telemetry.wallTime() - begin;
+
+    Map<String, Long> shares = new LinkedHashMap<>();
+    shares.put("First", first);
+    shares.put("Second", second);
+    telemetry.recordShares(Category.RULE, shares, walk);
+
+    assertThat(wallTimes(telemetry, "rules"))
+        .containsExactly(Map.entry("First", 75L), Map.entry("Second", 20L));
+  }
+
+  @Test
+  void testReportShouldContainEveryCategory() throws Exception {
+    AnalysisTelemetry telemetry = AnalysisTelemetry.create();
+    telemetry.record(Category.PHASE, "Parsing", telemetry.startPhase());
+    telemetry.record(Category.RULE, "delphi:Rule", telemetry.start());
+    telemetry.record(Category.RULE, "delphi:Rule", telemetry.start());
+
+    Path reportFile = tempDir.resolve("reports/telemetry.json");
+    telemetry.writeReport(reportFile);
+
+    Map<String, Object> report =
+        asMap(JSONValue.parse(Files.readString(reportFile, StandardCharsets.UTF_8)));
+    assertThat(report)
+        .containsKeys(
+            "version",
+            "cpuTimeSupported",
+            "allocatedBytesSupported",
+            "phases",
+            "executors",
+            "rules",
+            "files",
+            "parses");
+    assertThat((List<?>) report.get("executors")).isEmpty();
+
+    List<?> rules = (List<?>) report.get("rules");
+    assertThat(rules).hasSize(1);
+    Map<String, Object> rule = asMap(rules.get(0));
+    assertThat(rule.get("name")).isEqualTo("delphi:Rule");
+    assertThat(rule.get("count")).isEqualTo(2L);
+    assertThat(rule).containsKeys("wallTimeNanos", "cpuTimeNanos", "allocatedBytes");
+  }
+
+  @Test
+  void testParsesShouldReportThePeakMemoSize() throws Exception {
+    AnalysisTelemetry telemetry = AnalysisTelemetry.create();
+    telemetry.recordParse("Unit.pas", telemetry.start(), 10);
+    telemetry.recordParse("Unit.pas", telemetry.start(), 5);
+
+    Path reportFile = tempDir.resolve("telemetry.json");
+    telemetry.writeReport(reportFile);
+
+    Map<String, Object> report =
+        asMap(JSONValue.parse(Files.readString(reportFile, StandardCharsets.UTF_8)));
+    List<?> parses = (List<?>) report.get("parses");
+    assertThat(parses).hasSize(1);
+    Map<String, Object> parse = asMap(parses.get(0));
+    assertThat(parse.get("name")).isEqualTo("Unit.pas");
+    assertThat(parse.get("peakMemoSize")).isEqualTo(10L);
+    assertThat((List<?>) report.get("files")).isEmpty();
+  }
+
+  private Map<String, Long> wallTimes(AnalysisTelemetry telemetry, String reportKey)
+      throws Exception {
+    Path reportFile = tempDir.resolve(reportKey + ".json");
+    telemetry.writeReport(reportFile);
+
+    Map<String, Object> report =
+        asMap(JSONValue.parse(Files.readString(reportFile, StandardCharsets.UTF_8)));
+    Map<String, Long> result = new LinkedHashMap<>();
+    for (Object entry : (List<?>) report.get(reportKey)) {
+      result.put((String) asMap(entry).get("name"), (Long) asMap(entry).get("wallTimeNanos"));
+    }
+    return result;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<String, Object> asMap(Object json) {
+    return (Map<String, Object>) json;
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.telemetry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import au.com.integradev.delphi.file.DelphiFile;
+import au.com.integradev.delphi.file.DelphiFileConfig;
+import au.com.integradev.delphi.utils.DelphiUtils;
+import au.com.integradev.delphi.utils.files.DelphiFileUtils;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import org.json.simple.JSONValue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ParserProfileTest {
+  @TempDir private Path tempDir;
+
+  @Test
+  void testProfileShouldCountBacktrackingPerRuleAndDecision() throws Exception {
+    ParserProfile profile = new ParserProfile();
+    parse("/au/com/integradev/delphi/grammar/GrammarTest.pas", profile);
+    parse("/au/com/integradev/delphi/grammar/Generics.pas", profile);
+
+    assertThat(profile.getParseCount()).isEqualTo(2);
+    assertThat(profile.getHottestRules()).isNotEmpty().doesNotContain("<unknown>");
+
+    Path reportFile = tempDir.resolve("parser-profile.json");
+    profile.writeReport(reportFile);
+
+    Map<String, Object> report =
+        asMap(JSONValue.parse(Files.readString(reportFile, StandardCharsets.UTF_8)));
+    assertThat(report).containsKeys("version", "parses", "rules", "decisions");
+    assertThat(report.get("parses")).isEqualTo(2L);
+
+    Map<String, Object> hottestRule = asMap(((List<?>) report.get("rules")).get(0));
+    assertThat((Long) hottestRule.get("backtracks")).isPositive();
+    assertThat((Long) hottestRule.get("speculativeTokens")).isPositive();
+    assertThat(hottestRule).containsKeys("name", "memoHits", "memoMisses");
+
+    List<?> decisions = (List<?>) report.get("decisions");
+    assertThat(decisions).isNotEmpty();
+    Map<String, Object> hottestDecision = asMap(decisions.get(0));
+    assertThat((String) hottestDecision.get("name")).startsWith("synpred");
+    assertThat(hottestDecision.get("rule")).isNotEqualTo("<unknown>");
+    assertThat(hottestDecision).containsKeys("decision", "backtracks", "speculativeTokens");
+  }
+
+  @Test
+  void testMemoHitsShouldBeCounted() {
+    ParserProfile profile = new ParserProfile();
+    parse("/au/com/integradev/delphi/grammar/GrammarTest.pas", profile);
+
+    assertThat(profile.getHottestRules())
+        .anySatisfy(rule -> assertThat(profile.rule(rule).memoHits.sum()).isPositive());
+  }
+
+  @Test
+  void testDecisionsShouldBeKeyedByPredicateRuleAndDecisionNumber() throws Exception {
+    ParserProfile profile = new ParserProfile();
+    profile.decision("synpred1_Delphi", "statement", 10).backtracks.increment();
+    profile.decision("synpred1_Delphi", "expression", 20).backtracks.add(2);
+    profile.decision("synpred1_Delphi", "expression", 20).backtracks.add(3);
+
+    Path reportFile = tempDir.resolve("parser-profile.json");
+    profile.writeReport(reportFile);
+
+    Map<String, Object> report =
+        asMap(JSONValue.parse(Files.readString(reportFile, StandardCharsets.UTF_8)));
+    List<?> decisions = (List<?>) report.get("decisions");
+    assertThat(decisions).hasSize(2);
+
+    Map<String, Object> first = asMap(decisions.get(0));
+    assertThat(first.get("name")).isEqualTo("synpred1_Delphi");
+    assertThat(first.get("rule")).isEqualTo("expression");
+    assertThat(first.get("decision")).isEqualTo(20L);
+    assertThat(first.get("backtracks")).isEqualTo(5L);
+
+    Map<String, Object> second = asMap(decisions.get(1));
+    assertThat(second.get("name")).isEqualTo("synpred1_Delphi");
+    assertThat(second.get("rule")).isEqualTo("statement");
+    assertThat(second.get("decision")).isEqualTo(10L);
+    assertThat(second.get("backtracks")).isEqualTo(1L);
+  }
+
+  private static void parse(String resource, ParserProfile profile) {
+    File file = DelphiUtils.getResource(resource);
+    DelphiFileConfig config = DelphiFileUtils.mockConfig();
+    when(config.getParserProfile()).thenReturn(profile);
+    DelphiFile.from(file, config);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<String, Object> asMap(Object json) {
+    return (Map<String, Object>) json;
+  }
+}
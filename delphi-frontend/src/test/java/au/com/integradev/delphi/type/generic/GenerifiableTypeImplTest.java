@@ -0,0 +1,159 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.type.generic;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+import org.sonar.plugins.communitydelphi.api.symbol.declaration.GenerifiableDeclaration;
+import org.sonar.plugins.communitydelphi.api.symbol.declaration.TypedDeclaration;
+import org.sonar.plugins.communitydelphi.api.type.Type;
+import org.sonar.plugins.communitydelphi.api.type.TypeFactory;
+import org.sonar.plugins.communitydelphi.api.type.TypeSpecializationContext;
+
+class GenerifiableTypeImplTest {
+  private static final TypeSpecializationContext CONTEXT = createContext();
+
+  @Test
+  void testSpecializationShouldBeCachedAndReferToItself() {
+    SelfReferencingType generic = new SelfReferencingType(specialized -> {});
+
+    Type specialized = generic.specialize(CONTEXT);
+
+    assertThat(specialized).isNotSameAs(generic);
+    assertThat(generic.specialize(CONTEXT)).isSameAs(specialized);
+    assertThat(((SelfReferencingType) specialized).self).isSameAs(specialized);
+  }
+
+  @Test
+  void testHalfBuiltSpecializationShouldNotBeVisibleToOtherThreads() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    SelfReferencingType generic =
+        new SelfReferencingType(
+            specialized -> {
+              if (started.getCount() > 0) {
+                started.countDown();
+                await(release);
+              }
+            });
+
+    CompletableFuture<Type> first =
+        CompletableFuture.supplyAsync(() -> generic.specialize(CONTEXT));
+    await(started);
+
+    Type second = generic.specialize(CONTEXT);
+    assertThat(((SelfReferencingType) second).self).isSameAs(second);
+
+    release.countDown();
+    assertThat(first.get(10, TimeUnit.SECONDS)).isSameAs(second);
+  }
+
+  @Test
+  void testFailedSpecializationShouldNotBeCached() {
+    boolean[] failed = {false};
+    SelfReferencingType generic =
+        new SelfReferencingType(
+            specialized -> {
+              if (!failed[0]) {
+                failed[0] = true;
+                throw new IllegalStateException();
+              }
+            });
+
+    assertThatThrownBy(() -> generic.specialize(CONTEXT)).isInstanceOf(IllegalStateException.class);
+
+    Type specialized = generic.specialize(CONTEXT);
+    assertThat(((SelfReferencingType) specialized).self).isSameAs(specialized);
+  }
+
+  private static TypeSpecializationContext createContext() {
+    TypedDeclaration typeParameter = mock(TypedDeclaration.class);
+    when(typeParameter.getType()).thenReturn(TypeParameterTypeImpl.create("T"));
+
+    GenerifiableDeclaration declaration = mock(GenerifiableDeclaration.class);
+    when(declaration.isGeneric()).thenReturn(true);
+    when(declaration.getTypeParameters()).thenReturn(List.of(typeParameter));
+
+    return new TypeSpecializationContextImpl(declaration, List.of(TypeFactory.untypedType()));
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new AssertionError(e);
+    }
+  }
+
+  /**
+   * A type whose specializations refer to themselves once they're finished, like a record with a
+   * pointer to its own type.
+   */
+  private static final class SelfReferencingType extends GenerifiableTypeImpl {
+    private final SelfReferencingType generic;
+    private final Consumer<SelfReferencingType> afterSpecialization;
+    private Type self;
+
+    private SelfReferencingType(Consumer<SelfReferencingType> afterSpecialization) {
+      this(null, afterSpecialization);
+    }
+
+    private SelfReferencingType(
+        SelfReferencingType generic, Consumer<SelfReferencingType> afterSpecialization) {
+      this.generic = generic;
+      this.afterSpecialization = afterSpecialization;
+    }
+
+    @Override
+    public String getImage() {
+      return generic == null ? "TSelf<T>" : "TSelf<Integer>";
+    }
+
+    @Override
+    public int size() {
+      return 0;
+    }
+
+    @Override
+    public boolean canBeSpecialized(TypeSpecializationContext context) {
+      return generic == null;
+    }
+
+    @Override
+    protected GenerifiableTypeImpl doSpecialization(TypeSpecializationContext context) {
+      return new SelfReferencingType(this, afterSpecialization);
+    }
+
+    @Override
+    protected void doAfterSpecialization(TypeSpecializationContext context) {
+      afterSpecialization.accept(this);
+      self = generic.specialize(context);
+    }
+  }
+}
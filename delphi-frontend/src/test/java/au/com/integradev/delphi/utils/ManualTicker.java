@@ -0,0 +1,40 @@
+/*
+ * Sonar Delphi Plugin
+ * Copyright (C) 2026 Integrated Application Development
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package au.com.integradev.delphi.utils;
+
+import com.google.common.base.Ticker;
+import java.time.Duration;
+
+/** A {@link Ticker} that only moves when a test advances it. */
+public final class ManualTicker extends Ticker {
+  private long nanos;
+
+  public void advance(long nanos) {
+    this.nanos += nanos;
+  }
+
+  public void advance(Duration duration) {
+    advance(duration.toNanos());
+  }
+
+  @Override
+  public long read() {
+    return nanos;
+  }
+}
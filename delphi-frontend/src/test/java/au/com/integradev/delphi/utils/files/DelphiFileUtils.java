@@ -25,6 +25,7 @@ import au.com.integradev.delphi.compiler.Platform;
 import au.com.integradev.delphi.file.DelphiFileConfig;
 import au.com.integradev.delphi.preprocessor.DelphiPreprocessorFactory;
 import au.com.integradev.delphi.preprocessor.search.SearchPath;
+import au.com.integradev.delphi.telemetry.AnalysisTelemetry;
 import au.com.integradev.delphi.utils.types.TypeFactoryUtils;
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
@@ -39,6 +40,7 @@ public final class DelphiFileUtils {
     when(mock.getEncoding()).thenReturn(StandardCharsets.UTF_8.name());
     when(mock.getPreprocessorFactory()).thenReturn(new DelphiPreprocessorFactory(Platform.WINDOWS));
     when(mock.getTypeFactory()).thenReturn(TypeFactoryUtils.defaultFactory());
+    when(mock.getTelemetry()).thenReturn(AnalysisTelemetry.disabled());
     when(mock.getSearchPath()).thenReturn(SearchPath.create(Collections.emptyList()));
     when(mock.getDefinitions()).thenReturn(Collections.emptySet());
     return mock;
@@ -0,0 +1,15 @@
+unit InactiveBranches;
+
+interface
+
+implementation
+
+procedure Foo;
+begin
+  {$IFDEF NEVER_DEFINED}
+  // Inactive comment
+  Bar;
+  {$ENDIF}
+end;
+
+end.
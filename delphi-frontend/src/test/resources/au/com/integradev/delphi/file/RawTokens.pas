@@ -0,0 +1,24 @@
+unit RawTokens;
+
+interface
+
+{$I RawTokens.inc}
+
+implementation
+
+procedure Foo;
+begin
+  {$IFDEF NEVER_DEFINED}
+  (* Inactive comment *)
+  Bar;
+  {$ELSE}
+  Baz;
+  {$ENDIF}
+  asm
+    MOV EAX, 1 // Assembly comment
+  end;
+end;
+
+end.
+
+Everything after the end of the unit is lexed as a single token.
@@ -0,0 +1,7 @@
+unit Simple;
+
+interface // The interface section
+
+implementation
+
+end.
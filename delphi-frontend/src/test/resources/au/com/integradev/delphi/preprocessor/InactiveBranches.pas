@@ -0,0 +1,26 @@
+unit InactiveBranches;
+
+interface
+
+{$IFDEF FAIL_IF_DEFINED}
+  // {$ENDIF}
+  { {$ENDIF} }
+  (* {$ENDIF} *)
+  Foo = '{$ENDIF}';
+  {$IFNDEF FAIL_IF_DEFINED}
+    {$DEFINE FAIL_IF_DEFINED}
+  {$ENDIF}
+  ERROR
+{$ELSEIF Defined(FAIL_IF_DEFINED)}
+  ERROR
+{$ELSE}
+  {$DEFINE INACTIVE_BRANCHES_SKIPPED}
+{$ENDIF}
+
+{$IFNDEF INACTIVE_BRANCHES_SKIPPED}
+ERROR
+{$ENDIF}
+
+implementation
+
+end.
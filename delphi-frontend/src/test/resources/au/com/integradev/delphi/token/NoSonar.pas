@@ -0,0 +1,18 @@
+unit NoSonar;
+
+interface
+
+implementation
+
+procedure MyNoSonarTest;
+begin
+  // NOSONAR
+  Foo; //NOSONAR because of reasons
+  Bar; // NOSONARS is not a marker
+  Baz; { nosonar is case sensitive }
+  (* NOSONAR
+     only counts on a single line *)
+  Flarp; {NOSONAR}
+end;
+
+end.
@@ -25,32 +25,52 @@ package au.com.integradev.delphi;
 import static au.com.integradev.delphi.utils.DelphiUtils.inputFilesToPaths;
 import static au.com.integradev.delphi.utils.DelphiUtils.stopProgressReport;
 
+import au.com.integradev.delphi.budget.TimeBudget;
 import au.com.integradev.delphi.compiler.CompilerVersion;
 import au.com.integradev.delphi.compiler.Toolchain;
 import au.com.integradev.delphi.core.Delphi;
 import au.com.integradev.delphi.executor.DelphiMasterExecutor;
 import au.com.integradev.delphi.executor.ExecutorContext;
+import au.com.integradev.delphi.executor.SynchronizedSensorContext;
 import au.com.integradev.delphi.file.DelphiFile;
 import au.com.integradev.delphi.file.DelphiFile.DelphiFileConstructionException;
 import au.com.integradev.delphi.file.DelphiFile.DelphiInputFile;
 import au.com.integradev.delphi.file.DelphiFileConfig;
+import au.com.integradev.delphi.incremental.AnalysisRecording;
+import au.com.integradev.delphi.incremental.IncrementalAnalysis;
+import au.com.integradev.delphi.incremental.RecordingSensorContext;
 import au.com.integradev.delphi.msbuild.DelphiProjectHelper;
 import au.com.integradev.delphi.preprocessor.DelphiPreprocessorFactory;
 import au.com.integradev.delphi.preprocessor.search.SearchPath;
 import au.com.integradev.delphi.symbol.SymbolTable;
+import au.com.integradev.delphi.telemetry.AnalysisTelemetry;
+import au.com.integradev.delphi.telemetry.ParserProfile;
 import au.com.integradev.delphi.type.factory.TypeFactoryImpl;
+import com.google.common.base.Throwables;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.sonar.api.CoreProperties;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.sensor.Sensor;
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.batch.sensor.SensorDescriptor;
+import org.sonar.plugins.communitydelphi.api.FatalAnalysisError;
 import org.sonarsource.analyzer.commons.ProgressReport;
 
 public class DelphiSensor implements Sensor {
@@ -102,7 +122,14 @@ public class DelphiSensor implements Sensor {
     List<Path> searchPathDirectories = new ArrayList<>();
     searchPathDirectories.addAll(delphiProjectHelper.getSearchDirectories());
     searchPathDirectories.addAll(delphiProjectHelper.getDebugSourceDirectories());
-    SearchPath searchPath = SearchPath.create(searchPathDirectories);
+    SearchPath searchPath =
+        SearchPath.create(searchPathDirectories, delphiProjectHelper.getCacheDirectory());
+    boolean incremental = delphiProjectHelper.shouldAnalyzeIncrementally();
+    Path telemetryReportPath = delphiProjectHelper.getTelemetryReportPath();
+    AnalysisTelemetry telemetry =
+        telemetryReportPath == null ? AnalysisTelemetry.disabled() : AnalysisTelemetry.create();
+    Path parserProfileReportPath = delphiProjectHelper.getParserProfileReportPath();
+    ParserProfile parserProfile = parserProfileReportPath == null ? null : new ParserProfile();
 
     SymbolTable symbolTable =
         SymbolTable.builder()
@@ -116,41 +143,244 @@ public class DelphiSensor implements Sensor {
             .unitScopeNames(delphiProjectHelper.getUnitScopeNames())
             .unitAliases(delphiProjectHelper.getUnitAliases())
             .standardLibraryPath(delphiProjectHelper.standardLibraryPath())
+            .retainSourceFiles(delphiProjectHelper.shouldReuseParsedFiles())
+            .threads(delphiProjectHelper.getAnalysisThreads())
+            .fileTimeBudget(delphiProjectHelper.getFileTimeBudget())
+            .cacheDirectory(delphiProjectHelper.getCacheDirectory())
+            .computeUnitHashes(incremental)
+            .telemetry(telemetry)
+            .parserProfile(parserProfile)
             .build();
 
+    SensorContext analysisContext = sensorContext;
+    IncrementalAnalysis incrementalAnalysis = null;
+    if (incremental) {
+      incrementalAnalysis =
+          IncrementalAnalysis.load(
+              IncrementalAnalysis.stateFile(
+                  delphiProjectHelper.getCacheDirectory(), getProjectKey(sensorContext)),
+              IncrementalAnalysis.configurationHash(delphiProjectHelper, sensorContext),
+              symbolTable,
+              sourceFiles);
+      analysisContext = RecordingSensorContext.wrap(sensorContext);
+    }
+
     ProgressReport progressReport =
         new ProgressReport(
             "Report about progress of DelphiSensor analysis", TimeUnit.SECONDS.toMillis(10));
 
     progressReport.start(sourceFiles.stream().map(Path::toString).collect(Collectors.toList()));
 
-    ExecutorContext executorContext = new ExecutorContext(sensorContext, symbolTable);
+    ExecutorContext executorContext =
+        new ExecutorContext(analysisContext, symbolTable, null, telemetry);
     DelphiFileConfig config =
         DelphiFile.createConfig(
             delphiProjectHelper.encoding(),
             preprocessorFactory,
             typeFactory,
             searchPath,
-            delphiProjectHelper.getConditionalDefines());
+            delphiProjectHelper.getConditionalDefines(),
+            false,
+            telemetry,
+            parserProfile);
 
+    int threads = delphiProjectHelper.getAnalysisThreads();
     boolean success = false;
 
     try {
-      for (Path sourceFile : sourceFiles) {
-        String absolutePath = sourceFile.toAbsolutePath().toString();
-        try {
-          InputFile inputFile = delphiProjectHelper.getFile(absolutePath);
-          DelphiInputFile delphiFile = DelphiInputFile.from(inputFile, config);
-          executor.execute(executorContext, delphiFile);
+      if (threads > 1) {
+        LOG.info("Analyzing {} files with {} threads", sourceFiles.size(), threads);
+        executeInParallel(
+            threads, sourceFiles, executorContext, config, incrementalAnalysis, progressReport);
+      } else {
+        for (Path sourceFile : sourceFiles) {
+          executeOnFile(executor, executorContext, config, incrementalAnalysis, sourceFile);
           progressReport.nextFile();
-        } catch (DelphiFileConstructionException e) {
-          LOG.error("Error while analyzing {}", absolutePath, e);
         }
       }
       success = true;
     } finally {
       stopProgressReport(progressReport, success);
     }
+
+    if (incrementalAnalysis != null) {
+      LOG.info(
+          "Restored the results of {}/{} unchanged files from the previous scan",
+          incrementalAnalysis.getRestoredFiles(),
+          sourceFiles.size());
+      incrementalAnalysis.save();
+    }
+
+    if (telemetryReportPath != null) {
+      writeTelemetryReport(telemetry, telemetryReportPath);
+    }
+
+    if (parserProfile != null) {
+      writeParserProfileReport(parserProfile, parserProfileReportPath);
+    }
+  }
+
+  private static void writeParserProfileReport(ParserProfile parserProfile, Path reportPath) {
+    try {
+      parserProfile.writeReport(reportPath);
+      LOG.info("Parser profile report written to {}", reportPath);
+    } catch (UncheckedIOException e) {
+      LOG.warn("Failed to write the parser profile report to {}", reportPath, e);
+    }
+  }
+
+  private static void writeTelemetryReport(AnalysisTelemetry telemetry, Path reportPath) {
+    try {
+      telemetry.writeReport(reportPath);
+      LOG.info("Analysis telemetry report written to {}", reportPath);
+    } catch (UncheckedIOException e) {
+      LOG.warn("Failed to write the analysis telemetry report to {}", reportPath, e);
+    }
+  }
+
+  private static String getProjectKey(SensorContext sensorContext) {
+    return sensorContext
+        .config()
+        .get(CoreProperties.PROJECT_KEY_PROPERTY)
+        .orElseGet(() -> sensorContext.fileSystem().baseDir().getAbsolutePath());
+  }
+
+  private void executeInParallel(
+      int threads,
+      List<Path> sourceFiles,
+      ExecutorContext executorContext,
+      DelphiFileConfig config,
+      @Nullable IncrementalAnalysis incrementalAnalysis,
+      ProgressReport progressReport) {
+    ExecutorContext sharedContext =
+        new ExecutorContext(
+            SynchronizedSensorContext.wrap(executorContext.sensorContext()),
+            executorContext.symbolTable(),
+            null,
+            executorContext.telemetry());
+
+    Queue<Path> pendingFiles = new ConcurrentLinkedQueue<>(sourceFiles);
+    ExecutorService workerPool = Executors.newFixedThreadPool(threads, new WorkerThreadFactory());
+    List<Future<?>> workers = new ArrayList<>();
+
+    try {
+      for (int i = 0; i < threads; ++i) {
+        DelphiMasterExecutor workerExecutor = executor.fork();
+        workers.add(
+            workerPool.submit(
+                () -> {
+                  try {
+                    Path sourceFile;
+                    while ((sourceFile = pendingFiles.poll()) != null) {
+                      executeOnFile(
+                          workerExecutor, sharedContext, config, incrementalAnalysis, sourceFile);
+                      synchronized (progressReport) {
+                        progressReport.nextFile();
+                      }
+                    }
+                  } catch (RuntimeException | Error e) {
+                    // Stop the other workers from picking up any more files.
+                    pendingFiles.clear();
+                    throw e;
+                  }
+                }));
+      }
+
+      for (Future<?> worker : workers) {
+        awaitWorker(worker);
+      }
+    } finally {
+      workerPool.shutdownNow();
+    }
+  }
+
+  private static void awaitWorker(Future<?> worker) {
+    try {
+      worker.get();
+    } catch (ExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new IllegalStateException(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new FatalAnalysisError("Interrupted while waiting for analysis to complete", e);
+    }
+  }
+
+  private void executeOnFile(
+      DelphiMasterExecutor fileExecutor,
+      ExecutorContext executorContext,
+      DelphiFileConfig config,
+      @Nullable IncrementalAnalysis incrementalAnalysis,
+      Path sourceFile) {
+    String absolutePath = sourceFile.toAbsolutePath().toString();
+    TimeBudget budget = TimeBudget.start(delphiProjectHelper.getFileTimeBudget());
+    try {
+      InputFile inputFile = delphiProjectHelper.getFile(absolutePath);
+      if (incrementalAnalysis == null) {
+        DelphiInputFile delphiFile =
+            createDelphiInputFile(executorContext, config, inputFile, absolutePath);
+        fileExecutor.execute(executorContext, delphiFile);
+      } else {
+        executeIncrementally(
+            fileExecutor, executorContext, config, incrementalAnalysis, inputFile, absolutePath);
+      }
+    } catch (DelphiFileConstructionException e) {
+      LOG.error("Error while analyzing {}", absolutePath, e);
+    } finally {
+      budget.close();
+    }
+  }
+
+  private static void executeIncrementally(
+      DelphiMasterExecutor fileExecutor,
+      ExecutorContext executorContext,
+      DelphiFileConfig config,
+      IncrementalAnalysis incrementalAnalysis,
+      InputFile inputFile,
+      String absolutePath) {
+    String fingerprint = incrementalAnalysis.fingerprint(absolutePath, inputFile.type());
+
+    if (fingerprint != null) {
+      AnalysisRecording previous = incrementalAnalysis.restore(inputFile.key(), fingerprint);
+      if (previous != null) {
+        executorContext.symbolTable().takeSourceFile(absolutePath);
+        previous.replay(executorContext.sensorContext(), inputFile);
+        fileExecutor.restore(executorContext, inputFile, previous);
+        return;
+      }
+    }
+
+    AnalysisRecording recording = new AnalysisRecording();
+    ExecutorContext recordingContext =
+        new ExecutorContext(
+            executorContext.sensorContext(),
+            executorContext.symbolTable(),
+            recording,
+            executorContext.telemetry());
+    DelphiInputFile delphiFile =
+        createDelphiInputFile(executorContext, config, inputFile, absolutePath);
+
+    RecordingSensorContext.record(
+        inputFile, recording, () -> fileExecutor.execute(recordingContext, delphiFile));
+
+    // Results that were cut short by the time budget aren't kept, so the file is analyzed again.
+    TimeBudget budget = TimeBudget.current();
+    if (fingerprint != null && (budget == null || !budget.isExceeded())) {
+      incrementalAnalysis.record(inputFile.key(), fingerprint, recording);
+    }
+  }
+
+  private static DelphiInputFile createDelphiInputFile(
+      ExecutorContext executorContext,
+      DelphiFileConfig config,
+      InputFile inputFile,
+      String absolutePath) {
+    DelphiFile parsedFile = executorContext.symbolTable().takeSourceFile(absolutePath);
+    if (parsedFile == null) {
+      return DelphiInputFile.from(inputFile, config);
+    } else {
+      return DelphiInputFile.from(inputFile, parsedFile);
+    }
   }
 
   private boolean shouldExecuteOnProject() {
@@ -161,4 +391,15 @@ public class DelphiSensor implements Sensor {
   public String toString() {
     return getClass().getSimpleName();
   }
+
+  private static class WorkerThreadFactory implements ThreadFactory {
+    private final AtomicInteger threadCount = new AtomicInteger();
+
+    @Override
+    public Thread newThread(@Nonnull Runnable runnable) {
+      Thread thread = new Thread(runnable, "DelphiSensor-worker-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
 }
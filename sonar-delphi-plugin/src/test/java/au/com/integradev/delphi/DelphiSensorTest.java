@@ -36,6 +36,7 @@ import au.com.integradev.delphi.msbuild.DelphiProjectHelper;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import org.apache.commons.io.FileUtils;
 import org.junit.jupiter.api.AfterEach;
@@ -43,11 +44,14 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.sensor.SensorDescriptor;
+import org.sonar.api.batch.sensor.internal.SensorContextTester;
+import org.sonar.plugins.communitydelphi.api.FatalAnalysisError;
 
 class DelphiSensorTest {
   private final DelphiMasterExecutor executor = mock(DelphiMasterExecutor.class);
   private final DelphiProjectHelper delphiProjectHelper = mock(DelphiProjectHelper.class);
   private Path baseDir;
+  private InputFile inputFile;
 
   private DelphiSensor sensor;
 
@@ -87,7 +91,7 @@ class DelphiSensorTest {
     Path sourceFilePath = baseDir.resolve("SourceFile.pas");
     Files.writeString(sourceFilePath, "unit SourceFile;\ninterface\nimplementation\nend.");
 
-    InputFile inputFile = mock(InputFile.class);
+    inputFile = mock(InputFile.class);
     when(inputFile.uri()).thenReturn(sourceFilePath.toUri());
 
     when(delphiProjectHelper.inputFiles()).thenReturn(List.of(inputFile));
@@ -143,4 +147,75 @@ class DelphiSensorTest {
 
     verify(executor, times(1)).execute(any(), any());
   }
+
+  @Test
+  void testParallelAnalysisShouldExecuteEveryFileOnForkedExecutors() throws IOException {
+    List<InputFile> inputFiles = createSourceFiles(8);
+    DelphiMasterExecutor workerExecutor = mock(DelphiMasterExecutor.class);
+
+    when(delphiProjectHelper.inputFiles()).thenReturn(inputFiles);
+    when(delphiProjectHelper.getAnalysisThreads()).thenReturn(4);
+    when(executor.fork()).thenReturn(workerExecutor);
+
+    sensor.execute(mock());
+
+    verify(executor, times(4)).fork();
+    verify(executor, never()).execute(any(), any());
+    verify(workerExecutor, times(8)).execute(any(), any());
+  }
+
+  @Test
+  void testParallelAnalysisShouldPropagateFatalErrors() throws IOException {
+    List<InputFile> inputFiles = createSourceFiles(8);
+    DelphiMasterExecutor workerExecutor = mock(DelphiMasterExecutor.class);
+    FatalAnalysisError expectedError = new FatalAnalysisError("Test", new RuntimeException());
+
+    when(delphiProjectHelper.inputFiles()).thenReturn(inputFiles);
+    when(delphiProjectHelper.getAnalysisThreads()).thenReturn(2);
+    when(executor.fork()).thenReturn(workerExecutor);
+    willThrow(expectedError).given(workerExecutor).execute(any(), any());
+
+    assertThatThrownBy(() -> sensor.execute(mock())).isEqualTo(expectedError);
+  }
+
+  @Test
+  void testIncrementalAnalysisShouldRestoreUnchangedFiles() {
+    when(delphiProjectHelper.shouldAnalyzeIncrementally()).thenReturn(true);
+    when(delphiProjectHelper.getCacheDirectory()).thenReturn(baseDir.resolve("cache"));
+    when(inputFile.key()).thenReturn("SourceFile.pas");
+    when(inputFile.type()).thenReturn(InputFile.Type.MAIN);
+
+    SensorContextTester context = SensorContextTester.create(baseDir);
+    sensor.execute(context);
+    sensor.execute(context);
+
+    verify(executor, times(1)).execute(any(), any());
+    verify(executor, times(1)).restore(any(), any(), any());
+  }
+
+  @Test
+  void testTelemetryReportShouldBeWrittenIfConfigured() {
+    Path reportPath = baseDir.resolve("telemetry/report.json");
+    when(delphiProjectHelper.getTelemetryReportPath()).thenReturn(reportPath);
+
+    sensor.execute(mock());
+
+    assertThat(reportPath).isRegularFile();
+  }
+
+  private List<InputFile> createSourceFiles(int count) throws IOException {
+    List<InputFile> inputFiles = new ArrayList<>();
+    for (int i = 0; i < count; ++i) {
+      Path sourceFilePath = baseDir.resolve("SourceFile" + i + ".pas");
+      Files.writeString(
+          sourceFilePath, "unit SourceFile" + i + ";\ninterface\nimplementation\nend.");
+
+      InputFile inputFile = mock(InputFile.class);
+      when(inputFile.uri()).thenReturn(sourceFilePath.toUri());
+      when(delphiProjectHelper.getFile(sourceFilePath.toAbsolutePath().toString()))
+          .thenReturn(inputFile);
+      inputFiles.add(inputFile);
+    }
+    return inputFiles;
+  }
 }